@@ -16,11 +16,18 @@
 package org.seasar.dbflute;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.exception.IllegalClassificationCodeException;
@@ -166,29 +173,117 @@ public interface Entity {
     boolean hasModification();
 
     /**
-     * The modified properties of entity. (basically for Framework)
+     * The modified properties of entity. (basically for Framework) <br />
+     * If the index of properties is specified, the modified properties are held as bits
+     * indexed by the ordinal of columns (no set instance per entity).
      */
     public static class EntityModifiedProperties implements Serializable {
 
         /** Serial version UID. (Default) */
         private static final long serialVersionUID = 1L;
 
-        /** The set of property names. (NullAllowed: lazy-loaded) */
+        /** The set of property names. (NullAllowed: lazy-loaded, or extra names not in the index) */
         protected Set<String> _propertyNameSet;
 
+        /** The index of properties, which means bitset mode. (NullAllowed: if null, set mode) */
+        protected final EntityModifiedPropertyIndex _propertyIndex;
+
+        /** The bits of modified properties for the first 64 ordinals. */
+        protected long _bits;
+
+        /** The bits of modified properties over 64 ordinals. (NullAllowed: lazy-loaded) */
+        protected long[] _overBits;
+
+        /** The set view of property names for bitset mode. (NullAllowed: lazy-loaded) */
+        protected transient EntityModifiedPropertyNameSet _propertyNameView;
+
+        /**
+         * Constructor for set mode. (compatible)
+         */
+        public EntityModifiedProperties() {
+            _propertyIndex = null;
+        }
+
+        /**
+         * Constructor for bitset mode.
+         * @param propertyIndex The index of properties ordered as columns. (NullAllowed: if null, set mode)
+         */
+        public EntityModifiedProperties(EntityModifiedPropertyIndex propertyIndex) {
+            _propertyIndex = propertyIndex;
+        }
+
         /**
          * Add property name. (according to Java Beans rule)
          * @param propertyName The string for name. (NotNull)
          */
         public void addPropertyName(String propertyName) {
+            if (_propertyIndex != null) {
+                final int ordinal = _propertyIndex.findOrdinal(propertyName);
+                if (ordinal >= 0) {
+                    addPropertyOrdinal(ordinal);
+                    return;
+                }
+            }
             getPropertyNameSet().add(propertyName);
         }
 
         /**
-         * Get the set of properties.
+         * Add the property by the ordinal of column. (for bitset mode)
+         * @param ordinal The ordinal of column in the index. (NotMinus)
+         */
+        public void addPropertyOrdinal(int ordinal) {
+            assertBitsetMode();
+            if (ordinal < 64) {
+                _bits |= (1L << ordinal);
+            } else {
+                final int arrayIndex = (ordinal >> 6) - 1;
+                if (_overBits == null) {
+                    _overBits = new long[((_propertyIndex.size() + 63) >> 6) - 1];
+                }
+                _overBits[arrayIndex] |= (1L << (ordinal & 63));
+            }
+        }
+
+        /**
+         * Is the property modified? (for bitset mode)
+         * @param ordinal The ordinal of column in the index. (NotMinus)
+         * @return The determination, true or false.
+         */
+        public boolean isModifiedOrdinal(int ordinal) {
+            assertBitsetMode();
+            if (ordinal < 64) {
+                return (_bits & (1L << ordinal)) != 0;
+            }
+            return _overBits != null && (_overBits[(ordinal >> 6) - 1] & (1L << (ordinal & 63))) != 0;
+        }
+
+        protected void removePropertyOrdinal(int ordinal) {
+            if (ordinal < 64) {
+                _bits &= ~(1L << ordinal);
+            } else if (_overBits != null) {
+                _overBits[(ordinal >> 6) - 1] &= ~(1L << (ordinal & 63));
+            }
+        }
+
+        protected void assertBitsetMode() {
+            if (_propertyIndex == null) {
+                String msg = "The modified properties is not bitset mode so it needs property names.";
+                throw new IllegalStateException(msg);
+            }
+        }
+
+        /**
+         * Get the set of properties. <br />
+         * In bitset mode, it returns the live view ordered as columns.
          * @return The set of properties. (NotNull)
          */
         public Set<String> getPropertyNames() {
+            if (_propertyIndex != null) {
+                if (_propertyNameView == null) {
+                    _propertyNameView = new EntityModifiedPropertyNameSet(this);
+                }
+                return _propertyNameView;
+            }
             return getPropertyNameSet();
         }
 
@@ -197,14 +292,34 @@ public interface Entity {
          * @return The determination, true or false.
          */
         public boolean isEmpty() {
-            return getPropertyNameSet().isEmpty();
+            return !hasBits() && (_propertyNameSet == null || _propertyNameSet.isEmpty());
+        }
+
+        protected boolean hasBits() {
+            if (_bits != 0) {
+                return true;
+            }
+            if (_overBits != null) {
+                for (long bits : _overBits) {
+                    if (bits != 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
         /**
          * Clear the set of properties.
          */
         public void clear() {
-            getPropertyNameSet().clear();
+            _bits = 0;
+            if (_overBits != null) {
+                Arrays.fill(_overBits, 0);
+            }
+            if (_propertyNameSet != null) {
+                _propertyNameSet.clear();
+            }
         }
 
         /**
@@ -212,7 +327,16 @@ public interface Entity {
          * @param propertyName The string for name. (NotNull)
          */
         public void remove(String propertyName) {
-            getPropertyNameSet().remove(propertyName);
+            if (_propertyIndex != null) {
+                final int ordinal = _propertyIndex.findOrdinal(propertyName);
+                if (ordinal >= 0) {
+                    removePropertyOrdinal(ordinal);
+                    return;
+                }
+            }
+            if (_propertyNameSet != null) {
+                _propertyNameSet.remove(propertyName);
+            }
         }
 
         /**
@@ -221,6 +345,16 @@ public interface Entity {
          */
         public void accept(EntityModifiedProperties properties) {
             clear();
+            if (_propertyIndex != null && _propertyIndex == properties._propertyIndex) { // same entity type
+                _bits = properties._bits;
+                if (properties._overBits != null) {
+                    _overBits = properties._overBits.clone();
+                }
+                if (properties._propertyNameSet != null && !properties._propertyNameSet.isEmpty()) {
+                    getPropertyNameSet().addAll(properties._propertyNameSet);
+                }
+                return;
+            }
             for (String propertyName : properties.getPropertyNames()) {
                 addPropertyName(propertyName);
             }
@@ -232,6 +366,241 @@ public interface Entity {
             }
             return _propertyNameSet;
         }
+
+        public EntityModifiedPropertyIndex getPropertyIndex() {
+            return _propertyIndex;
+        }
+    }
+
+    /**
+     * The index of modified properties, which maps property names to the ordinals of columns. <br />
+     * It is immutable and shared by all instances of the entity type. (basically for Framework) <br />
+     * The deserialized index is resolved to the shared instance, so deserialized entities do not
+     * have their own index and they are the same entity type as other entities.
+     */
+    public static class EntityModifiedPropertyIndex implements Serializable {
+
+        /** Serial version UID. (Default) */
+        private static final long serialVersionUID = 1L;
+
+        /** The map of shared index, key is the list of property names. (NotNull) */
+        protected static final ConcurrentMap<List<String>, EntityModifiedPropertyIndex> _sharedIndexMap = new ConcurrentHashMap<List<String>, EntityModifiedPropertyIndex>();
+
+        /** The array of property names ordered as columns. (NotNull) */
+        protected final String[] _propertyNames;
+
+        /** The map of ordinal, key is property name. (NotNull) */
+        protected final Map<String, Integer> _ordinalMap;
+
+        /**
+         * @param propertyNames The array of property names ordered as columns of DB meta. (NotNull)
+         */
+        public EntityModifiedPropertyIndex(String[] propertyNames) {
+            _propertyNames = propertyNames;
+            _ordinalMap = new HashMap<String, Integer>(propertyNames.length * 2);
+            for (int i = 0; i < propertyNames.length; i++) {
+                _ordinalMap.put(propertyNames[i], i);
+            }
+        }
+
+        /**
+         * Get the index shared by the property names. (e.g. static index of generated entity)
+         * @param propertyNames The array of property names ordered as columns of DB meta. (NotNull)
+         * @return The shared index for the property names. (NotNull)
+         */
+        public static EntityModifiedPropertyIndex shareIndex(String[] propertyNames) {
+            final List<String> key = Arrays.asList(propertyNames);
+            final EntityModifiedPropertyIndex existing = _sharedIndexMap.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            return resolveSharedIndex(key, new EntityModifiedPropertyIndex(propertyNames));
+        }
+
+        protected static EntityModifiedPropertyIndex resolveSharedIndex(List<String> key,
+                EntityModifiedPropertyIndex index) {
+            final EntityModifiedPropertyIndex existing = _sharedIndexMap.putIfAbsent(key, index);
+            return existing != null ? existing : index;
+        }
+
+        /**
+         * Resolve the deserialized index to the shared instance.
+         * @return The shared index for the property names. (NotNull)
+         */
+        protected Object readResolve() {
+            return resolveSharedIndex(Arrays.asList(_propertyNames), this);
+        }
+
+        /**
+         * @param propertyName The name of property. (NullAllowed: returns minus)
+         * @return The ordinal of the property. (minus: not found)
+         */
+        public int findOrdinal(String propertyName) {
+            final Integer ordinal = _ordinalMap.get(propertyName);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        /**
+         * @param ordinal The ordinal of property. (NotMinus, LessThanSize)
+         * @return The name of property. (NotNull)
+         */
+        public String getPropertyName(int ordinal) {
+            return _propertyNames[ordinal];
+        }
+
+        public int size() {
+            return _propertyNames.length;
+        }
+    }
+
+    /**
+     * The live set view of modified properties in bitset mode, ordered as columns. (basically for Framework)
+     */
+    public static class EntityModifiedPropertyNameSet extends AbstractSet<String> {
+
+        /** The modified properties backing this view. (NotNull) */
+        protected final EntityModifiedProperties _properties;
+
+        public EntityModifiedPropertyNameSet(EntityModifiedProperties properties) {
+            _properties = properties;
+        }
+
+        /**
+         * Is the property modified? (without property name lookup)
+         * @param ordinal The ordinal of column in the index. (NotMinus)
+         * @return The determination, true or false.
+         */
+        public boolean containsOrdinal(int ordinal) {
+            return _properties.isModifiedOrdinal(ordinal);
+        }
+
+        public EntityModifiedPropertyIndex getPropertyIndex() {
+            return _properties.getPropertyIndex();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof String)) {
+                return false;
+            }
+            final int ordinal = getPropertyIndex().findOrdinal((String) o);
+            if (ordinal >= 0) {
+                return _properties.isModifiedOrdinal(ordinal);
+            }
+            final Set<String> extraSet = _properties._propertyNameSet;
+            return extraSet != null && extraSet.contains(o);
+        }
+
+        @Override
+        public boolean add(String propertyName) {
+            if (contains(propertyName)) {
+                return false;
+            }
+            _properties.addPropertyName(propertyName);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            _properties.remove((String) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            _properties.clear();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return _properties.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            int size = Long.bitCount(_properties._bits);
+            final long[] overBits = _properties._overBits;
+            if (overBits != null) {
+                for (long bits : overBits) {
+                    size += Long.bitCount(bits);
+                }
+            }
+            final Set<String> extraSet = _properties._propertyNameSet;
+            return extraSet != null ? size + extraSet.size() : size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof EntityModifiedPropertyNameSet) {
+                final EntityModifiedProperties other = ((EntityModifiedPropertyNameSet) obj)._properties;
+                if (other._propertyIndex == _properties._propertyIndex && isExtraEmpty(_properties)
+                        && isExtraEmpty(other)) { // same entity type
+                    return other._bits == _properties._bits && isSameOverBits(other._overBits, _properties._overBits);
+                }
+            }
+            return super.equals(obj);
+        }
+
+        protected boolean isExtraEmpty(EntityModifiedProperties properties) {
+            return properties._propertyNameSet == null || properties._propertyNameSet.isEmpty();
+        }
+
+        protected boolean isSameOverBits(long[] left, long[] right) {
+            final int length = Math.max(left != null ? left.length : 0, right != null ? right.length : 0);
+            for (int i = 0; i < length; i++) {
+                final long leftBits = left != null && i < left.length ? left[i] : 0;
+                final long rightBits = right != null && i < right.length ? right[i] : 0;
+                if (leftBits != rightBits) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode(); // same as other sets
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            final List<String> nameList = new ArrayList<String>(size());
+            final EntityModifiedPropertyIndex index = getPropertyIndex();
+            final int indexSize = index.size();
+            for (int i = 0; i < indexSize; i++) {
+                if (_properties.isModifiedOrdinal(i)) {
+                    nameList.add(index.getPropertyName(i));
+                }
+            }
+            final Set<String> extraSet = _properties._propertyNameSet;
+            if (extraSet != null) {
+                nameList.addAll(extraSet);
+            }
+            final Iterator<String> snapshotIte = nameList.iterator();
+            return new Iterator<String>() {
+                protected String _current;
+
+                public boolean hasNext() {
+                    return snapshotIte.hasNext();
+                }
+
+                public String next() {
+                    _current = snapshotIte.next();
+                    return _current;
+                }
+
+                public void remove() {
+                    if (_current == null) {
+                        throw new IllegalStateException("next() has not been called.");
+                    }
+                    _properties.remove(_current);
+                    _current = null;
+                }
+            };
+        }
     }
 
     // ===================================================================================
@@ -40,6 +40,8 @@ import org.seasar.dbflute.bhv.core.command.SelectListCBCommand;
 import org.seasar.dbflute.bhv.core.command.SelectNextValCommand;
 import org.seasar.dbflute.bhv.core.command.SelectNextValSubCommand;
 import org.seasar.dbflute.bhv.core.command.SelectScalarCBCommand;
+import org.seasar.dbflute.bhv.core.supplement.LoadReferrerChunkExecutor;
+import org.seasar.dbflute.bhv.core.supplement.LoadReferrerChunkExecutor.ChunkSelector;
 import org.seasar.dbflute.cbean.AndQuery;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.cbean.EntityRowHandler;
@@ -368,6 +370,10 @@ public abstract class AbstractBehaviorReadable implements BehaviorReadable {
             EntityRowHandler<ENTITY> entityRowHandler, Class<ENTITY> entityType, CursorSelectOption option) {
         helpSelectCursorCheckingByPagingAllowed(cb, option);
         helpSelectCursorCheckingOrderByPK(cb, option);
+        if (option.isKeyset()) {
+            helpSelectCursorHandlingByKeysetPaging(cb, entityRowHandler, entityType, option);
+            return;
+        }
         final int pageSize = option.getPageSize();
         int pageNumber = 1;
         while (true) {
@@ -383,6 +389,29 @@ public abstract class AbstractBehaviorReadable implements BehaviorReadable {
         }
     }
 
+    protected <ENTITY extends Entity, CB extends ConditionBean> void helpSelectCursorHandlingByKeysetPaging(CB cb,
+            EntityRowHandler<ENTITY> entityRowHandler, Class<ENTITY> entityType, CursorSelectOption option) {
+        final int pageSize = option.getPageSize();
+        int pageNumber = 1;
+        ENTITY lastEntity = null;
+        try {
+            while (true) {
+                cb.pagingByKeyset(pageSize, pageNumber, lastEntity); // always first offset
+                List<ENTITY> pageList = delegateSelectList(cb, entityType);
+                for (ENTITY entity : pageList) {
+                    entityRowHandler.handle(entity);
+                }
+                if (pageList.size() < pageSize) { // means last page
+                    break;
+                }
+                lastEntity = pageList.get(pageList.size() - 1);
+                ++pageNumber;
+            }
+        } finally {
+            cb.getSqlClause().clearKeysetPaging();
+        }
+    }
+
     protected <CB extends ConditionBean> void helpSelectCursorCheckingByPagingAllowed(CB cb, CursorSelectOption option) {
         if (!cb.getSqlClause().isCursorSelectByPagingAllowed()) {
             String msg = "The cursor select by paging is not allowed at the DBMS.";
@@ -756,47 +785,21 @@ public abstract class AbstractBehaviorReadable implements BehaviorReadable {
             pkLocalEntityMap.put(toLoadReferrerMappingKey(primaryKeyValue), localEntity);
         }
 
-        // - - - - - - - - - - - - - - - -
-        // Prepare referrer condition bean
-        // - - - - - - - - - - - - - - - -
-        final REFERRER_CB cb;
-        if (loadReferrerOption.getReferrerConditionBean() != null) {
-            cb = loadReferrerOption.getReferrerConditionBean();
-        } else {
-            cb = callback.newMyCB();
-        }
-
         // - - - - - - - - - - - - - -
         // Select the list of referrer
         // - - - - - - - - - - - - - -
-        callback.qyFKIn(cb, pkList);
-        final String referrerPropertyName = callback.getRfPrNm();
-        final String fixedCondition = xbuildReferrerCorrelatedFixedCondition(cb, referrerPropertyName);
-        final String basePointAliasName = cb.getSqlClause().getBasePointAliasName();
-        final boolean hasFixedCondition = fixedCondition != null && fixedCondition.trim().length() > 0;
-        if (hasFixedCondition) {
-            cb.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
-        }
-        cb.xregisterUnionQuerySynchronizer(new UnionQuery<ConditionBean>() {
-            public void query(ConditionBean unionCB) {
-                @SuppressWarnings("unchecked")
-                REFERRER_CB referrerUnionCB = (REFERRER_CB) unionCB;
-                // for when application uses union query in condition-bean set-upper.
-                callback.qyFKIn(referrerUnionCB, pkList);
-                if (hasFixedCondition) {
-                    referrerUnionCB.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
-                }
+        final List<REFERRER_ENTITY> referrerList;
+        if (xisLoadReferrerByChunk(loadReferrerOption, pkList)) {
+            referrerList = xselectReferrerListByChunk(loadReferrerOption, callback, pkList);
+        } else {
+            final REFERRER_CB cb;
+            if (loadReferrerOption.getReferrerConditionBean() != null) {
+                cb = loadReferrerOption.getReferrerConditionBean();
+            } else {
+                cb = callback.newMyCB();
             }
-        });
-        if (pkList.size() > 1) {
-            callback.qyOdFKAsc(cb);
-            cb.getOrderByComponent().exchangeFirstOrderByElementForLastOne();
+            referrerList = xselectReferrerList(cb, loadReferrerOption, callback, pkList);
         }
-        loadReferrerOption.delegateConditionBeanSettingUp(cb);
-        if (cb.getSqlClause().hasSpecifiedSelectColumn(basePointAliasName)) {
-            callback.spFKCol(cb); // specify required columns for relation
-        }
-        final List<REFERRER_ENTITY> referrerList = callback.selRfLs(cb);
         loadReferrerOption.delegateEntitySettingUp(referrerList);
 
         // - - - - - - - - - - - - - - - - - - - - - - - -
@@ -845,6 +848,79 @@ public abstract class AbstractBehaviorReadable implements BehaviorReadable {
         };
     }
 
+    protected <LOCAL_ENTITY extends Entity, KEY, REFERRER_CB extends ConditionBean, REFERRER_ENTITY extends Entity> // generic
+    List<REFERRER_ENTITY> xselectReferrerList(REFERRER_CB cb,
+            LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> loadReferrerOption,
+            final InternalLoadReferrerCallback<LOCAL_ENTITY, KEY, REFERRER_CB, REFERRER_ENTITY> callback,
+            final List<KEY> pkList) {
+        callback.qyFKIn(cb, pkList);
+        final String referrerPropertyName = callback.getRfPrNm();
+        final String fixedCondition = xbuildReferrerCorrelatedFixedCondition(cb, referrerPropertyName);
+        final String basePointAliasName = cb.getSqlClause().getBasePointAliasName();
+        final boolean hasFixedCondition = fixedCondition != null && fixedCondition.trim().length() > 0;
+        if (hasFixedCondition) {
+            cb.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
+        }
+        cb.xregisterUnionQuerySynchronizer(new UnionQuery<ConditionBean>() {
+            public void query(ConditionBean unionCB) {
+                @SuppressWarnings("unchecked")
+                REFERRER_CB referrerUnionCB = (REFERRER_CB) unionCB;
+                // for when application uses union query in condition-bean set-upper.
+                callback.qyFKIn(referrerUnionCB, pkList);
+                if (hasFixedCondition) {
+                    referrerUnionCB.getSqlClause().registerWhereClause(fixedCondition, basePointAliasName);
+                }
+            }
+        });
+        if (pkList.size() > 1) {
+            callback.qyOdFKAsc(cb);
+            cb.getOrderByComponent().exchangeFirstOrderByElementForLastOne();
+        }
+        loadReferrerOption.delegateConditionBeanSettingUp(cb);
+        if (cb.getSqlClause().hasSpecifiedSelectColumn(basePointAliasName)) {
+            callback.spFKCol(cb); // specify required columns for relation
+        }
+        return callback.selRfLs(cb);
+    }
+
+    protected <KEY> boolean xisLoadReferrerByChunk(LoadReferrerOption<?, ?> loadReferrerOption, List<KEY> pkList) {
+        if (!loadReferrerOption.isSplitByChunk()) {
+            return false;
+        }
+        if (loadReferrerOption.getReferrerConditionBean() != null) {
+            return false; // the instance cannot be shared by chunks
+        }
+        return pkList.size() > loadReferrerOption.getChunkSize();
+    }
+
+    protected <LOCAL_ENTITY extends Entity, KEY, REFERRER_CB extends ConditionBean, REFERRER_ENTITY extends Entity> // generic
+    List<REFERRER_ENTITY> xselectReferrerListByChunk(
+            final LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> loadReferrerOption,
+            final InternalLoadReferrerCallback<LOCAL_ENTITY, KEY, REFERRER_CB, REFERRER_ENTITY> callback,
+            List<KEY> pkList) {
+        final int chunkSize = loadReferrerOption.getChunkSize();
+        final List<List<KEY>> chunkList = new ArrayList<List<KEY>>((pkList.size() + chunkSize - 1) / chunkSize);
+        for (int i = 0; i < pkList.size(); i = i + chunkSize) {
+            chunkList.add(pkList.subList(i, Math.min(i + chunkSize, pkList.size())));
+        }
+        final int parallelism = loadReferrerOption.isParallelChunk() ? loadReferrerOption.getChunkThreadPoolSize() : 1;
+        final LoadReferrerChunkExecutor executor = xcreateLoadReferrerChunkExecutor();
+        return executor.execute(chunkList, parallelism, new ChunkSelector<KEY, REFERRER_ENTITY>() {
+            public List<REFERRER_ENTITY> select(List<KEY> chunk) {
+                return xselectReferrerList(callback.newMyCB(), loadReferrerOption, callback, chunk);
+            }
+        });
+    }
+
+    /**
+     * Create the executor of load-referrer chunks. <br />
+     * It uses the executor service shared by all behaviors as default, override this to inject your executor.
+     * @return The new-created executor of chunks. (NotNull)
+     */
+    protected LoadReferrerChunkExecutor xcreateLoadReferrerChunkExecutor() {
+        return new LoadReferrerChunkExecutor();
+    }
+
     protected String xbuildReferrerCorrelatedFixedCondition(ConditionBean cb, String referrerPropertyName) {
         if (referrerPropertyName == null) {
             return null;
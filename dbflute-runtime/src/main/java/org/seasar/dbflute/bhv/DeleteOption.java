@@ -33,6 +33,7 @@ public class DeleteOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _nonQueryDeleteAllowed;
     protected boolean _queryDeleteForcedDirectAllowed;
     protected Integer _batchLoggingDeleteLimit;
+    protected Integer _batchDeleteChunkSize;
     protected StatementConfig _deleteStatementConfig;
 
     // ===================================================================================
@@ -91,6 +92,24 @@ public class DeleteOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchLoggingDeleteLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Split batch-delete execution into chunks by the size. <br />
+     * For example, if you set 1000, executeBatch() of JDBC is called per 1000 records
+     * so the driver does not buffer all parameters of the batch at once. <br />
+     * The chunks are executed in the same transaction (not intermediate commit).
+     * @param batchDeleteChunkSize The chunk size of batch-delete. (NullAllowed: if null, zero and minus, means no chunk)
+     */
+    public void chunkBatchDelete(Integer batchDeleteChunkSize) {
+        _batchDeleteChunkSize = batchDeleteChunkSize;
+    }
+
+    public Integer getBatchDeleteChunkSize() {
+        return _batchDeleteChunkSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
@@ -118,6 +137,12 @@ public class DeleteOption<CB extends ConditionBean> implements WritableOption<CB
             }
             sb.append("NonQueryDeleteAllowed");
         }
+        if (_batchDeleteChunkSize != null) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append("batchChunk(" + _batchDeleteChunkSize + ")");
+        }
         if (sb.length() == 0) {
             sb.append("default");
         }
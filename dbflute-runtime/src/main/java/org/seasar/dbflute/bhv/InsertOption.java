@@ -60,6 +60,8 @@ public class InsertOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _disableCommonColumnAutoSetup;
     protected boolean _disablePrimaryKeyIdentity;
     protected Integer _batchInsertLoggingLimit;
+    protected Integer _batchInsertChunkSize;
+    protected Integer _multipleRowBatchInsertSize;
     protected StatementConfig _insertStatementConfig;
 
     // ===================================================================================
@@ -414,6 +416,54 @@ public class InsertOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchInsertLoggingLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Split batch-insert execution into chunks by the size. <br />
+     * For example, if you set 1000, executeBatch() of JDBC is called per 1000 records
+     * so the driver does not buffer all parameters of the batch at once. <br />
+     * The chunks are executed in the same transaction (not intermediate commit).
+     * @param batchInsertChunkSize The chunk size of batch-insert. (NullAllowed: if null, zero and minus, means no chunk)
+     */
+    public void chunkBatchInsert(Integer batchInsertChunkSize) {
+        _batchInsertChunkSize = batchInsertChunkSize;
+    }
+
+    public Integer getBatchInsertChunkSize() {
+        return _batchInsertChunkSize;
+    }
+
+    // ===================================================================================
+    //                                                                 Multiple-row Insert
+    //                                                                 ===================
+    /**
+     * Use multiple-row insert statement for batch-insert if the DBMS supports it. <br />
+     * The entities are grouped by the size into one statement, e.g. insert into MEMBER (...) values (...), (...) <br />
+     * The rest of the entities (less than the size) are inserted by normal batch-insert. <br />
+     * This is available on MySQL, PostgreSQL, H2 and SQLServer (see DBWay), and ignored on others.
+     * The size is reduced automatically not to have too many bind parameters or rows (max 1000) in one statement.
+     * <pre>
+     * InsertOption&lt;MemberCB&gt; option = new InsertOption&lt;MemberCB&gt;();
+     * option.<span style="color: #DD4747">useMultipleRowBatchInsert</span>(100);
+     * memberBhv.varyingBatchInsert(memberList, option);
+     * </pre>
+     * @param rowSize The size of rows in one statement. (NotMinus, NotZero)
+     * @return The option of insert. (NotNull: returns this)
+     */
+    public InsertOption<CB> useMultipleRowBatchInsert(int rowSize) {
+        if (rowSize <= 0) {
+            String msg = "The argument 'rowSize' should be positive: " + rowSize;
+            throw new IllegalArgumentException(msg);
+        }
+        _multipleRowBatchInsertSize = rowSize;
+        return this;
+    }
+
+    public Integer getMultipleRowBatchInsertSize() {
+        return _multipleRowBatchInsertSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
@@ -444,6 +494,12 @@ public class InsertOption<CB extends ConditionBean> implements WritableOption<CB
             }
             sb.append("PKIdentityDisabled");
         }
+        if (_batchInsertChunkSize != null) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append("batchChunk(" + _batchInsertChunkSize + ")");
+        }
         if (sb.length() == 0) {
             sb.append("default");
         }
@@ -36,6 +36,8 @@ public class LoadReferrerOption<REFERRER_CB extends ConditionBean, REFERRER_ENTI
     protected ConditionBeanSetupper<REFERRER_CB> _conditionBeanSetupper;
     protected EntityListSetupper<REFERRER_ENTITY> _entityListSetupper;
     protected REFERRER_CB _referrerConditionBean;
+    protected int _chunkSize; // zero means no chunk (all keys in one query)
+    protected int _chunkThreadPoolSize; // zero or one means sequential chunks
 
     // ===================================================================================
     //                                                                         Constructor
@@ -103,6 +105,57 @@ public class LoadReferrerOption<REFERRER_CB extends ConditionBean, REFERRER_ENTI
         }
     }
 
+    // ===================================================================================
+    //                                                                       Chunk Loading
+    //                                                                       =============
+    /**
+     * Split the keys of local entities into chunks, and select referrers per chunk as separate queries. <br />
+     * This is for many local entities (e.g. 20000 members) that makes a giant IN-scope condition.
+     * The referrer list of each local entity is the same as one query, and the whole referrer list
+     * (for nested referrer) is merged in order of chunks. <br />
+     * It is not used if the referrer condition-bean is specified directly.
+     * <pre>
+     * LoadReferrerOption&lt;PurchaseCB, Purchase&gt; option = new LoadReferrerOption&lt;PurchaseCB, Purchase&gt;();
+     * option.<span style="color: #DD4747">splitByChunk</span>(1000); <span style="color: #3F7E5E">// select per 1000 members</span>
+     * </pre>
+     * @param chunkSize The count of keys in one query. (NotMinus, NotZero)
+     * @return this. (NotNull)
+     */
+    public LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> splitByChunk(int chunkSize) {
+        if (chunkSize <= 0) {
+            String msg = "The argument 'chunkSize' should be positive: " + chunkSize;
+            throw new IllegalArgumentException(msg);
+        }
+        _chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Select the chunks in parallel on the thread pool shared by behaviors, needs {@link #splitByChunk(int)}. <br />
+     * Each chunk is selected on a pool thread so it uses a separate connection
+     * (out of the current transaction), and the condition-bean set-upper is called on the threads.
+     * Use this only for read-only loading: the changes not committed in the current transaction are not visible. <br />
+     * The callback context (e.g. SqlLogHandler) of the current thread is inherited so it should be thread-safe.
+     * @param threadPoolSize The max count of pool threads used for the chunks. (NotMinus, NotZero)
+     * @return this. (NotNull)
+     */
+    public LoadReferrerOption<REFERRER_CB, REFERRER_ENTITY> parallelChunk(int threadPoolSize) {
+        if (threadPoolSize <= 0) {
+            String msg = "The argument 'threadPoolSize' should be positive: " + threadPoolSize;
+            throw new IllegalArgumentException(msg);
+        }
+        _chunkThreadPoolSize = threadPoolSize;
+        return this;
+    }
+
+    public boolean isSplitByChunk() {
+        return _chunkSize > 0;
+    }
+
+    public boolean isParallelChunk() {
+        return _chunkThreadPoolSize > 1;
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
@@ -191,4 +244,12 @@ public class LoadReferrerOption<REFERRER_CB extends ConditionBean, REFERRER_ENTI
     public void setReferrerConditionBean(REFERRER_CB referrerConditionBean) {
         this._referrerConditionBean = referrerConditionBean;
     }
+
+    public int getChunkSize() {
+        return _chunkSize;
+    }
+
+    public int getChunkThreadPoolSize() {
+        return _chunkThreadPoolSize;
+    }
 }
@@ -68,6 +68,7 @@ public class UpdateOption<CB extends ConditionBean> implements WritableOption<CB
     protected boolean _nonQueryUpdateAllowed;
     protected boolean _queryUpdateForcedDirectAllowed;
     protected Integer _batchLoggingUpdateLimit;
+    protected Integer _batchUpdateChunkSize;
     protected StatementConfig _updateStatementConfig;
 
     // ===================================================================================
@@ -624,6 +625,24 @@ public class UpdateOption<CB extends ConditionBean> implements WritableOption<CB
         return _batchLoggingUpdateLimit;
     }
 
+    // ===================================================================================
+    //                                                                         Batch Chunk
+    //                                                                         ===========
+    /**
+     * Split batch-update execution into chunks by the size. <br />
+     * For example, if you set 1000, executeBatch() of JDBC is called per 1000 records
+     * so the driver does not buffer all parameters of the batch at once. <br />
+     * The chunks are executed in the same transaction (not intermediate commit).
+     * @param batchUpdateChunkSize The chunk size of batch-update. (NullAllowed: if null, zero and minus, means no chunk)
+     */
+    public void chunkBatchUpdate(Integer batchUpdateChunkSize) {
+        _batchUpdateChunkSize = batchUpdateChunkSize;
+    }
+
+    public Integer getBatchUpdateChunkSize() {
+        return _batchUpdateChunkSize;
+    }
+
     // ===================================================================================
     //                                                                           Configure
     //                                                                           =========
@@ -672,6 +691,12 @@ public class UpdateOption<CB extends ConditionBean> implements WritableOption<CB
             }
             sb.append("batchLogging(" + _batchLoggingUpdateLimit + ")");
         }
+        if (_batchUpdateChunkSize != null) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append("batchChunk(" + _batchUpdateChunkSize + ")");
+        }
         if (sb.length() == 0) {
             sb.append("default");
         }
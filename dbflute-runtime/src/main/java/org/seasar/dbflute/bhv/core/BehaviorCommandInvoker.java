@@ -16,16 +16,28 @@
 package org.seasar.dbflute.bhv.core;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.seasar.dbflute.CallbackContext;
 import org.seasar.dbflute.DBDef;
 import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.XLog;
 import org.seasar.dbflute.bhv.core.InvokerAssistant.DisposableProcess;
+import org.seasar.dbflute.bhv.core.supplement.BehaviorCommandMetrics;
+import org.seasar.dbflute.bhv.core.supplement.CommandMetricsEntry;
 import org.seasar.dbflute.bhv.core.supplement.SequenceCacheHandler;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeCallSiteCache;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeCallSiteCache.CallSiteKey;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeCallSiteCache.CallSiteResult;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeNameExtractor;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeNameResult;
 import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokePathBuilder;
@@ -37,6 +49,7 @@ import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.exception.SQLFailureException;
 import org.seasar.dbflute.exception.handler.SQLExceptionResource;
 import org.seasar.dbflute.exception.thrower.BehaviorExceptionThrower;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 import org.seasar.dbflute.jdbc.ExecutionTimeInfo;
 import org.seasar.dbflute.jdbc.SQLExceptionDigger;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
@@ -64,6 +77,7 @@ import org.seasar.dbflute.util.Srl;
  *   o getExecutionCacheSize();
  *   o injectComponentProperty(BehaviorCommandComponentSetup behaviorCommand);
  *   o invoke(BehaviorCommand behaviorCommand);
+ *   o warmUpSqlExecution(List commandList, int threadPoolSize);
  *   o createOutsideSqlBasicExecutor(String tableDbName);
  *   o createBehaviorExceptionThrower();
  *   o getSequenceCacheHandler();
@@ -83,11 +97,23 @@ public class BehaviorCommandInvoker {
     // -----------------------------------------------------
     //                                       Execution Cache
     //                                       ---------------
-    /** The map of SQL execution. (dispose target, synchronized manually as transaction) */
+    /** The map of SQL execution. (dispose target, only initialized executions) */
     protected final Map<String, SqlExecution> _executionMap = newConcurrentHashMap();
 
-    /** The lock object to synchronize the execution map for transaction. (NotNull) */
-    protected final Object _executionCacheLock = new Object();
+    /** The map of SQL execution in initialization, to create same key only once without global lock. (NotNull) */
+    protected final ConcurrentHashMap<String, FutureTask<SqlExecution>> _executionFutureMap = newConcurrentHashMap();
+
+    // -----------------------------------------------------
+    //                                     Invoke Call Site
+    //                                     ----------------
+    /** The cache of invocation results per call site, for logging and invoke path. (dispose target) */
+    protected final BehaviorInvokeCallSiteCache _invokeCallSiteCache = new BehaviorInvokeCallSiteCache();
+
+    // -----------------------------------------------------
+    //                                      Command Metrics
+    //                                      ---------------
+    /** The metrics of behavior commands, disabled as default. (NotNull) */
+    protected final BehaviorCommandMetrics _commandMetrics = new BehaviorCommandMetrics();
 
     // -----------------------------------------------------
     //                                    Disposable Process
@@ -95,6 +121,7 @@ public class BehaviorCommandInvoker {
     protected final DisposableProcess _disposableProcess = new DisposableProcess() {
         public void dispose() {
             clearExecutionCache();
+            clearInvokeCallSiteCache();
         }
     };
 
@@ -109,9 +136,8 @@ public class BehaviorCommandInvoker {
     //                                                                     ===============
     public void clearExecutionCache() {
         // basically should be called only for special case (e.g. HotDeploy)
-        synchronized (_executionCacheLock) {
-            _executionMap.clear();
-        }
+        _executionMap.clear();
+        _executionFutureMap.clear();
     }
 
     public boolean isExecutionCacheEmpty() {
@@ -122,6 +148,11 @@ public class BehaviorCommandInvoker {
         return _executionMap.size();
     }
 
+    public void clearInvokeCallSiteCache() {
+        // also for HotDeploy because line numbers of call sites may be changed
+        _invokeCallSiteCache.clear();
+    }
+
     // ===================================================================================
     //                                                                      Command Set up
     //                                                                      ==============
@@ -220,6 +251,7 @@ public class BehaviorCommandInvoker {
             initializeSqlExecution(behaviorCommand);
             return null; // The end! (Initialize Only)
         }
+        final CommandMetricsEntry metricsEntry = prepareCommandMetricsEntry(behaviorCommand);
         behaviorCommand.beforeGettingSqlExecution();
         SqlExecution execution = findSqlExecution(behaviorCommand);
 
@@ -229,6 +261,7 @@ public class BehaviorCommandInvoker {
         final SqlResultHandler sqlResultHander = getSqlResultHander();
         final boolean hasSqlResultHandler = sqlResultHander != null;
         final long before = deriveCommandBeforeAfterTimeIfNeeds(logEnabled, hasSqlResultHandler);
+        final long metricsBefore = metricsEntry != null ? systemNanoTime() : 0L;
         Long after = null;
         Object ret = null;
         RuntimeException cause = null;
@@ -254,6 +287,9 @@ public class BehaviorCommandInvoker {
             }
         } finally {
             behaviorCommand.afterExecuting();
+            if (metricsEntry != null) {
+                recordCommandMetrics(metricsEntry, metricsBefore, ret, cause);
+            }
 
             // - - - - - - - - - - - -
             // Call the handler back!
@@ -283,6 +319,10 @@ public class BehaviorCommandInvoker {
         return DBFluteSystem.currentTimeMillis(); // for calculating performance
     }
 
+    protected long systemNanoTime() {
+        return System.nanoTime(); // for metrics, monotonic
+    }
+
     protected Object convertReturnValueIfNeeds(Object ret, Class<?> retType) {
         if (retType.isPrimitive()) {
             return convertPrimitiveWrapper(ret, retType);
@@ -333,6 +373,39 @@ public class BehaviorCommandInvoker {
                 }); // as dummy
     }
 
+    // ===================================================================================
+    //                                                                     Command Metrics
+    //                                                                     ===============
+    /**
+     * Prepare the entry of command metrics and save it in the thread context for SQL handlers.
+     * @param behaviorCommand The command of behavior. (NotNull)
+     * @return The entry of command metrics. (NullAllowed: when metrics is disabled)
+     */
+    protected <RESULT> CommandMetricsEntry prepareCommandMetricsEntry(BehaviorCommand<RESULT> behaviorCommand) {
+        if (!_commandMetrics.isEnabled()) { // mainly here
+            return null;
+        }
+        final CommandMetricsEntry metricsEntry = _commandMetrics.findEntry(behaviorCommand);
+        InternalMapContext.setCommandMetricsEntry(metricsEntry);
+        return metricsEntry;
+    }
+
+    protected void recordCommandMetrics(CommandMetricsEntry metricsEntry, long metricsBefore, Object ret,
+            RuntimeException cause) {
+        metricsEntry.recordCommand(systemNanoTime() - metricsBefore, cause != null);
+        if (ret instanceof List<?>) { // selectList(), outsideSql's selectList()
+            metricsEntry.recordMappedRows(((List<?>) ret).size());
+        }
+    }
+
+    /**
+     * Get the metrics of behavior commands, which is disabled as default.
+     * @return The metrics that can be enabled, snapshot and reset at any time. (NotNull)
+     */
+    public BehaviorCommandMetrics getCommandMetrics() {
+        return _commandMetrics;
+    }
+
     // ===================================================================================
     //                                                                       SQL Execution
     //                                                                       =============
@@ -343,6 +416,10 @@ public class BehaviorCommandInvoker {
             final String key = behaviorCommand.buildSqlExecutionKey();
             execution = getSqlExecution(key);
             if (execution == null) {
+                final CommandMetricsEntry metricsEntry = InternalMapContext.getCommandMetricsEntry();
+                if (metricsEntry != null) {
+                    metricsEntry.recordExecutionCacheMiss();
+                }
                 long beforeCmd = 0;
                 if (logEnabled) {
                     beforeCmd = systemTime();
@@ -390,30 +467,160 @@ public class BehaviorCommandInvoker {
      * @param executionCreator The creator of SQL-execution. (NotNull)
      * @return The SQL-execution that may be created then. (NotNull)
      */
-    protected SqlExecution getOrCreateSqlExecution(String key, SqlExecutionCreator executionCreator) {
-        SqlExecution execution = null;
-        synchronized (_executionCacheLock) {
+    protected SqlExecution getOrCreateSqlExecution(final String key, final SqlExecutionCreator executionCreator) {
+        SqlExecution execution = getSqlExecution(key);
+        if (execution != null) {
+            // previous thread might have initialized
+            return execution;
+        }
+        // different keys are initialized in parallel, same key is created only once
+        final FutureTask<SqlExecution> createdTask = new FutureTask<SqlExecution>(new Callable<SqlExecution>() {
+            public SqlExecution call() {
+                return createSqlExecution(key, executionCreator);
+            }
+        });
+        final FutureTask<SqlExecution> existingTask = _executionFutureMap.putIfAbsent(key, createdTask);
+        final FutureTask<SqlExecution> task;
+        if (existingTask != null) { // other thread is initializing (or has initialized)
+            task = existingTask;
+        } else { // this thread initializes
+            task = createdTask;
             execution = getSqlExecution(key);
             if (execution != null) {
-                // previous thread might have initialized
-                // or reading might failed by same-time writing
+                // the creator might have finished and removed its future after the first check
+                _executionFutureMap.remove(key, task);
                 return execution;
             }
-            if (isLogEnabled()) {
-                log("...Initializing sqlExecution for the key '" + key + "'");
+            task.run();
+        }
+        try {
+            execution = waitForSqlExecution(key, task);
+            if (task == createdTask) {
+                _executionMap.put(key, execution); // before removing future for other threads
+            }
+        } finally {
+            if (task == createdTask) {
+                _executionFutureMap.remove(key, task); // also removed when failure so it can be retried
             }
-            execution = executionCreator.createSqlExecution();
-            _executionMap.put(key, execution);
         }
+        toBeDisposable(); // for HotDeploy
+        return execution;
+    }
+
+    protected SqlExecution createSqlExecution(String key, SqlExecutionCreator executionCreator) {
+        if (isLogEnabled()) {
+            log("...Initializing sqlExecution for the key '" + key + "'");
+        }
+        final SqlExecution execution = executionCreator.createSqlExecution();
         if (execution == null) {
             String msg = "sqlExecutionCreator.createSqlCommand() should not return null:";
             msg = msg + " sqlExecutionCreator=" + executionCreator + " key=" + key;
             throw new IllegalStateException(msg);
         }
-        toBeDisposable(); // for HotDeploy
         return execution;
     }
 
+    protected SqlExecution waitForSqlExecution(String key, FutureTask<SqlExecution> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the initialization of sqlExecution: key=" + key;
+            throw new IllegalStateException(msg, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { // mainly here
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to initialize sqlExecution: key=" + key;
+            throw new IllegalStateException(msg, cause);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                               Warm up
+    //                                               -------
+    /**
+     * Warm up SQL executions of the behavior commands on the threads before traffic arrives. {Public Interface} <br />
+     * The commands should be initialize-only (e.g. by warmUpCommand() of behavior, or outside-SQL commands
+     * created with initialize-only), and they are invoked in parallel on the fixed thread pool.
+     * Commands for different keys are initialized in parallel, and same key is created only once.
+     * @param commandList The list of behavior command that is initialize-only. (NotNull)
+     * @param threadPoolSize The size of thread pool for the warm-up. (NotMinus, NotZero)
+     */
+    public void warmUpSqlExecution(List<BehaviorCommand<?>> commandList, int threadPoolSize) {
+        if (commandList == null) {
+            String msg = "The argument 'commandList' should not be null.";
+            throw new IllegalArgumentException(msg);
+        }
+        if (threadPoolSize <= 0) {
+            String msg = "The argument 'threadPoolSize' should be positive: " + threadPoolSize;
+            throw new IllegalArgumentException(msg);
+        }
+        for (BehaviorCommand<?> behaviorCommand : commandList) {
+            if (!behaviorCommand.isInitializeOnly()) {
+                String msg = "The behavior command for warm-up should be initialize-only: " + behaviorCommand;
+                throw new IllegalArgumentException(msg);
+            }
+        }
+        if (commandList.isEmpty()) {
+            return;
+        }
+        long before = 0;
+        if (isLogEnabled()) {
+            before = systemTime();
+            log("...Warming up sqlExecution: commands=" + commandList.size() + " threads=" + threadPoolSize);
+        }
+        final ExecutorService service = createWarmUpExecutorService(threadPoolSize);
+        try {
+            final List<Future<Void>> futureList = new ArrayList<Future<Void>>(commandList.size());
+            for (final BehaviorCommand<?> behaviorCommand : commandList) {
+                futureList.add(service.submit(new Callable<Void>() {
+                    public Void call() {
+                        invoke(behaviorCommand);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futureList) {
+                waitForWarmUp(future);
+            }
+        } finally {
+            service.shutdown();
+        }
+        if (isLogEnabled()) {
+            final String view = DfTraceViewUtil.convertToPerformanceView(systemTime() - before);
+            log("SqlExecution Warm-up Cost: [" + view + "]");
+        }
+    }
+
+    protected ExecutorService createWarmUpExecutorService(int threadPoolSize) {
+        return Executors.newFixedThreadPool(threadPoolSize);
+    }
+
+    protected void waitForWarmUp(Future<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while warming up sqlExecution.";
+            throw new IllegalStateException(msg, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to warm up sqlExecution.";
+            throw new IllegalStateException(msg, cause);
+        }
+    }
+
     protected Object executeSql(SqlExecution execution, Object[] args) {
         return execution.execute(args);
     }
@@ -431,11 +638,11 @@ public class BehaviorCommandInvoker {
     //                                                                      Log Invocation
     //                                                                      ==============
     protected <RESULT> void logInvocation(BehaviorCommand<RESULT> behaviorCommand, boolean saveOnly) {
-        final StackTraceElement[] stackTrace = new Exception().getStackTrace();
-        final BehaviorInvokeNameResult behaviorInvokeNameResult = extractBehaviorInvoke(behaviorCommand, stackTrace);
+        final StackTraceFrames frames = createStackTraceFrames(); // the array is created at the first reading
+        final CallSiteResult callSiteResult = findInvokeCallSiteResult(behaviorCommand, frames);
+        final BehaviorInvokeNameResult behaviorInvokeNameResult = callSiteResult.getNameResult();
         saveBehaviorInvokeName(behaviorInvokeNameResult);
-        final BehaviorInvokePathResult invokePathResult = buildInvokePath(behaviorCommand, stackTrace,
-                behaviorInvokeNameResult);
+        final BehaviorInvokePathResult invokePathResult = callSiteResult.getPathResult();
         if (invokePathResult != null) {
             saveClientInvokeName(invokePathResult);
             saveByPassInvokeName(invokePathResult);
@@ -469,12 +676,21 @@ public class BehaviorCommandInvoker {
         }
     }
 
+    protected StackTraceFrames createStackTraceFrames() {
+        return StackTraceFrames.createCurrentFrames(1); // first frame is the caller of this (as before)
+    }
+
     // -----------------------------------------------------
-    //                                Extract BehaviorInvoke
-    //                                ----------------------
-    protected <RESULT> BehaviorInvokeNameResult extractBehaviorInvoke(BehaviorCommand<RESULT> behaviorCommand,
-            StackTraceElement[] stackTrace) {
-        final DBMeta dbmeta = ResourceContext.provideDBMeta(behaviorCommand.getTableDbName());
+    //                                     Invoke Call Site
+    //                                     ----------------
+    /**
+     * Find the result of invocation for the call site, which is extracted if not cached yet.
+     * @param behaviorCommand The command of behavior. (NotNull)
+     * @param frames The frames of current stack trace. (NotNull)
+     * @return The result of the call site. (NotNull)
+     */
+    protected <RESULT> CallSiteResult findInvokeCallSiteResult(BehaviorCommand<RESULT> behaviorCommand,
+            StackTraceFrames frames) {
         Class<?> outsideSqlResultType = null;
         boolean outsideSqlAutoPaging = false;
         if (behaviorCommand.isOutsideSql()) {
@@ -482,9 +698,29 @@ public class BehaviorCommandInvoker {
             outsideSqlResultType = outsideSqlContext.getResultType();
             outsideSqlAutoPaging = outsideSqlContext.isAutoPagingLogging();
         }
+        final String tableDbName = behaviorCommand.getTableDbName();
+        final CallSiteKey key = _invokeCallSiteCache.createKey(frames, tableDbName, outsideSqlResultType,
+                outsideSqlAutoPaging);
+        final CallSiteResult cachedResult = _invokeCallSiteCache.find(key);
+        if (cachedResult != null) { // mainly here
+            return cachedResult;
+        }
+        final BehaviorInvokeNameResult behaviorInvokeNameResult = extractBehaviorInvoke(behaviorCommand, frames,
+                outsideSqlResultType, outsideSqlAutoPaging);
+        final BehaviorInvokePathResult invokePathResult = buildInvokePath(behaviorCommand, frames,
+                behaviorInvokeNameResult);
+        return _invokeCallSiteCache.register(key, behaviorInvokeNameResult, invokePathResult);
+    }
+
+    // -----------------------------------------------------
+    //                                Extract BehaviorInvoke
+    //                                ----------------------
+    protected <RESULT> BehaviorInvokeNameResult extractBehaviorInvoke(BehaviorCommand<RESULT> behaviorCommand,
+            StackTraceFrames frames, Class<?> outsideSqlResultType, boolean outsideSqlAutoPaging) {
+        final DBMeta dbmeta = ResourceContext.provideDBMeta(behaviorCommand.getTableDbName());
         final BehaviorInvokeNameExtractor extractor = createBehaviorInvokeNameExtractor(dbmeta, outsideSqlResultType,
                 outsideSqlAutoPaging);
-        return extractor.extractBehaviorInvoke(stackTrace);
+        return extractor.extractBehaviorInvoke(frames);
     }
 
     protected BehaviorInvokeNameExtractor createBehaviorInvokeNameExtractor(final DBMeta dbmeta,
@@ -515,11 +751,11 @@ public class BehaviorCommandInvoker {
     //                                      Build InvokePath
     //                                      ----------------
     protected <RESULT> BehaviorInvokePathResult buildInvokePath(BehaviorCommand<RESULT> behaviorCommand,
-            StackTraceElement[] stackTrace, BehaviorInvokeNameResult behaviorInvokeNameResult) {
+            StackTraceFrames frames, BehaviorInvokeNameResult behaviorInvokeNameResult) {
         final String[] clientNames = _invokerAssistant.assistClientInvokeNames();
         final String[] byPassNames = _invokerAssistant.assistByPassInvokeNames();
         final BehaviorInvokePathBuilder invokePathBuilder = new BehaviorInvokePathBuilder(clientNames, byPassNames);
-        return invokePathBuilder.buildInvokePath(stackTrace, behaviorInvokeNameResult);
+        return invokePathBuilder.buildInvokePath(frames, behaviorInvokeNameResult);
     }
 
     // -----------------------------------------------------
@@ -36,6 +36,8 @@ import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.jdbc.TnResultSetHandler;
 import org.seasar.dbflute.s2dao.sqlhandler.TnBasicParameterHandler;
 import org.seasar.dbflute.s2dao.sqlhandler.TnBasicSelectHandler;
+import org.seasar.dbflute.twowaysql.TwoWaySqlNodeCache;
+import org.seasar.dbflute.twowaysql.TwoWaySqlNodeCache.TwoWaySqlNodeAnalyzer;
 import org.seasar.dbflute.twowaysql.node.Node;
 
 /**
@@ -50,6 +52,16 @@ public class SelectCBExecution extends AbstractFixedArgExecution {
     //                                                                           =========
     protected final TnResultSetHandler _resultSetHandler;
 
+    /** The cache of analyzed nodes keyed by the clause of condition-bean. (NotNull) */
+    protected final TwoWaySqlNodeCache _nodeCache;
+
+    /** The analyzer of two-way SQL for the node cache. (NotNull) */
+    protected final TwoWaySqlNodeAnalyzer _nodeAnalyzer = new TwoWaySqlNodeAnalyzer() {
+        public Node analyze(String twoWaySql) {
+            return analyzeTwoWaySql(twoWaySql);
+        }
+    };
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -65,6 +77,11 @@ public class SelectCBExecution extends AbstractFixedArgExecution {
         super(dataSource, statementFactory, argNameTypeMap);
         assertObjectNotNull("resultSetHandler", resultSetHandler);
         _resultSetHandler = resultSetHandler;
+        _nodeCache = createNodeCache();
+    }
+
+    protected TwoWaySqlNodeCache createNodeCache() {
+        return new TwoWaySqlNodeCache();
     }
 
     // ===================================================================================
@@ -86,7 +103,8 @@ public class SelectCBExecution extends AbstractFixedArgExecution {
 
     @Override
     protected Node getRootNode(Object[] args) {
-        return analyzeTwoWaySql(extractTwoWaySql(args)); // dynamic analysis
+        // dynamic analysis but same-shape clause (bind variables are comments) is cached
+        return _nodeCache.findOrAnalyze(extractTwoWaySql(args), _nodeAnalyzer);
     }
 
     protected String extractTwoWaySql(Object[] args) {
@@ -232,4 +250,15 @@ public class SelectCBExecution extends AbstractFixedArgExecution {
     protected boolean isBlockNullParameter() {
         return true; // because the SQL is select
     }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    /**
+     * Get the cache of analyzed nodes, e.g. to confirm hit, miss and eviction counts.
+     * @return The cache of analyzed nodes for this execution. (NotNull)
+     */
+    public TwoWaySqlNodeCache getNodeCache() {
+        return _nodeCache;
+    }
 }
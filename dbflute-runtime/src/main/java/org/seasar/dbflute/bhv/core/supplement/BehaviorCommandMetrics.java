@@ -0,0 +1,151 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.seasar.dbflute.bhv.core.BehaviorCommandMeta;
+
+/**
+ * The in-process metrics of behavior commands, e.g. latency histograms and counts per command shape. <br />
+ * It is disabled as default, and costs only a volatile read per command when disabled.
+ * <pre>
+ * e.g. enable it and take the snapshot
+ *  BehaviorCommandMetrics metrics = behaviorCommandInvoker.getCommandMetrics();
+ *  metrics.enable();
+ *  ...
+ *  for (CommandMetricsSnapshot snapshot : metrics.snapshot()) {
+ *      ... = snapshot.getCommandHistogram().getValueAtPercentile(99.0);
+ *  }
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/07/13 Sunday)
+ */
+public class BehaviorCommandMetrics {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** Is the metrics enabled? (switched at any time) */
+    protected volatile boolean _enabled;
+
+    /** The map of metrics entry. map:{metricsKey = entry} (NotNull) */
+    protected final ConcurrentHashMap<String, CommandMetricsEntry> _entryMap = newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                              Switch
+    //                                                                              ======
+    public void enable() {
+        _enabled = true;
+    }
+
+    public void disable() {
+        _enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    // ===================================================================================
+    //                                                                               Entry
+    //                                                                               =====
+    /**
+     * Find the entry for the command, which is created if it does not exist.
+     * @param meta The meta information of behavior command. (NotNull)
+     * @return The entry of metrics for the command shape. (NotNull)
+     */
+    public CommandMetricsEntry findEntry(BehaviorCommandMeta meta) {
+        final String tableDbName = meta.getTableDbName();
+        final String commandName = meta.getCommandName();
+        final String outsideSqlPath = meta.isOutsideSql() ? meta.getOutsideSqlPath() : null;
+        final String metricsKey = buildMetricsKey(tableDbName, commandName, outsideSqlPath);
+        final CommandMetricsEntry entry = _entryMap.get(metricsKey);
+        if (entry != null) { // mainly here
+            return entry;
+        }
+        final CommandMetricsEntry created = newEntry(metricsKey, tableDbName, commandName, outsideSqlPath);
+        final CommandMetricsEntry existing = _entryMap.putIfAbsent(metricsKey, created);
+        return existing != null ? existing : created;
+    }
+
+    protected String buildMetricsKey(String tableDbName, String commandName, String outsideSqlPath) {
+        final String commandKey = tableDbName + ":" + commandName;
+        return outsideSqlPath != null ? commandKey + ":" + outsideSqlPath : commandKey;
+    }
+
+    protected CommandMetricsEntry newEntry(String metricsKey, String tableDbName, String commandName,
+            String outsideSqlPath) {
+        return new CommandMetricsEntry(metricsKey, tableDbName, commandName, outsideSqlPath);
+    }
+
+    // ===================================================================================
+    //                                                                            Snapshot
+    //                                                                            ========
+    /**
+     * Take the snapshot of all entries.
+     * @return The list of snapshot ordered by metrics key. (NotNull)
+     */
+    public List<CommandMetricsSnapshot> snapshot() {
+        final List<CommandMetricsSnapshot> snapshotList = new ArrayList<CommandMetricsSnapshot>(_entryMap.size());
+        for (CommandMetricsEntry entry : _entryMap.values()) {
+            snapshotList.add(entry.snapshot());
+        }
+        Collections.sort(snapshotList, new Comparator<CommandMetricsSnapshot>() {
+            public int compare(CommandMetricsSnapshot o1, CommandMetricsSnapshot o2) {
+                return o1.getMetricsKey().compareTo(o2.getMetricsKey());
+            }
+        });
+        return snapshotList;
+    }
+
+    /**
+     * Take the snapshot of the entry.
+     * @param metricsKey The key of metrics. e.g. MEMBER:selectList (NotNull)
+     * @return The snapshot of the entry. (NullAllowed: if not found)
+     */
+    public CommandMetricsSnapshot snapshot(String metricsKey) {
+        final CommandMetricsEntry entry = _entryMap.get(metricsKey);
+        return entry != null ? entry.snapshot() : null;
+    }
+
+    /**
+     * Reset recorded values of all entries. (the entries themselves remain)
+     */
+    public void reset() {
+        for (CommandMetricsEntry entry : _entryMap.values()) {
+            entry.reset();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      General Helper
+    //                                                                      ==============
+    protected <KEY, VALUE> ConcurrentHashMap<KEY, VALUE> newConcurrentHashMap() {
+        return new ConcurrentHashMap<KEY, VALUE>();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getEntrySize() {
+        return _entryMap.size();
+    }
+}
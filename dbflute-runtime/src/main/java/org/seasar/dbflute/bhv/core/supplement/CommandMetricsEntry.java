@@ -0,0 +1,152 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The entry of metrics for one shape of behavior command. <br />
+ * The shape is identified by table, command name and outside-SQL path.
+ * @author jflute
+ * @since 1.0.5K (2014/07/13 Sunday)
+ */
+public class CommandMetricsEntry {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The key of the entry. e.g. MEMBER:selectList, MEMBER:selectList:sql/MemberBhv_selectSimple.sql (NotNull) */
+    protected final String _metricsKey;
+
+    /** The DB name of table. (NotNull) */
+    protected final String _tableDbName;
+
+    /** The name of command. (NotNull) */
+    protected final String _commandName;
+
+    /** The path of outside-SQL. (NullAllowed: if not outside-SQL) */
+    protected final String _outsideSqlPath;
+
+    /** The histogram of whole command execution. (NotNull) */
+    protected final LatencyHistogram _commandHistogram = new LatencyHistogram();
+
+    /** The histogram of actual SQL executions in the command. (NotNull) */
+    protected final LatencyHistogram _sqlHistogram = new LatencyHistogram();
+
+    /** The count of failed command executions. */
+    protected final AtomicLong _failureCount = new AtomicLong();
+
+    /** The count of rows mapped to the result list. */
+    protected final AtomicLong _mappedRowCount = new AtomicLong();
+
+    /** The count of batch executions. */
+    protected final AtomicLong _batchCount = new AtomicLong();
+
+    /** The total size of batch executions. */
+    protected final AtomicLong _batchSizeTotal = new AtomicLong();
+
+    /** The count of misses of SQL-execution cache. */
+    protected final AtomicLong _executionCacheMissCount = new AtomicLong();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param metricsKey The key of the entry. (NotNull)
+     * @param tableDbName The DB name of table. (NotNull)
+     * @param commandName The name of command. (NotNull)
+     * @param outsideSqlPath The path of outside-SQL. (NullAllowed: if not outside-SQL)
+     */
+    public CommandMetricsEntry(String metricsKey, String tableDbName, String commandName, String outsideSqlPath) {
+        _metricsKey = metricsKey;
+        _tableDbName = tableDbName;
+        _commandName = commandName;
+        _outsideSqlPath = outsideSqlPath;
+    }
+
+    // ===================================================================================
+    //                                                                              Record
+    //                                                                              ======
+    public void recordCommand(long nanos, boolean failed) {
+        _commandHistogram.record(nanos);
+        if (failed) {
+            _failureCount.incrementAndGet();
+        }
+    }
+
+    public void recordSql(long nanos) {
+        _sqlHistogram.record(nanos);
+    }
+
+    public void recordMappedRows(int rowCount) {
+        _mappedRowCount.addAndGet(rowCount);
+    }
+
+    public void recordBatch(int batchSize) {
+        _batchCount.incrementAndGet();
+        _batchSizeTotal.addAndGet(batchSize);
+    }
+
+    public void recordExecutionCacheMiss() {
+        _executionCacheMissCount.incrementAndGet();
+    }
+
+    public void reset() {
+        _commandHistogram.reset();
+        _sqlHistogram.reset();
+        _failureCount.set(0L);
+        _mappedRowCount.set(0L);
+        _batchCount.set(0L);
+        _batchSizeTotal.set(0L);
+        _executionCacheMissCount.set(0L);
+    }
+
+    // ===================================================================================
+    //                                                                            Snapshot
+    //                                                                            ========
+    public CommandMetricsSnapshot snapshot() {
+        return new CommandMetricsSnapshot(_metricsKey, _tableDbName, _commandName, _outsideSqlPath,
+                _commandHistogram.copy(), _sqlHistogram.copy(), _failureCount.get(), _mappedRowCount.get(),
+                _batchCount.get(), _batchSizeTotal.get(), _executionCacheMissCount.get());
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "metricsEntry:{" + _metricsKey + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getMetricsKey() {
+        return _metricsKey;
+    }
+
+    public String getTableDbName() {
+        return _tableDbName;
+    }
+
+    public String getCommandName() {
+        return _commandName;
+    }
+
+    public String getOutsideSqlPath() {
+        return _outsideSqlPath;
+    }
+}
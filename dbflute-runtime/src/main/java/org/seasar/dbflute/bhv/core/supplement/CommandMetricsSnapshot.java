@@ -0,0 +1,124 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+/**
+ * The snapshot of metrics for one shape of behavior command. <br />
+ * The histograms are detached copies so you can read them at any time.
+ * @author jflute
+ * @since 1.0.5K (2014/07/13 Sunday)
+ */
+public class CommandMetricsSnapshot {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _metricsKey;
+    protected final String _tableDbName;
+    protected final String _commandName;
+    protected final String _outsideSqlPath; // null allowed
+    protected final LatencyHistogram _commandHistogram;
+    protected final LatencyHistogram _sqlHistogram;
+    protected final long _failureCount;
+    protected final long _mappedRowCount;
+    protected final long _batchCount;
+    protected final long _batchSizeTotal;
+    protected final long _executionCacheMissCount;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public CommandMetricsSnapshot(String metricsKey, String tableDbName, String commandName, String outsideSqlPath,
+            LatencyHistogram commandHistogram, LatencyHistogram sqlHistogram, long failureCount,
+            long mappedRowCount, long batchCount, long batchSizeTotal, long executionCacheMissCount) {
+        _metricsKey = metricsKey;
+        _tableDbName = tableDbName;
+        _commandName = commandName;
+        _outsideSqlPath = outsideSqlPath;
+        _commandHistogram = commandHistogram;
+        _sqlHistogram = sqlHistogram;
+        _failureCount = failureCount;
+        _mappedRowCount = mappedRowCount;
+        _batchCount = batchCount;
+        _batchSizeTotal = batchSizeTotal;
+        _executionCacheMissCount = executionCacheMissCount;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(_metricsKey);
+        sb.append(" command(ns)=").append(_commandHistogram);
+        sb.append(", sql(ns)=").append(_sqlHistogram);
+        sb.append(", failures=").append(_failureCount);
+        sb.append(", rows=").append(_mappedRowCount);
+        if (_batchCount > 0) {
+            sb.append(", batches=").append(_batchCount).append("(").append(_batchSizeTotal).append(" rows)");
+        }
+        sb.append(", cacheMisses=").append(_executionCacheMissCount);
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getMetricsKey() {
+        return _metricsKey;
+    }
+
+    public String getTableDbName() {
+        return _tableDbName;
+    }
+
+    public String getCommandName() {
+        return _commandName;
+    }
+
+    public String getOutsideSqlPath() {
+        return _outsideSqlPath;
+    }
+
+    public LatencyHistogram getCommandHistogram() {
+        return _commandHistogram;
+    }
+
+    public LatencyHistogram getSqlHistogram() {
+        return _sqlHistogram;
+    }
+
+    public long getFailureCount() {
+        return _failureCount;
+    }
+
+    public long getMappedRowCount() {
+        return _mappedRowCount;
+    }
+
+    public long getBatchCount() {
+        return _batchCount;
+    }
+
+    public long getBatchSizeTotal() {
+        return _batchSizeTotal;
+    }
+
+    public long getExecutionCacheMissCount() {
+        return _executionCacheMissCount;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The histogram of latency by nanoseconds, whose buckets are linear in each power of two. <br />
+ * The relative error of recorded values is less than about three percent,
+ * and recording is a few atomic operations without lock.
+ * <pre>
+ * e.g. values under 32 have their own bucket, and values from 1024 to 2047 are split into 32 buckets by 32
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/07/13 Sunday)
+ */
+public class LatencyHistogram {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The bit count of sub-buckets in one power of two. */
+    protected static final int SUB_BUCKET_BITS = 5;
+
+    /** The count of sub-buckets in one power of two. */
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** The highest exponent of recorded values, about 73 minutes by nanoseconds. (larger values are clamped) */
+    protected static final int MAX_EXPONENT = 42;
+
+    /** The count of all buckets. */
+    protected static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of counts per bucket. (NotNull) */
+    protected final AtomicLongArray _bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    /** The count of all recorded values. */
+    protected final AtomicLong _totalCount = new AtomicLong();
+
+    /** The sum of all recorded values. */
+    protected final AtomicLong _totalValue = new AtomicLong();
+
+    /** The minimum value. (Long.MAX_VALUE: when no value) */
+    protected final AtomicLong _minValue = new AtomicLong(Long.MAX_VALUE);
+
+    /** The maximum value. */
+    protected final AtomicLong _maxValue = new AtomicLong();
+
+    // ===================================================================================
+    //                                                                              Record
+    //                                                                              ======
+    /**
+     * Record the value.
+     * @param value The value by nanoseconds. (minus value is treated as zero)
+     */
+    public void record(long value) {
+        final long recorded = value > 0 ? value : 0L;
+        _bucketCounts.incrementAndGet(toBucketIndex(recorded));
+        _totalCount.incrementAndGet();
+        _totalValue.addAndGet(recorded);
+        updateMin(recorded);
+        updateMax(recorded);
+    }
+
+    protected void updateMin(long value) {
+        long current = _minValue.get();
+        while (value < current && !_minValue.compareAndSet(current, value)) {
+            current = _minValue.get();
+        }
+    }
+
+    protected void updateMax(long value) {
+        long current = _maxValue.get();
+        while (value > current && !_maxValue.compareAndSet(current, value)) {
+            current = _maxValue.get();
+        }
+    }
+
+    /**
+     * Reset all recorded values. <br />
+     * Values recorded at the same time may be partially lost, which is allowed for metrics.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            _bucketCounts.set(i, 0L);
+        }
+        _totalCount.set(0L);
+        _totalValue.set(0L);
+        _minValue.set(Long.MAX_VALUE);
+        _maxValue.set(0L);
+    }
+
+    // ===================================================================================
+    //                                                                              Bucket
+    //                                                                              ======
+    protected static int toBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        final int subIndex = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subIndex;
+    }
+
+    protected static long toBucketHighestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        final int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+        final long lowest = (long) (bucketIndex % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // ===================================================================================
+    //                                                                            Snapshot
+    //                                                                            ========
+    /**
+     * Copy the current values as detached histogram.
+     * @return The new histogram that has the same values. (NotNull)
+     */
+    public LatencyHistogram copy() {
+        final LatencyHistogram copied = new LatencyHistogram();
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long bucketCount = _bucketCounts.get(i);
+            copied._bucketCounts.set(i, bucketCount);
+            totalCount += bucketCount;
+        }
+        copied._totalCount.set(totalCount); // consistent with buckets
+        copied._totalValue.set(_totalValue.get());
+        copied._minValue.set(_minValue.get());
+        copied._maxValue.set(_maxValue.get());
+        return copied;
+    }
+
+    /**
+     * Get the value at the percentile, which is the highest value of the bucket. <br />
+     * It is calculated from live buckets so you should use it for copied histogram.
+     * @param percentile The percentile, e.g. 50.0, 99.9. (NotMinus, max 100.0)
+     * @return The value by nanoseconds, not over the maximum value. (zero: when no value)
+     */
+    public long getValueAtPercentile(double percentile) {
+        final long totalCount = _totalCount.get();
+        if (totalCount == 0) {
+            return 0L;
+        }
+        final double rate = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        final long targetCount = Math.max(1L, (long) Math.ceil(rate * totalCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += _bucketCounts.get(i);
+            if (cumulativeCount >= targetCount) {
+                return Math.min(toBucketHighestValue(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "{count=" + getTotalCount() + ", min=" + getMinValue() + ", p50=" + getValueAtPercentile(50.0)
+                + ", p99=" + getValueAtPercentile(99.0) + ", max=" + getMaxValue() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public long getTotalCount() {
+        return _totalCount.get();
+    }
+
+    public long getTotalValue() {
+        return _totalValue.get();
+    }
+
+    public long getMinValue() {
+        final long minValue = _minValue.get();
+        return minValue != Long.MAX_VALUE ? minValue : 0L;
+    }
+
+    public long getMaxValue() {
+        return _maxValue.get();
+    }
+
+    public long getMeanValue() {
+        final long totalCount = _totalCount.get();
+        return totalCount > 0 ? _totalValue.get() / totalCount : 0L;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.seasar.dbflute.CallbackContext;
+
+/**
+ * The executor of load-referrer chunks, which selects the chunks of keys in parallel. <br />
+ * The threads are from the executor service shared by all behaviors as default (bounded, daemon),
+ * and the parallelism is the max count of threads that one loading uses at the same time. <br />
+ * The callback context of the caller thread (e.g. SqlLogHandler, SqlStringFilter, BehaviorCommandHook)
+ * is inherited by the chunk threads, so the callbacks should be thread-safe. <br />
+ * The chunk threads do not join the transaction of the caller thread: each chunk uses its own connection
+ * from the data source, so the changes not committed by the caller are not visible.
+ * Nested parallel loading in a chunk thread is executed sequentially on the thread.
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class LoadReferrerChunkExecutor {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The size of the shared thread pool, which bounds the parallel chunks of all behaviors. */
+    public static final int SHARED_POOL_SIZE = 8;
+
+    /** The thread-local mark of chunk thread, to execute nested chunks sequentially. */
+    protected static final ThreadLocal<Boolean> _chunkThreadLocal = new ThreadLocal<Boolean>();
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The executor service for the chunks. (NotNull) */
+    protected final ExecutorService _executorService;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * Constructor using the shared executor service.
+     */
+    public LoadReferrerChunkExecutor() {
+        this(getSharedExecutorService());
+    }
+
+    /**
+     * @param executorService The executor service for the chunks, e.g. injected bounded pool. (NotNull)
+     */
+    public LoadReferrerChunkExecutor(ExecutorService executorService) {
+        if (executorService == null) {
+            String msg = "The argument 'executorService' should not be null.";
+            throw new IllegalArgumentException(msg);
+        }
+        _executorService = executorService;
+    }
+
+    // ===================================================================================
+    //                                                                     Shared Executor
+    //                                                                     ===============
+    /**
+     * Get the executor service shared by all behaviors. (created at the first call)
+     * @return The fixed thread pool of daemon threads. (NotNull)
+     */
+    public static ExecutorService getSharedExecutorService() {
+        return SharedExecutorServiceHolder._sharedExecutorService;
+    }
+
+    protected static class SharedExecutorServiceHolder { // lazy-loaded by class initialization
+
+        protected static final ExecutorService _sharedExecutorService = createSharedExecutorService();
+
+        protected static ExecutorService createSharedExecutorService() {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newFixedThreadPool(SHARED_POOL_SIZE, new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "dbflute-chunk-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true); // not to block the shutdown of JVM
+                    return thread;
+                }
+            });
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    /**
+     * Execute the selector for the chunks, and merge the results in order of chunks.
+     * @param chunkList The list of chunks. (NotNull)
+     * @param parallelism The max count of threads for the chunks. (one or less means sequential)
+     * @param selector The selector of one chunk. (NotNull)
+     * @return The merged list of results in order of chunks. (NotNull)
+     */
+    public <KEY, RESULT> List<RESULT> execute(List<List<KEY>> chunkList, int parallelism,
+            ChunkSelector<KEY, RESULT> selector) {
+        if (parallelism <= 1 || chunkList.size() <= 1 || isChunkThread()) { // nested is sequential
+            return doExecuteSequential(chunkList, selector);
+        }
+        return doExecuteParallel(chunkList, parallelism, selector);
+    }
+
+    /**
+     * The selector of one chunk.
+     * @param <KEY> The type of key in chunk.
+     * @param <RESULT> The type of selected element.
+     */
+    public static interface ChunkSelector<KEY, RESULT> {
+
+        /**
+         * @param chunk The list of keys for one query. (NotNull, NotEmpty)
+         * @return The list of selected result. (NotNull)
+         */
+        List<RESULT> select(List<KEY> chunk);
+    }
+
+    protected <KEY, RESULT> List<RESULT> doExecuteSequential(List<List<KEY>> chunkList,
+            ChunkSelector<KEY, RESULT> selector) {
+        final List<RESULT> resultList = new ArrayList<RESULT>();
+        for (List<KEY> chunk : chunkList) {
+            resultList.addAll(selector.select(chunk));
+        }
+        return resultList;
+    }
+
+    protected <KEY, RESULT> List<RESULT> doExecuteParallel(final List<List<KEY>> chunkList, int parallelism,
+            final ChunkSelector<KEY, RESULT> selector) {
+        final int chunkCount = chunkList.size();
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicReferenceArray<List<RESULT>> chunkResultArray = new AtomicReferenceArray<List<RESULT>>(chunkCount);
+        final CallbackContext callbackContext = CallbackContext.getCallbackContextOnThread(); // inherited
+        final int workerCount = Math.min(parallelism, chunkCount);
+        final List<Future<Void>> futureList = new ArrayList<Future<Void>>(workerCount);
+        boolean completed = false;
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                futureList.add(_executorService.submit(new Callable<Void>() {
+                    public Void call() {
+                        selectChunkOnThread(chunkList, selector, nextIndex, chunkResultArray, callbackContext);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futureList) {
+                waitForChunk(future);
+            }
+            completed = true;
+        } finally {
+            if (!completed) { // remaining chunks are not selected
+                nextIndex.set(chunkCount);
+                for (Future<Void> future : futureList) {
+                    future.cancel(false);
+                }
+            }
+        }
+        final List<RESULT> resultList = new ArrayList<RESULT>();
+        for (int i = 0; i < chunkCount; i++) { // merged in order of chunks
+            resultList.addAll(chunkResultArray.get(i));
+        }
+        return resultList;
+    }
+
+    protected <KEY, RESULT> void selectChunkOnThread(List<List<KEY>> chunkList, ChunkSelector<KEY, RESULT> selector,
+            AtomicInteger nextIndex, AtomicReferenceArray<List<RESULT>> chunkResultArray,
+            CallbackContext callbackContext) {
+        _chunkThreadLocal.set(Boolean.TRUE);
+        if (callbackContext != null) {
+            CallbackContext.setCallbackContextOnThread(callbackContext);
+        }
+        try {
+            while (true) {
+                final int index = nextIndex.getAndIncrement();
+                if (index >= chunkList.size()) {
+                    break;
+                }
+                chunkResultArray.set(index, selector.select(chunkList.get(index)));
+            }
+        } finally {
+            if (callbackContext != null) {
+                CallbackContext.clearCallbackContextOnThread(); // not to be inherited by other tasks
+            }
+            _chunkThreadLocal.remove();
+        }
+    }
+
+    protected void waitForChunk(Future<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the chunk of load referrer.";
+            throw new IllegalStateException(msg, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { // mainly here
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            String msg = "Failed to select the chunk of load referrer.";
+            throw new IllegalStateException(msg, cause);
+        }
+    }
+
+    /**
+     * Is the current thread executing chunks?
+     * @return The determination, true or false.
+     */
+    public static boolean isChunkThread() {
+        return _chunkThreadLocal.get() != null;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public ExecutorService getExecutorService() {
+        return _executorService;
+    }
+}
@@ -16,11 +16,13 @@
 package org.seasar.dbflute.bhv.core.supplement;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,7 +30,12 @@ import org.seasar.dbflute.XLog;
 import org.seasar.dbflute.util.DfTypeUtil;
 
 /**
- * The handler of sequence cache.
+ * The handler of sequence cache. <br />
+ * Cached values are allocated from the current range without lock,
+ * and only refilling the range (real execution of sequence) is serialized. <br />
+ * If the low-water mark of prefetch is set, the thread that allocates the value
+ * at the mark selects the next range outside the lock, so other threads
+ * can continue to allocate from the current range without waiting for the database.
  * @author jflute
  * @since 0.9.6.4 (2010/01/15 Friday)
  */
@@ -40,6 +47,7 @@ public class SequenceCache {
     /** Log instance for internal debug. (XLog should be used instead for execute-status log) */
     private static final Log _log = LogFactory.getLog(SequenceCacheHandler.class);
 
+    /** @deprecated unused since values are allocated from the range, only for compatible */
     protected static final BigDecimal INITIAL_ADDED_COUNT = BigDecimal.ZERO;
     protected static final BigDecimal DEFAULT_ADD_SIZE = BigDecimal.ONE;
 
@@ -59,29 +67,37 @@ public class SequenceCache {
     /** The increment size of sequence that is used by batch way only. (NullAllowed: If null, it cannot use batch way) */
     protected final Integer _incrementSize;
 
-    /** The added count. If cached list is valid, this value is unused. (NotNull) */
-    protected volatile BigDecimal _addedCount = INITIAL_ADDED_COUNT;
+    /** The current range of cached values. (NullAllowed: only at first null) */
+    protected volatile SequenceCacheRange _currentRange;
 
-    /** The sequence value as base point. (NullAllowed: only at first null) */
-    protected volatile BigDecimal _sequenceValue;
+    /** The next range selected by prefetch. (NullAllowed: when no prefetch or already used) */
+    protected volatile SequenceCacheRange _prefetchedRange;
 
-    /** The sequence value as first value for batch way only. (NullAllowed: at first or not batch way) */
-    protected volatile BigDecimal _batchFirstValue;
+    /** Is the prefetch of next range executing now? */
+    protected final AtomicBoolean _prefetching = new AtomicBoolean();
 
-    // should be used in a process synchronized
-    protected final List<BigDecimal> _cachedList = new ArrayList<BigDecimal>();
-    protected final SortedSet<BigDecimal> _tmpSortedSet = new TreeSet<BigDecimal>(new Comparator<BigDecimal>() {
-        public int compare(BigDecimal arg0, BigDecimal arg1) {
-            return arg0.compareTo(arg1);
-        }
-    });
+    /** The lock for refilling the range, which is not used while allocating values. (NotNull) */
+    protected final ReentrantLock _refillLock = new ReentrantLock();
+
+    /** The condition of refill lock to wait for prefetch. (NotNull) */
+    protected final Condition _prefetchDoneCondition = _refillLock.newCondition();
 
-    /** Is the batch way valid? */
-    protected volatile boolean _batchWay;
+    /** The remaining count of current range to start prefetch. (zero means no prefetch) */
+    protected volatile int _prefetchLowWaterMark;
 
     /** Is the internal debug valid? (should be set when immediately after initialization because of no volatile) */
     protected boolean _internalDebug;
 
+    // -----------------------------------------------------
+    //                                            Statistics
+    //                                            ----------
+    protected final AtomicLong _refillCount = new AtomicLong();
+    protected final AtomicLong _refillNanos = new AtomicLong();
+    protected final AtomicLong _maxRefillNanos = new AtomicLong();
+    protected final AtomicLong _prefetchCount = new AtomicLong();
+    protected final AtomicLong _prefetchFailureCount = new AtomicLong();
+    protected final AtomicLong _contentionCount = new AtomicLong();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -104,92 +120,173 @@ public class SequenceCache {
      * @param executor The real executor of sequence. (NotNull)
      * @return The next value of sequence as result type. (NotNull)
      */
-    public synchronized Object nextval(SequenceRealExecutor executor) {
-        if (_batchWay) {
-            if (_incrementSize == null) {
-                String msg = "The increment size should not be null if it uses batch way!";
-                throw new IllegalStateException(msg); // basically unreachable
+    public Object nextval(SequenceRealExecutor executor) {
+        final SequenceCacheRange range = _currentRange;
+        if (range != null) { // lock-free allocation
+            final long index = range.allocateIndex();
+            if (index < range.getSize()) {
+                final BigDecimal value = range.getValue(index);
+                if (isLogEnabled()) {
+                    log("...Getting next value from cached range: " + value + " " + range);
+                }
+                prefetchIfLowWater(range, index, executor);
+                return toResultType(value);
             }
-            if (_incrementSize >= 2) {
-                _addedCount = _addedCount.add(getAddSize());
-                if (_addedCount.intValue() < _incrementSize) {
+        }
+        return toResultType(refill(executor));
+    }
+
+    protected BigDecimal refill(SequenceRealExecutor executor) {
+        if (!_refillLock.tryLock()) {
+            _contentionCount.incrementAndGet();
+            _refillLock.lock();
+        }
+        SequenceCacheRange range = _currentRange;
+        long index;
+        try {
+            while (true) {
+                if (range != null) { // might be refilled by other thread
+                    index = range.allocateIndex();
+                    if (index < range.getSize()) {
+                        break;
+                    }
+                }
+                waitForPrefetch();
+                final SequenceCacheRange prefetched = _prefetchedRange;
+                if (prefetched != null) {
                     if (isLogEnabled()) {
-                        final StringBuilder sb = new StringBuilder();
-                        sb.append("...Getting next value from (cached-size) added count:");
-                        sb.append(" (").append(_sequenceValue).append(" + ").append(_addedCount).append(":");
-                        sb.append(" cache-point=").append(_batchFirstValue).append(")");
-                        log(sb.toString());
+                        log("...Using prefetched range of sequence: " + prefetched);
                     }
-                    return toResultType(_sequenceValue.add(_addedCount));
+                    _prefetchedRange = null;
+                    range = prefetched;
+                } else {
+                    if (isLogEnabled()) {
+                        log("...Selecting next value and cache values: cacheSize=" + _cacheSize);
+                    }
+                    setupSequence(executor);
+                    range = _currentRange;
                 }
-                _addedCount = INITIAL_ADDED_COUNT;
+                _currentRange = range;
             }
-            if (!_cachedList.isEmpty()) {
-                _sequenceValue = _cachedList.remove(0);
-                if (isLogEnabled()) {
-                    final StringBuilder sb = new StringBuilder();
-                    sb.append("...Getting next value from cached list:");
-                    sb.append(" (").append(_sequenceValue).append(":");
-                    sb.append(" cache-point=").append(_batchFirstValue).append(")");
-                    log(sb.toString());
-                }
-                return toResultType(_sequenceValue);
+        } finally {
+            _refillLock.unlock();
+        }
+        prefetchIfLowWater(range, index, executor); // outside lock
+        return range.getValue(index);
+    }
+
+    protected void waitForPrefetch() { // should be called in the refill lock
+        while (_prefetching.get()) {
+            _prefetchDoneCondition.awaitUninterruptibly();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Prefetch
+    //                                                                            ========
+    protected void prefetchIfLowWater(SequenceCacheRange range, long index, SequenceRealExecutor executor) {
+        final int lowWaterMark = _prefetchLowWaterMark;
+        if (lowWaterMark <= 0 || range.getRemainingCount(index) > lowWaterMark || _prefetchedRange != null) {
+            return;
+        }
+        if (!_prefetching.compareAndSet(false, true)) { // other thread is prefetching
+            return;
+        }
+        SequenceCacheRange prefetched = null;
+        try {
+            // re-check after getting the flag because other prefetch might have finished just now
+            if (_prefetchedRange != null || range != _currentRange) {
+                return;
             }
-        } else { // incrementWay
-            _addedCount = _addedCount.add(getAddSize());
-            if (_sequenceValue != null && _addedCount.compareTo(_cacheSize) < 0) {
-                if (isLogEnabled()) {
-                    final StringBuilder sb = new StringBuilder();
-                    sb.append("...Getting next value from added count:");
-                    sb.append(" (").append(_sequenceValue).append(" + ").append(_addedCount).append(")");
-                    log(sb.toString());
+            if (isLogEnabled()) {
+                log("...Prefetching next values of sequence: remaining=" + range.getRemainingCount(index));
+            }
+            prefetched = selectRange(executor);
+            _prefetchCount.incrementAndGet();
+        } catch (RuntimeException e) { // the caller already has its value so it retries at next call
+            handlePrefetchFailure(range, e);
+        } finally { // also when failure, waiting threads select by themselves
+            _refillLock.lock();
+            try {
+                if (prefetched != null) {
+                    _prefetchedRange = prefetched;
                 }
-                return toResultType(_sequenceValue.add(_addedCount));
+                _prefetching.set(false);
+                _prefetchDoneCondition.signalAll();
+            } finally {
+                _refillLock.unlock();
             }
         }
-        if (isLogEnabled()) {
-            log("...Selecting next value and cache values: cacheSize=" + _cacheSize);
-        }
-        setupSequence(executor);
-        return toResultType(_sequenceValue);
     }
 
+    protected void handlePrefetchFailure(SequenceCacheRange range, RuntimeException cause) {
+        _prefetchFailureCount.incrementAndGet();
+        _log.warn("Failed to prefetch next values of sequence (retry at next nextval): " + this + " " + range, cause);
+    }
+
+    // ===================================================================================
+    //                                                                        Select Range
+    //                                                                        ============
     protected BigDecimal getAddSize() {
         return DEFAULT_ADD_SIZE;
     }
 
-    protected void setupSequence(SequenceRealExecutor executor) { // should be called in a process synchronized
+    protected void setupSequence(SequenceRealExecutor executor) { // should be called in the refill lock
         initialize();
+        _currentRange = selectRange(executor);
+    }
+
+    protected void initialize() { // should be called in the refill lock
+        _currentRange = null;
+    }
+
+    protected SequenceCacheRange selectRange(SequenceRealExecutor executor) {
         if (isInternalDebugEnabled()) {
             _log.debug("...Executing sequence cache: " + executor);
         }
+        final long before = System.nanoTime();
         final Object obj = executor.execute();
+        recordRefill(System.nanoTime() - before);
         assertSequenceRealExecutorReturnsNotNull(obj, executor);
+        final int addSize = getAddSize().intValue();
+        final SequenceCacheRange range;
         if (obj instanceof List<?>) { // batchWay
             final List<?> selectedList = (List<?>) obj; // no guarantee of order
             assertSequenceRealExecutorReturnsNotEmptyList(selectedList, executor);
-            for (Object element : selectedList) {
-                _tmpSortedSet.add(toInternalType(element)); // order ascend
+            if (_incrementSize == null) {
+                String msg = "The increment size should not be null if it uses batch way!";
+                throw new IllegalStateException(msg); // basically unreachable
             }
-            _cachedList.addAll(_tmpSortedSet); // setting up cached list (ordered)
-            _sequenceValue = _cachedList.remove(0);
-            _batchFirstValue = _sequenceValue;
-            _batchWay = true;
-            if (isInternalDebugEnabled()) {
-                final int size = selectedList.size();
-                final String exp = selectedList.get(0) + " to " + selectedList.get(size - 1);
-                _log.debug("Cached sequence values by batch way: " + exp);
+            final SortedSet<BigDecimal> sortedSet = new TreeSet<BigDecimal>(); // order ascend
+            for (Object element : selectedList) {
+                sortedSet.add(toInternalType(element));
             }
+            final BigDecimal[] baseValues = sortedSet.toArray(new BigDecimal[sortedSet.size()]);
+            final int span = _incrementSize >= 2 ? _incrementSize : 1;
+            range = new SequenceCacheRange(baseValues, deriveWidth(span, addSize), addSize, true);
         } else { // incrementWay
-            _sequenceValue = toInternalType(obj);
-            _batchWay = false;
+            final BigDecimal[] baseValues = new BigDecimal[] { toInternalType(obj) };
+            range = new SequenceCacheRange(baseValues, deriveWidth(_cacheSize.intValue(), addSize), addSize, false);
+        }
+        if (isInternalDebugEnabled()) {
+            _log.debug("Cached sequence values: " + range);
         }
+        return range;
     }
 
-    protected void initialize() { // should be called in a process synchronized
-        _addedCount = INITIAL_ADDED_COUNT;
-        _cachedList.clear();
-        _tmpSortedSet.clear();
+    protected int deriveWidth(int span, int addSize) { // count of values added by the add size within the span
+        return (span + addSize - 1) / addSize;
+    }
+
+    protected void recordRefill(long elapsedNanos) {
+        _refillCount.incrementAndGet();
+        _refillNanos.addAndGet(elapsedNanos);
+        while (true) {
+            final long currentMax = _maxRefillNanos.get();
+            if (elapsedNanos <= currentMax || _maxRefillNanos.compareAndSet(currentMax, elapsedNanos)) {
+                break;
+            }
+        }
     }
 
     // -----------------------------------------------------
@@ -253,12 +350,60 @@ public class SequenceCache {
     @Override
     public String toString() {
         final String hash = Integer.toHexString(hashCode());
-        return "{" + "type=" + _resultType + ", cache=" + _cacheSize + ", increment=" + _incrementSize + "}@" + hash;
+        return "{" + "type=" + _resultType + ", cache=" + _cacheSize + ", increment=" + _incrementSize
+                + ", refill=" + getRefillCount() + ", contention=" + getContentionCount() + "}@" + hash;
     }
 
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
+    /**
+     * @param prefetchLowWaterMark The remaining count of current range to start prefetch. (zero means no prefetch)
+     */
+    public void setPrefetchLowWaterMark(int prefetchLowWaterMark) {
+        _prefetchLowWaterMark = prefetchLowWaterMark;
+    }
+
+    public int getPrefetchLowWaterMark() {
+        return _prefetchLowWaterMark;
+    }
+
+    /**
+     * @return The count of real executions of sequence, containing prefetch.
+     */
+    public long getRefillCount() {
+        return _refillCount.get();
+    }
+
+    /**
+     * @return The total nano-seconds of real executions of sequence, containing prefetch.
+     */
+    public long getRefillNanos() {
+        return _refillNanos.get();
+    }
+
+    public long getMaxRefillNanos() {
+        return _maxRefillNanos.get();
+    }
+
+    public long getPrefetchCount() {
+        return _prefetchCount.get();
+    }
+
+    /**
+     * @return The count of failed prefetch, which is retried at next allocation.
+     */
+    public long getPrefetchFailureCount() {
+        return _prefetchFailureCount.get();
+    }
+
+    /**
+     * @return The count of threads that waited for the refill lock held by other thread.
+     */
+    public long getContentionCount() {
+        return _contentionCount.get();
+    }
+
     public void setInternalDebug(boolean internalDebug) {
         _internalDebug = internalDebug;
     }
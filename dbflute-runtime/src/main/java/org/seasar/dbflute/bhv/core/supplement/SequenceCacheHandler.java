@@ -46,6 +46,7 @@ public class SequenceCacheHandler {
     protected final Object _sequenceCacheLock = new Object();
 
     protected SequenceCacheKeyGenerator _sequenceCacheKeyGenerator;
+    protected int _prefetchLowWaterMark; // zero means no prefetch
     protected boolean _internalDebug;
 
     // ===================================================================================
@@ -98,6 +99,7 @@ public class SequenceCacheHandler {
     protected SequenceCache createSequenceCache(String sequenceName, DataSource dataSource, Class<?> resultType,
             Integer cacheSize, Integer incrementSize) {
         final SequenceCache cache = new SequenceCache(resultType, new BigDecimal(cacheSize), incrementSize);
+        cache.setPrefetchLowWaterMark(_prefetchLowWaterMark);
         cache.setInternalDebug(_internalDebug);
         return cache;
     }
@@ -253,6 +255,75 @@ public class SequenceCacheHandler {
         throw new SequenceCacheSizeNotDividedIncrementSizeException(msg);
     }
 
+    // ===================================================================================
+    //                                                                          Statistics
+    //                                                                          ==========
+    /**
+     * @return The count of real executions of all sequence caches, containing prefetch.
+     */
+    public long getRefillCount() {
+        long count = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            count += cache.getRefillCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return The total nano-seconds of real executions of all sequence caches, containing prefetch.
+     */
+    public long getRefillNanos() {
+        long nanos = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            nanos += cache.getRefillNanos();
+        }
+        return nanos;
+    }
+
+    /**
+     * @return The max nano-seconds of one real execution in all sequence caches.
+     */
+    public long getMaxRefillNanos() {
+        long max = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            max = Math.max(max, cache.getMaxRefillNanos());
+        }
+        return max;
+    }
+
+    /**
+     * @return The count of prefetch executions of all sequence caches.
+     */
+    public long getPrefetchCount() {
+        long count = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            count += cache.getPrefetchCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return The count of failed prefetch of all sequence caches.
+     */
+    public long getPrefetchFailureCount() {
+        long count = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            count += cache.getPrefetchFailureCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return The count of threads that waited for refill by other thread in all sequence caches.
+     */
+    public long getContentionCount() {
+        long count = 0;
+        for (SequenceCache cache : _sequenceCacheMap.values()) {
+            count += cache.getContentionCount();
+        }
+        return count;
+    }
+
     // ===================================================================================
     //                                                                                 Log
     //                                                                                 ===
@@ -282,6 +353,16 @@ public class SequenceCacheHandler {
         _sequenceCacheKeyGenerator = sequenceCacheKeyGenerator;
     }
 
+    /**
+     * Set the low-water mark of prefetch for sequence caches created after this. <br />
+     * When the remaining count of cached values reaches the mark, the next values are selected
+     * by the thread that reaches it, without blocking other threads.
+     * @param prefetchLowWaterMark The remaining count to start prefetch. (zero means no prefetch)
+     */
+    public void setPrefetchLowWaterMark(int prefetchLowWaterMark) {
+        _prefetchLowWaterMark = prefetchLowWaterMark;
+    }
+
     public void setInternalDebug(boolean internalDebug) {
         _internalDebug = internalDebug;
     }
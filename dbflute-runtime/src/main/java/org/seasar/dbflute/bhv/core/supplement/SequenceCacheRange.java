@@ -0,0 +1,158 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The range of cached sequence values selected by one real execution. <br />
+ * The values are allocated by an atomic counter so threads do not need a lock
+ * until the range is exhausted.
+ * <pre>
+ * e.g. increment way (cacheSize=50): base values [1] and width 50 means 1 to 50
+ * e.g. batch way (incrementSize=3): base values [1, 4, 7] and width 3 means 1 to 9
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/07/08 Tuesday)
+ */
+public class SequenceCacheRange {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of base values ordered ascend. (NotNull, NotEmpty) */
+    protected final BigDecimal[] _baseValues;
+
+    /** The count of values from one base value. (NotMinus, NotZero) */
+    protected final int _width;
+
+    /** The difference between values from one base value. (NotMinus, NotZero) */
+    protected final int _step;
+
+    /** Is the range selected by batch way? */
+    protected final boolean _batchWay;
+
+    /** The size of all values in this range. */
+    protected final long _size;
+
+    /** The count of allocated values, which can be over the size when exhausted. */
+    protected final AtomicLong _allocatedCount = new AtomicLong();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param baseValues The array of base values ordered ascend. (NotNull, NotEmpty)
+     * @param width The count of values from one base value. (NotMinus, NotZero)
+     * @param batchWay Is the range selected by batch way?
+     */
+    public SequenceCacheRange(BigDecimal[] baseValues, int width, boolean batchWay) {
+        this(baseValues, width, 1, batchWay);
+    }
+
+    /**
+     * @param baseValues The array of base values ordered ascend. (NotNull, NotEmpty)
+     * @param width The count of values from one base value. (NotMinus, NotZero)
+     * @param step The difference between values from one base value. (NotMinus, NotZero)
+     * @param batchWay Is the range selected by batch way?
+     */
+    public SequenceCacheRange(BigDecimal[] baseValues, int width, int step, boolean batchWay) {
+        if (baseValues == null || baseValues.length == 0) {
+            String msg = "The argument 'baseValues' should not be null or empty.";
+            throw new IllegalArgumentException(msg);
+        }
+        if (width <= 0) {
+            String msg = "The argument 'width' should be plus: " + width;
+            throw new IllegalArgumentException(msg);
+        }
+        if (step <= 0) {
+            String msg = "The argument 'step' should be plus: " + step;
+            throw new IllegalArgumentException(msg);
+        }
+        _baseValues = baseValues;
+        _width = width;
+        _step = step;
+        _batchWay = batchWay;
+        _size = (long) baseValues.length * width;
+    }
+
+    // ===================================================================================
+    //                                                                            Allocate
+    //                                                                            ========
+    /**
+     * Allocate the index of next value in this range.
+     * @return The allocated index. (NotMinus: if it is equal or over the size, exhausted)
+     */
+    public long allocateIndex() {
+        return _allocatedCount.getAndIncrement();
+    }
+
+    /**
+     * @param index The allocated index. (NotMinus, LessThanSize)
+     * @return The sequence value of the index. (NotNull)
+     */
+    public BigDecimal getValue(long index) {
+        final BigDecimal baseValue = _baseValues[(int) (index / _width)];
+        final long added = (index % _width) * _step;
+        return added > 0 ? baseValue.add(BigDecimal.valueOf(added)) : baseValue;
+    }
+
+    public boolean isExhausted() {
+        return _allocatedCount.get() >= _size;
+    }
+
+    /**
+     * @param index The allocated index. (NotMinus)
+     * @return The count of remaining values after the index. (NotMinus)
+     */
+    public long getRemainingCount(long index) {
+        return Math.max(0, _size - index - 1);
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final String way = _batchWay ? "batch" : "increment";
+        return "{" + _baseValues[0] + " to " + getValue(_size - 1) + ", " + way + ", allocated="
+                + Math.min(_allocatedCount.get(), _size) + "/" + _size + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public BigDecimal getFirstValue() {
+        return _baseValues[0];
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getStep() {
+        return _step;
+    }
+
+    public boolean isBatchWay() {
+        return _batchWay;
+    }
+
+    public long getSize() {
+        return _size;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.logging.invoke;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
+
+/**
+ * The cache of behavior invocation results per call site. <br />
+ * The call site is identified by the head frames of stack trace (that the extractors can read)
+ * and the elements of the command that change the invocation expression,
+ * so the same call site does not extract the names again. <br />
+ * The key for finding refers to the slice of the current stack trace without copying,
+ * and only the registered key copies its slice. <br />
+ * The least recently used call site is evicted when the cache is over the limit.
+ * @author jflute
+ * @since 1.0.5K (2014/07/14 Monday)
+ */
+public class BehaviorInvokeCallSiteCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /**
+     * The default size of head frames as call site. <br />
+     * It covers the loop of behavior extracting (0 to 25) and the loop of client extracting
+     * after the behavior (next index to plus 20), by-pass extracting is between them.
+     */
+    public static final int DEFAULT_FRAME_SIZE = 48;
+
+    /** The default limit of cached call sites, the least recently used one is evicted after the limit. */
+    public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The size of head frames as call site. */
+    protected final int _frameSize;
+
+    /** The limit of cached call sites. */
+    protected final int _cacheLimit;
+
+    /** The map of cached result ordered by access. map:{callSiteKey = result} (NotNull, synchronized by itself) */
+    protected final Map<CallSiteKey, CallSiteResult> _resultMap;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public BehaviorInvokeCallSiteCache() {
+        this(DEFAULT_FRAME_SIZE, DEFAULT_CACHE_LIMIT);
+    }
+
+    /**
+     * @param frameSize The size of head frames as call site, should cover loops of the extractors. (NotMinus)
+     * @param cacheLimit The limit of cached call sites. (NotMinus: zero means no cache)
+     */
+    public BehaviorInvokeCallSiteCache(int frameSize, int cacheLimit) {
+        _frameSize = frameSize;
+        _cacheLimit = cacheLimit;
+        _resultMap = newAccessOrderedMap(cacheLimit);
+    }
+
+    // ===================================================================================
+    //                                                                      Cache Handling
+    //                                                                      ==============
+    /**
+     * Create the key of call site, which refers to the head frames as slice of the stack trace.
+     * @param frames The frames of stack trace. (NotNull)
+     * @param tableDbName The DB name of table for the command. (NotNull)
+     * @param outsideSqlResultType The result type of outside-SQL. (NullAllowed: if not outside-SQL)
+     * @param outsideSqlAutoPaging Is the outside-SQL auto-paging?
+     * @return The new key of call site. (NotNull)
+     */
+    public CallSiteKey createKey(StackTraceFrames frames, String tableDbName, Class<?> outsideSqlResultType,
+            boolean outsideSqlAutoPaging) {
+        final StackTraceElement[] stackTrace = frames.getStackTrace();
+        final int beginIndex = frames.getOffset();
+        final int endIndex = beginIndex + Math.min(frames.getDepth(), _frameSize);
+        return new CallSiteKey(stackTrace, beginIndex, endIndex, tableDbName, outsideSqlResultType,
+                outsideSqlAutoPaging);
+    }
+
+    /**
+     * @param key The key of call site. (NotNull)
+     * @return The cached result. (NullAllowed: if not cached yet)
+     */
+    public CallSiteResult find(CallSiteKey key) {
+        synchronized (_resultMap) { // also updates the access order
+            return _resultMap.get(key);
+        }
+    }
+
+    /**
+     * @param key The key of call site. (NotNull)
+     * @param nameResult The result of behavior invoke name. (NotNull)
+     * @param pathResult The result of invoke path. (NullAllowed: when not found)
+     * @return The result of the call site. (NotNull)
+     */
+    public CallSiteResult register(CallSiteKey key, BehaviorInvokeNameResult nameResult,
+            BehaviorInvokePathResult pathResult) {
+        final CallSiteResult result = new CallSiteResult(nameResult, pathResult);
+        if (_cacheLimit == 0) { // no cache
+            return result;
+        }
+        final CallSiteKey detached = key.detach(); // not to hold the whole stack trace
+        synchronized (_resultMap) { // the eldest is evicted if over the limit
+            _resultMap.put(detached, result);
+        }
+        return result;
+    }
+
+    public void clear() {
+        synchronized (_resultMap) {
+            _resultMap.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (_resultMap) {
+            return _resultMap.size();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                           Call Site
+    //                                                                           =========
+    public static class CallSiteKey {
+
+        protected final StackTraceElement[] _stackTrace; // may be the whole stack trace before detached
+        protected final int _beginIndex;
+        protected final int _endIndex;
+        protected final String _tableDbName;
+        protected final Class<?> _outsideSqlResultType; // null allowed
+        protected final boolean _outsideSqlAutoPaging;
+        protected final int _hashCode;
+
+        public CallSiteKey(StackTraceElement[] stackTrace, int beginIndex, int endIndex, String tableDbName,
+                Class<?> outsideSqlResultType, boolean outsideSqlAutoPaging) {
+            _stackTrace = stackTrace;
+            _beginIndex = beginIndex;
+            _endIndex = endIndex;
+            _tableDbName = tableDbName;
+            _outsideSqlResultType = outsideSqlResultType;
+            _outsideSqlAutoPaging = outsideSqlAutoPaging;
+            _hashCode = hashSlice() * 31 + tableDbName.hashCode();
+        }
+
+        protected int hashSlice() {
+            int hash = 1;
+            for (int i = _beginIndex; i < _endIndex; i++) {
+                hash = 31 * hash + _stackTrace[i].hashCode();
+            }
+            return hash;
+        }
+
+        /**
+         * Detach the key from the stack trace by copying the slice.
+         * @return The new key that has only the slice. (NotNull)
+         */
+        public CallSiteKey detach() {
+            if (_beginIndex == 0 && _endIndex == _stackTrace.length) { // already only the slice
+                return this;
+            }
+            final StackTraceElement[] slice = Arrays.copyOfRange(_stackTrace, _beginIndex, _endIndex);
+            return new CallSiteKey(slice, 0, slice.length, _tableDbName, _outsideSqlResultType,
+                    _outsideSqlAutoPaging);
+        }
+
+        protected boolean isSameSlice(CallSiteKey other) {
+            if (_endIndex - _beginIndex != other._endIndex - other._beginIndex) {
+                return false;
+            }
+            for (int i = _beginIndex, j = other._beginIndex; i < _endIndex; i++, j++) {
+                if (!_stackTrace[i].equals(other._stackTrace[j])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CallSiteKey)) {
+                return false;
+            }
+            final CallSiteKey other = (CallSiteKey) obj;
+            return _hashCode == other._hashCode && _tableDbName.equals(other._tableDbName)
+                    && _outsideSqlResultType == other._outsideSqlResultType
+                    && _outsideSqlAutoPaging == other._outsideSqlAutoPaging
+                    && isSameSlice(other);
+        }
+
+        @Override
+        public String toString() {
+            final String head = _endIndex > _beginIndex ? String.valueOf(_stackTrace[_beginIndex]) : null;
+            return "{" + _tableDbName + ", frames=" + (_endIndex - _beginIndex) + ", head=" + head + "}";
+        }
+    }
+
+    public static class CallSiteResult {
+
+        protected final BehaviorInvokeNameResult _nameResult;
+        protected final BehaviorInvokePathResult _pathResult; // null allowed
+
+        public CallSiteResult(BehaviorInvokeNameResult nameResult, BehaviorInvokePathResult pathResult) {
+            _nameResult = nameResult;
+            _pathResult = pathResult;
+        }
+
+        public BehaviorInvokeNameResult getNameResult() {
+            return _nameResult;
+        }
+
+        public BehaviorInvokePathResult getPathResult() {
+            return _pathResult;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      General Helper
+    //                                                                      ==============
+    protected static <KEY, VALUE> Map<KEY, VALUE> newAccessOrderedMap(final int limit) {
+        return new LinkedHashMap<KEY, VALUE>(16, 0.75f, true) { // access order for LRU
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<KEY, VALUE> eldest) {
+                return size() > limit;
+            }
+        };
+    }
+}
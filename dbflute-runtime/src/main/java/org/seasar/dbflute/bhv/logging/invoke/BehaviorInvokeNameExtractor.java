@@ -24,6 +24,7 @@ import org.seasar.dbflute.cbean.PagingInvoker;
 import org.seasar.dbflute.dbmeta.DBMeta;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameExtractingResource;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 import org.seasar.dbflute.util.DfTypeUtil;
 
 /**
@@ -83,8 +84,16 @@ public class BehaviorInvokeNameExtractor {
      * @return The result of invoke name for behavior. (NotNull: if not found, head result is null)
      */
     public BehaviorInvokeNameResult extractBehaviorInvoke(StackTraceElement[] stackTrace) {
+        return extractBehaviorInvoke(new StackTraceFrames(stackTrace));
+    }
+
+    /**
+     * @param frames The frames of stack trace to extract invocation, read only in the loop range. (NotNull)
+     * @return The result of invoke name for behavior. (NotNull: if not found, head result is null)
+     */
+    public BehaviorInvokeNameResult extractBehaviorInvoke(StackTraceFrames frames) {
         final InvokeNameExtractingResource resource = createResource();
-        final List<InvokeNameResult> resultList = extractInvokeName(resource, stackTrace);
+        final List<InvokeNameResult> resultList = extractInvokeName(resource, frames);
         filterBehaviorResult(resultList);
 
         final InvokeNameResult headResult;
@@ -203,12 +212,11 @@ public class BehaviorInvokeNameExtractor {
     //                                                                 ===================
     /**
      * @param resource the call-back resource for invoke-name-extracting. (NotNull)
-     * @param stackTrace Stack log. (NotNull)
+     * @param frames The frames of stack trace. (NotNull)
      * @return The list of result of invoke name. (NotNull: If not found, returns empty string.)
      */
-    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource,
-            StackTraceElement[] stackTrace) {
-        return _coinLogic.extractInvokeName(resource, stackTrace);
+    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource, StackTraceFrames frames) {
+        return _coinLogic.extractInvokeName(resource, frames);
     }
 
     // ===================================================================================
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 
 /**
  * @author jflute
@@ -50,18 +51,23 @@ public class BehaviorInvokePathBuilder {
     //                                                                    ================
     public BehaviorInvokePathResult buildInvokePath(StackTraceElement[] stackTrace,
             BehaviorInvokeNameResult behaviorInvokeNameResult) {
+        return buildInvokePath(new StackTraceFrames(stackTrace), behaviorInvokeNameResult);
+    }
+
+    public BehaviorInvokePathResult buildInvokePath(StackTraceFrames frames,
+            BehaviorInvokeNameResult behaviorInvokeNameResult) {
         final InvokeNameResult behaviorHeadResult = behaviorInvokeNameResult.getInvokeNameHeadResult();
         final int bhvNextIndex = behaviorHeadResult != null ? behaviorHeadResult.getNextStartIndex() : -1;
 
         // extract client result
-        final ClientInvokeNameResult clinentInvokeNameResult = extractClientInvoke(stackTrace, bhvNextIndex);
+        final ClientInvokeNameResult clinentInvokeNameResult = extractClientInvoke(frames, bhvNextIndex);
         final List<InvokeNameResult> clientInvokeNameResultList = clinentInvokeNameResult.getInvokeNameResultList();
         final InvokeNameResult headClientResult = findHeadInvokeResult(clientInvokeNameResultList);
 
         // extract by-pass result
         final int clientFirstIndex = headClientResult != null ? headClientResult.getFoundFirstIndex() : -1;
         final int byPassLoopSize = clientFirstIndex - bhvNextIndex;
-        final ByPassInvokeNameResult byPassInvokeNameResult = extractByPassInvoke(stackTrace, bhvNextIndex,
+        final ByPassInvokeNameResult byPassInvokeNameResult = extractByPassInvoke(frames, bhvNextIndex,
                 byPassLoopSize);
         final List<InvokeNameResult> byPassResultList = byPassInvokeNameResult.getInvokeNameResultList();
         final InvokeNameResult headByPassResult = findHeadInvokeResult(byPassResultList);
@@ -93,10 +99,10 @@ public class BehaviorInvokePathBuilder {
     // ===================================================================================
     //                                                                       Client Invoke
     //                                                                       =============
-    protected ClientInvokeNameResult extractClientInvoke(StackTraceElement[] stackTrace, int startIndex) {
+    protected ClientInvokeNameResult extractClientInvoke(StackTraceFrames frames, int startIndex) {
         final List<String> suffixList = Arrays.asList(_clientNames);
         final ClientInvokeNameExtractor extractor = createClientInvokeNameExtractor(suffixList, startIndex);
-        return extractor.extractClientInvoke(stackTrace);
+        return extractor.extractClientInvoke(frames);
     }
 
     protected ClientInvokeNameExtractor createClientInvokeNameExtractor(List<String> suffixList, int startIndex) {
@@ -106,10 +112,10 @@ public class BehaviorInvokePathBuilder {
     // ===================================================================================
     //                                                                       ByPass Invoke
     //                                                                       =============
-    protected ByPassInvokeNameResult extractByPassInvoke(StackTraceElement[] stackTrace, int startIndex, int loopSize) {
+    protected ByPassInvokeNameResult extractByPassInvoke(StackTraceFrames frames, int startIndex, int loopSize) {
         final List<String> suffixList = Arrays.asList(_byPassNames);
         final ByPassInvokeNameExtractor extractor = createByPassInvokeNameExtractor(suffixList, startIndex, loopSize);
-        return extractor.extractByPassInvoke(stackTrace);
+        return extractor.extractByPassInvoke(frames);
     }
 
     protected ByPassInvokeNameExtractor createByPassInvokeNameExtractor(List<String> suffixList, int startIndex,
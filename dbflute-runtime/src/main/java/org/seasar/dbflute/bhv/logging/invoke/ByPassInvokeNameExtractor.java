@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.seasar.dbflute.helper.stacktrace.InvokeNameExtractingResource;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 
 /**
  * @author jflute
@@ -51,6 +52,10 @@ public class ByPassInvokeNameExtractor {
     //                                                                      Extract ByPass
     //                                                                      ==============
     public ByPassInvokeNameResult extractByPassInvoke(StackTraceElement[] stackTrace) {
+        return extractByPassInvoke(new StackTraceFrames(stackTrace));
+    }
+
+    public ByPassInvokeNameResult extractByPassInvoke(StackTraceFrames frames) {
         final InvokeNameExtractingResource resource = new InvokeNameExtractingResource() {
             public boolean isTargetElement(String className, String methodName) {
                 return isClassNameEndsWith(className, _suffixList);
@@ -72,7 +77,7 @@ public class ByPassInvokeNameExtractor {
                 return _loopSize >= 0 ? _loopSize : getInvocationExtractingMaxLoopSize();
             }
         };
-        final List<InvokeNameResult> invokeNameResultList = extractInvokeName(resource, stackTrace);
+        final List<InvokeNameResult> invokeNameResultList = extractInvokeName(resource, frames);
         return new ByPassInvokeNameResult(invokeNameResultList);
     }
 
@@ -85,12 +90,11 @@ public class ByPassInvokeNameExtractor {
     //                                                                 ===================
     /**
      * @param resource the call-back resource for invoke-name-extracting. (NotNull)
-     * @param stackTrace Stack log. (NotNull)
+     * @param frames The frames of stack trace. (NotNull)
      * @return The list of result of invoke name. (NotNull: If not found, returns empty string.)
      */
-    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource,
-            StackTraceElement[] stackTrace) {
-        return _coinLogic.extractInvokeName(resource, stackTrace);
+    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource, StackTraceFrames frames) {
+        return _coinLogic.extractInvokeName(resource, frames);
     }
 
     // ===================================================================================
@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.seasar.dbflute.helper.stacktrace.InvokeNameExtractingResource;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 
 /**
  * @author jflute
@@ -49,6 +50,10 @@ public class ClientInvokeNameExtractor {
     //                                                                      Extract Client
     //                                                                      ==============
     public ClientInvokeNameResult extractClientInvoke(StackTraceElement[] stackTrace) {
+        return extractClientInvoke(new StackTraceFrames(stackTrace));
+    }
+
+    public ClientInvokeNameResult extractClientInvoke(StackTraceFrames frames) {
         final InvokeNameExtractingResource resource = new InvokeNameExtractingResource() {
             public boolean isTargetElement(String className, String methodName) {
                 return isClassNameEndsWith(className, _suffixList);
@@ -70,7 +75,7 @@ public class ClientInvokeNameExtractor {
                 return getInvocationExtractingMaxLoopSize();
             }
         };
-        final List<InvokeNameResult> invokeNameResultList = extractInvokeName(resource, stackTrace);
+        final List<InvokeNameResult> invokeNameResultList = extractInvokeName(resource, frames);
         return new ClientInvokeNameResult(invokeNameResultList);
     }
 
@@ -83,12 +88,11 @@ public class ClientInvokeNameExtractor {
     //                                                                 ===================
     /**
      * @param resource the call-back resource for invoke-name-extracting. (NotNull)
-     * @param stackTrace Stack log. (NotNull)
+     * @param frames The frames of stack trace. (NotNull)
      * @return The list of result of invoke name. (NotNull: If not found, returns empty string.)
      */
-    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource,
-            StackTraceElement[] stackTrace) {
-        return _coinLogic.extractInvokeName(resource, stackTrace);
+    protected List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource, StackTraceFrames frames) {
+        return _coinLogic.extractInvokeName(resource, frames);
     }
 
     // ===================================================================================
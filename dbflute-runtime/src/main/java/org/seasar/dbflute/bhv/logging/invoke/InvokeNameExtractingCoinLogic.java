@@ -20,6 +20,7 @@ import java.util.List;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameExtractingResource;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameExtractor;
 import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
 
 /**
  * @author jflute
@@ -37,12 +38,21 @@ public class InvokeNameExtractingCoinLogic {
      */
     public List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource,
             StackTraceElement[] stackTrace) {
-        final InvokeNameExtractor extractor = createInvokeNameExtractor(stackTrace);
+        return extractInvokeName(resource, new StackTraceFrames(stackTrace));
+    }
+
+    /**
+     * @param resource the call-back resource for invoke-name-extracting. (NotNull)
+     * @param frames The frames of stack trace, read only in the loop range. (NotNull)
+     * @return The list of result of invoke name. (NotNull: If not found, returns empty string.)
+     */
+    public List<InvokeNameResult> extractInvokeName(InvokeNameExtractingResource resource, StackTraceFrames frames) {
+        final InvokeNameExtractor extractor = createInvokeNameExtractor(frames);
         return extractor.extractInvokeName(resource);
     }
 
-    public InvokeNameExtractor createInvokeNameExtractor(StackTraceElement[] stackTrace) {
-        return new InvokeNameExtractor(stackTrace);
+    public InvokeNameExtractor createInvokeNameExtractor(StackTraceFrames frames) {
+        return new InvokeNameExtractor(frames);
     }
 
     // ===================================================================================
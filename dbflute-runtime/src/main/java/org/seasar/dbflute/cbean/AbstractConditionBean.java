@@ -734,6 +734,19 @@ public abstract class AbstractConditionBean implements ConditionBean {
         fetchPage(pageNumber);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void pagingByKeyset(int pageSize, int pageNumber, Entity lastEntity) {
+        paging(pageSize, pageNumber);
+        final SqlClause sqlClause = getSqlClause();
+        if (lastEntity != null) {
+            sqlClause.registerKeysetPaging(sqlClause.extractKeysetPagingValueList(lastEntity));
+        } else {
+            sqlClause.clearKeysetPaging();
+        }
+    }
+
     protected void throwPagingPageSizeNotPlusException(int pageSize, int pageNumber) {
         createCBExThrower().throwPagingPageSizeNotPlusException(this, pageSize, pageNumber);
     }
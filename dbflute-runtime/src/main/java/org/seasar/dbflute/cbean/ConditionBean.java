@@ -17,6 +17,7 @@ package org.seasar.dbflute.cbean;
 
 import java.util.Map;
 
+import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.chelper.HpCBPurpose;
 import org.seasar.dbflute.cbean.chelper.HpColumnSpHandler;
 import org.seasar.dbflute.cbean.chelper.HpSpecifiedColumn;
@@ -282,6 +283,22 @@ public interface ConditionBean extends PagingBean {
      */
     boolean canPagingSelectAndQuerySplit();
 
+    /**
+     * Set up paging by keyset (seek), which skips the previous pages by the key values of the last entity
+     * instead of the offset so it is fast even if the page number is large. <br />
+     * The order-by should be unique by local not-null columns containing primary key.
+     * <pre>
+     * cb.query().addOrderBy_Birthdate_Desc();
+     * cb.query().addOrderBy_MemberId_Asc();
+     * cb.<span style="color: #DD4747">pagingByKeyset</span>(20, 3, lastMemberOfPage2);
+     * </pre>
+     * @param pageSize The page size per one page. (NotMinus, NotZero)
+     * @param pageNumber The number of page, which should be next to the page of the last entity. (NotMinus, NotZero)
+     * @param lastEntity The last entity on the previous page. (NullAllowed: means first page)
+     * @exception org.seasar.dbflute.exception.IllegalConditionBeanOperationException When the order-by is invalid for keyset paging.
+     */
+    void pagingByKeyset(int pageSize, int pageNumber, Entity lastEntity);
+
     // ===================================================================================
     //                                                                        Lock Setting
     //                                                                        ============
@@ -151,6 +151,7 @@ public class PagingInvoker<ENTITY> {
 
     protected PagingResultBean<ENTITY> reselect(PagingHandler<ENTITY> handler, PagingBean pagingBean,
             ResultBeanBuilder<ENTITY> builder, PagingResultBean<ENTITY> rb) {
+        clearKeysetPagingIfNeeds(pagingBean); // keyset is for the page next to the original page
         pagingBean.fetchPage(rb.getAllPageCount());
         final InvocationResultResource<ENTITY> resource = doPaging(handler, pagingBean, builder);
         final int allRecordCount = resource.getAllRecordCount();
@@ -158,6 +159,12 @@ public class PagingInvoker<ENTITY> {
         return builder.buildPagingResultBean(pagingBean, allRecordCount, selectedList);
     }
 
+    protected void clearKeysetPagingIfNeeds(PagingBean pagingBean) {
+        if (pagingBean instanceof ConditionBean) { // simple paging bean does not have keyset paging
+            ((ConditionBean) pagingBean).getSqlClause().clearKeysetPaging();
+        }
+    }
+
     /**
      * Is the current page is last page?
      * @param selectedList The selected list. (NotNull)
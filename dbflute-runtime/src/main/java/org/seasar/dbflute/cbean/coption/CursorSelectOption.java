@@ -27,6 +27,7 @@ public class CursorSelectOption {
     //                                                                           =========
     protected boolean _byPaging;
     protected boolean _orderByPK;
+    protected boolean _keyset;
     protected int _pageSize;
 
     // ===================================================================================
@@ -42,6 +43,27 @@ public class CursorSelectOption {
     public CursorSelectOption byPagingOrderByPK(int pageSize) {
         _byPaging = true;
         _orderByPK = true;
+        _keyset = false;
+        _pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Do cursor select by paging with keyset (seek). <br />
+     * The next page is selected by the key values of the last row on the previous page,
+     * e.g. (k1 &gt; ?) or (k1 = ? and k2 &gt; ?), instead of the offset,
+     * so the cost of one page does not depend on the page number. <br />
+     * The order-by should be unique by local not-null columns containing primary key
+     * (compound key and mixed ASC/DESC are allowed). <br />
+     * Consistent-read is not perfect but rows are neither duplicated nor skipped by other updates
+     * unless the key values are changed.
+     * @param pageSize The size of one page. (NotMinus, NotZero)
+     * @return this. (NotNull)
+     */
+    public CursorSelectOption byPagingKeyset(int pageSize) {
+        _byPaging = true;
+        _orderByPK = false;
+        _keyset = true;
         _pageSize = pageSize;
         return this;
     }
@@ -58,6 +80,7 @@ public class CursorSelectOption {
     public CursorSelectOption byPagingSimply(int pageSize) {
         _byPaging = true;
         _orderByPK = false;
+        _keyset = false;
         _pageSize = pageSize;
         return this;
     }
@@ -67,7 +90,7 @@ public class CursorSelectOption {
     //                                                                      ==============
     @Override
     public String toString() {
-        return "{" + _byPaging + ", " + _orderByPK + ", " + _pageSize + "}";
+        return "{" + _byPaging + ", " + _orderByPK + ", " + _keyset + ", " + _pageSize + "}";
     }
 
     // ===================================================================================
@@ -81,6 +104,10 @@ public class CursorSelectOption {
         return _orderByPK;
     }
 
+    public boolean isKeyset() {
+        return _keyset;
+    }
+
     public int getPageSize() {
         return _pageSize;
     }
@@ -28,7 +28,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.ManualOrderBean;
 import org.seasar.dbflute.cbean.chelper.HpCBPurpose;
 import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
@@ -59,6 +61,8 @@ import org.seasar.dbflute.cbean.sqlclause.query.QueryClause;
 import org.seasar.dbflute.cbean.sqlclause.query.QueryClauseFilter;
 import org.seasar.dbflute.cbean.sqlclause.query.QueryUsedAliasInfo;
 import org.seasar.dbflute.cbean.sqlclause.query.StringQueryClause;
+import org.seasar.dbflute.cbean.sqlclause.select.LocalSelectFragment;
+import org.seasar.dbflute.cbean.sqlclause.select.LocalSelectFragmentKey;
 import org.seasar.dbflute.cbean.sqlclause.select.SelectedRelationColumn;
 import org.seasar.dbflute.cbean.sqlclause.select.SpecifiedSelectColumnHandler;
 import org.seasar.dbflute.cbean.sqlclause.subquery.SubQueryIndentProcessor;
@@ -93,6 +97,15 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
     protected static final SelectClauseType DEFAULT_SELECT_CLAUSE_TYPE = SelectClauseType.COLUMNS;
     protected static final String SELECT_HINT = "/*$pmb.selectHint*/";
 
+    /** The limit size of the pool of select clause fragment. (fragments are not pooled after it) */
+    protected static final int LOCAL_SELECT_FRAGMENT_POOL_LIMIT = 1024;
+
+    /**
+     * The pool of select clause fragment for local columns, shared by all SQL clauses. <br />
+     * map:{DBMeta + SQL clause type + table + base point alias + alias limit size : fragment}
+     */
+    protected static final ConcurrentHashMap<LocalSelectFragmentKey, LocalSelectFragment> _localSelectFragmentPool = new ConcurrentHashMap<LocalSelectFragmentKey, LocalSelectFragment>();
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -228,6 +241,9 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
     /** Is fetch-narrowing effective? Default value is false but true when registered. */
     protected boolean _fetchScopeEffective;
 
+    /** The list of key values of the last row on the previous page for keyset paging. (NullAllowed: no keyset) */
+    protected List<Object> _keysetPagingValueList;
+
     // -----------------------------------------------------
     //                                          OrScopeQuery
     //                                          ------------
@@ -603,7 +619,16 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             columnInfoList = dbmeta.getColumnInfoList();
             validSpecifiedLocal = localSpecifiedMap != null && !localSpecifiedMap.isEmpty();
         }
+        if (!validSpecifiedLocal && isLocalSelectFragmentPoolable()) {
+            return processSelectClauseLocalByFragmentPool(sb, dbmeta, basePointAliasName, columnInfoList);
+        }
+        return doProcessSelectClauseLocal(sb, basePointAliasName, columnInfoList, localSpecifiedMap,
+                validSpecifiedLocal, null, null);
+    }
 
+    protected int doProcessSelectClauseLocal(StringBuilder sb, String basePointAliasName,
+            List<ColumnInfo> columnInfoList, Map<String, HpSpecifiedColumn> localSpecifiedMap,
+            boolean validSpecifiedLocal, List<String> realColumnNameList, List<String> onQueryNameList) {
         int selectIndex = 0; // because 1 origin in JDBC
         boolean needsDelimiter = false;
         for (ColumnInfo columnInfo : columnInfoList) {
@@ -622,9 +647,9 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             if (needsDelimiter) {
                 sb.append(", ");
             } else {
-                sb.append("select");
-                appendSelectHint(sb);
-                sb.append(" ");
+                if (onQueryNameList == null) { // the fragment does not contain it (the hint depends on the clause)
+                    appendSelectClauseBeginning(sb);
+                }
                 needsDelimiter = true;
             }
             final String realColumnName = basePointAliasName + "." + columnSqlName;
@@ -639,6 +664,10 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             }
             sb.append(decryptSelectColumnIfNeeds(columnInfo, realColumnName)).append(" as ").append(onQueryName);
             getSelectClauseRealColumnAliasMap().put(realColumnName, onQueryName);
+            if (onQueryNameList != null) { // when building fragment
+                realColumnNameList.add(realColumnName);
+                onQueryNameList.add(onQueryName);
+            }
 
             if (validSpecifiedLocal && localSpecifiedMap.containsKey(columnDbName)) {
                 final HpSpecifiedColumn specifiedColumn = localSpecifiedMap.get(columnDbName);
@@ -648,6 +677,81 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
         return selectIndex;
     }
 
+    protected void appendSelectClauseBeginning(StringBuilder sb) {
+        sb.append("select");
+        appendSelectHint(sb);
+        sb.append(" ");
+    }
+
+    // -----------------------------------------------------
+    //                                  Local Fragment Pool
+    //                                  -------------------
+    // /- - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
+    // The select clause of local columns for all columns (no specify-column)
+    // is the same text between condition-beans of the same table,
+    // so it is built once and shared (select index is registered per clause).
+    // The beginning 'select' with hint is not pooled because the hint depends
+    // on the state of the clause (e.g. union enclosing of SQLServer).
+    // - - - - - - - - - -/
+    protected boolean isLocalSelectFragmentPoolable() {
+        if (_pkOnlySelectForcedly || !_useSelectIndex || isSelectClauseTypeUniqueScalar()) {
+            return false;
+        }
+        // cipher might depend on the manager instance so no pool
+        return _gearedCipherManager == null || _suppressSelectColumnCipher;
+    }
+
+    protected int processSelectClauseLocalByFragmentPool(StringBuilder sb, DBMeta dbmeta, String basePointAliasName,
+            List<ColumnInfo> columnInfoList) {
+        final LocalSelectFragmentKey poolKey = buildLocalSelectFragmentPoolKey(dbmeta, basePointAliasName);
+        final LocalSelectFragment fragment = _localSelectFragmentPool.get(poolKey);
+        if (fragment == null) { // first time of the shape
+            final int columnSize = columnInfoList.size();
+            final List<String> realColumnNameList = new ArrayList<String>(columnSize);
+            final List<String> onQueryNameList = new ArrayList<String>(columnSize);
+            final StringBuilder fragmentSb = new StringBuilder();
+            final int selectIndex = doProcessSelectClauseLocal(fragmentSb, basePointAliasName, columnInfoList, null,
+                    false, realColumnNameList, onQueryNameList);
+            final String columnClause = fragmentSb.toString();
+            if (_localSelectFragmentPool.size() < getLocalSelectFragmentPoolLimit()) { // e.g. many dynamic DBMetas
+                _localSelectFragmentPool.putIfAbsent(poolKey, new LocalSelectFragment(columnClause,
+                        realColumnNameList, onQueryNameList));
+            }
+            if (selectIndex > 0) {
+                appendSelectClauseBeginning(sb);
+            }
+            sb.append(columnClause);
+            return selectIndex;
+        }
+        if (fragment.getColumnSize() > 0) {
+            appendSelectClauseBeginning(sb);
+        }
+        sb.append(fragment.getColumnClause());
+        final String entityNo = BASE_POINT_HANDLING_ENTITY_NO;
+        final Map<String, String> realColumnAliasMap = getSelectClauseRealColumnAliasMap();
+        final int columnSize = fragment.getColumnSize();
+        for (int i = 0; i < columnSize; i++) {
+            final String onQueryName = fragment.getOnQueryName(i);
+            final int selectIndex = i + 1; // because 1 origin in JDBC
+            registerSelectIndex(entityNo, columnInfoList.get(i).getColumnDbName(), onQueryName, selectIndex);
+            realColumnAliasMap.put(fragment.getRealColumnName(i), onQueryName);
+        }
+        return columnSize;
+    }
+
+    protected LocalSelectFragmentKey buildLocalSelectFragmentPoolKey(DBMeta dbmeta, String basePointAliasName) {
+        // the class is contained because alias building is extension point
+        // and the DBMeta is contained because other schemas may have the same table name
+        final StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getName()).append(":").append(_tableDbName);
+        sb.append(":").append(basePointAliasName).append(":").append(_aliasNameLimitSize);
+        return new LocalSelectFragmentKey(dbmeta, sb.toString());
+    }
+
+    protected int getLocalSelectFragmentPoolLimit() {
+        return LOCAL_SELECT_FRAGMENT_POOL_LIMIT;
+    }
+
     protected int processSelectClauseRelation(StringBuilder sb, int selectIndex) {
         if (_pkOnlySelectForcedly) {
             return selectIndex;
@@ -1083,9 +1187,24 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
         final Map<ColumnRealName, ColumnRealName> joinOnMap = joinInfo.getJoinOnMap();
         assertJoinOnMapNotEmpty(joinOnMap, foreignAliasName);
 
+        final boolean canBeInnerJoin = canBeInnerJoin(joinInfo, structuralPossibleInnerJoinAllowed);
+        final String builtClause = joinInfo.getBuiltJoinClause(canBeInnerJoin);
+        if (builtClause != null) { // e.g. second time in paging select
+            sb.append(builtClause);
+        } else {
+            final int beginIndex = sb.length();
+            doBuildLeftOuterJoinClause(sb, foreignAliasName, joinInfo, joinOnMap, canBeInnerJoin);
+            joinInfo.saveBuiltJoinClause(canBeInnerJoin, sb.substring(beginIndex));
+        }
+        if (isJoinInParentheses()) {
+            sb.append(")");
+        }
+    }
+
+    protected void doBuildLeftOuterJoinClause(StringBuilder sb, String foreignAliasName, LeftOuterJoinInfo joinInfo,
+            Map<ColumnRealName, ColumnRealName> joinOnMap, boolean canBeInnerJoin) {
         sb.append(ln()).append("   ");
         final String joinExp;
-        final boolean canBeInnerJoin = canBeInnerJoin(joinInfo, structuralPossibleInnerJoinAllowed);
         if (canBeInnerJoin) {
             joinExp = " inner join ";
         } else {
@@ -1099,9 +1218,6 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
         }
         sb.append(" on ");
         buildJoinOnClause(sb, joinInfo, joinOnMap);
-        if (isJoinInParentheses()) {
-            sb.append(")");
-        }
     }
 
     protected boolean canBeInnerJoin(LeftOuterJoinInfo joinInfo, boolean structuralPossibleInnerJoinAllowed) {
@@ -1236,6 +1352,12 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
     protected void buildWhereClause(StringBuilder sb, boolean template) {
         final List<QueryClause> whereList = getWhereList();
         if (whereList.isEmpty()) {
+            if (isKeysetPagingPredicateEffective()) {
+                sb.append(ln()).append(" ");
+                sb.append("where ").append(template ? getWhereFirstConditionMark() : "");
+                sb.append(buildKeysetPagingPredicate());
+                return;
+            }
             if (template) {
                 sb.append(" ").append(getWhereClauseMark());
             }
@@ -1253,6 +1375,9 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             }
             ++count;
         }
+        if (isKeysetPagingPredicateEffective()) {
+            sb.append(ln()).append("   and ").append(buildKeysetPagingPredicate());
+        }
     }
 
     // ===================================================================================
@@ -2392,6 +2517,9 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             String msg = "_fetchPageNumber must be plus: " + _fetchPageNumber;
             throw new IllegalStateException(msg);
         }
+        if (hasKeysetPaging()) { // previous pages are skipped by keyset predicate
+            return _fetchStartIndex;
+        }
         return _fetchStartIndex + (_fetchSize * (_fetchPageNumber - 1));
     }
 
@@ -2403,6 +2531,9 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
             String msg = "_fetchPageNumber must be plus: " + _fetchPageNumber;
             throw new IllegalStateException(msg);
         }
+        if (hasKeysetPaging()) { // same reason as start index
+            return _fetchStartIndex + _fetchSize;
+        }
         return _fetchStartIndex + (_fetchSize * _fetchPageNumber);
     }
 
@@ -3432,6 +3563,159 @@ public abstract class AbstractSqlClause implements SqlClause, Serializable {
         return false; // not allowed as default (e.g. MySQL overrides this)
     }
 
+    // [DBFlute-1.0.5K]
+    // ===================================================================================
+    //                                                                       Keyset Paging
+    //                                                                       =============
+    /**
+     * {@inheritDoc}
+     */
+    public void registerKeysetPaging(List<Object> lastKeyValueList) {
+        if (lastKeyValueList == null || lastKeyValueList.isEmpty()) {
+            String msg = "The argument 'lastKeyValueList' should not be null or empty: " + lastKeyValueList;
+            throw new IllegalArgumentException(msg);
+        }
+        final List<OrderByElement> keyElementList = prepareKeysetPagingElementList();
+        if (keyElementList.size() != lastKeyValueList.size()) {
+            String msg = "The size of key values should be same as order-by columns:";
+            msg = msg + " values=" + lastKeyValueList + ", orderBy=" + keyElementList;
+            throw new IllegalArgumentException(msg);
+        }
+        _keysetPagingValueList = new ArrayList<Object>(lastKeyValueList);
+        reflectKeysetPagingToFetchScope();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clearKeysetPaging() {
+        _keysetPagingValueList = null;
+        reflectKeysetPagingToFetchScope();
+    }
+
+    protected void reflectKeysetPagingToFetchScope() { // because some DBMS build paging clause when fetching
+        if (isFetchScopeEffective()) {
+            makeFetchScopeEffective();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasKeysetPaging() {
+        return _keysetPagingValueList != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Object> getKeysetPagingValueList() {
+        return _keysetPagingValueList;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Object> extractKeysetPagingValueList(Entity entity) {
+        final List<OrderByElement> keyElementList = prepareKeysetPagingElementList();
+        final List<Object> valueList = new ArrayList<Object>(keyElementList.size());
+        for (OrderByElement element : keyElementList) {
+            final Object value = element.getColumnInfo().read(entity);
+            valueList.add(value);
+        }
+        return valueList;
+    }
+
+    protected boolean isKeysetPagingPredicateEffective() {
+        // count or scalar select (e.g. count of paging) needs all records
+        return hasKeysetPaging() && isFetchScopeEffective() && !isSelectClauseTypeScalar();
+    }
+
+    /**
+     * Build the predicate to skip the previous pages for keyset paging. <br />
+     * It is expanded to support mixed ASC/DESC directions instead of row value comparison.
+     * <pre>
+     * e.g. order by k1 asc, k2 desc
+     *  ((dfloc.K1 &gt; v1)
+     *    or (dfloc.K1 = v1 and dfloc.K2 &lt; v2))
+     * </pre>
+     * @return The predicate clause with bind variable comments. (NotNull)
+     */
+    protected String buildKeysetPagingPredicate() {
+        final List<OrderByElement> keyElementList = getOrderBy().getOrderByList();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int i = 0; i < keyElementList.size(); i++) {
+            if (i > 0) {
+                sb.append(ln()).append("     or ");
+            }
+            sb.append("(");
+            for (int j = 0; j < i; j++) {
+                sb.append(keyElementList.get(j).getColumnFullName());
+                sb.append(" = ").append(buildKeysetPagingBindExp(j)).append(" and ");
+            }
+            final OrderByElement element = keyElementList.get(i);
+            sb.append(element.getColumnFullName()).append(element.isAsc() ? " > " : " < ");
+            sb.append(buildKeysetPagingBindExp(i)).append(")");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+
+    protected String buildKeysetPagingBindExp(int index) {
+        return "/*pmb.sqlClause.keysetPagingValueList.get(" + index + ")*/null";
+    }
+
+    protected List<OrderByElement> prepareKeysetPagingElementList() {
+        final List<OrderByElement> elementList = getOrderBy().getOrderByList();
+        if (elementList.isEmpty()) {
+            throwKeysetPagingInvalidOrderByException("The order-by is required.", elementList);
+        }
+        if (hasUnionQuery()) {
+            throwKeysetPagingInvalidOrderByException("The union query is unsupported.", elementList);
+        }
+        final String basePointAliasName = getBasePointAliasName();
+        final Set<ColumnInfo> keyColumnSet = new HashSet<ColumnInfo>();
+        for (OrderByElement element : elementList) {
+            final ColumnInfo columnInfo = element.getColumnInfo();
+            if (element.isDerivedOrderBy() || element.hasManualOrder() || columnInfo == null) {
+                throwKeysetPagingInvalidOrderByException("The order-by should be plain column.", elementList);
+            }
+            if (!basePointAliasName.equals(element.getAliasName())) {
+                throwKeysetPagingInvalidOrderByException("The order-by column should be local.", elementList);
+            }
+            if (!columnInfo.isNotNull()) {
+                throwKeysetPagingInvalidOrderByException("The order-by column should be not-null.", elementList);
+            }
+            keyColumnSet.add(columnInfo);
+        }
+        if (!keyColumnSet.containsAll(getDBMeta().getPrimaryUniqueInfo().getUniqueColumnList())) {
+            throwKeysetPagingInvalidOrderByException("The order-by should contain primary key.", elementList);
+        }
+        return elementList;
+    }
+
+    protected void throwKeysetPagingInvalidOrderByException(String notice, List<OrderByElement> elementList) {
+        final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
+        br.addNotice("The order-by was invalid for keyset paging. " + notice);
+        br.addItem("Advice");
+        br.addElement("Keyset paging needs unique order-by of local not-null columns");
+        br.addElement("that contains primary key (compound key allowed) at the end.");
+        br.addElement("  (x):");
+        br.addElement("    cb.query().addOrderBy_MemberName_Asc(); // might be duplicate");
+        br.addElement("  (o):");
+        br.addElement("    cb.query().addOrderBy_Birthdate_Desc();");
+        br.addElement("    cb.query().addOrderBy_MemberId_Asc(); // unique by PK");
+        br.addItem("Table");
+        br.addElement(_tableDbName);
+        br.addItem("OrderBy");
+        for (OrderByElement element : elementList) {
+            br.addElement(element);
+        }
+        final String msg = br.buildExceptionMessage();
+        throw new IllegalConditionBeanOperationException(msg);
+    }
+
     // ===================================================================================
     //                                                                       DBMeta Helper
     //                                                                       =============
@@ -18,6 +18,7 @@ package org.seasar.dbflute.cbean.sqlclause;
 import java.util.List;
 import java.util.Map;
 
+import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.ManualOrderBean;
 import org.seasar.dbflute.cbean.chelper.HpCBPurpose;
 import org.seasar.dbflute.cbean.chelper.HpDerivingSubQueryInfo;
@@ -1260,6 +1261,46 @@ public interface SqlClause {
      */
     boolean isCursorSelectByPagingAllowed();
 
+    // [DBFlute-1.0.5K]
+    // ===================================================================================
+    //                                                                       Keyset Paging
+    //                                                                       =============
+    /**
+     * Register the key values of the last row on the previous page for keyset (seek) paging. <br />
+     * The previous pages are skipped by the predicate of order-by columns
+     * e.g. (k1 &gt; ?) or (k1 = ? and k2 &gt; ?) instead of the offset of paging,
+     * so the page start index is always the first of fetch scope. <br />
+     * The order-by columns should be local not-null columns containing all primary key columns.
+     * @param lastKeyValueList The list of key values ordered as the order-by columns. (NotNull, NotEmpty)
+     * @exception org.seasar.dbflute.exception.IllegalConditionBeanOperationException When the order-by is invalid for keyset paging.
+     */
+    void registerKeysetPaging(List<Object> lastKeyValueList);
+
+    /**
+     * Clear the registered keyset paging, which means the first page.
+     */
+    void clearKeysetPaging();
+
+    /**
+     * Does it have keyset paging?
+     * @return The determination, true or false.
+     */
+    boolean hasKeysetPaging();
+
+    /**
+     * Get the list of key values for keyset paging. (basically for parameter comment)
+     * @return The list of key values. (NullAllowed: when no keyset paging)
+     */
+    List<Object> getKeysetPagingValueList();
+
+    /**
+     * Extract the key values for keyset paging from the entity (basically last row on the page).
+     * @param entity The entity that has the values of order-by columns. (NotNull)
+     * @return The list of key values ordered as the order-by columns. (NotNull)
+     * @exception org.seasar.dbflute.exception.IllegalConditionBeanOperationException When the order-by is invalid for keyset paging.
+     */
+    List<Object> extractKeysetPagingValueList(Entity entity);
+
     // [DBFlute-0.9.8.4]
     // ===================================================================================
     //                                                                               DBWay
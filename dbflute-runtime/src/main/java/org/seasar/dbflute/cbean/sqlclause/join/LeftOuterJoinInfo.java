@@ -64,6 +64,10 @@ public class LeftOuterJoinInfo implements Serializable {
     protected boolean _underInnerJoin; // option (true if the join has foreign's inner-join)
     protected boolean _whereUsedJoin; // option (true if used on where clause or foreign's use)
 
+    // built clause (cleared when join resource is changed, rebuilt after deserialization)
+    protected transient String _builtOuterJoinClause; // built as left outer join
+    protected transient String _builtInnerJoinClause; // built as inner join
+
     // ===================================================================================
     //                                                                       Determination
     //                                                                       =============
@@ -86,6 +90,7 @@ public class LeftOuterJoinInfo implements Serializable {
             // over-relation should be determined before resolving
             _fixedConditionOverRelation = _fixedConditionResolver.hasOverRelation(_fixedCondition);
             _fixedCondition = _fixedConditionResolver.resolveVariable(_fixedCondition, false);
+            clearBuiltJoinClause();
         }
     }
 
@@ -141,6 +146,44 @@ public class LeftOuterJoinInfo implements Serializable {
         return isInnerJoin() || isPureStructuralPossibleInnerJoin();
     }
 
+    // ===================================================================================
+    //                                                                        Built Clause
+    //                                                                        ============
+    /**
+     * Get the join clause built before for the join type. <br />
+     * The clause is cached only when the join has no in-line or on-clause queries,
+     * which are added to the lists directly so they cannot be tracked here.
+     * @param innerJoin Is the join treated as inner join?
+     * @return The built join clause. (NullAllowed: when not built yet or cannot be cached)
+     */
+    public String getBuiltJoinClause(boolean innerJoin) {
+        if (hasInlineOrOnClause()) {
+            return null;
+        }
+        return innerJoin ? _builtInnerJoinClause : _builtOuterJoinClause;
+    }
+
+    /**
+     * Save the built join clause for the join type. (ignored if the join has in-line or on-clause queries)
+     * @param innerJoin Is the join treated as inner join?
+     * @param joinClause The built join clause. (NotNull)
+     */
+    public void saveBuiltJoinClause(boolean innerJoin, String joinClause) {
+        if (hasInlineOrOnClause()) {
+            return;
+        }
+        if (innerJoin) {
+            _builtInnerJoinClause = joinClause;
+        } else {
+            _builtOuterJoinClause = joinClause;
+        }
+    }
+
+    protected void clearBuiltJoinClause() {
+        _builtOuterJoinClause = null;
+        _builtInnerJoinClause = null;
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
@@ -150,6 +193,7 @@ public class LeftOuterJoinInfo implements Serializable {
 
     public void setForeignAliasName(String foreignAliasName) {
         _foreignAliasName = foreignAliasName;
+        clearBuiltJoinClause();
     }
 
     public String getForeignTableDbName() {
@@ -158,6 +202,7 @@ public class LeftOuterJoinInfo implements Serializable {
 
     public void setForeignTableDbName(String foreignTableDbName) {
         _foreignTableDbName = foreignTableDbName;
+        clearBuiltJoinClause();
     }
 
     public String getLocalAliasName() {
@@ -182,6 +227,7 @@ public class LeftOuterJoinInfo implements Serializable {
 
     public void setJoinOnMap(Map<ColumnRealName, ColumnRealName> joinOnMap) {
         _joinOnMap = joinOnMap;
+        clearBuiltJoinClause();
     }
 
     public LeftOuterJoinInfo getLocalJoinInfo() {
@@ -230,6 +276,7 @@ public class LeftOuterJoinInfo implements Serializable {
 
     public void setFixedCondition(String fixedCondition) {
         _fixedCondition = fixedCondition;
+        clearBuiltJoinClause();
     }
 
     public FixedConditionResolver getFixedConditionResolver() {
@@ -238,6 +285,7 @@ public class LeftOuterJoinInfo implements Serializable {
 
     public void setFixedConditionResolver(FixedConditionResolver fixedConditionResolver) {
         _fixedConditionResolver = fixedConditionResolver;
+        clearBuiltJoinClause();
     }
 
     public boolean isInnerJoin() {
@@ -383,6 +383,10 @@ public class OrderByElement implements Serializable {
         _nullsFirst = nullsFirst;
     }
 
+    public boolean hasManualOrder() {
+        return _manualOrderBean != null && _manualOrderBean.hasManualOrder();
+    }
+
     public void setManualOrderBean(ManualOrderBean manualOrderBean) {
         _manualOrderBean = manualOrderBean;
     }
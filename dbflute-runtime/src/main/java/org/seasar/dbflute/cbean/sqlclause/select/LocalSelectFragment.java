@@ -0,0 +1,69 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.sqlclause.select;
+
+import java.util.List;
+
+/**
+ * The fragment of select clause for local columns, which is shared between SQL clauses
+ * of the same table and the same select shape (all columns, no cipher). <br />
+ * It is immutable so it can be shared by threads.
+ * @author jflute
+ * @since 1.0.5K (2014/07/02 Wednesday)
+ */
+public class LocalSelectFragment {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _columnClause;
+    protected final String[] _realColumnNames; // same order as column info list
+    protected final String[] _onQueryNames; // same order as column info list
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param columnClause The column list of select clause for local columns without 'select' and hint,
+     * e.g. "dfloc.MEMBER_ID as MEMBER_ID, ...". (NotNull)
+     * @param realColumnNameList The list of real column names, e.g. "dfloc.MEMBER_ID". (NotNull)
+     * @param onQueryNameList The list of on-query names (alias names) of the columns. (NotNull)
+     */
+    public LocalSelectFragment(String columnClause, List<String> realColumnNameList, List<String> onQueryNameList) {
+        _columnClause = columnClause;
+        _realColumnNames = realColumnNameList.toArray(new String[realColumnNameList.size()]);
+        _onQueryNames = onQueryNameList.toArray(new String[onQueryNameList.size()]);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getColumnClause() {
+        return _columnClause;
+    }
+
+    public int getColumnSize() {
+        return _onQueryNames.length;
+    }
+
+    public String getRealColumnName(int index) {
+        return _realColumnNames[index];
+    }
+
+    public String getOnQueryName(int index) {
+        return _onQueryNames[index];
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.sqlclause.select;
+
+import org.seasar.dbflute.dbmeta.DBMeta;
+
+/**
+ * The key of local select fragment in the pool, which consists of the DBMeta instance
+ * and the shape of select clause (e.g. SQL clause type, alias). <br />
+ * The DBMeta is compared by identity because DBMetas of different schemas may have the same table name.
+ * @author jflute
+ * @since 1.0.5K (2014/07/02 Wednesday)
+ */
+public class LocalSelectFragmentKey {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final DBMeta _dbmeta;
+    protected final String _shape;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param dbmeta The DBMeta of the base point table. (NotNull)
+     * @param shape The shape of select clause, e.g. "SqlClauseOracle:MEMBER:dfloc:30". (NotNull)
+     */
+    public LocalSelectFragmentKey(DBMeta dbmeta, String shape) {
+        _dbmeta = dbmeta;
+        _shape = shape;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(_dbmeta) * 31 + _shape.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof LocalSelectFragmentKey)) {
+            return false;
+        }
+        final LocalSelectFragmentKey other = (LocalSelectFragmentKey) obj;
+        return _dbmeta == other._dbmeta && _shape.equals(other._shape);
+    }
+
+    @Override
+    public String toString() {
+        return "{" + _dbmeta.getClass().getName() + ", " + _shape + "}";
+    }
+}
@@ -49,6 +49,12 @@ public interface DBWay {
 
     boolean isLineCommentSupported();
 
+    /**
+     * Is the multiple-row insert statement supported? e.g. insert into ... values (...), (...)
+     * @return The determination, true or false.
+     */
+    boolean isMultipleRowInsertSupported();
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
@@ -58,6 +58,10 @@ public class WayOfDB2 implements DBWay, Serializable {
         return true;
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return false;
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
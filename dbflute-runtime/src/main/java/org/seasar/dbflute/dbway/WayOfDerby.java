@@ -56,6 +56,10 @@ public class WayOfDerby implements DBWay, Serializable {
         return true;
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return false;
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
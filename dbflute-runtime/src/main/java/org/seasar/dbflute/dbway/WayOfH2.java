@@ -56,6 +56,10 @@ public class WayOfH2 implements DBWay, Serializable {
         return true;
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return true;
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
@@ -56,6 +56,10 @@ public class WayOfMSAccess implements DBWay, Serializable {
         return false;
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return false;
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
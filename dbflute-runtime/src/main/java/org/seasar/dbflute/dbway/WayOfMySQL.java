@@ -75,6 +75,10 @@ public class WayOfMySQL implements DBWay, Serializable {
         return true;
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return true;
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
@@ -56,6 +56,10 @@ public class WayOfUnknown implements DBWay, Serializable {
         return true; // as default for unknown
     }
 
+    public boolean isMultipleRowInsertSupported() {
+        return false; // as default for unknown
+    }
+
     // ===================================================================================
     //                                                                        JDBC Support
     //                                                                        ============
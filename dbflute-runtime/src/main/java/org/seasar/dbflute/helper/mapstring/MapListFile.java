@@ -23,6 +23,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -173,10 +174,20 @@ public class MapListFile {
     // -----------------------------------------------------
     //                                                 Write
     //                                                 -----
-    public void writeMap(OutputStream ous, Map<String, ? extends Object> map) throws IOException {
+    /**
+     * Write the map string file. <br />
+     * The map string is directly written to the stream without building whole string.
+     * @param ous The output stream for DBFlute property file, which is closed here. (NotNull)
+     * @param map The written map. (NotNull)
+     * @throws IOException
+     */
+    public void writeMap(OutputStream ous, final Map<String, ? extends Object> map) throws IOException {
         final MapListString mapListString = createMapListString();
-        final String mapString = mapListString.buildMapString(map);
-        writeString(ous, mapString);
+        doWrite(ous, new MapListWriteCallback() {
+            public void write(Writer writer) throws IOException {
+                mapListString.writeMapString(map, writer);
+            }
+        });
     }
 
     // ===================================================================================
@@ -213,10 +224,20 @@ public class MapListFile {
     // -----------------------------------------------------
     //                                                 Write
     //                                                 -----
-    public void writeList(OutputStream ous, List<Object> list) throws IOException {
+    /**
+     * Write the list string file. <br />
+     * The list string is directly written to the stream without building whole string.
+     * @param ous The output stream for DBFlute property file, which is closed here. (NotNull)
+     * @param list The written list. (NotNull)
+     * @throws IOException
+     */
+    public void writeList(OutputStream ous, final List<Object> list) throws IOException {
         final MapListString mapListString = createMapListString();
-        final String listString = mapListString.buildListString(list);
-        writeString(ous, listString);
+        doWrite(ous, new MapListWriteCallback() {
+            public void write(Writer writer) throws IOException {
+                mapListString.writeListString(list, writer);
+            }
+        });
     }
 
     // ===================================================================================
@@ -289,14 +310,23 @@ public class MapListFile {
     // -----------------------------------------------------
     //                                                 Write
     //                                                 -----
-    public void writeString(OutputStream ous, String mapListString) throws IOException {
+    public void writeString(OutputStream ous, final String mapListString) throws IOException {
+        final String encoding = getFileEncoding();
+        doWrite(ous, new MapListWriteCallback() {
+            public void write(Writer writer) throws IOException {
+                writer.write(removeInitialUnicodeBomIfNeeds(encoding, mapListString));
+            }
+        });
+    }
+
+    protected void doWrite(OutputStream ous, MapListWriteCallback callback) throws IOException {
         final String encoding = getFileEncoding();
         OutputStreamWriter ow = null;
         BufferedWriter bw = null;
         try {
             ow = new OutputStreamWriter(ous, encoding);
             bw = new BufferedWriter(ow);
-            bw.write(removeInitialUnicodeBomIfNeeds(encoding, mapListString));
+            callback.write(bw);
             bw.flush();
         } catch (UnsupportedEncodingException e) {
             String msg = "The encoding is unsupported: " + encoding;
@@ -311,6 +341,10 @@ public class MapListFile {
         }
     }
 
+    protected static interface MapListWriteCallback {
+        void write(Writer writer) throws IOException;
+    }
+
     // ===================================================================================
     //                                                                              Option
     //                                                                              ======
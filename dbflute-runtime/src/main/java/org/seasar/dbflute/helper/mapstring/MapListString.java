@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.helper.mapstring;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -95,8 +96,20 @@ public class MapListString {
     /** The string of top (full) string as temporary variable for generation. (NullAllowed: depends on process) */
     protected String _topString;
 
-    /** The string of remainder as temporary variable for generation. (NullAllowed: depends on process) */
-    protected String _remainderString;
+    /** The trimmed top string parsed by the cursor for generation. (NullAllowed: depends on process) */
+    protected String _parsedString;
+
+    /** The cursor index of the parsed string as temporary variable for generation. */
+    protected int _currentIndex;
+
+    /** The search of equal mark as temporary variable for generation. (NullAllowed: depends on process) */
+    protected ControlMarkSearch _equalSearch;
+
+    /** The search of delimiter as temporary variable for generation. (NullAllowed: depends on process) */
+    protected ControlMarkSearch _delimiterSearch;
+
+    /** The search of end-brace as temporary variable for generation. (NullAllowed: depends on process) */
+    protected ControlMarkSearch _endBraceSearch;
 
     // ===================================================================================
     //                                                                         Constructor
@@ -125,13 +138,30 @@ public class MapListString {
      */
     public String buildMapString(Map<String, ? extends Object> map) {
         final StringBuilder sb = new StringBuilder();
+        try {
+            writeMapString(map, sb);
+        } catch (IOException e) { // no way because of string builder
+            String msg = "Failed to build the map string: " + map.keySet();
+            throw new IllegalStateException(msg, e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write map-string of the map object to the output, e.g. writer of file. <br />
+     * The whole string is not built on memory so it is for large map.
+     * @param map The map object that has string keys. (NotNull)
+     * @param out The output of the map-string, not closed here. (NotNull)
+     * @throws IOException When it fails to append to the output.
+     */
+    public void writeMapString(Map<String, ? extends Object> map, Appendable out) throws IOException {
         @SuppressWarnings("unchecked")
         final Map<String, Object> casted = (Map<String, Object>) map;
-        doBuildMapString(sb, casted, "", "    ");
-        return sb.toString();
+        doBuildMapString(out, casted, "", "    ");
     }
 
-    protected void doBuildMapString(StringBuilder sb, Map<String, Object> map, String preIndent, String curIndent) {
+    protected void doBuildMapString(Appendable sb, Map<String, Object> map, String preIndent, String curIndent)
+            throws IOException {
         sb.append(_mapMark).append(_startBrace);
         final Set<Entry<String, Object>> entrySet = map.entrySet();
         for (Entry<String, ? extends Object> entry : entrySet) {
@@ -161,13 +191,30 @@ public class MapListString {
      */
     public String buildListString(List<? extends Object> list) {
         final StringBuilder sb = new StringBuilder();
+        try {
+            writeListString(list, sb);
+        } catch (IOException e) { // no way because of string builder
+            String msg = "Failed to build the list string: size=" + list.size();
+            throw new IllegalStateException(msg, e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write list-string of the list object to the output, e.g. writer of file. <br />
+     * The whole string is not built on memory so it is for large list.
+     * @param list The list object that has object elements. (NotNull)
+     * @param out The output of the list-string, not closed here. (NotNull)
+     * @throws IOException When it fails to append to the output.
+     */
+    public void writeListString(List<? extends Object> list, Appendable out) throws IOException {
         @SuppressWarnings("unchecked")
         final List<Object> casted = (List<Object>) list;
-        doBuildListString(sb, casted, "", "    ");
-        return sb.toString();
+        doBuildListString(out, casted, "", "    ");
     }
 
-    protected void doBuildListString(StringBuilder sb, List<? extends Object> list, String preIndent, String curIndent) {
+    protected void doBuildListString(Appendable sb, List<? extends Object> list, String preIndent, String curIndent)
+            throws IOException {
         sb.append(_listMark).append(_startBrace);
         for (Object value : list) {
             sb.append(ln()).append(curIndent).append(_delimiter);
@@ -207,15 +254,12 @@ public class MapListString {
     public Map<String, Object> generateMap(String mapString) {
         assertMapString(mapString);
 
-        _topString = mapString;
-        _remainderString = mapString;
-
-        removeBothSideSpaceAndTabAndNewLine();
+        beginParsing(mapString);
         removePrefixMapMarkAndStartBrace();
 
         final Map<String, Object> generatedMap = newStringObjectMap();
         parseRemainderMapString(generatedMap);
-        if (!"".equals(_remainderString)) {
+        if (!isRemainderEmpty()) {
             throwMapStringUnneededStringFoundException(mapString, generatedMap);
         }
         return generatedMap;
@@ -225,7 +269,7 @@ public class MapListString {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Final remainderString should be empty string but ...");
         br.addItem("Remainder String");
-        br.addElement(_remainderString);
+        br.addElement(getRemainderString());
         br.addItem("Map String");
         br.addElement(mapString);
         br.addItem("Generated Map");
@@ -243,15 +287,12 @@ public class MapListString {
     public List<Object> generateList(String listString) {
         assertListString(listString);
 
-        _topString = listString;
-        _remainderString = listString;
-
-        removeBothSideSpaceAndTabAndNewLine();
+        beginParsing(listString);
         removePrefixListMarkAndStartBrace();
 
         final List<Object> generatedList = newObjectList();
         parseRemainderListString(generatedList);
-        if (!"".equals(_remainderString)) {
+        if (!isRemainderEmpty()) {
             throwListStringUnneededStringFoundException(listString, generatedList);
         }
         return generatedList;
@@ -261,7 +302,7 @@ public class MapListString {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Final remainderString should be empty string but ...");
         br.addItem("Remainder String");
-        br.addElement(_remainderString);
+        br.addElement(getRemainderString());
         br.addItem("List String");
         br.addElement(listString);
         br.addItem("Generated List");
@@ -271,6 +312,63 @@ public class MapListString {
         throw new MapListStringParseFailureException(msg);
     }
 
+    // ===================================================================================
+    //                                                                              Cursor
+    //                                                                              ======
+    /**
+     * Begin parsing the top string by the cursor. <br />
+     * The parsed string is never cut during parsing, only the cursor index moves forward,
+     * so parsing costs linear time for the length of the string.
+     * @param topString The top (full) string to be parsed. (NotNull)
+     */
+    protected void beginParsing(String topString) {
+        _topString = topString;
+        _parsedString = topString.trim();
+        _currentIndex = 0;
+        _equalSearch = new ControlMarkSearch(_equal);
+        _delimiterSearch = new ControlMarkSearch(_delimiter);
+        _endBraceSearch = new ControlMarkSearch(_endBrace);
+    }
+
+    /**
+     * Get the remainder string after the cursor, which is built only for messages.
+     * @return The string of remainder. (NullAllowed: when before parsing)
+     */
+    protected String getRemainderString() {
+        return _parsedString != null ? _parsedString.substring(_currentIndex) : null;
+    }
+
+    protected boolean isRemainderEmpty() {
+        return _currentIndex >= _parsedString.length();
+    }
+
+    /**
+     * Does the trimmed remainder start with the prefix?
+     * @param prefix The prefix string to determine. (NotNull)
+     * @return The determination, true or false.
+     */
+    protected boolean isRemainderStartsWith(String prefix) {
+        return _parsedString.startsWith(prefix, skipSpaceAndTabAndNewLine(_currentIndex));
+    }
+
+    protected int skipSpaceAndTabAndNewLine(int index) {
+        final String str = _parsedString;
+        final int length = str.length();
+        while (index < length && str.charAt(index) <= ' ') { // same as trim()
+            ++index;
+        }
+        return index;
+    }
+
+    /**
+     * Get the relative index from the cursor for messages.
+     * @param index The absolute index of the parsed string. (MinusAllowed: not found)
+     * @return The index as remainder string. (MinusAllowed: not found)
+     */
+    protected int toRemainderIndex(int index) {
+        return index >= 0 ? index - _currentIndex : index;
+    }
+
     // ===================================================================================
     //                                                                               Parse
     //                                                                               =====
@@ -284,17 +382,17 @@ public class MapListString {
                 return;
             }
 
-            // *** now, _remainderString should starts with the key of the map ***
+            // *** now, the remainder should starts with the key of the map ***
 
             final int equalIndex = indexOfEqual();
-            assertMapStringEqualIndex(_remainderString, equalIndex, _topString, currentMap);
-            final String mapKey = _remainderString.substring(0, equalIndex).trim();
+            assertMapStringEqualIndex(equalIndex, currentMap);
+            final String mapKey = _parsedString.substring(_currentIndex, equalIndex).trim();
             removePrefixTargetIndexPlus(equalIndex, _equal.length());
             removeBothSideSpaceAndTabAndNewLine();
 
-            // *** now, _remainderString should starts with the value of the map ***
+            // *** now, the remainder should starts with the value of the map ***
 
-            if (isStartsWithMapPrefix(_remainderString)) {
+            if (isRemainderStartsWith(getMapPrefix())) {
                 removePrefixMapMarkAndStartBrace();
                 parseRemainderMapString(setupNestMap(currentMap, mapKey));
                 if (closeAfterParseNestMapList()) {
@@ -303,7 +401,7 @@ public class MapListString {
                 continue;
             }
 
-            if (isStartsWithListPrefix(_remainderString)) {
+            if (isRemainderStartsWith(getListPrefix())) {
                 removePrefixListMarkAndStartBrace();
                 parseRemainderListString(setupNestList(currentMap, mapKey));
                 if (closeAfterParseNestMapList()) {
@@ -314,11 +412,11 @@ public class MapListString {
 
             final int delimiterIndex = indexOfDelimiter();
             final int endBraceIndex = indexOfEndBrace();
-            assertMapStringEndBraceIndex(_remainderString, endBraceIndex, _topString, currentMap);
+            assertMapStringEndBraceIndex(endBraceIndex, currentMap);
 
             if (delimiterIndex >= 0 && delimiterIndex < endBraceIndex) { // delimiter exists
                 // e.g. value1 ; key2=value2}
-                final String mapValue = _remainderString.substring(0, delimiterIndex);
+                final String mapValue = _parsedString.substring(_currentIndex, delimiterIndex);
                 currentMap.put(filterMapListKey(mapKey), filterMapListValue(mapValue));
 
                 // because the map element continues since the delimiter,
@@ -328,7 +426,7 @@ public class MapListString {
             }
 
             // e.g. value1} ; key2=value2}
-            final String mapValue = _remainderString.substring(0, endBraceIndex);
+            final String mapValue = _parsedString.substring(_currentIndex, endBraceIndex);
             currentMap.put(filterMapListKey(mapKey), filterMapListValue(mapValue));
 
             // analyzing map is over, so close and return.
@@ -347,9 +445,9 @@ public class MapListString {
                 return;
             }
 
-            // *** now, _remainderString should starts with the value of the list ***
+            // *** now, the remainder should starts with the value of the list ***
 
-            if (isStartsWithMapPrefix(_remainderString)) {
+            if (isRemainderStartsWith(getMapPrefix())) {
                 removePrefixMapMarkAndStartBrace();
                 parseRemainderMapString(setupNestMap(currentList));
                 if (closeAfterParseNestMapList()) {
@@ -358,7 +456,7 @@ public class MapListString {
                 continue;
             }
 
-            if (isStartsWithListPrefix(_remainderString)) {
+            if (isRemainderStartsWith(getListPrefix())) {
                 removePrefixListMarkAndStartBrace();
                 parseRemainderListString(setupNestList(currentList));
                 if (closeAfterParseNestMapList()) {
@@ -369,11 +467,11 @@ public class MapListString {
 
             final int delimiterIndex = indexOfDelimiter();
             final int endBraceIndex = indexOfEndBrace();
-            assertListStringEndBraceIndex(_remainderString, endBraceIndex, _topString, currentList);
+            assertListStringEndBraceIndex(endBraceIndex, currentList);
 
             if (delimiterIndex >= 0 && delimiterIndex < endBraceIndex) { // delimiter exists
                 // e.g. value1 ; value2 ; value3}
-                final String listValue = _remainderString.substring(0, delimiterIndex);
+                final String listValue = _parsedString.substring(_currentIndex, delimiterIndex);
                 currentList.add(filterMapListValue(listValue));
 
                 // because the list element continues since the delimiter,
@@ -383,7 +481,7 @@ public class MapListString {
             }
 
             // e.g. value1}, value2, }
-            final String listValue = _remainderString.substring(0, endBraceIndex);
+            final String listValue = _parsedString.substring(_currentIndex, endBraceIndex);
             currentList.add(filterMapListValue(listValue));
 
             // analyzing list is over, so close and return
@@ -397,13 +495,13 @@ public class MapListString {
      * @return Is is end?
      */
     protected boolean initializeAtLoopBeginning() {
-        // remove prefix delimiter (result string is always trimmed)
+        // remove prefix delimiter (result remainder is always trimmed)
         removePrefixAllDelimiter();
 
-        if (_remainderString.equals("")) { // analyzing is over
+        if (isRemainderEmpty()) { // analyzing is over
             return true;
         }
-        if (isStartsWithEndBrace(_remainderString)) { // analyzing current map is over
+        if (isRemainderStartsWith(_endBrace)) { // analyzing current map is over
             removePrefixEndBrace();
             return true;
         }
@@ -415,7 +513,7 @@ public class MapListString {
      * @return Is is closed?
      */
     protected boolean closeAfterParseNestMapList() {
-        if (isStartsWithEndBrace(_remainderString)) {
+        if (isRemainderStartsWith(_endBrace)) {
             removePrefixEndBrace();
             return true;
         }
@@ -424,51 +522,76 @@ public class MapListString {
 
     /**
      * Close by end-brace index.
-     * @param endBraceIndex The index of end-brace. (NotMinus)
+     * @param endBraceIndex The index of end-brace in the parsed string. (NotMinus)
      */
     protected void closeByEndBraceIndex(int endBraceIndex) {
-        _remainderString = _remainderString.substring(endBraceIndex);
+        _currentIndex = endBraceIndex;
         removePrefixEndBrace();
     }
 
     protected int indexOfStartBrace() {
-        return findIndexOfControlMark(_remainderString, _startBrace);
+        return findIndexOfControlMark(_parsedString, _currentIndex, _startBrace);
     }
 
     protected int indexOfEndBrace() {
-        return findIndexOfControlMark(_remainderString, _endBrace);
+        return searchIndexOfControlMark(_endBraceSearch);
     }
 
     protected int indexOfDelimiter() {
-        return findIndexOfControlMark(_remainderString, _delimiter);
+        return searchIndexOfControlMark(_delimiterSearch);
     }
 
     protected int indexOfEqual() {
-        return findIndexOfControlMark(_remainderString, _equal);
+        return searchIndexOfControlMark(_equalSearch);
+    }
+
+    /**
+     * Search the index of the control mark from the cursor. <br />
+     * The cursor only moves forward so the previous result is reused
+     * while the cursor does not go over the found index.
+     * @param search The search of the control mark. (NotNull)
+     * @return The index in the parsed string. (MinusAllowed: not found)
+     */
+    protected int searchIndexOfControlMark(ControlMarkSearch search) {
+        final String controlMark = search.getControlMark();
+        final int fromIndex = _currentIndex;
+        if (isEscapeCharEscape()) { // cannot reuse because of replacement
+            return findIndexOfControlMark(_parsedString, fromIndex, controlMark);
+        }
+        if (_parsedString.startsWith(controlMark, fromIndex)) { // not escaped at the beginning
+            return fromIndex;
+        }
+        if (search.isReusable(fromIndex)) {
+            return search.getFoundIndex();
+        }
+        final int foundIndex = findIndexOfControlMark(_parsedString, fromIndex, controlMark);
+        search.save(fromIndex, foundIndex);
+        return foundIndex;
     }
 
-    protected int findIndexOfControlMark(String remainderString, String controlMark) {
-        String current = remainderString;
+    protected int findIndexOfControlMark(String targetString, int fromIndex, String controlMark) {
         if (isEscapeCharEscape()) {
             final String escapedEscapeChar = toEscapedMark(_escapeChar);
-            current = replace(current, escapedEscapeChar, buildLengthSpace(escapedEscapeChar));
+            final String current = targetString.substring(fromIndex);
+            final String replaced = replace(current, escapedEscapeChar, buildLengthSpace(escapedEscapeChar));
+            final int index = doFindIndexOfControlMark(replaced, 0, controlMark);
+            return index >= 0 ? fromIndex + index : index;
         }
-        int baseIndex = 0;
+        return doFindIndexOfControlMark(targetString, fromIndex, controlMark);
+    }
+
+    protected int doFindIndexOfControlMark(String targetString, int fromIndex, String controlMark) {
+        int searchIndex = fromIndex;
         while (true) {
-            final int index = current.indexOf(controlMark);
+            final int index = targetString.indexOf(controlMark, searchIndex);
             if (index < 0) { // not found
                 return index;
             }
-            if (index > 0) {
-                final String lastChar = current.substring(index - 1, index);
-                if (_escapeChar.equals(lastChar)) { // escaped
-                    final int nextIndex = index + _escapeChar.length();
-                    baseIndex = baseIndex + nextIndex;
-                    current = current.substring(nextIndex);
-                    continue;
-                }
+            if (index > searchIndex && targetString.startsWith(_escapeChar, index - 1)) { // escaped
+                searchIndex = index + _escapeChar.length();
+                continue;
             }
-            return baseIndex + index; // found
+            return index; // found
         }
     }
 
@@ -480,6 +603,41 @@ public class MapListString {
         return sb.toString();
     }
 
+    /**
+     * The search of control mark that keeps the previous result.
+     */
+    protected static class ControlMarkSearch {
+
+        protected final String _controlMark;
+        protected int _searchedIndex = -1;
+        protected int _foundIndex = -1;
+
+        public ControlMarkSearch(String controlMark) {
+            _controlMark = controlMark;
+        }
+
+        public boolean isReusable(int fromIndex) {
+            if (_searchedIndex < 0 || fromIndex < _searchedIndex) {
+                return false;
+            }
+            // escaped marks between them are also escaped from the index
+            return _foundIndex < 0 || fromIndex <= _foundIndex;
+        }
+
+        public void save(int searchedIndex, int foundIndex) {
+            _searchedIndex = searchedIndex;
+            _foundIndex = foundIndex;
+        }
+
+        public String getControlMark() {
+            return _controlMark;
+        }
+
+        public int getFoundIndex() {
+            return _foundIndex;
+        }
+    }
+
     // ===================================================================================
     //                                                                              Remove
     //                                                                              ======
@@ -512,11 +670,11 @@ public class MapListString {
     }
 
     /**
-     * Remove prefix as mark.
+     * Remove prefix as mark, which moves the cursor after the prefix.
      * @param prefixString The string for prefix. (NotNull)
      */
     protected void removePrefix(String prefixString) {
-        if (_remainderString == null) {
+        if (_parsedString == null) {
             final String notice = "The remainderString should not be null.";
             throwMapListStringPrefixFailureException(notice, prefixString, _topString);
         }
@@ -528,16 +686,16 @@ public class MapListString {
         removeBothSideSpaceAndTabAndNewLine();
 
         // deep (or unneeded?) check
-        if (_remainderString.length() < prefixString.length()) {
+        if (_parsedString.length() - _currentIndex < prefixString.length()) {
             final String notice = "The remainderString length shuold be greater than the prefixString length.";
             throwMapListStringPrefixFailureException(notice, prefixString, _topString);
         }
-        if (!_remainderString.startsWith(prefixString)) {
+        if (!_parsedString.startsWith(prefixString, _currentIndex)) {
             final String notice = "The remainderString shuold start with the prefixString.";
             throwMapListStringPrefixFailureException(notice, prefixString, _topString);
         }
 
-        _remainderString = _remainderString.substring(prefixString.length());
+        _currentIndex = _currentIndex + prefixString.length();
         removeBothSideSpaceAndTabAndNewLine();
     }
 
@@ -545,7 +703,7 @@ public class MapListString {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice(notice);
         br.addItem("Remainder String");
-        br.addElement(_remainderString);
+        br.addElement(getRemainderString());
         br.addItem("Prefix String");
         br.addElement(prefixString);
         br.addItem("MapList String");
@@ -561,32 +719,27 @@ public class MapListString {
     protected void removePrefixAllDelimiter() {
         removeBothSideSpaceAndTabAndNewLine();
 
-        while (true) {
-            if (!isStartsWithDelimiter(_remainderString)) {
-                break;
-            }
-
-            if (isStartsWithDelimiter(_remainderString)) {
-                removePrefixDelimiter();
-                removeBothSideSpaceAndTabAndNewLine();
-            }
+        while (isRemainderStartsWith(_delimiter)) {
+            removePrefixDelimiter();
+            removeBothSideSpaceAndTabAndNewLine();
         }
     }
 
     /**
-     * Remove both side space and tab and new-line.
+     * Remove both side space and tab and new-line. <br />
+     * The parsed string is already trimmed at the end so it only skips front spaces.
      */
     protected void removeBothSideSpaceAndTabAndNewLine() {
-        _remainderString = _remainderString.trim();
+        _currentIndex = skipSpaceAndTabAndNewLine(_currentIndex);
     }
 
     /**
      * Remove prefix by the index and plus count.
-     * @param index The base index. (NotMinus)
+     * @param index The base index in the parsed string. (NotMinus)
      * @param plusCount The plus count for index. (NotMinus)
      */
     protected void removePrefixTargetIndexPlus(int index, int plusCount) {
-        _remainderString = _remainderString.substring(index + plusCount);
+        _currentIndex = index + plusCount;
     }
 
     // ===================================================================================
@@ -846,7 +999,7 @@ public class MapListString {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice(notice);
         br.addItem("Remainder String");
-        br.addElement(_remainderString);
+        br.addElement(getRemainderString());
         br.addItem("Map String");
         br.addElement(mapString);
         prepareControlMarkMessage(br);
@@ -904,7 +1057,7 @@ public class MapListString {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice(notice);
         br.addItem("Remainder String");
-        br.addElement(_remainderString);
+        br.addElement(getRemainderString());
         br.addItem("List String");
         br.addElement(listString);
         prepareControlMarkMessage(br);
@@ -927,14 +1080,14 @@ public class MapListString {
 
     protected int getControlMarkCount(String targetString, String controlMark) {
         int result = 0;
-        String current = targetString;
+        int fromIndex = 0;
         while (true) {
-            final int index = findIndexOfControlMark(current, controlMark);
+            final int index = findIndexOfControlMark(targetString, fromIndex, controlMark);
             if (index < 0) {
                 break;
             }
             result++;
-            current = current.substring(index + controlMark.length());
+            fromIndex = index + controlMark.length();
         }
         if (result == 0) {
             result = -1;
@@ -942,28 +1095,32 @@ public class MapListString {
         return result;
     }
 
-    protected void assertMapStringEqualIndex(String remainderString, int equalIndex, String mapString,
-            Map<String, Object> currentMap) {
-        if (remainderString == null) {
+    protected void assertMapStringEqualIndex(int equalIndex, Map<String, Object> currentMap) {
+        if (_parsedString == null) {
             final String notice = "The remainderString should not be null:";
-            throwMapStringEqualFailureException(notice, remainderString, equalIndex, mapString, currentMap);
+            throwMapStringEqualFailureException(notice, null, equalIndex, _topString, currentMap);
         }
         if (equalIndex < 0) {
             final String notice = "Not found the equal mark in the map.";
-            throwMapStringEqualFailureException(notice, remainderString, equalIndex, mapString, currentMap);
+            throwMapStringEqualFailureException(notice, equalIndex, currentMap);
         }
         // deep (or unneeded?) check (written by younger jflute)
-        if (remainderString.length() < equalIndex) {
+        if (_parsedString.length() < equalIndex) {
             final String notice = "The remainderString length should be greater than equalIndex:";
-            throwMapStringEqualFailureException(notice, remainderString, equalIndex, mapString, currentMap);
+            throwMapStringEqualFailureException(notice, equalIndex, currentMap);
         }
-        final String extractedMark = remainderString.substring(equalIndex, equalIndex + _equal.length());
-        if (!extractedMark.equals(_equal)) {
+        if (!_parsedString.startsWith(_equal, equalIndex)) {
             final String notice = "The remainderString should have equal mark at equalIndex:";
-            throwMapStringEqualFailureException(notice, remainderString, equalIndex, mapString, currentMap);
+            throwMapStringEqualFailureException(notice, equalIndex, currentMap);
         }
     }
 
+    protected void throwMapStringEqualFailureException(String notice, int equalIndex, Map<String, Object> currentMap) {
+        final String remainderString = getRemainderString();
+        final int remainderIndex = toRemainderIndex(equalIndex);
+        throwMapStringEqualFailureException(notice, remainderString, remainderIndex, _topString, currentMap);
+    }
+
     protected void throwMapStringEqualFailureException(String notice, String remainderMapString, int equalIndex,
             String mapString, Map<String, Object> currentMap) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
@@ -981,50 +1138,59 @@ public class MapListString {
         throw new MapListStringParseFailureException(msg);
     }
 
-    protected void assertMapStringEndBraceIndex(String remainderString, int endBraceIndex, String mapString,
-            Map<String, Object> currentMap) {
-        if (remainderString == null) {
+    protected void assertMapStringEndBraceIndex(int endBraceIndex, Map<String, Object> currentMap) {
+        if (_parsedString == null) {
             final String notice = "The remainderString should not be null:";
-            throwMapStringEndBraceFailureException(notice, remainderString, endBraceIndex, mapString, currentMap);
+            throwMapStringEndBraceFailureException(notice, null, endBraceIndex, _topString, currentMap);
         }
         if (endBraceIndex < 0) {
             final String notice = "Not found the end brace.";
-            throwMapStringEndBraceFailureException(notice, remainderString, endBraceIndex, mapString, currentMap);
+            throwMapStringEndBraceFailureException(notice, endBraceIndex, currentMap);
         }
         // deep (or unneeded?) check (written by younger jflute)
-        if (remainderString.length() < endBraceIndex) {
+        if (_parsedString.length() < endBraceIndex) {
             final String notice = "The remainderString length should be greater than endMarkIndex:";
-            throwMapStringEndBraceFailureException(notice, remainderString, endBraceIndex, mapString, currentMap);
+            throwMapStringEndBraceFailureException(notice, endBraceIndex, currentMap);
         }
-        final String extractedMark = remainderString.substring(endBraceIndex, endBraceIndex + _endBrace.length());
-        if (!extractedMark.equals(_endBrace)) {
+        if (!_parsedString.startsWith(_endBrace, endBraceIndex)) {
             final String notice = "The remainderString should have end brace at the endMarkIndex:";
-            throwMapStringEndBraceFailureException(notice, remainderString, endBraceIndex, mapString, currentMap);
+            throwMapStringEndBraceFailureException(notice, endBraceIndex, currentMap);
         }
     }
 
-    protected void assertListStringEndBraceIndex(String remainderString, int endBraceIndex, String listString,
-            List<?> currentList) {
-        if (remainderString == null) {
+    protected void throwMapStringEndBraceFailureException(String notice, int endBraceIndex,
+            Map<String, Object> currentMap) {
+        final String remainderString = getRemainderString();
+        final int remainderIndex = toRemainderIndex(endBraceIndex);
+        throwMapStringEndBraceFailureException(notice, remainderString, remainderIndex, _topString, currentMap);
+    }
+
+    protected void assertListStringEndBraceIndex(int endBraceIndex, List<?> currentList) {
+        if (_parsedString == null) {
             final String notice = "The remainderString should not be null:";
-            throwListStringEndBraceFailureException(notice, remainderString, endBraceIndex, listString, currentList);
+            throwListStringEndBraceFailureException(notice, null, endBraceIndex, _topString, currentList);
         }
         if (endBraceIndex < 0) {
             final String notice = "Not found the end brace.";
-            throwListStringEndBraceFailureException(notice, remainderString, endBraceIndex, listString, currentList);
+            throwListStringEndBraceFailureException(notice, endBraceIndex, currentList);
         }
         // deep (or unneeded?) check (written by younger jflute)
-        if (remainderString.length() < endBraceIndex) {
+        if (_parsedString.length() < endBraceIndex) {
             final String notice = "The remainderString length should be greater than endMarkIndex:";
-            throwListStringEndBraceFailureException(notice, remainderString, endBraceIndex, listString, currentList);
+            throwListStringEndBraceFailureException(notice, endBraceIndex, currentList);
         }
-        final String extractedMark = remainderString.substring(endBraceIndex, endBraceIndex + _endBrace.length());
-        if (!extractedMark.equals(_endBrace)) {
+        if (!_parsedString.startsWith(_endBrace, endBraceIndex)) {
             final String notice = "The remainderString should have end brace at the endMarkIndex:";
-            throwListStringEndBraceFailureException(notice, remainderString, endBraceIndex, listString, currentList);
+            throwListStringEndBraceFailureException(notice, endBraceIndex, currentList);
         }
     }
 
+    protected void throwListStringEndBraceFailureException(String notice, int endBraceIndex, List<?> currentList) {
+        final String remainderString = getRemainderString();
+        final int remainderIndex = toRemainderIndex(endBraceIndex);
+        throwListStringEndBraceFailureException(notice, remainderString, remainderIndex, _topString, currentList);
+    }
+
     protected void throwMapStringEndBraceFailureException(String notice, String remainderMapString, int equalIndex,
             String mapString, Map<String, Object> currentMap) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
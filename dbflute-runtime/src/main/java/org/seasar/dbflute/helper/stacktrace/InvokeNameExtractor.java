@@ -26,7 +26,7 @@ public class InvokeNameExtractor {
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
-    protected final StackTraceElement[] _stackTrace;
+    protected final StackTraceFrames _frames;
 
     // ===================================================================================
     //                                                                         Constructor
@@ -36,7 +36,18 @@ public class InvokeNameExtractor {
             String msg = "The argument 'stackTrace' should not be null.";
             throw new IllegalStateException(msg);
         }
-        _stackTrace = stackTrace;
+        _frames = new StackTraceFrames(stackTrace);
+    }
+
+    /**
+     * @param frames The frames of stack trace, which are read only in the loop range. (NotNull)
+     */
+    public InvokeNameExtractor(StackTraceFrames frames) {
+        if (frames == null) {
+            String msg = "The argument 'frames' should not be null.";
+            throw new IllegalStateException(msg);
+        }
+        _frames = frames;
     }
 
     // ===================================================================================
@@ -63,11 +74,12 @@ public class InvokeNameExtractor {
         if (startIndex < 0) { // basically no way but just in case
             return new ArrayList<InvokeNameResult>(2); // writable just in case
         }
-        for (int i = startIndex; i < _stackTrace.length; i++) {
-            final StackTraceElement element = _stackTrace[i];
+        final int depth = _frames.getDepth();
+        for (int i = startIndex; i < depth; i++) {
             if (i > startIndex + loopSize) {
                 break;
             }
+            final StackTraceElement element = _frames.getFrame(i); // after loop check to read only needed frames
             final String currentClassName = element.getClassName();
             if (currentClassName.startsWith("sun.") || currentClassName.startsWith("java.")) {
                 if (onTarget) {
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.stacktrace;
+
+/**
+ * The frames of stack trace viewed from the offset. <br />
+ * The array of stack trace is created at the first reading,
+ * and the frames before the offset (e.g. helper methods to create the frames) are hidden,
+ * so the index of frames is same as the stack trace created by the caller itself. <br />
+ * The whole array is created even if only head frames are read,
+ * because the JDK has no public API to read a part of stack trace.
+ * @author jflute
+ * @since 1.0.5K (2014/07/14 Monday)
+ */
+public class StackTraceFrames {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The throwable that has the stack trace. (NullAllowed: when created by array) */
+    protected final Throwable _throwable;
+
+    /** The whole array of stack trace containing hidden frames. (NullAllowed: before loaded) */
+    protected StackTraceElement[] _stackTrace;
+
+    /** The count of hidden frames at the head of stack trace. (NotMinus) */
+    protected final int _offset;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param throwable The throwable that has the stack trace. (NotNull)
+     */
+    public StackTraceFrames(Throwable throwable) {
+        this(throwable, 0);
+    }
+
+    /**
+     * @param throwable The throwable that has the stack trace. (NotNull)
+     * @param offset The count of hidden frames at the head of stack trace. (NotMinus)
+     */
+    public StackTraceFrames(Throwable throwable, int offset) {
+        assertObjectNotNull("throwable", throwable);
+        assertNotMinus("offset", offset);
+        _throwable = throwable;
+        _offset = offset;
+    }
+
+    /**
+     * @param stackTrace The array of stack trace already created. (NotNull)
+     */
+    public StackTraceFrames(StackTraceElement[] stackTrace) {
+        assertObjectNotNull("stackTrace", stackTrace);
+        _throwable = null;
+        _stackTrace = stackTrace;
+        _offset = 0;
+    }
+
+    /**
+     * Create the frames of the current thread's stack trace.
+     * @return The new frames whose first frame is the caller of this method. (NotNull)
+     */
+    public static StackTraceFrames createCurrentFrames() {
+        return new StackTraceFrames(new Throwable(), 1); // hides this method
+    }
+
+    /**
+     * Create the frames of the current thread's stack trace called via helper methods.
+     * <pre>
+     * e.g. logInvocation() calls createStackTraceFrames() that calls this with 1
+     *  then the first frame is logInvocation()
+     * </pre>
+     * @param helperFrameCount The count of helper methods between the caller and this method. (NotMinus)
+     * @return The new frames whose first frame is the caller of the helper methods. (NotNull)
+     */
+    public static StackTraceFrames createCurrentFrames(int helperFrameCount) {
+        assertNotMinus("helperFrameCount", helperFrameCount);
+        return new StackTraceFrames(new Throwable(), 1 + helperFrameCount); // also hides this method
+    }
+
+    // ===================================================================================
+    //                                                                              Frames
+    //                                                                              ======
+    /**
+     * @return The depth of visible stack trace. (NotMinus)
+     */
+    public int getDepth() {
+        return Math.max(0, getStackTrace().length - _offset);
+    }
+
+    /**
+     * @param index The index of visible frame, zero origin. (NotMinus)
+     * @return The element of stack trace. (NullAllowed: when the index is out of depth)
+     */
+    public StackTraceElement getFrame(int index) {
+        if (index < 0 || index >= getDepth()) {
+            return null;
+        }
+        return getStackTrace()[_offset + index];
+    }
+
+    /**
+     * Get the whole array of stack trace, which contains the hidden frames before the offset.
+     * @return The array of stack trace, created if not yet. (NotNull)
+     */
+    public StackTraceElement[] getStackTrace() {
+        if (_stackTrace == null) {
+            _stackTrace = _throwable.getStackTrace();
+        }
+        return _stackTrace;
+    }
+
+    /**
+     * @return The count of hidden frames at the head of the whole array. (NotMinus)
+     */
+    public int getOffset() {
+        return _offset;
+    }
+
+    // ===================================================================================
+    //                                                                       Assert Helper
+    //                                                                       =============
+    protected void assertObjectNotNull(String variableName, Object value) {
+        if (value == null) {
+            String msg = "The argument '" + variableName + "' should not be null.";
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    protected static void assertNotMinus(String variableName, int value) {
+        if (value < 0) {
+            String msg = "The argument '" + variableName + "' should not be minus: " + value;
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.seasar.dbflute.resource;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.seasar.dbflute.bhv.core.supplement.CommandMetricsEntry;
 import org.seasar.dbflute.jdbc.SqlLogInfo;
 import org.seasar.dbflute.jdbc.StatementConfig;
 
@@ -95,6 +96,7 @@ public class InternalMapContext {
     protected static final String KEY_SQL_BEFORE_TIME_MILLIS = "df:SqlBeforeTimeMillis";
     protected static final String KEY_SQL_AFTER_TIME_MILLIS = "df:SqlAfterTimeMillis";
     protected static final String KEY_UPDATE_STATEMENT_CONFIG = "df:UpdateStatementConfig";
+    protected static final String KEY_COMMAND_METRICS_ENTRY = "df:CommandMetricsEntry";
 
     // -----------------------------------------------------
     //                                           Invoke Name
@@ -181,6 +183,20 @@ public class InternalMapContext {
         setObject(KEY_SQL_AFTER_TIME_MILLIS, sqlAfterTimeMillis);
     }
 
+    // -----------------------------------------------------
+    //                                      Command Metrics
+    //                                      ---------------
+    /**
+     * @return The entry of command metrics for the current command. (NullAllowed: when metrics is disabled)
+     */
+    public static CommandMetricsEntry getCommandMetricsEntry() {
+        return (CommandMetricsEntry) getObject(KEY_COMMAND_METRICS_ENTRY);
+    }
+
+    public static void setCommandMetricsEntry(CommandMetricsEntry commandMetricsEntry) {
+        setObject(KEY_COMMAND_METRICS_ENTRY, commandMetricsEntry);
+    }
+
     // -----------------------------------------------------
     //                            StatementConfig for Update
     //                            --------------------------
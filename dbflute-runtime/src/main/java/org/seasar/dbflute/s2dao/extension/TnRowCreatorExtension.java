@@ -41,6 +41,7 @@ import org.seasar.dbflute.resource.InternalMapContext;
 import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 import org.seasar.dbflute.s2dao.rowcreator.impl.TnRowCreatorImpl;
 import org.seasar.dbflute.s2dao.valuetype.TnValueTypes;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -131,19 +132,8 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
         Object selectedValue = null;
         ColumnInfo columnInfo = null;
 
-        final Object row;
-        final DBMeta dbmeta;
-        if (_fixedDBMeta != null) {
-            if (_creatableByDBMeta) { // mainly here
-                row = _fixedDBMeta.newEntity();
-            } else { // e.g. manual-extended entity
-                row = newBean(beanClass);
-            }
-            dbmeta = _fixedDBMeta;
-        } else { // e.g. manual-created bean of outsideSql
-            row = newBean(beanClass);
-            dbmeta = findCachedDBMeta(row); // find just in case
-        }
+        final Object row = newRow(beanClass);
+        final DBMeta dbmeta = findRowDBMeta(row);
         try {
             if (dbmeta != null) { // mainly here
                 final boolean isEntity = row instanceof Entity; // almost always true
@@ -186,6 +176,65 @@ public class TnRowCreatorExtension extends TnRowCreatorImpl {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Object createRow(ResultSet rs, TnRowMappingPlan plan, Class<?> beanClass) throws SQLException {
+        final int mappingSize = plan.getMappingSize();
+        if (mappingSize == 0) {
+            String msg = "The propertyCache should not be empty: bean=" + beanClass.getName();
+            throw new IllegalStateException(msg);
+        }
+
+        // temporary variable, for exception message, debug message
+        TnPropertyMapping mapping = null;
+        Object selectedValue = null;
+
+        final Object row = newRow(beanClass);
+        final DBMeta dbmeta = findRowDBMeta(row);
+        try {
+            // no derived map here because the plan is used only when no condition-bean
+            final Entity entityRow = (dbmeta != null && row instanceof Entity) ? (Entity) row : null;
+            for (int i = 0; i < mappingSize; i++) {
+                mapping = plan.getMapping(i);
+                selectedValue = plan.getValue(rs, i);
+                final ColumnInfo columnInfo = entityRow != null ? mapping.getEntityColumnInfo() : null;
+                if (columnInfo != null) { // mainly here
+                    columnInfo.write(entityRow, selectedValue);
+                } else {
+                    mapping.getPropertyAccessor().setValue(row, selectedValue);
+                }
+            }
+            return row;
+        } catch (ClassCastException e) {
+            throwMappingClassCastException(row, dbmeta, mapping, selectedValue, e);
+            return null; // unreachable
+        } catch (SQLException e) {
+            if (_log.isDebugEnabled()) {
+                final String propertyName = mapping != null ? mapping.getPropertyName() : null;
+                String msg = "Failed to get selected values while resultSet handling:";
+                msg = msg + " target=" + DfTypeUtil.toClassTitle(beanClass) + "." + propertyName;
+                _log.debug(msg);
+            }
+            throw e;
+        }
+    }
+
+    protected Object newRow(Class<?> beanClass) {
+        if (_fixedDBMeta != null && _creatableByDBMeta) { // mainly here
+            return _fixedDBMeta.newEntity();
+        }
+        // e.g. manual-extended entity, manual-created bean of outsideSql
+        return newBean(beanClass);
+    }
+
+    protected DBMeta findRowDBMeta(Object row) {
+        if (_fixedDBMeta != null) { // mainly here
+            return _fixedDBMeta;
+        }
+        return findCachedDBMeta(row); // find just in case
+    }
+
     protected boolean canHandleDerivedMap(final Object row) {
         return row instanceof DerivedMappable && ConditionBeanContext.isExistConditionBeanOnThread();
     }
@@ -20,6 +20,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.seasar.dbflute.jdbc.ValueType;
 import org.seasar.dbflute.resource.ResourceContext;
@@ -31,7 +32,9 @@ import org.seasar.dbflute.s2dao.rowcreator.impl.TnRelationKeySimple;
 
 /**
  * The cache of relation row. <br />
- * This is not thread safe so you should create per one select.
+ * This is not thread safe so you should create per one select. <br />
+ * The column key names and select indexes of relation keys are resolved once per relation path,
+ * so creating a key per row does not build strings or maps.
  * @author modified by jflute (originated in S2Dao)
  */
 public class TnRelationRowCache {
@@ -44,8 +47,8 @@ public class TnRelationRowCache {
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
-    /** The list of row map. map:{relationPath = map:{relationKey = row}} (NotNull: if canCache is true) */
-    protected final Map<String, Map<TnRelationKey, Object>> _rowMap;
+    /** The index of relation path. map:{relationPath = pathResource} (NotNull: if canCache is true) */
+    protected final Map<String, TnRelationPathResource> _pathMap;
 
     /** Can the relation row cache? */
     protected final boolean _canCache;
@@ -58,7 +61,7 @@ public class TnRelationRowCache {
      * @param canCache Can the relation row cache?
      */
     public TnRelationRowCache(int relSize, boolean canCache) {
-        _rowMap = canCache ? new HashMap<String, Map<TnRelationKey, Object>>(relSize) : null;
+        _pathMap = canCache ? new HashMap<String, TnRelationPathResource>(relSize > 0 ? relSize : 16) : null;
         _canCache = canCache;
     }
 
@@ -75,11 +78,11 @@ public class TnRelationRowCache {
         if (!_canCache) {
             return null;
         }
-        final Map<TnRelationKey, Object> elementMap = _rowMap.get(relationNoSuffix);
-        if (elementMap == null) {
+        final TnRelationPathResource pathResource = _pathMap.get(relationNoSuffix);
+        if (pathResource == null) {
             return null;
         }
-        return elementMap.get(relKey);
+        return pathResource.getRelationRow(relKey);
     }
 
     /**
@@ -92,12 +95,12 @@ public class TnRelationRowCache {
         if (!_canCache) {
             return;
         }
-        Map<TnRelationKey, Object> elementMap = _rowMap.get(relationNoSuffix);
-        if (elementMap == null) {
-            elementMap = new HashMap<TnRelationKey, Object>();
-            _rowMap.put(relationNoSuffix, elementMap);
+        TnRelationPathResource pathResource = _pathMap.get(relationNoSuffix);
+        if (pathResource == null) { // basically no way because the key is created before
+            pathResource = new TnRelationPathResource();
+            _pathMap.put(relationNoSuffix, pathResource);
         }
-        elementMap.put(relKey, relationRow);
+        pathResource.addRelationRow(relKey, relationRow);
     }
 
     // ===================================================================================
@@ -119,88 +122,199 @@ public class TnRelationRowCache {
         if (!_canCache) {
             return EMPTY_KEY;
         }
+        if (!rpt.hasSimpleUniqueKey() && !rpt.hasCompoundUniqueKey()) { // empty
+            return null; // treated as no data of the relation
+        }
+        final TnRelationPathResource pathResource = preparePathResource(rpt, selectColumnMap, selectIndexMap,
+                relationNoSuffix);
+        if (!pathResource.isKeySelected()) {
+            // basically unreachable
+            // because the referred column (basically PK or FK) must exist
+            // if the relation's select clause is specified
+            return null;
+        }
         final TnRelationKey relKey;
         if (rpt.hasSimpleUniqueKey()) {
-            relKey = doCreateRelationKeySimple(rs, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
-        } else if (rpt.hasCompoundUniqueKey()) {
-            relKey = doCreateRelationKeyCompound(rs, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
-        } else { // empty
-            relKey = null; // treated as no data of the relation
+            relKey = doCreateRelationKeySimple(rs, pathResource);
+        } else {
+            relKey = doCreateRelationKeyCompound(rs, pathResource);
         }
         return relKey;
     }
 
-    protected TnRelationKey doCreateRelationKeySimple(ResultSet rs, TnRelationPropertyType rpt,
+    protected TnRelationKey doCreateRelationKeySimple(ResultSet rs, TnRelationPathResource pathResource)
+            throws SQLException {
+        final Object keyValue = pathResource.getKeyValue(rs, 0);
+        return keyValue != null ? new TnRelationKeySimple(pathResource.getColumnKeyNames()[0], keyValue) : null;
+    }
+
+    protected TnRelationKey doCreateRelationKeyCompound(ResultSet rs, TnRelationPathResource pathResource)
+            throws SQLException {
+        final String[] columnKeyNames = pathResource.getColumnKeyNames();
+        final Object[] keyValues = new Object[columnKeyNames.length];
+        for (int i = 0; i < columnKeyNames.length; i++) {
+            final Object keyValue = pathResource.getKeyValue(rs, i);
+            if (keyValue == null) {
+                return null; // if either one is null, treated as no data
+            }
+            keyValues[i] = keyValue;
+        }
+        return new TnRelationKeyCompound(columnKeyNames, keyValues);
+    }
+
+    // ===================================================================================
+    //                                                                       Relation Path
+    //                                                                       =============
+    protected TnRelationPathResource preparePathResource(TnRelationPropertyType rpt,
             Map<String, String> selectColumnMap, Map<String, Map<String, Integer>> selectIndexMap,
             String relationNoSuffix) throws SQLException {
-        final TnPropertyType pt = rpt.getSimpleUniquePropertyType();
-        final String columnKeyName = buildColumnKeyName(pt, relationNoSuffix);
-        final Object keyValue = setupKeyElement(rs, rpt, selectColumnMap, selectIndexMap, columnKeyName, pt,
-                relationNoSuffix);
-        return keyValue != null ? new TnRelationKeySimple(columnKeyName, keyValue) : null;
+        TnRelationPathResource pathResource = _pathMap.get(relationNoSuffix);
+        if (pathResource == null) {
+            pathResource = new TnRelationPathResource();
+            _pathMap.put(relationNoSuffix, pathResource);
+        }
+        if (!pathResource.isResolved(selectColumnMap, selectIndexMap)) { // first time of the path
+            resolvePathResource(pathResource, rpt, selectColumnMap, selectIndexMap, relationNoSuffix);
+        }
+        return pathResource;
     }
 
-    protected TnRelationKey doCreateRelationKeyCompound(ResultSet rs, TnRelationPropertyType rpt,
+    protected void resolvePathResource(TnRelationPathResource pathResource, TnRelationPropertyType rpt,
             Map<String, String> selectColumnMap, Map<String, Map<String, Integer>> selectIndexMap,
             String relationNoSuffix) throws SQLException {
-        final List<TnPropertyType> uniquePropertyTypeList = rpt.getUniquePropertyTypeList();
-        Map<String, Object> relKeyValues = null;
-        for (TnPropertyType pt : uniquePropertyTypeList) {
+        final TnPropertyType[] keyPropertyTypes;
+        if (rpt.hasSimpleUniqueKey()) {
+            keyPropertyTypes = new TnPropertyType[] { rpt.getSimpleUniquePropertyType() };
+        } else {
+            final List<TnPropertyType> uniquePropertyTypeList = rpt.getUniquePropertyTypeList();
+            keyPropertyTypes = uniquePropertyTypeList.toArray(new TnPropertyType[uniquePropertyTypeList.size()]);
+        }
+        final int keySize = keyPropertyTypes.length;
+        final String[] columnKeyNames = new String[keySize];
+        final ValueType[] valueTypes = new ValueType[keySize];
+        final Integer[] selectIndexes = new Integer[keySize];
+        boolean keySelected = true;
+        for (int i = 0; i < keySize; i++) {
+            final TnPropertyType pt = keyPropertyTypes[i];
             final String columnKeyName = buildColumnKeyName(pt, relationNoSuffix);
-            final Object keyValue = setupKeyElement(rs, rpt, selectColumnMap, selectIndexMap, columnKeyName, pt,
-                    relationNoSuffix);
-            if (keyValue == null) {
-                if (relKeyValues != null) {
-                    relKeyValues.clear();
-                }
-                break; // if either one is null, treated as no data
+            columnKeyNames[i] = columnKeyName;
+            valueTypes[i] = pt.getValueType();
+            if (isOutOfRelationSelectIndex(relationNoSuffix, columnKeyName, selectIndexMap)) {
+                // basically unreachable, same reason with next if statement, check just in case
+                keySelected = false;
+            } else if (!selectColumnMap.containsKey(columnKeyName)) {
+                keySelected = false; // basically unreachable
+            } else if (selectIndexMap != null) {
+                final Map<String, Integer> innerMap = selectIndexMap.get(relationNoSuffix);
+                selectIndexes[i] = innerMap != null ? innerMap.get(columnKeyName) : null;
             }
-            if (relKeyValues == null) { // lazy-load for performance
-                relKeyValues = new HashMap<String, Object>(uniquePropertyTypeList.size());
-            }
-            relKeyValues.put(columnKeyName, keyValue);
         }
-        return (relKeyValues != null && !relKeyValues.isEmpty()) ? new TnRelationKeyCompound(relKeyValues) : null;
+        pathResource.resolve(selectColumnMap, selectIndexMap, columnKeyNames, valueTypes, selectIndexes, keySelected);
     }
 
     protected String buildColumnKeyName(TnPropertyType pt, String relationNoSuffix) {
         return pt.getColumnDbName() + relationNoSuffix;
     }
 
-    protected Object setupKeyElement(ResultSet rs, TnRelationPropertyType rpt, Map<String, String> selectColumnMap,
-            Map<String, Map<String, Integer>> selectIndexMap, String columnKeyName, TnPropertyType pt,
-            String relationNoSuffix) throws SQLException {
-        if (isOutOfRelationSelectIndex(relationNoSuffix, columnKeyName, selectIndexMap)) {
-            // basically unreachable, same reason with next if statement, check just in case
-            return null;
+    protected boolean isOutOfRelationSelectIndex(String relationNoSuffix, String columnDbName,
+            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
+        return ResourceContext.isOutOfRelationSelectIndex(relationNoSuffix, columnDbName, selectIndexMap);
+    }
+
+    /**
+     * The resource of one relation path, which has the resolved key columns and the cached rows.
+     */
+    protected static class TnRelationPathResource {
+
+        /** The select column map that the key columns are resolved by. (NullAllowed: before resolved) */
+        protected Map<String, String> _resolvedSelectColumnMap;
+
+        /** The select index map that the key columns are resolved by. (NullAllowed) */
+        protected Map<String, Map<String, Integer>> _resolvedSelectIndexMap;
+
+        /** The array of column key names shared by keys of the path. (NullAllowed: before resolved) */
+        protected String[] _columnKeyNames;
+
+        /** The array of value types of the key columns. (NullAllowed: before resolved) */
+        protected ValueType[] _valueTypes;
+
+        /** The array of select indexes of the key columns. (NullAllowed: before resolved, NullElement: by name) */
+        protected Integer[] _selectIndexes;
+
+        /** Are all key columns selected? */
+        protected boolean _keySelected;
+
+        /** The map of cached row. map:{relationKey = row} (NullAllowed: lazy-loaded) */
+        protected Map<TnRelationKey, Object> _rowMap;
+
+        public boolean isResolved(Map<String, String> selectColumnMap,
+                Map<String, Map<String, Integer>> selectIndexMap) {
+            return _columnKeyNames != null && _resolvedSelectColumnMap == selectColumnMap
+                    && _resolvedSelectIndexMap == selectIndexMap;
         }
-        if (!selectColumnMap.containsKey(columnKeyName)) {
-            // basically unreachable
-            // because the referred column (basically PK or FK) must exist
-            // if the relation's select clause is specified
-            return null;
+
+        public void resolve(Map<String, String> selectColumnMap, Map<String, Map<String, Integer>> selectIndexMap,
+                String[] columnKeyNames, ValueType[] valueTypes, Integer[] selectIndexes, boolean keySelected) {
+            _resolvedSelectColumnMap = selectColumnMap;
+            _resolvedSelectIndexMap = selectIndexMap;
+            _columnKeyNames = columnKeyNames;
+            _valueTypes = valueTypes;
+            _selectIndexes = selectIndexes;
+            _keySelected = keySelected;
         }
-        final ValueType valueType = pt.getValueType();
-        final Object value;
-        if (selectIndexMap != null) {
-            value = ResourceContext.getRelationValue(rs, relationNoSuffix, columnKeyName, valueType, selectIndexMap);
-        } else {
-            value = valueType.getValue(rs, columnKeyName);
+
+        public Object getKeyValue(ResultSet rs, int keyIndex) throws SQLException {
+            // null-able when the referred column data is null
+            // (treated as no relation data)
+            final Integer selectIndex = _selectIndexes[keyIndex];
+            if (selectIndex != null) {
+                return _valueTypes[keyIndex].getValue(rs, selectIndex);
+            } else {
+                return _valueTypes[keyIndex].getValue(rs, _columnKeyNames[keyIndex]);
+            }
         }
-        // null-able when the referred column data is null
-        // (treated as no relation data)
-        return value;
-    }
 
-    protected boolean isOutOfRelationSelectIndex(String relationNoSuffix, String columnDbName,
-            Map<String, Map<String, Integer>> selectIndexMap) throws SQLException {
-        return ResourceContext.isOutOfRelationSelectIndex(relationNoSuffix, columnDbName, selectIndexMap);
+        public Object getRelationRow(TnRelationKey relKey) {
+            return _rowMap != null ? _rowMap.get(relKey) : null;
+        }
+
+        public void addRelationRow(TnRelationKey relKey, Object relationRow) {
+            if (_rowMap == null) {
+                _rowMap = new HashMap<TnRelationKey, Object>();
+            }
+            _rowMap.put(relKey, relationRow);
+        }
+
+        public String[] getColumnKeyNames() {
+            return _columnKeyNames;
+        }
+
+        public boolean isKeySelected() {
+            return _keySelected;
+        }
+
+        public Map<TnRelationKey, Object> getRowMap() {
+            return _rowMap;
+        }
     }
 
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
+    /**
+     * @return The snapshot of row map. map:{relationPath = map:{relationKey = row}} (NullAllowed: if canCache is false)
+     */
     public Map<String, Map<TnRelationKey, Object>> getRowMap() {
-        return _rowMap;
+        if (_pathMap == null) {
+            return null;
+        }
+        final Map<String, Map<TnRelationKey, Object>> rowMap = new HashMap<String, Map<TnRelationKey, Object>>();
+        for (Entry<String, TnRelationPathResource> entry : _pathMap.entrySet()) {
+            final Map<TnRelationKey, Object> elementMap = entry.getValue().getRowMap();
+            if (elementMap != null) {
+                rowMap.put(entry.getKey(), elementMap);
+            }
+        }
+        return rowMap;
     }
 }
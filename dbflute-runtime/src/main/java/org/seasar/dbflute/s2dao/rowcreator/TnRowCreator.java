@@ -39,6 +39,17 @@ public interface TnRowCreator {
     Object createRow(ResultSet rs, Map<String, Map<String, Integer>> selectIndexMap,
             Map<String, TnPropertyMapping> columnPropertyTypeMap, Class<?> beanClass) throws SQLException;
 
+    /**
+     * Create row instance of base point table by the row mapping plan. <br />
+     * The plan is used when no select index exists, e.g. outside-SQL.
+     * @param rs Result set. (NotNull)
+     * @param plan The plan of row mapping for the shape of the result set. (NotNull)
+     * @param beanClass Bean class. (NotNull)
+     * @return The created row. (NotNull)
+     * @throws SQLException
+     */
+    Object createRow(ResultSet rs, TnRowMappingPlan plan, Class<?> beanClass) throws SQLException;
+
     /**
      * Create property cache as map. <br />
      * The map key is column DB-name or alias name when derived-referrer.
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.rowcreator;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+
+/**
+ * The plan of row mapping for one shape of result set (column labels), which is used
+ * when no select index exists (e.g. outside-SQL, customize entity). <br />
+ * The select column map and the property cache are resolved at once,
+ * and the column index for each property is resolved from column labels
+ * so that row mapping gets values by index without label lookup of JDBC. <br />
+ * It is immutable so it can be shared by threads.
+ * @author jflute
+ * @since 1.0.5K (2014/07/03 Thursday)
+ */
+public class TnRowMappingPlan {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of column labels as shape of result set. (NotNull) */
+    protected final String[] _columnLabels;
+
+    /** The map of select column name. map:{flexibleName = columnAliasName} (NotNull) */
+    protected final Map<String, String> _selectColumnMap;
+
+    /** The map of row property cache. map:{columnName, PropertyMapping} (NotNull) */
+    protected final Map<String, TnPropertyMapping> _propertyCache;
+
+    protected final String[] _columnNames; // same order as property cache
+    protected final TnPropertyMapping[] _mappings; // same order as property cache
+    protected final ValueType[] _valueTypes; // same order as property cache
+    protected final int[] _columnIndexes; // 1 origin, zero means unresolved
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param columnLabels The array of column labels of the result set. (NotNull)
+     * @param selectColumnMap The map of select column name. map:{flexibleName = columnAliasName} (NotNull)
+     * @param propertyCache The map of row property cache. map:{columnName, PropertyMapping} (NotNull)
+     */
+    public TnRowMappingPlan(String[] columnLabels, Map<String, String> selectColumnMap,
+            Map<String, TnPropertyMapping> propertyCache) {
+        _columnLabels = columnLabels;
+        _selectColumnMap = selectColumnMap;
+        _propertyCache = propertyCache;
+        final int size = propertyCache.size();
+        _columnNames = new String[size];
+        _mappings = new TnPropertyMapping[size];
+        _valueTypes = new ValueType[size];
+        _columnIndexes = new int[size];
+        int index = 0;
+        for (Entry<String, TnPropertyMapping> entry : propertyCache.entrySet()) {
+            final String columnName = entry.getKey();
+            final TnPropertyMapping mapping = entry.getValue();
+            _columnNames[index] = columnName;
+            _mappings[index] = mapping;
+            _valueTypes[index] = mapping.getValueType();
+            _columnIndexes[index] = resolveColumnIndex(columnLabels, columnName);
+            ++index;
+        }
+    }
+
+    protected int resolveColumnIndex(String[] columnLabels, String columnName) {
+        // same as the label lookup of JDBC: case-insensitive and first one if duplicate
+        for (int i = 0; i < columnLabels.length; i++) {
+            if (columnName.equalsIgnoreCase(filterColumnLabel(columnLabels[i]))) {
+                return i + 1;
+            }
+        }
+        return 0; // e.g. flexible-matched name, so it uses the label lookup of JDBC
+    }
+
+    // ===================================================================================
+    //                                                                        Column Label
+    //                                                                        ============
+    /**
+     * Extract column labels from the meta data of the result set.
+     * @param rs The result set of JDBC. (NotNull)
+     * @return The array of column labels as shape of result set. (NotNull)
+     * @throws SQLException
+     */
+    public static String[] extractColumnLabels(ResultSet rs) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final int count = rsmd.getColumnCount();
+        final String[] columnLabels = new String[count];
+        for (int i = 0; i < count; ++i) {
+            columnLabels[i] = rsmd.getColumnLabel(i + 1);
+        }
+        return columnLabels;
+    }
+
+    protected static String filterColumnLabel(String columnLabel) {
+        final int dotIndex = columnLabel.lastIndexOf('.');
+        if (dotIndex >= 0) { // basically for SQLite (same as select column map)
+            return columnLabel.substring(dotIndex + 1);
+        }
+        return columnLabel;
+    }
+
+    /**
+     * Is the plan for the same shape of result set as the column labels?
+     * @param columnLabels The array of column labels of the result set. (NotNull)
+     * @return The determination, true or false.
+     */
+    public boolean isSameShape(String[] columnLabels) {
+        return Arrays.equals(_columnLabels, columnLabels);
+    }
+
+    // ===================================================================================
+    //                                                                        Mapping Value
+    //                                                                        =============
+    /**
+     * Get the selected value of the mapping by column index if resolved.
+     * @param rs The result set of JDBC, which is on the current row. (NotNull)
+     * @param mappingIndex The index of mapping, from zero to size minus one.
+     * @return The selected value. (NullAllowed)
+     * @throws SQLException
+     */
+    public Object getValue(ResultSet rs, int mappingIndex) throws SQLException {
+        final int columnIndex = _columnIndexes[mappingIndex];
+        final ValueType valueType = _valueTypes[mappingIndex];
+        if (columnIndex > 0) { // mainly here
+            return valueType.getValue(rs, columnIndex);
+        } else {
+            return valueType.getValue(rs, _columnNames[mappingIndex]);
+        }
+    }
+
+    public int getMappingSize() {
+        return _mappings.length;
+    }
+
+    public TnPropertyMapping getMapping(int mappingIndex) {
+        return _mappings[mappingIndex];
+    }
+
+    public String getColumnName(int mappingIndex) {
+        return _columnNames[mappingIndex];
+    }
+
+    public int getColumnIndex(int mappingIndex) {
+        return _columnIndexes[mappingIndex];
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public Map<String, String> getSelectColumnMap() {
+        return _selectColumnMap;
+    }
+
+    public Map<String, TnPropertyMapping> getPropertyCache() {
+        return _propertyCache;
+    }
+}
@@ -15,33 +15,80 @@
  */
 package org.seasar.dbflute.s2dao.rowcreator.impl;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationKey;
 
 /**
+ * The compound key of relation row, holding labels and values as parallel arrays. <br />
+ * The label array is basically shared by all keys of the same relation path,
+ * so the comparison of keys is only the comparison of values in most cases.
  * @author modified by jflute (originated in S2Dao)
  */
 public final class TnRelationKeyCompound implements TnRelationKey {
 
-    private final Map<String, Object> _relKeyValues;
+    private final String[] _columnLabels;
+    private final Object[] _keyValues;
     private final int _hashCode;
 
     public TnRelationKeyCompound(Map<String, Object> relKeyValues) {
-        _relKeyValues = relKeyValues;
-        _hashCode = relKeyValues.hashCode();
+        final int size = relKeyValues.size();
+        _columnLabels = new String[size];
+        _keyValues = new Object[size];
+        int index = 0;
+        for (Entry<String, Object> entry : relKeyValues.entrySet()) {
+            _columnLabels[index] = entry.getKey();
+            _keyValues[index] = entry.getValue();
+            ++index;
+        }
+        _hashCode = calculateHashCode(_keyValues);
+    }
+
+    /**
+     * @param columnLabels The array of column labels, which may be shared by other keys. (NotNull)
+     * @param keyValues The array of key values in the same order as the labels. (NotNull, NotNullElement)
+     */
+    public TnRelationKeyCompound(String[] columnLabels, Object[] keyValues) {
+        _columnLabels = columnLabels;
+        _keyValues = keyValues;
+        _hashCode = calculateHashCode(keyValues);
+    }
+
+    private static int calculateHashCode(Object[] keyValues) { // order-insensitive as the map-based key
+        int hashCode = 0;
+        for (Object keyValue : keyValues) {
+            hashCode += keyValue.hashCode();
+        }
+        return hashCode;
     }
 
     public Map<String, Object> getRelKeyValues() {
-        return _relKeyValues;
+        final Map<String, Object> relKeyValues = new LinkedHashMap<String, Object>(_columnLabels.length);
+        for (int i = 0; i < _columnLabels.length; i++) {
+            relKeyValues.put(_columnLabels[i], _keyValues[i]);
+        }
+        return relKeyValues;
     }
 
     public boolean containsColumn(String columnLabel) {
-        return _relKeyValues.containsKey(columnLabel);
+        return findColumnIndex(columnLabel) >= 0;
     }
 
     public Object extractKeyValue(String columnLabel) {
-        return _relKeyValues.get(columnLabel);
+        final int index = findColumnIndex(columnLabel);
+        return index >= 0 ? _keyValues[index] : null;
+    }
+
+    private int findColumnIndex(String columnLabel) {
+        for (int i = 0; i < _columnLabels.length; i++) {
+            if (_columnLabels[i].equals(columnLabel)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
@@ -54,11 +101,24 @@ public final class TnRelationKeyCompound implements TnRelationKey {
         if (!(o instanceof TnRelationKeyCompound)) {
             return false;
         }
-        return _relKeyValues.equals(((TnRelationKeyCompound) o)._relKeyValues);
+        final TnRelationKeyCompound other = (TnRelationKeyCompound) o;
+        if (_hashCode != other._hashCode || _keyValues.length != other._keyValues.length) {
+            return false;
+        }
+        if (_columnLabels == other._columnLabels || Arrays.equals(_columnLabels, other._columnLabels)) {
+            return Arrays.equals(_keyValues, other._keyValues); // mainly here (same relation path)
+        }
+        for (int i = 0; i < _columnLabels.length; i++) { // labels in different order
+            final int otherIndex = other.findColumnIndex(_columnLabels[i]);
+            if (otherIndex < 0 || !_keyValues[i].equals(other._keyValues[otherIndex])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public String toString() {
-        return _relKeyValues.toString();
+        return getRelKeyValues().toString();
     }
 }
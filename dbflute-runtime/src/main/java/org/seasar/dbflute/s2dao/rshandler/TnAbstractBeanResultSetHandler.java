@@ -30,6 +30,7 @@ import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCache;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCreator;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationSelector;
 import org.seasar.dbflute.s2dao.rowcreator.TnRowCreator;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 
 /**
  * @author modified by jflute (originated in S2Dao)
@@ -43,6 +44,9 @@ public abstract class TnAbstractBeanResultSetHandler implements TnResultSetHandl
     protected final TnRowCreator _rowCreator;
     protected final TnRelationRowCreator _relationRowCreator;
 
+    /** The plan of row mapping for the latest shape of result set, reused while same shape. (NullAllowed: before first) */
+    protected volatile TnRowMappingPlan _rowMappingPlan;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -90,6 +94,30 @@ public abstract class TnAbstractBeanResultSetHandler implements TnResultSetHandl
         return _relationRowCreator.createPropertyCache(selectColumnMap, selectIndexMap, relSelector, _beanMetaData);
     }
 
+    // ===================================================================================
+    //                                                                    Row Mapping Plan
+    //                                                                    ================
+    /**
+     * Find the plan of row mapping for the shape of the result set. <br />
+     * The plan is reused between executions while the result set has the same column labels.
+     * This is only for no select index, e.g. outside-SQL.
+     * @param rs The result set of JDBC. (NotNull)
+     * @return The plan of row mapping for the result set. (NotNull)
+     * @throws SQLException
+     */
+    protected TnRowMappingPlan findRowMappingPlan(ResultSet rs) throws SQLException {
+        final String[] columnLabels = TnRowMappingPlan.extractColumnLabels(rs);
+        final TnRowMappingPlan cachedPlan = _rowMappingPlan;
+        if (cachedPlan != null && cachedPlan.isSameShape(columnLabels)) { // mainly here
+            return cachedPlan;
+        }
+        final Map<String, String> selectColumnMap = createSelectColumnMap(rs);
+        final Map<String, TnPropertyMapping> propertyCache = createPropertyCache(selectColumnMap, null);
+        final TnRowMappingPlan plan = new TnRowMappingPlan(columnLabels, selectColumnMap, propertyCache);
+        _rowMappingPlan = plan; // latest one wins if concurrent
+        return plan;
+    }
+
     // ===================================================================================
     //                                                                          Create Row
     //                                                                          ==========
@@ -110,6 +138,18 @@ public abstract class TnAbstractBeanResultSetHandler implements TnResultSetHandl
         return _rowCreator.createRow(rs, selectIndexMap, propertyCache, beanClass);
     }
 
+    /**
+     * Create base point row by the plan of row mapping.
+     * @param rs Result set. (NotNull)
+     * @param plan The plan of row mapping for the shape of the result set. (NotNull)
+     * @return The created row. (NotNull)
+     * @throws SQLException
+     */
+    protected Object createRow(ResultSet rs, TnRowMappingPlan plan) throws SQLException {
+        final Class<?> beanClass = _beanMetaData.getBeanClass();
+        return _rowCreator.createRow(rs, plan, beanClass);
+    }
+
     /**
      * Create relation row.
      * @param rs Result set. (NotNull)
@@ -34,6 +34,7 @@ import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCache;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationRowCreator;
 import org.seasar.dbflute.s2dao.rowcreator.TnRelationSelector;
 import org.seasar.dbflute.s2dao.rowcreator.TnRowCreator;
+import org.seasar.dbflute.s2dao.rowcreator.TnRowMappingPlan;
 
 /**
  * @author modified by jflute (originated in S2Dao)
@@ -77,6 +78,7 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
         // lazy initialization because if the result is zero, the resources are unused
         Map<String, String> selectColumnMap = null;
         Map<String, TnPropertyMapping> propertyCache = null;
+        TnRowMappingPlan rowMappingPlan = null; // only when no select index
         Map<String, Map<String, TnPropertyMapping>> relPropCache = null; // key is relationNoSuffix, columnName
         TnRelationRowCache relRowCache = null;
         TnRelationSelector relSelector = null;
@@ -95,7 +97,14 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
         }
         final Map<String, Map<String, Integer>> selectIndexMap = ResourceContext.getSelectIndexMap(); // null allowed
 
+        final boolean useRowMappingPlan = canUseRowMappingPlan(hasCB, selectIndexMap);
+
         while (rs.next()) {
+            if (useRowMappingPlan && rowMappingPlan == null) {
+                rowMappingPlan = findRowMappingPlan(rs); // reused while same shape
+                selectColumnMap = rowMappingPlan.getSelectColumnMap();
+                propertyCache = rowMappingPlan.getPropertyCache();
+            }
             if (selectColumnMap == null) {
                 selectColumnMap = createSelectColumnMap(rs);
             }
@@ -104,7 +113,12 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
             }
 
             // create row instance of base table by row property cache
-            final Object row = createRow(rs, selectIndexMap, propertyCache);
+            final Object row;
+            if (rowMappingPlan != null) { // e.g. outside-SQL
+                row = createRow(rs, rowMappingPlan);
+            } else { // mainly condition-bean
+                row = createRow(rs, selectIndexMap, propertyCache);
+            }
 
             if (skipRelationLoop) {
                 adjustCreatedRow(row, basePointBmd);
@@ -134,6 +148,18 @@ public class TnBeanListResultSetHandler extends TnAbstractBeanResultSetHandler {
         }
     }
 
+    /**
+     * Can the select use the plan of row mapping? <br />
+     * The plan depends on only column labels so it is used when no condition-bean (e.g. outside-SQL),
+     * condition-bean select is mapped by select index instead.
+     * @param hasCB Does the select have condition-bean?
+     * @param selectIndexMap The map of select index. (NullAllowed)
+     * @return The determination, true or false.
+     */
+    protected boolean canUseRowMappingPlan(boolean hasCB, Map<String, Map<String, Integer>> selectIndexMap) {
+        return !hasCB && selectIndexMap == null;
+    }
+
     /**
      * Create the selector of relation.
      * @param hasCB Does the select have condition-bean? 
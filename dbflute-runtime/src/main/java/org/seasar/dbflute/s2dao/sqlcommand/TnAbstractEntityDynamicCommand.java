@@ -15,13 +15,20 @@
  */
 package org.seasar.dbflute.s2dao.sqlcommand;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
 import org.seasar.dbflute.CallbackContext;
 import org.seasar.dbflute.Entity;
+import org.seasar.dbflute.Entity.EntityModifiedPropertyIndex;
+import org.seasar.dbflute.Entity.EntityModifiedPropertyNameSet;
+import org.seasar.dbflute.XLog;
 import org.seasar.dbflute.bhv.SqlStringFilter;
 import org.seasar.dbflute.bhv.core.BehaviorCommandMeta;
 import org.seasar.dbflute.cbean.cipher.ColumnFunctionCipher;
@@ -38,6 +45,12 @@ import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
  */
 public abstract class TnAbstractEntityDynamicCommand extends TnAbstractBasicSqlCommand {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The limit size of SQL shape cache per command, over it, SQL is built per execution. */
+    protected static final int SQL_SHAPE_CACHE_LIMIT = 256;
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -50,6 +63,18 @@ public abstract class TnAbstractEntityDynamicCommand extends TnAbstractBasicSqlC
     /** The array of property name for persistent columns. (NotNull: after initialization) */
     protected String[] _propertyNames;
 
+    /** The ordinals of modified properties for the property names. (NullAllowed: lazy-loaded) */
+    protected volatile ModifiedPropertyOrdinals _modifiedPropertyOrdinals;
+
+    /** The cache of built SQL and bound property types, key is the shape. (NotNull) */
+    protected final Map<SqlShapeKey, SqlShape> _sqlShapeMap = new ConcurrentHashMap<SqlShapeKey, SqlShape>();
+
+    /** The count of hit of SQL shape cache. (NotNull) */
+    protected final AtomicLong _sqlShapeHitCount = new AtomicLong();
+
+    /** The count of miss of SQL shape cache. (NotNull) */
+    protected final AtomicLong _sqlShapeMissCount = new AtomicLong();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -84,6 +109,241 @@ public abstract class TnAbstractEntityDynamicCommand extends TnAbstractBasicSqlC
         return beanList;
     }
 
+    // ===================================================================================
+    //                                                                   Modified Property
+    //                                                                   =================
+    /**
+     * Find the ordinals of modified properties aligned with the property names.
+     * @param modifiedSet The set of modified properties. (NotNull)
+     * @return The array of ordinals, minus means no ordinal. (NullAllowed: if not bitset view)
+     */
+    protected int[] findModifiedPropertyOrdinals(Set<?> modifiedSet) {
+        if (!(modifiedSet instanceof EntityModifiedPropertyNameSet)) {
+            return null;
+        }
+        final EntityModifiedPropertyIndex index = ((EntityModifiedPropertyNameSet) modifiedSet).getPropertyIndex();
+        final ModifiedPropertyOrdinals cached = _modifiedPropertyOrdinals;
+        if (cached != null && cached.getPropertyIndex() == index) {
+            return cached.getOrdinals();
+        }
+        final String[] propertyNames = _propertyNames;
+        final int[] ordinals = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            ordinals[i] = index.findOrdinal(propertyNames[i]);
+        }
+        _modifiedPropertyOrdinals = new ModifiedPropertyOrdinals(index, ordinals);
+        return ordinals;
+    }
+
+    /**
+     * @param modifiedOrdinals The array of ordinals. (NullAllowed)
+     * @param index The index of the property names.
+     * @return The ordinal of the property. (minus: no ordinal)
+     */
+    protected int toOrdinal(int[] modifiedOrdinals, int index) {
+        return modifiedOrdinals != null ? modifiedOrdinals[index] : -1;
+    }
+
+    /**
+     * Is the property modified? It tests the bit directly if the ordinal exists.
+     * @param modifiedSet The set of modified properties. (NotNull)
+     * @param pt The type of property. (NotNull)
+     * @param ordinal The ordinal of the property in the index. (minus: no ordinal)
+     * @return The determination, true or false.
+     */
+    protected boolean isModifiedProperty(Set<?> modifiedSet, TnPropertyType pt, int ordinal) {
+        if (ordinal >= 0) {
+            return ((EntityModifiedPropertyNameSet) modifiedSet).containsOrdinal(ordinal);
+        }
+        return isModifiedProperty(modifiedSet, pt);
+    }
+
+    protected boolean isModifiedProperty(Set<?> modifiedSet, TnPropertyType pt) {
+        return modifiedSet.contains(pt.getPropertyName());
+    }
+
+    protected static class ModifiedPropertyOrdinals {
+
+        protected final EntityModifiedPropertyIndex _propertyIndex;
+        protected final int[] _ordinals;
+
+        public ModifiedPropertyOrdinals(EntityModifiedPropertyIndex propertyIndex, int[] ordinals) {
+            _propertyIndex = propertyIndex;
+            _ordinals = ordinals;
+        }
+
+        public EntityModifiedPropertyIndex getPropertyIndex() {
+            return _propertyIndex;
+        }
+
+        public int[] getOrdinals() {
+            return _ordinals;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Property Bits
+    //                                                                       =============
+    protected long[] newPropertyBits() {
+        return new long[(_propertyNames.length + 63) >> 6];
+    }
+
+    protected void markPropertyBit(long[] propertyBits, int index) {
+        propertyBits[index >> 6] |= (1L << (index & 63));
+    }
+
+    protected boolean hasPropertyBit(long[] propertyBits, int index) {
+        return (propertyBits[index >> 6] & (1L << (index & 63))) != 0;
+    }
+
+    protected boolean isEmptyPropertyBits(long[] propertyBits) {
+        for (long bits : propertyBits) {
+            if (bits != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convert the bits of property names to the property types.
+     * @param propertyBits The bits indexed by the property names of this command. (NotNull)
+     * @return The array of property types ordered as the property names. (NotNull)
+     */
+    protected TnPropertyType[] toPropertyTypes(long[] propertyBits) {
+        return toPropertyTypes(_propertyNames, propertyBits);
+    }
+
+    /**
+     * Convert the bits of property names to the property types.
+     * @param propertyNames The array of property names that the bits are indexed by. (NotNull)
+     * @param propertyBits The bits indexed by the property names. (NotNull)
+     * @return The array of property types ordered as the property names. (NotNull)
+     */
+    protected TnPropertyType[] toPropertyTypes(String[] propertyNames, long[] propertyBits) {
+        int size = 0;
+        for (long bits : propertyBits) {
+            size += Long.bitCount(bits);
+        }
+        final TnPropertyType[] propertyTypes = new TnPropertyType[size];
+        int typeIndex = 0;
+        for (int i = 0; i < propertyNames.length; ++i) {
+            if (hasPropertyBit(propertyBits, i)) {
+                propertyTypes[typeIndex] = _beanMetaData.getPropertyType(propertyNames[i]);
+                ++typeIndex;
+            }
+        }
+        return propertyTypes;
+    }
+
+    // ===================================================================================
+    //                                                                     SQL Shape Cache
+    //                                                                     ===============
+    /**
+     * Find the SQL shape from the cache.
+     * @param key The key of SQL shape. (NotNull)
+     * @return The cached SQL shape. (NullAllowed: when not cached yet)
+     */
+    protected SqlShape findSqlShape(SqlShapeKey key) {
+        final SqlShape shape = _sqlShapeMap.get(key);
+        if (shape != null) {
+            _sqlShapeHitCount.incrementAndGet();
+        } else {
+            _sqlShapeMissCount.incrementAndGet();
+        }
+        return shape;
+    }
+
+    /**
+     * Register the SQL shape to the cache if the cache is not full.
+     * @param key The key of SQL shape, which should not be changed after this. (NotNull)
+     * @param shape The built SQL shape. (NotNull)
+     */
+    protected void registerSqlShape(SqlShapeKey key, SqlShape shape) {
+        final int size = _sqlShapeMap.size();
+        if (size >= SQL_SHAPE_CACHE_LIMIT) {
+            return; // built per execution (rare case, e.g. many self-calculation patterns)
+        }
+        _sqlShapeMap.put(key, shape);
+        if (size + 1 == SQL_SHAPE_CACHE_LIMIT && XLog.isLogEnabled()) {
+            XLog.log("...Reaching the limit of SQL shape cache: " + buildSqlShapeCacheDisp());
+        }
+    }
+
+    protected String buildSqlShapeCacheDisp() {
+        final String tableDbName = _targetDBMeta != null ? _targetDBMeta.getTableDbName() : null;
+        return "table=" + tableDbName + ", size=" + getSqlShapeCacheSize() + ", hit=" + getSqlShapeCacheHitCount()
+                + ", miss=" + getSqlShapeCacheMissCount();
+    }
+
+    /**
+     * The key of SQL shape, which consists of bound properties, statements and unique-driven properties. <br />
+     * The property types are compared by identity (as the instances of bean meta data). <br />
+     * The array and the set should not be changed after it is registered to the cache.
+     */
+    protected static class SqlShapeKey {
+
+        protected final TnPropertyType[] _propertyTypes;
+        protected final String _statementKey; // null allowed
+        protected final Set<String> _uniqueDrivenPropSet; // null allowed
+        protected final int _hashCode;
+
+        public SqlShapeKey(TnPropertyType[] propertyTypes, String statementKey, Set<String> uniqueDrivenPropSet) {
+            _propertyTypes = propertyTypes;
+            _statementKey = statementKey;
+            _uniqueDrivenPropSet = uniqueDrivenPropSet;
+            int hashCode = Arrays.hashCode(propertyTypes);
+            hashCode = 31 * hashCode + (statementKey != null ? statementKey.hashCode() : 0);
+            hashCode = 31 * hashCode + (uniqueDrivenPropSet != null ? uniqueDrivenPropSet.hashCode() : 0);
+            _hashCode = hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SqlShapeKey)) {
+                return false;
+            }
+            final SqlShapeKey other = (SqlShapeKey) obj;
+            if (_hashCode != other._hashCode || !Arrays.equals(_propertyTypes, other._propertyTypes)) {
+                return false;
+            }
+            if (_statementKey != null ? !_statementKey.equals(other._statementKey) : other._statementKey != null) {
+                return false;
+            }
+            if (_uniqueDrivenPropSet != null) {
+                return _uniqueDrivenPropSet.equals(other._uniqueDrivenPropSet);
+            }
+            return other._uniqueDrivenPropSet == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+    }
+
+    /**
+     * The shape of SQL, which has the SQL before filtering and the bound property types. (immutable)
+     */
+    protected static class SqlShape {
+
+        protected final TnPropertyType[] _propertyTypes;
+        protected final String _sql; // null allowed: e.g. no update
+
+        public SqlShape(TnPropertyType[] propertyTypes, String sql) {
+            _propertyTypes = propertyTypes;
+            _sql = sql;
+        }
+
+        public TnPropertyType[] getPropertyTypes() {
+            return _propertyTypes;
+        }
+
+        public String getSql() {
+            return _sql;
+        }
+    }
+
     // ===================================================================================
     //                                                                          Create SQL
     //                                                                          ==========
@@ -189,4 +449,16 @@ public abstract class TnAbstractEntityDynamicCommand extends TnAbstractBasicSqlC
     public void setPropertyNames(String[] propertyNames) {
         _propertyNames = propertyNames;
     }
+
+    public int getSqlShapeCacheSize() {
+        return _sqlShapeMap.size();
+    }
+
+    public long getSqlShapeCacheHitCount() {
+        return _sqlShapeHitCount.get();
+    }
+
+    public long getSqlShapeCacheMissCount() {
+        return _sqlShapeMissCount.get();
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.s2dao.sqlcommand;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -24,14 +25,25 @@ import javax.sql.DataSource;
 import org.seasar.dbflute.bhv.InsertOption;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.jdbc.StatementFactory;
+import org.seasar.dbflute.resource.ResourceContext;
 import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
 import org.seasar.dbflute.s2dao.sqlhandler.TnBatchInsertHandler;
+import org.seasar.dbflute.s2dao.sqlhandler.TnBatchInsertMultipleRowHandler;
 
 /**
  * @author modified by jflute (originated in S2Dao)
  */
 public class TnBatchInsertDynamicCommand extends TnInsertEntityDynamicCommand {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The limit count of bind parameters in one multiple-row insert statement. */
+    protected static final int MULTIPLE_ROW_BIND_PARAMETER_LIMIT = 2000;
+
+    /** The limit count of rows in one multiple-row insert statement. (SQLServer's row value expressions) */
+    protected static final int MULTIPLE_ROW_VALUES_LIMIT = 1000;
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -46,12 +58,85 @@ public class TnBatchInsertDynamicCommand extends TnInsertEntityDynamicCommand {
     protected Object doExecute(Object bean, TnPropertyType[] propertyTypes, String sql,
             InsertOption<ConditionBean> option) {
         final List<?> beanList = extractBeanListFromBeanChecked(bean);
+        final int rowSize = deriveMultipleRowSize(propertyTypes, option);
+        if (rowSize > 1 && beanList.size() >= rowSize) {
+            return doExecuteMultipleRow(beanList, propertyTypes, sql, option, rowSize);
+        }
         final TnBatchInsertHandler handler = createBatchInsertHandler(propertyTypes, sql, option);
         // because the variable is set when exception occurs if batch 
         //handler.setExceptionMessageSqlArgs(new Object[] { ... });
         return handler.executeBatch(beanList);
     }
 
+    // ===================================================================================
+    //                                                                 Multiple-row Insert
+    //                                                                 ===================
+    /**
+     * Derive the size of rows in one multiple-row insert statement.
+     * @param propertyTypes The bound property types of one row. (NotNull)
+     * @param option The option of insert. (NullAllowed)
+     * @return The size of rows. (zero or one means no multiple-row insert)
+     */
+    protected int deriveMultipleRowSize(TnPropertyType[] propertyTypes, InsertOption<ConditionBean> option) {
+        final Integer specifiedSize = option != null ? option.getMultipleRowBatchInsertSize() : null;
+        if (specifiedSize == null || specifiedSize <= 1) {
+            return 0;
+        }
+        if (!isMultipleRowInsertSupported()) {
+            return 0;
+        }
+        // avoid too many bind parameters in one statement (e.g. SQLServer's limit is 2100)
+        // and too many rows in one statement (e.g. SQLServer's limit is 1000)
+        final int maxBindRowSize = MULTIPLE_ROW_BIND_PARAMETER_LIMIT / Math.max(1, propertyTypes.length);
+        final int maxRowSize = Math.min(maxBindRowSize, MULTIPLE_ROW_VALUES_LIMIT);
+        return Math.min(specifiedSize, maxRowSize);
+    }
+
+    protected boolean isMultipleRowInsertSupported() {
+        return ResourceContext.currentDBDef().dbway().isMultipleRowInsertSupported();
+    }
+
+    protected Object doExecuteMultipleRow(List<?> beanList, TnPropertyType[] propertyTypes, String sql,
+            InsertOption<ConditionBean> option, int rowSize) {
+        final List<List<?>> groupList = new ArrayList<List<?>>(beanList.size() / rowSize);
+        final int groupedSize = beanList.size() - (beanList.size() % rowSize);
+        for (int i = 0; i < groupedSize; i = i + rowSize) {
+            groupList.add(beanList.subList(i, i + rowSize));
+        }
+        final String multipleRowSql = filterExecutedSql(createMultipleRowInsertSql(propertyTypes, option, rowSize));
+        final TnBatchInsertMultipleRowHandler multipleRowHandler = createBatchInsertMultipleRowHandler(
+                propertyTypes, multipleRowSql, option, rowSize);
+        final int[] groupedResult = multipleRowHandler.executeMultipleRowBatch(groupList);
+        final List<?> restList = beanList.subList(groupedSize, beanList.size());
+        if (restList.isEmpty()) {
+            return groupedResult;
+        }
+        final TnBatchInsertHandler restHandler = createBatchInsertHandler(propertyTypes, sql, option);
+        final int[] restResult = restHandler.executeBatch(restList);
+        final int[] result = new int[groupedResult.length + restResult.length];
+        System.arraycopy(groupedResult, 0, result, 0, groupedResult.length);
+        System.arraycopy(restResult, 0, result, groupedResult.length, restResult.length);
+        return result;
+    }
+
+    protected String createMultipleRowInsertSql(TnPropertyType[] propertyTypes, InsertOption<ConditionBean> option,
+            int rowSize) {
+        final String singleRowSql = createInsertSql(_beanMetaData, propertyTypes, option);
+        final String valuesMark = ln() + " values ";
+        final int valuesIndex = singleRowSql.lastIndexOf(valuesMark);
+        final String intoPart = singleRowSql.substring(0, valuesIndex + valuesMark.length());
+        final String rowPart = singleRowSql.substring(valuesIndex + valuesMark.length()); // e.g. (?, ?, ?)
+        final StringBuilder sb = new StringBuilder(intoPart.length() + (rowPart.length() + 2) * rowSize);
+        sb.append(intoPart);
+        for (int i = 0; i < rowSize; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(rowPart);
+        }
+        return sb.toString();
+    }
+
     // ===================================================================================
     //                                                                       Insert Column
     //                                                                       =============
@@ -81,6 +166,19 @@ public class TnBatchInsertDynamicCommand extends TnInsertEntityDynamicCommand {
         return new TnBatchInsertHandler(_dataSource, _statementFactory, sql, _beanMetaData, boundPropTypes);
     }
 
+    protected TnBatchInsertMultipleRowHandler createBatchInsertMultipleRowHandler(TnPropertyType[] boundPropTypes,
+            String sql, InsertOption<ConditionBean> option, int rowSize) {
+        final TnBatchInsertMultipleRowHandler handler = newBatchInsertMultipleRowHandler(boundPropTypes, sql, rowSize);
+        handler.setInsertOption(option);
+        return handler;
+    }
+
+    protected TnBatchInsertMultipleRowHandler newBatchInsertMultipleRowHandler(TnPropertyType[] boundPropTypes,
+            String sql, int rowSize) {
+        return new TnBatchInsertMultipleRowHandler(_dataSource, _statementFactory, sql, _beanMetaData,
+                boundPropTypes, rowSize);
+    }
+
     // ===================================================================================
     //                                                                          Create SQL
     //                                                                          ==========
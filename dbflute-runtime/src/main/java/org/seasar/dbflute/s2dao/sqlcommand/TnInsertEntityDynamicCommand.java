@@ -15,8 +15,6 @@
  */
 package org.seasar.dbflute.s2dao.sqlcommand;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Set;
 
 import javax.sql.DataSource;
@@ -56,8 +54,9 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
 
         final TnBeanMetaData bmd = _beanMetaData;
         final TnPropertyType[] propertyTypes = createInsertPropertyTypes(bmd, bean, _propertyNames, option);
-        final String sql = filterExecutedSql(createInsertSql(bmd, propertyTypes, option));
-        return doExecute(bean, propertyTypes, sql, option);
+        final SqlShape shape = prepareInsertSqlShape(bmd, propertyTypes, option);
+        final String sql = filterExecutedSql(shape.getSql());
+        return doExecute(bean, shape.getPropertyTypes(), sql, option);
     }
 
     protected InsertOption<ConditionBean> extractInsertOptionChecked(Object[] args) {
@@ -88,14 +87,41 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     // ===================================================================================
     //                                                                       Insert Column
     //                                                                       =============
+    /**
+     * Create the types of insert properties, which are also the key of insert SQL shape.
+     * @param bmd The bean meta data of the entity. (NotNull)
+     * @param bean The bean of the entity to insert. (NotNull)
+     * @param propertyNames The array of property names, basically of this command. (NotNull)
+     * @param option An option of insert. (NullAllowed)
+     * @return The array of insert property types. (NotNull, NotEmpty)
+     */
     protected TnPropertyType[] createInsertPropertyTypes(TnBeanMetaData bmd, Object bean, String[] propertyNames,
             InsertOption<ConditionBean> option) {
+        return toPropertyTypes(propertyNames, createInsertPropertyBits(bmd, bean, propertyNames, option));
+    }
+
+    /**
+     * Create the bits of insert properties indexed by the property names.
+     * @param bmd The bean meta data of the entity. (NotNull)
+     * @param bean The bean of the entity to insert. (NotNull)
+     * @param propertyNames The array of property names, basically of this command. (NotNull)
+     * @param option An option of insert. (NullAllowed)
+     * @return The bits of insert properties. (NotNull, NotEmpty)
+     */
+    protected long[] createInsertPropertyBits(TnBeanMetaData bmd, Object bean, String[] propertyNames,
+            InsertOption<ConditionBean> option) {
         if (0 == propertyNames.length) {
             String msg = "The property name was not found in the bean: " + bean;
             throw new IllegalStateException(msg);
         }
-        final List<TnPropertyType> typeList = new ArrayList<TnPropertyType>();
+        final long[] propertyBits = new long[(propertyNames.length + 63) >> 6];
         final Set<?> modifiedSet = getModifiedPropertyNames(bean);
+        final int[] modifiedOrdinals; // aligned with the property names of this command
+        if (propertyNames == _propertyNames) {
+            modifiedOrdinals = findModifiedPropertyOrdinals(modifiedSet);
+        } else {
+            modifiedOrdinals = null;
+        }
         final String timestampProp = bmd.getTimestampPropertyName();
         final String versionNoProp = bmd.getVersionNoPropertyName();
 
@@ -108,18 +134,19 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
                         continue;
                     }
                 }
-                typeList.add(pt);
+                markPropertyBit(propertyBits, i);
             } else {
+                final int ordinal = toOrdinal(modifiedOrdinals, i);
                 if (isOptimisticLockProperty(timestampProp, versionNoProp, pt) // OptimisticLock
-                        || isSpecifiedProperty(bean, option, modifiedSet, pt)) { // Specified
-                    typeList.add(pt);
+                        || isSpecifiedProperty(bean, option, modifiedSet, pt, ordinal)) { // Specified
+                    markPropertyBit(propertyBits, i);
                 }
             }
         }
-        if (typeList.isEmpty()) {
+        if (isEmptyPropertyBits(propertyBits)) {
             throwEntityInsertPropertyNotFoundException(bmd, bean);
         }
-        return (TnPropertyType[]) typeList.toArray(new TnPropertyType[typeList.size()]);
+        return propertyBits;
     }
 
     protected Set<?> getModifiedPropertyNames(Object bean) {
@@ -132,7 +159,7 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     }
 
     protected boolean isSpecifiedProperty(Object bean, InsertOption<ConditionBean> option, Set<?> modifiedSet,
-            TnPropertyType pt) {
+            TnPropertyType pt, int ordinal) {
         if (option != null && option.hasSpecifiedInsertColumn()) { // basically BatchUpdate
             // BatchUpdate's modified properties are translated to specified columns
             // so all BatchUpdate commands are here
@@ -144,7 +171,7 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
                 if (option != null && option.xisCompatibleInsertColumnNotNullOnly()) { // for compatible
                     return isNotNullProperty(bean, pt);
                 } else { // mainly here
-                    return isModifiedProperty(modifiedSet, pt); // process for ModifiedColumnInsert
+                    return isModifiedProperty(modifiedSet, pt, ordinal); // process for ModifiedColumnInsert
                 }
             }
         }
@@ -162,10 +189,6 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
         return pt.getPropertyAccessor().getValue(bean) != null;
     }
 
-    protected boolean isModifiedProperty(Set<?> modifiedSet, TnPropertyType pt) {
-        return modifiedSet.contains(pt.getPropertyName());
-    }
-
     protected void throwEntityInsertPropertyNotFoundException(TnBeanMetaData bmd, Object bean) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("The insert property of the entity was not found.");
@@ -183,6 +206,25 @@ public class TnInsertEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     // ===================================================================================
     //                                                                          Insert SQL
     //                                                                          ==========
+    /**
+     * Prepare the shape of insert SQL, which is cached per bound properties.
+     * @param bmd The bean meta data of the entity. (NotNull)
+     * @param propertyTypes The types of insert properties. (NotNull, NotEmpty)
+     * @param option An option of insert. (NullAllowed)
+     * @return The shape of insert SQL before filtering. (NotNull)
+     */
+    protected SqlShape prepareInsertSqlShape(TnBeanMetaData bmd, TnPropertyType[] propertyTypes,
+            InsertOption<ConditionBean> option) {
+        final SqlShapeKey key = new SqlShapeKey(propertyTypes, null, null); // option is reflected to the types
+        final SqlShape cached = findSqlShape(key);
+        if (cached != null) {
+            return cached;
+        }
+        final SqlShape shape = new SqlShape(propertyTypes, createInsertSql(bmd, propertyTypes, option));
+        registerSqlShape(key, shape);
+        return shape;
+    }
+
     protected String createInsertSql(TnBeanMetaData bmd, TnPropertyType[] propertyTypes,
             InsertOption<ConditionBean> option) {
         final String tableDbName = _targetDBMeta.getTableDbName();
@@ -15,8 +15,7 @@
  */
 package org.seasar.dbflute.s2dao.sqlcommand;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -74,8 +73,9 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
             }
             return getNonUpdateReturn();
         }
-        final String sql = filterExecutedSql(createUpdateSql(bean, propertyTypes, option));
-        return doExecute(bean, propertyTypes, sql, option);
+        final SqlShape shape = prepareUpdateSqlShape(bean, propertyTypes, option);
+        final String sql = filterExecutedSql(shape.getSql());
+        return doExecute(bean, shape.getPropertyTypes(), sql, option);
     }
 
     protected UpdateOption<ConditionBean> extractUpdateOptionChecked(Object[] args) {
@@ -107,9 +107,26 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     // ===================================================================================
     //                                                                       Update Column
     //                                                                       =============
+    /**
+     * Create the types of update properties, which are also the key of update SQL shape.
+     * @param bean The bean of the entity to update. (NotNull)
+     * @param option An option of update. (NullAllowed)
+     * @return The array of update property types. (NotNull, EmptyAllowed: no update)
+     */
     protected TnPropertyType[] createUpdatePropertyTypes(Object bean, UpdateOption<ConditionBean> option) {
+        return toPropertyTypes(createUpdatePropertyBits(bean, option));
+    }
+
+    /**
+     * Create the bits of update properties indexed by the property names of this command.
+     * @param bean The bean of the entity to update. (NotNull)
+     * @param option An option of update. (NullAllowed)
+     * @return The bits of update properties. (NotNull, EmptyAllowed: no update)
+     */
+    protected long[] createUpdatePropertyBits(Object bean, UpdateOption<ConditionBean> option) {
         final Set<String> modifiedSet = getModifiedPropertyNames(bean);
-        final List<TnPropertyType> typeList = new ArrayList<TnPropertyType>();
+        final int[] modifiedOrdinals = findModifiedPropertyOrdinals(modifiedSet); // null allowed
+        final long[] propertyBits = newPropertyBits();
         final String timestampProp = _beanMetaData.getTimestampPropertyName();
         final String versionNoProp = _beanMetaData.getVersionNoPropertyName();
         final String[] propertyNames = _propertyNames;
@@ -119,12 +136,12 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
                 continue;
             }
             if (isOptimisticLockProperty(timestampProp, versionNoProp, pt) // OptimisticLock
-                    || isSpecifiedProperty(option, modifiedSet, pt) // Specified
+                    || isSpecifiedProperty(option, modifiedSet, pt, toOrdinal(modifiedOrdinals, i)) // Specified
                     || isStatementProperty(option, pt)) { // Statement
-                typeList.add(pt);
+                markPropertyBit(propertyBits, i);
             }
         }
-        return typeList.toArray(new TnPropertyType[typeList.size()]);
+        return propertyBits;
     }
 
     protected Set<String> getModifiedPropertyNames(Object bean) {
@@ -136,18 +153,15 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
         return propertyName.equalsIgnoreCase(timestampProp) || propertyName.equalsIgnoreCase(versionNoProp);
     }
 
-    protected boolean isSpecifiedProperty(UpdateOption<ConditionBean> option, Set<?> modifiedSet, TnPropertyType pt) {
+    protected boolean isSpecifiedProperty(UpdateOption<ConditionBean> option, Set<?> modifiedSet,
+            TnPropertyType pt, int ordinal) {
         if (option != null && option.hasSpecifiedUpdateColumn()) { // BatchUpdate
             return option.isSpecifiedUpdateColumn(pt.getColumnDbName());
         } else { // EntityUpdate
-            return isModifiedProperty(modifiedSet, pt); // process for ModifiedColumnUpdate
+            return isModifiedProperty(modifiedSet, pt, ordinal); // process for ModifiedColumnUpdate
         }
     }
 
-    protected boolean isModifiedProperty(Set<?> modifiedSet, TnPropertyType pt) {
-        return modifiedSet.contains(pt.getPropertyName());
-    }
-
     protected boolean isStatementProperty(UpdateOption<ConditionBean> option, TnPropertyType pt) {
         return option != null && option.hasStatement(pt.getColumnDbName());
     }
@@ -155,6 +169,49 @@ public class TnUpdateEntityDynamicCommand extends TnAbstractEntityDynamicCommand
     // ===================================================================================
     //                                                                          Update SQL
     //                                                                          ==========
+    /**
+     * Prepare the shape of update SQL, which is cached per bound properties,
+     * self-calculation statements and unique-driven properties.
+     * @param bean The bean of the entity to update. (NotNull)
+     * @param propertyTypes The types of update properties. (NotNull, NotEmpty)
+     * @param option An option of update. (NullAllowed)
+     * @return The shape of update SQL before filtering. (NotNull)
+     */
+    protected SqlShape prepareUpdateSqlShape(Object bean, TnPropertyType[] propertyTypes,
+            UpdateOption<ConditionBean> option) {
+        final Set<String> uniqueDrivenPropSet = extractUniqueDrivenPropSet(bean);
+        final String statementKey = buildUpdateStatementKey(propertyTypes, option);
+        final SqlShapeKey key = new SqlShapeKey(propertyTypes, statementKey, uniqueDrivenPropSet);
+        final SqlShape cached = findSqlShape(key);
+        if (cached != null) {
+            return cached;
+        }
+        final SqlShape shape = new SqlShape(propertyTypes, createUpdateSql(bean, propertyTypes, option));
+        final Set<String> copiedSet = uniqueDrivenPropSet != null ? new HashSet<String>(uniqueDrivenPropSet) : null;
+        registerSqlShape(new SqlShapeKey(propertyTypes, statementKey, copiedSet), shape);
+        return shape;
+    }
+
+    /**
+     * Build the key of self-calculation statements for the bound properties.
+     * @param propertyTypes The types of update properties. (NotNull)
+     * @param option An option of update. (NullAllowed)
+     * @return The string key of statements. (NullAllowed: no statement)
+     */
+    protected String buildUpdateStatementKey(TnPropertyType[] propertyTypes, UpdateOption<ConditionBean> option) {
+        if (option == null || !option.hasSelfSpecification()) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (TnPropertyType pt : propertyTypes) {
+            final String columnDbName = pt.getColumnDbName();
+            if (option.hasStatement(columnDbName)) {
+                sb.append(columnDbName).append("=").append(option.buildStatement(columnDbName)).append(";");
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Create update SQL. The update is by the primary keys or unique keys.
      * @param bean The bean of the entity to update. (NotNull)
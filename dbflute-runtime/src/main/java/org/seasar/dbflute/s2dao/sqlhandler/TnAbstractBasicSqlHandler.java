@@ -32,6 +32,7 @@ import org.seasar.dbflute.QLog;
 import org.seasar.dbflute.bhv.core.SqlFireHook;
 import org.seasar.dbflute.bhv.core.SqlFireReadyInfo;
 import org.seasar.dbflute.bhv.core.SqlFireResultInfo;
+import org.seasar.dbflute.bhv.core.supplement.CommandMetricsEntry;
 import org.seasar.dbflute.exception.handler.SQLExceptionHandler;
 import org.seasar.dbflute.exception.handler.SQLExceptionResource;
 import org.seasar.dbflute.jdbc.DataSourceHandler;
@@ -274,6 +275,17 @@ public abstract class TnAbstractBasicSqlHandler {
         return new DisplaySqlBuilder(logDateFormat, logTimestampFormat);
     }
 
+    // -----------------------------------------------------
+    //                                      Command Metrics
+    //                                      ---------------
+    protected CommandMetricsEntry findCommandMetricsEntry() {
+        return InternalMapContext.getCommandMetricsEntry(); // null when metrics is disabled
+    }
+
+    protected long systemNanoTime() {
+        return System.nanoTime(); // for metrics, monotonic
+    }
+
     // -----------------------------------------------------
     //                                           SqlFireHook
     //                                           -----------
@@ -481,6 +493,8 @@ public abstract class TnAbstractBasicSqlHandler {
         if (saveMillis) {
             saveBeforeSqlTimeMillis();
         }
+        final CommandMetricsEntry metricsEntry = findCommandMetricsEntry();
+        final long metricsBefore = metricsEntry != null ? systemNanoTime() : 0L;
         hookSqlFireBefore();
         ResultSet rs = null;
         SQLException nativeCause = null;
@@ -494,6 +508,9 @@ public abstract class TnAbstractBasicSqlHandler {
             nativeCause = e;
             throw e;
         } finally {
+            if (metricsEntry != null) {
+                metricsEntry.recordSql(systemNanoTime() - metricsBefore);
+            }
             hookSqlFireFinally(rs, nativeCause);
         }
     }
@@ -503,6 +520,8 @@ public abstract class TnAbstractBasicSqlHandler {
         if (saveMillis) {
             saveBeforeSqlTimeMillis();
         }
+        final CommandMetricsEntry metricsEntry = findCommandMetricsEntry();
+        final long metricsBefore = metricsEntry != null ? systemNanoTime() : 0L;
         hookSqlFireBefore();
         Integer updated = null;
         SQLException nativeCause = null;
@@ -521,6 +540,9 @@ public abstract class TnAbstractBasicSqlHandler {
             handleSQLException(e, resource);
             return -1; // unreachable
         } finally {
+            if (metricsEntry != null) {
+                metricsEntry.recordSql(systemNanoTime() - metricsBefore);
+            }
             hookSqlFireFinally(updated, nativeCause);
         }
     }
@@ -534,6 +556,11 @@ public abstract class TnAbstractBasicSqlHandler {
         if (saveMillis) {
             saveBeforeSqlTimeMillis();
         }
+        final CommandMetricsEntry metricsEntry = findCommandMetricsEntry();
+        final long metricsBefore = metricsEntry != null ? systemNanoTime() : 0L;
+        if (metricsEntry != null) {
+            metricsEntry.recordBatch(list.size());
+        }
         hookSqlFireBefore();
         int[] batchResult = null;
         SQLException nativeCause = null;
@@ -553,6 +580,9 @@ public abstract class TnAbstractBasicSqlHandler {
             handleSQLException(e, resource);
             return null; // unreachable
         } finally {
+            if (metricsEntry != null) {
+                metricsEntry.recordSql(systemNanoTime() - metricsBefore);
+            }
             hookSqlFireFinally(batchResult, nativeCause);
         }
     }
@@ -577,6 +607,8 @@ public abstract class TnAbstractBasicSqlHandler {
         if (saveMillis) {
             saveBeforeSqlTimeMillis();
         }
+        final CommandMetricsEntry metricsEntry = findCommandMetricsEntry();
+        final long metricsBefore = metricsEntry != null ? systemNanoTime() : 0L;
         hookSqlFireBefore();
         Boolean executed = null;
         SQLException nativeCause = null;
@@ -590,6 +622,9 @@ public abstract class TnAbstractBasicSqlHandler {
             nativeCause = e;
             throw e;
         } finally {
+            if (metricsEntry != null) {
+                metricsEntry.recordSql(systemNanoTime() - metricsBefore);
+            }
             hookSqlFireFinally(executed, nativeCause);
         }
     }
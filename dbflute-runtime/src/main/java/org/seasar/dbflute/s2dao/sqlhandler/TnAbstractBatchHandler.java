@@ -18,6 +18,8 @@ package org.seasar.dbflute.s2dao.sqlhandler;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -57,6 +59,8 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
     protected int _loggingScopeSize;
     protected boolean _existsSkippedLogging;
     protected boolean _alreadySavedToResultInfo;
+    protected int _executedChunkCount; // count of executed chunks in the batch
+    protected int _executedUpdateCount; // total update count of executed chunks
 
     // ===================================================================================
     //                                                                         Constructor
@@ -75,12 +79,20 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         throw new IllegalStateException(msg);
     }
 
-    public int[] executeBatch(List<?> beanList) {
+    /**
+     * Execute batch for the beans. <br />
+     * The beans are read as stream and executed per chunk if the chunk size is specified by option,
+     * so the driver does not need to buffer all parameters of the batch.
+     * @param beanList The iterable source of beans, which is iterated only once. (NotNull)
+     * @return The array of update count for each bean, merged between chunks. (NotNull)
+     */
+    public int[] executeBatch(Iterable<?> beanList) {
         if (beanList == null) {
             String msg = "The argument 'beanList' should not be null";
             throw new IllegalArgumentException(msg);
         }
-        if (beanList.isEmpty()) {
+        final Iterator<?> beanIte = beanList.iterator(); // only once for e.g. one-shot iterable
+        if (!beanIte.hasNext()) {
             if (_log.isDebugEnabled()) {
                 _log.debug("Skip executeBatch() bacause of the empty list.");
             }
@@ -92,14 +104,9 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
             RuntimeException sqlEx = null;
             final PreparedStatement ps = prepareStatement(conn);
             int[] result = null;
+            final List<Object> executedBeanList = new ArrayList<Object>(); // for success process
             try {
-                for (Object bean : beanList) {
-                    processBatchBefore(bean);
-                    prepareBatchElement(conn, ps, bean);
-                }
-                handleBatchLogging(); // last scope handling
-                result = executeBatch(ps, beanList);
-                handleBatchUpdateResultWithOptimisticLock(ps, beanList, result);
+                result = executeBatchChunked(conn, ps, beanIte, executedBeanList);
             } catch (RuntimeException e) {
                 // not SQLFailureException because
                 // a wrapper of JDBC may throw an other exception
@@ -112,7 +119,7 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
             // a value of exclusive control column should be synchronized
             // after handling optimistic lock
             int index = 0;
-            for (Object bean : beanList) {
+            for (Object bean : executedBeanList) {
                 processBatchSuccess(bean, index);
                 ++index;
             }
@@ -123,6 +130,90 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         }
     }
 
+    /**
+     * @param conn The connection for the batch. (NotNull)
+     * @param ps The prepared statement for the batch. (NotNull)
+     * @param beanIte The iterator of beans, which is read to the end here. (NotNull)
+     * @param executedBeanList The list to collect executed beans, e.g. for success process after all chunks. (NotNull)
+     * @return The array of update count for each bean, merged between chunks. (NotNull)
+     */
+    protected int[] executeBatchChunked(Connection conn, PreparedStatement ps, Iterator<?> beanIte,
+            List<Object> executedBeanList) {
+        final int chunkSize = getBatchChunkSize();
+        final List<Object> chunkList = new ArrayList<Object>(chunkSize > 0 ? chunkSize : 10);
+        final List<int[]> chunkResultList = new ArrayList<int[]>();
+        while (beanIte.hasNext()) {
+            final Object bean = beanIte.next();
+            processBatchBefore(bean);
+            prepareBatchElement(conn, ps, bean);
+            chunkList.add(bean);
+            executedBeanList.add(bean);
+            if (chunkSize > 0 && chunkList.size() >= chunkSize) {
+                chunkResultList.add(executeBatchChunk(ps, chunkList));
+                chunkList.clear(); // the batch of statement is also reset by executeBatch()
+            }
+        }
+        if (!chunkList.isEmpty()) { // last chunk (or all when no chunk)
+            chunkResultList.add(executeBatchChunk(ps, chunkList));
+        }
+        return mergeChunkResult(chunkResultList);
+    }
+
+    protected int[] executeBatchChunk(PreparedStatement ps, List<Object> chunkList) {
+        handleBatchLogging(); // last scope handling in the chunk
+        final int[] result = executeBatch(ps, chunkList);
+        handleBatchUpdateResultWithOptimisticLock(ps, chunkList, result);
+        ++_executedChunkCount;
+        _executedUpdateCount = _executedUpdateCount + sumUpdateCount(result);
+        return result;
+    }
+
+    protected int[] mergeChunkResult(List<int[]> chunkResultList) {
+        if (chunkResultList.size() == 1) { // mainly here (no chunk)
+            return chunkResultList.get(0);
+        }
+        int totalLength = 0;
+        for (int[] chunkResult : chunkResultList) {
+            totalLength = totalLength + chunkResult.length;
+        }
+        final int[] merged = new int[totalLength];
+        int offset = 0;
+        for (int[] chunkResult : chunkResultList) {
+            System.arraycopy(chunkResult, 0, merged, offset, chunkResult.length);
+            offset = offset + chunkResult.length;
+        }
+        return merged;
+    }
+
+    protected int sumUpdateCount(int[] result) {
+        int updateCount = 0;
+        for (int oneUpdateCount : result) {
+            if (oneUpdateCount > 0) { // e.g. SUCCESS_NO_INFO is minus
+                updateCount = updateCount + oneUpdateCount;
+            }
+        }
+        return updateCount;
+    }
+
+    /**
+     * Get the chunk size of batch execution.
+     * @return The size of chunk. (NotMinus: zero means no chunk)
+     */
+    protected int getBatchChunkSize() {
+        final Integer batchChunkSize = findBatchChunkSize();
+        return batchChunkSize != null && batchChunkSize > 0 ? batchChunkSize : 0;
+    }
+
+    protected abstract Integer findBatchChunkSize();
+
+    @Override
+    protected void saveBeforeSqlTimeMillis() {
+        if (_executedChunkCount > 0) { // keep the before time of first chunk
+            return;
+        }
+        super.saveBeforeSqlTimeMillis();
+    }
+
     protected void prepareBatchElement(Connection conn, PreparedStatement ps, Object bean) {
         setupBindVariables(bean);
         final Object[] bindVariables = _bindVariables;
@@ -241,6 +332,8 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         // clear just in case
         _existsSkippedLogging = false;
         _alreadySavedToResultInfo = false;
+        _executedChunkCount = 0;
+        _executedUpdateCount = 0;
     }
 
     protected void noticeBatchLoggingOver() {
@@ -300,7 +393,8 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
         final int entityCount = list.size();
         if (updateCount < entityCount) {
             if (_optimisticLockHandling) {
-                throw new BatchEntityAlreadyUpdatedException(list.get(0), 0, updateCount);
+                final int totalUpdateCount = _executedUpdateCount + updateCount; // with previous chunks
+                throw new BatchEntityAlreadyUpdatedException(list.get(0), 0, totalUpdateCount);
             } else {
                 String msg = "The entity was NOT found! it has already been deleted.";
                 msg = msg + " updateCount=" + updateCount;
@@ -336,7 +430,7 @@ public abstract class TnAbstractBatchHandler extends TnAbstractEntityHandler {
             ++index;
         }
         if (alreadyUpdated) {
-            int updateCount = 0;
+            int updateCount = _executedUpdateCount; // with previous chunks
             for (int oneUpdateCount : updatedCountArray) {
                 updateCount = updateCount + oneUpdateCount;
             }
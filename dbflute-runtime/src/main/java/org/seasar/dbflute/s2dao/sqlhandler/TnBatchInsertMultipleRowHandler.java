@@ -0,0 +1,162 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlhandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.seasar.dbflute.jdbc.StatementFactory;
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
+
+/**
+ * The handler of batch insert by multiple-row insert statement. <br />
+ * The batch element is a group of entities (as list) whose size is the same as rows of the SQL,
+ * and the group is bound to one statement, e.g. insert into MEMBER (...) values (...), (...)
+ * @author jflute
+ * @since 1.0.5K (2014/07/07 Monday)
+ */
+public class TnBatchInsertMultipleRowHandler extends TnBatchInsertHandler {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int _rowSize;
+    protected int _successBeanIndex; // index of entities for success process
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param dataSource The data source for a database connection. (NotNull)
+     * @param statementFactory The factory of statement. (NotNull)
+     * @param sql The multiple-row insert SQL that has the row size of values. (NotNull)
+     * @param beanMetaData The meta data of the bean. (NotNull)
+     * @param boundPropTypes The property types bound to one row. (NotNull)
+     * @param rowSize The size of rows in the SQL. (NotMinus, NotZero)
+     */
+    public TnBatchInsertMultipleRowHandler(DataSource dataSource, StatementFactory statementFactory, String sql,
+            TnBeanMetaData beanMetaData, TnPropertyType[] boundPropTypes, int rowSize) {
+        super(dataSource, statementFactory, sql, beanMetaData, boundPropTypes);
+        _rowSize = rowSize;
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    /**
+     * Execute batch for the groups of entities.
+     * @param groupList The list of entity group whose size is the row size. (NotNull)
+     * @return The array of update count for each entity (not group). (NotNull)
+     */
+    public int[] executeMultipleRowBatch(List<List<?>> groupList) {
+        final int[] groupResult = executeBatch(groupList);
+        return expandGroupResult(groupResult);
+    }
+
+    protected int[] expandGroupResult(int[] groupResult) {
+        final int[] result = new int[groupResult.length * _rowSize];
+        int index = 0;
+        for (int oneGroupCount : groupResult) {
+            if (oneGroupCount < 0) { // e.g. SUCCESS_NO_INFO, EXECUTE_FAILED
+                for (int i = 0; i < _rowSize; i++) {
+                    result[index] = oneGroupCount;
+                    ++index;
+                }
+                continue;
+            }
+            // a statement inserts the rows at once so the actual count is spread over the entities
+            // in order, keeping the total of the group (e.g. ignored rows are zero, extra counts to the last)
+            for (int i = 0; i < _rowSize; i++) {
+                result[index] = deriveOneEntityCount(oneGroupCount, i);
+                ++index;
+            }
+        }
+        return result;
+    }
+
+    protected int deriveOneEntityCount(int groupCount, int rowIndex) {
+        if (rowIndex == _rowSize - 1) { // last row takes the rest
+            return Math.max(0, groupCount - rowIndex);
+        }
+        return rowIndex < groupCount ? 1 : 0;
+    }
+
+    @Override
+    protected void prepareBatchElement(Connection conn, PreparedStatement ps, Object group) {
+        final List<?> beanList = (List<?>) group;
+        final List<Object> varList = new ArrayList<Object>();
+        final List<ValueType> varValueTypeList = new ArrayList<ValueType>();
+        for (Object bean : beanList) {
+            setupBindVariables(bean);
+            for (int i = 0; i < _bindVariables.length; i++) {
+                varList.add(_bindVariables[i]);
+                varValueTypeList.add(_bindVariableValueTypes[i]);
+            }
+        }
+        _bindVariables = varList.toArray();
+        _bindVariableValueTypes = varValueTypeList.toArray(new ValueType[varValueTypeList.size()]);
+        super.prepareBatchElement(conn, ps, group); // bound variables are set up again
+    }
+
+    @Override
+    protected void setupBindVariables(Object bean) {
+        if (bean instanceof List<?>) { // from prepareBatchElement(), already set up as group
+            return;
+        }
+        super.setupBindVariables(bean);
+    }
+
+    @Override
+    protected int getBatchChunkSize() {
+        final int chunkSize = super.getBatchChunkSize();
+        if (chunkSize == 0) {
+            return 0;
+        }
+        return Math.max(1, chunkSize / _rowSize); // chunk of groups
+    }
+
+    // ===================================================================================
+    //                                                                   Extension Process
+    //                                                                   =================
+    @Override
+    protected void processBatchBefore(Object group) {
+        for (Object bean : (List<?>) group) {
+            super.processBatchBefore(bean);
+        }
+    }
+
+    @Override
+    protected void processBatchSuccess(Object group, int index) {
+        for (Object bean : (List<?>) group) {
+            super.processBatchSuccess(bean, _successBeanIndex);
+            ++_successBeanIndex;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                     Optimistic Lock
+    //                                                                     ===============
+    @Override
+    protected void handleBatchUpdateResultWithOptimisticLock(PreparedStatement ps, List<?> list, int[] result) {
+        // no check because one result is for the group (insert does not have optimistic lock)
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.seasar.dbflute.twowaysql.node.Node;
+
+/**
+ * The bounded cache of analyzed nodes keyed by two-way SQL. <br />
+ * Analyzed nodes are state-less after analysis so they can be shared between threads.
+ * The key is the two-way SQL itself, which contains bind variable comments
+ * instead of bound values, so same-shape SQL (e.g. condition-bean) hits the cache. <br />
+ * When the cache is over the limit, the oldest-registered nodes are evicted.
+ * @author jflute
+ * @since 1.0.5K (2014/07/01 Tuesday)
+ */
+public class TwoWaySqlNodeCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The default limit size of cached nodes. */
+    public static final int DEFAULT_LIMIT_SIZE = 100;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The limit size of cached nodes. (not minus) */
+    protected final int _limitSize;
+
+    /** The map of analyzed node keyed by two-way SQL. (NotNull) */
+    protected final ConcurrentHashMap<String, Node> _nodeMap = new ConcurrentHashMap<String, Node>();
+
+    /** The queue of registered keys, which is used to evict the oldest node. (NotNull) */
+    protected final ConcurrentLinkedQueue<String> _keyQueue = new ConcurrentLinkedQueue<String>();
+
+    protected final AtomicLong _hitCount = new AtomicLong();
+    protected final AtomicLong _missCount = new AtomicLong();
+    protected final AtomicLong _evictionCount = new AtomicLong();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public TwoWaySqlNodeCache() {
+        this(DEFAULT_LIMIT_SIZE);
+    }
+
+    /**
+     * @param limitSize The limit size of cached nodes. (zero means no cache)
+     */
+    public TwoWaySqlNodeCache(int limitSize) {
+        if (limitSize < 0) {
+            String msg = "The argument 'limitSize' should not be minus: " + limitSize;
+            throw new IllegalArgumentException(msg);
+        }
+        _limitSize = limitSize;
+    }
+
+    // ===================================================================================
+    //                                                                       Find or Analyze
+    //                                                                       ===============
+    /**
+     * Find the node for the two-way SQL from the cache, or analyze it if not found.
+     * @param twoWaySql The two-way SQL as cache key. (NotNull)
+     * @param analyzer The analyzer of two-way SQL, called only when not cached. (NotNull)
+     * @return The analyzed node that might be shared with other threads. (NotNull)
+     */
+    public Node findOrAnalyze(String twoWaySql, TwoWaySqlNodeAnalyzer analyzer) {
+        final Node cached = _nodeMap.get(twoWaySql);
+        if (cached != null) {
+            _hitCount.incrementAndGet();
+            return cached;
+        }
+        _missCount.incrementAndGet();
+        final Node analyzed = analyzer.analyze(twoWaySql);
+        if (_limitSize == 0) {
+            return analyzed;
+        }
+        final Node existing = _nodeMap.putIfAbsent(twoWaySql, analyzed);
+        if (existing != null) { // other thread might have analyzed at the same time
+            return existing;
+        }
+        _keyQueue.add(twoWaySql);
+        evictIfOver();
+        return analyzed;
+    }
+
+    protected void evictIfOver() {
+        while (_nodeMap.size() > _limitSize) {
+            final String oldestKey = _keyQueue.poll();
+            if (oldestKey == null) { // no way just in case
+                break;
+            }
+            if (_nodeMap.remove(oldestKey) != null) {
+                _evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The analyzer of two-way SQL for the cache.
+     */
+    public static interface TwoWaySqlNodeAnalyzer {
+
+        /**
+         * @param twoWaySql The two-way SQL to be analyzed. (NotNull)
+         * @return The analyzed node. (NotNull)
+         */
+        Node analyze(String twoWaySql);
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Status
+    //                                                                        ============
+    public void clear() {
+        _nodeMap.clear();
+        _keyQueue.clear();
+    }
+
+    public int getCachedSize() {
+        return _nodeMap.size();
+    }
+
+    public int getLimitSize() {
+        return _limitSize;
+    }
+
+    public long getHitCount() {
+        return _hitCount.get();
+    }
+
+    public long getMissCount() {
+        return _missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return _evictionCount.get();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final String hash = Integer.toHexString(hashCode());
+        return "{cached=" + getCachedSize() + "/" + _limitSize + ", hit=" + getHitCount() + ", miss="
+                + getMissCount() + ", eviction=" + getEvictionCount() + "}@" + hash;
+    }
+}
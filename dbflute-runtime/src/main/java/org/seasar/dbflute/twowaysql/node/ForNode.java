@@ -47,6 +47,7 @@ public class ForNode extends ScopeNode implements SqlConnectorAdjustable, LoopAc
     protected final String _expression;
     protected final List<String> _nameList;
     protected final String _specifiedSql;
+    protected final ValueAndTypeCompiledPath _compiledPath; // shared by threads, caches accessors
 
     // ===================================================================================
     //                                                                         Constructor
@@ -54,6 +55,7 @@ public class ForNode extends ScopeNode implements SqlConnectorAdjustable, LoopAc
     public ForNode(String expression, String specifiedSql) {
         this._expression = expression;
         this._nameList = Srl.splitList(expression, ".");
+        this._compiledPath = new ValueAndTypeCompiledPath(_nameList);
         this._specifiedSql = specifiedSql;
     }
 
@@ -158,7 +160,8 @@ public class ForNode extends ScopeNode implements SqlConnectorAdjustable, LoopAc
 
     protected void setupValueAndType(ValueAndType valueAndType) {
         final CommentType type = CommentType.FORCOMMENT;
-        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type);
+        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type,
+                _compiledPath);
         setuper.setupValueAndType(valueAndType);
     }
 
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql.node;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.seasar.dbflute.helper.beans.DfPropertyDesc;
+import org.seasar.dbflute.util.DfCollectionUtil;
+import org.seasar.dbflute.util.DfTypeUtil;
+import org.seasar.dbflute.util.DfTypeUtil.ParseTimestampException;
+import org.seasar.dbflute.util.Srl;
+
+/**
+ * The expression of IF comment compiled at analysis time. <br />
+ * It has the split clauses, the parsed literals and the property paths,
+ * and each property step caches the accessor for the last class of its base object,
+ * so evaluations do not parse the expression or find the property again. <br />
+ * It is immutable except the accessor caches (thread-safe) so it can be shared by threads.
+ * @author jflute
+ * @since 1.0.5K (2014/07/09 Wednesday)
+ */
+public class IfCommentCompiledExpression {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final int CONNECTOR_NONE = 0;
+    public static final int CONNECTOR_AND = 1;
+    public static final int CONNECTOR_OR = 2;
+
+    public static final int OPERATOR_STAND_ALONE = 0;
+    public static final int OPERATOR_EQUAL = 1;
+    public static final int OPERATOR_NOT_EQUAL = 2;
+    public static final int OPERATOR_GREATER_THAN = 3;
+    public static final int OPERATOR_LESS_THAN = 4;
+    public static final int OPERATOR_GREATER_EQUAL = 5;
+    public static final int OPERATOR_LESS_EQUAL = 6;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String _expression;
+    protected final int _connector;
+    protected final CompiledClause[] _clauses;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected IfCommentCompiledExpression(String expression, int connector, CompiledClause[] clauses) {
+        _expression = expression;
+        _connector = connector;
+        _clauses = clauses;
+    }
+
+    // ===================================================================================
+    //                                                                             Compile
+    //                                                                             =======
+    /**
+     * Compile the expression of IF comment.
+     * @param expression The expression of IF comment. (NullAllowed)
+     * @return The compiled expression. (NullAllowed: when the expression is invalid, evaluated as plain)
+     */
+    public static IfCommentCompiledExpression compile(String expression) {
+        if (!isCompilable(expression)) { // the evaluator throws the exception with parameters
+            return null;
+        }
+        final String trimmed = expression.trim();
+        final int connector;
+        final List<String> clauseList;
+        if (trimmed.contains(IfCommentEvaluator.AND)) {
+            connector = CONNECTOR_AND;
+            clauseList = Srl.splitList(trimmed, IfCommentEvaluator.AND);
+        } else if (trimmed.contains(IfCommentEvaluator.OR)) {
+            connector = CONNECTOR_OR;
+            clauseList = Srl.splitList(trimmed, IfCommentEvaluator.OR);
+        } else {
+            connector = CONNECTOR_NONE;
+            clauseList = DfCollectionUtil.newArrayList(trimmed);
+        }
+        final CompiledClause[] clauses = new CompiledClause[clauseList.size()];
+        for (int i = 0; i < clauses.length; i++) {
+            clauses[i] = compileClause(clauseList.get(i));
+        }
+        return new IfCommentCompiledExpression(trimmed, connector, clauses);
+    }
+
+    /**
+     * Can the expression be compiled? (same as assertion of the evaluator)
+     * @param expression The expression of IF comment. (NullAllowed)
+     * @return The determination, true or false.
+     */
+    protected static boolean isCompilable(String expression) {
+        if (expression == null || expression.trim().length() == 0) {
+            return false;
+        }
+        expression = expression.trim();
+        String filtered = Srl.replace(expression, "()", "");
+        filtered = Srl.replace(filtered, ".get(", "");
+        if (filtered.contains("(")) {
+            return false;
+        }
+        if (expression.contains(IfCommentEvaluator.AND) && expression.contains(IfCommentEvaluator.OR)) {
+            return false;
+        }
+        if (expression.contains(" = ") || expression.contains(" <> ") || expression.contains("\"")) {
+            return false;
+        }
+        return true;
+    }
+
+    protected static CompiledClause compileClause(String booleanClause) {
+        // the order of determination is same as the evaluator
+        final String[] operands = { IfCommentEvaluator.EQUAL, IfCommentEvaluator.NOT_EQUAL,
+                IfCommentEvaluator.GREATER_THAN, IfCommentEvaluator.LESS_THAN, IfCommentEvaluator.GREATER_EQUAL,
+                IfCommentEvaluator.LESS_EQUAL };
+        for (int i = 0; i < operands.length; i++) {
+            final String operand = operands[i];
+            if (booleanClause.contains(operand)) {
+                final int operandIndex = booleanClause.indexOf(operand);
+                final String left = booleanClause.substring(0, operandIndex).trim();
+                final String right = booleanClause.substring(operandIndex + operand.length()).trim();
+                return new CompiledClause(booleanClause, i + 1, compileComparePiece(left),
+                        compileComparePiece(right), false);
+            }
+        }
+        String piece = booleanClause.trim();
+        boolean not = false;
+        if (piece.startsWith(IfCommentEvaluator.BOOLEAN_NOT)) {
+            not = true;
+            piece = piece.substring(IfCommentEvaluator.BOOLEAN_NOT.length());
+        }
+        return new CompiledClause(booleanClause, OPERATOR_STAND_ALONE, compileStandAlonePiece(piece), null, not);
+    }
+
+    protected static CompiledPiece compileComparePiece(String piece) {
+        piece = piece.trim();
+        if (!piece.startsWith("pmb")) {
+            if ("null".equalsIgnoreCase(piece)) {
+                return CompiledPiece.createLiteral(null);
+            }
+            if ("true".equalsIgnoreCase(piece)) {
+                return CompiledPiece.createLiteral(Boolean.TRUE);
+            }
+            if ("false".equalsIgnoreCase(piece)) {
+                return CompiledPiece.createLiteral(Boolean.FALSE);
+            }
+            final String quote = "'";
+            final int qlen = quote.length();
+            if (piece.startsWith(quote) && piece.endsWith(quote)) {
+                return CompiledPiece.createLiteral(piece.substring(qlen, piece.length() - qlen));
+            }
+            final String dateMark = "date ";
+            if (piece.toLowerCase().startsWith(dateMark)) {
+                final String rearValue = piece.substring(dateMark.length()).trim();
+                if (rearValue.startsWith(quote) && rearValue.endsWith(quote)) {
+                    final String literal = rearValue.substring(qlen, rearValue.length() - qlen).trim();
+                    try {
+                        return CompiledPiece.createLiteral(DfTypeUtil.toTimestamp(literal));
+                    } catch (ParseTimestampException ignored) {
+                    }
+                }
+            }
+            try {
+                return CompiledPiece.createLiteral(DfTypeUtil.toBigDecimal(piece));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return compilePropertyPiece(piece);
+    }
+
+    protected static CompiledPiece compileStandAlonePiece(String piece) {
+        if (!piece.startsWith("pmb")) {
+            if ("true".equalsIgnoreCase(piece)) {
+                return CompiledPiece.createLiteral(Boolean.TRUE);
+            }
+            if ("false".equalsIgnoreCase(piece)) {
+                return CompiledPiece.createLiteral(Boolean.FALSE);
+            }
+        }
+        return compilePropertyPiece(piece);
+    }
+
+    protected static CompiledPiece compilePropertyPiece(String piece) {
+        final List<String> splitList = Srl.splitList(piece, ".");
+        final CompiledStep[] steps = new CompiledStep[splitList.size() - 1];
+        for (int i = 1; i < splitList.size(); i++) {
+            steps[i - 1] = new CompiledStep(splitList.get(i));
+        }
+        return CompiledPiece.createProperty(splitList.get(0), steps);
+    }
+
+    // ===================================================================================
+    //                                                                      Compiled Parts
+    //                                                                      ==============
+    /**
+     * The compiled boolean clause, e.g. pmb.memberId != null
+     */
+    public static class CompiledClause {
+
+        protected final String _booleanClause; // for exception message
+        protected final int _operator;
+        protected final CompiledPiece _left; // or stand-alone
+        protected final CompiledPiece _right; // null if stand-alone
+        protected final boolean _not; // for stand-alone
+
+        public CompiledClause(String booleanClause, int operator, CompiledPiece left, CompiledPiece right,
+                boolean not) {
+            _booleanClause = booleanClause;
+            _operator = operator;
+            _left = left;
+            _right = right;
+            _not = not;
+        }
+
+        public String getBooleanClause() {
+            return _booleanClause;
+        }
+
+        public int getOperator() {
+            return _operator;
+        }
+
+        public CompiledPiece getLeft() {
+            return _left;
+        }
+
+        public CompiledPiece getRight() {
+            return _right;
+        }
+
+        public boolean isNot() {
+            return _not;
+        }
+    }
+
+    /**
+     * The compiled piece of clause, which is literal or property path.
+     */
+    public static class CompiledPiece {
+
+        protected final boolean _literal;
+        protected final Object _literalValue; // null allowed
+        protected final String _firstName; // null if literal
+        protected final CompiledStep[] _steps; // null if literal
+
+        protected CompiledPiece(boolean literal, Object literalValue, String firstName, CompiledStep[] steps) {
+            _literal = literal;
+            _literalValue = literalValue;
+            _firstName = firstName;
+            _steps = steps;
+        }
+
+        public static CompiledPiece createLiteral(Object literalValue) {
+            return new CompiledPiece(true, literalValue, null, null);
+        }
+
+        public static CompiledPiece createProperty(String firstName, CompiledStep[] steps) {
+            return new CompiledPiece(false, null, firstName, steps);
+        }
+
+        public boolean isLiteral() {
+            return _literal;
+        }
+
+        public Object getLiteralValue() {
+            return _literalValue;
+        }
+
+        public String getFirstName() {
+            return _firstName;
+        }
+
+        public CompiledStep[] getSteps() {
+            return _steps;
+        }
+    }
+
+    /**
+     * The compiled step of property path, e.g. memberName of pmb.memberName
+     */
+    public static class CompiledStep {
+
+        protected final String _property;
+        protected final Integer _listIndex; // null if not list index
+        protected volatile CompiledAccessor _accessor; // cache for the last class
+
+        public CompiledStep(String property) {
+            _property = property;
+            Integer listIndex = null;
+            if (property.startsWith("get(") && property.endsWith(")")) {
+                final String exp = Srl.extractScopeFirst(property, "get(", ")").getContent();
+                try {
+                    listIndex = DfTypeUtil.toInteger(exp);
+                } catch (NumberFormatException ignored) { // the evaluator throws it
+                }
+            }
+            _listIndex = listIndex;
+        }
+
+        /**
+         * @param baseType The type of base object. (NotNull)
+         * @return The cached accessor for the type. (NullAllowed: not cached yet or other type)
+         */
+        public CompiledAccessor findAccessor(Class<?> baseType) {
+            final CompiledAccessor accessor = _accessor;
+            return accessor != null && accessor.getBaseType() == baseType ? accessor : null;
+        }
+
+        public void cacheAccessor(CompiledAccessor accessor) {
+            _accessor = accessor;
+        }
+
+        public String getProperty() {
+            return _property;
+        }
+
+        public Integer getListIndex() {
+            return _listIndex;
+        }
+    }
+
+    /**
+     * The accessor of property step resolved for the type of base object. (immutable)
+     */
+    public static class CompiledAccessor {
+
+        protected final Class<?> _baseType;
+        protected final DfPropertyDesc _propertyDesc; // null if not property
+        protected final Method _method; // null if not method
+
+        public CompiledAccessor(Class<?> baseType, DfPropertyDesc propertyDesc, Method method) {
+            _baseType = baseType;
+            _propertyDesc = propertyDesc;
+            _method = method;
+        }
+
+        public Class<?> getBaseType() {
+            return _baseType;
+        }
+
+        public DfPropertyDesc getPropertyDesc() {
+            return _propertyDesc;
+        }
+
+        public Method getMethod() {
+            return _method;
+        }
+
+        /**
+         * @return Is it neither property nor method? e.g. map or list
+         */
+        public boolean isDynamic() {
+            return _propertyDesc == null && _method == null;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":{" + _expression + ", clauses=" + _clauses.length + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getExpression() {
+        return _expression;
+    }
+
+    public int getConnector() {
+        return _connector;
+    }
+
+    public CompiledClause[] getClauses() {
+        return _clauses;
+    }
+}
@@ -42,6 +42,10 @@ import org.seasar.dbflute.twowaysql.exception.IfCommentNullPointerException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentPropertyReadFailureException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentUnsupportedExpressionException;
 import org.seasar.dbflute.twowaysql.exception.IfCommentUnsupportedTypeComparisonException;
+import org.seasar.dbflute.twowaysql.node.IfCommentCompiledExpression.CompiledAccessor;
+import org.seasar.dbflute.twowaysql.node.IfCommentCompiledExpression.CompiledClause;
+import org.seasar.dbflute.twowaysql.node.IfCommentCompiledExpression.CompiledPiece;
+import org.seasar.dbflute.twowaysql.node.IfCommentCompiledExpression.CompiledStep;
 import org.seasar.dbflute.twowaysql.pmbean.MapParameterBean;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfReflectionUtil.ReflectionFailureException;
@@ -107,21 +111,38 @@ public class IfCommentEvaluator {
     protected final String _expression;
     protected final String _specifiedSql;
     protected final LoopInfo _loopInfo;
+    protected final IfCommentCompiledExpression _compiledExpression; // null allowed
 
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
     public IfCommentEvaluator(ParameterFinder finder, String expression, String specifiedSql, LoopInfo loopInfo) {
+        this(finder, expression, specifiedSql, loopInfo, null);
+    }
+
+    /**
+     * @param finder The finder of parameter. (NotNull)
+     * @param expression The expression of IF comment. (NullAllowed: if null, throws exception when evaluating)
+     * @param specifiedSql The specified SQL for exception message. (NotNull)
+     * @param loopInfo The information of loop. (NullAllowed: if null, not in loop)
+     * @param compiledExpression The compiled expression of the expression. (NullAllowed: if null, evaluated as plain)
+     */
+    public IfCommentEvaluator(ParameterFinder finder, String expression, String specifiedSql, LoopInfo loopInfo,
+            IfCommentCompiledExpression compiledExpression) {
         this._finder = finder;
         this._expression = expression != null ? expression.trim() : null;
         this._specifiedSql = specifiedSql;
         this._loopInfo = loopInfo;
+        this._compiledExpression = compiledExpression;
     }
 
     // ===================================================================================
     //                                                                              Accept
     //                                                                              ======
     public boolean evaluate() {
+        if (_compiledExpression != null) { // already asserted when compiling
+            return evaluateCompiled(_compiledExpression);
+        }
         assertExpression();
         if (_expression.contains(AND)) {
             final List<String> splitList = splitList(_expression, AND);
@@ -172,87 +193,37 @@ public class IfCommentEvaluator {
         if (booleanClause.contains(EQUAL)) {
             return evaluateCompareClause(booleanClause, EQUAL, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult instanceof Number && rightResult instanceof Number) {
-                        leftResult = new BigDecimal(leftResult.toString());
-                        rightResult = new BigDecimal(rightResult.toString());
-                    }
-                    assertCompareType(leftResult, rightResult, booleanClause);
-                    return leftResult != null ? leftResult.equals(rightResult) : rightResult == null;
+                    return evaluateEqual(leftResult, rightResult, booleanClause);
                 }
             });
         } else if (booleanClause.contains(NOT_EQUAL)) {
             return evaluateCompareClause(booleanClause, NOT_EQUAL, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult instanceof Number && rightResult instanceof Number) {
-                        leftResult = new BigDecimal(leftResult.toString());
-                        rightResult = new BigDecimal(rightResult.toString());
-                    }
-                    assertCompareType(leftResult, rightResult, booleanClause);
-                    return leftResult != null ? !leftResult.equals(rightResult) : rightResult != null;
+                    return evaluateNotEqual(leftResult, rightResult, booleanClause);
                 }
             });
         } else if (booleanClause.contains(GREATER_THAN)) {
             return evaluateCompareClause(booleanClause, GREATER_THAN, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return false;
-                    }
-                    if (rightResult == null) {
-                        return true;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult > 0;
-                        }
-                    }, booleanClause);
+                    return evaluateGreaterThan(leftResult, rightResult, booleanClause);
                 }
             });
         } else if (booleanClause.contains(LESS_THAN)) {
             return evaluateCompareClause(booleanClause, LESS_THAN, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return true;
-                    }
-                    if (rightResult == null) {
-                        return false;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult < 0;
-                        }
-                    }, booleanClause);
+                    return evaluateLessThan(leftResult, rightResult, booleanClause);
                 }
             });
         } else if (booleanClause.contains(GREATER_EQUAL)) {
             return evaluateCompareClause(booleanClause, GREATER_EQUAL, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return rightResult == null;
-                    }
-                    if (rightResult == null) {
-                        return true;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult >= 0;
-                        }
-                    }, booleanClause);
+                    return evaluateGreaterEqual(leftResult, rightResult, booleanClause);
                 }
             });
         } else if (booleanClause.contains(LESS_EQUAL)) {
             return evaluateCompareClause(booleanClause, LESS_EQUAL, new OperandEvaluator() {
                 public boolean evaluate(Object leftResult, Object rightResult) {
-                    if (leftResult == null) {
-                        return true;
-                    }
-                    if (rightResult == null) {
-                        return false;
-                    }
-                    return compareLeftRight(leftResult, rightResult, new ComparaDeterminer() {
-                        public boolean compare(int compareResult) {
-                            return compareResult <= 0;
-                        }
-                    }, booleanClause);
+                    return evaluateLessEqual(leftResult, rightResult, booleanClause);
                 }
             });
         } else {
@@ -260,6 +231,64 @@ public class IfCommentEvaluator {
         }
     }
 
+    protected boolean evaluateEqual(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult instanceof Number && rightResult instanceof Number) {
+            leftResult = new BigDecimal(leftResult.toString());
+            rightResult = new BigDecimal(rightResult.toString());
+        }
+        assertCompareType(leftResult, rightResult, booleanClause);
+        return leftResult != null ? leftResult.equals(rightResult) : rightResult == null;
+    }
+
+    protected boolean evaluateNotEqual(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult instanceof Number && rightResult instanceof Number) {
+            leftResult = new BigDecimal(leftResult.toString());
+            rightResult = new BigDecimal(rightResult.toString());
+        }
+        assertCompareType(leftResult, rightResult, booleanClause);
+        return leftResult != null ? !leftResult.equals(rightResult) : rightResult != null;
+    }
+
+    protected boolean evaluateGreaterThan(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult == null) {
+            return false;
+        }
+        if (rightResult == null) {
+            return true;
+        }
+        return compareLeftRight(leftResult, rightResult, GREATER_THAN_DETERMINER, booleanClause);
+    }
+
+    protected boolean evaluateLessThan(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult == null) {
+            return true;
+        }
+        if (rightResult == null) {
+            return false;
+        }
+        return compareLeftRight(leftResult, rightResult, LESS_THAN_DETERMINER, booleanClause);
+    }
+
+    protected boolean evaluateGreaterEqual(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult == null) {
+            return rightResult == null;
+        }
+        if (rightResult == null) {
+            return true;
+        }
+        return compareLeftRight(leftResult, rightResult, GREATER_EQUAL_DETERMINER, booleanClause);
+    }
+
+    protected boolean evaluateLessEqual(Object leftResult, Object rightResult, String booleanClause) {
+        if (leftResult == null) {
+            return true;
+        }
+        if (rightResult == null) {
+            return false;
+        }
+        return compareLeftRight(leftResult, rightResult, LESS_EQUAL_DETERMINER, booleanClause);
+    }
+
     protected boolean compareLeftRight(Object leftResult, Object rightResult, ComparaDeterminer determiner,
             String booleanClause) {
         assertCompareType(leftResult, rightResult, booleanClause);
@@ -295,6 +324,30 @@ public class IfCommentEvaluator {
         boolean compare(int compareResult);
     }
 
+    protected static final ComparaDeterminer GREATER_THAN_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult > 0;
+        }
+    };
+
+    protected static final ComparaDeterminer LESS_THAN_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult < 0;
+        }
+    };
+
+    protected static final ComparaDeterminer GREATER_EQUAL_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult >= 0;
+        }
+    };
+
+    protected static final ComparaDeterminer LESS_EQUAL_DETERMINER = new ComparaDeterminer() {
+        public boolean compare(int compareResult) {
+            return compareResult <= 0;
+        }
+    };
+
     protected boolean evaluateCompareClause(String booleanClause, String operand, OperandEvaluator evaluator) {
         final String left = booleanClause.substring(0, booleanClause.indexOf(operand)).trim();
         final String right = booleanClause.substring(booleanClause.indexOf(operand) + operand.length()).trim();
@@ -480,6 +533,146 @@ public class IfCommentEvaluator {
         return null; // unreachable
     }
 
+    // ===================================================================================
+    //                                                                 Compiled Expression
+    //                                                                 ===================
+    protected boolean evaluateCompiled(IfCommentCompiledExpression compiled) {
+        final CompiledClause[] clauses = compiled.getClauses();
+        final int connector = compiled.getConnector();
+        if (connector == IfCommentCompiledExpression.CONNECTOR_AND) {
+            for (CompiledClause clause : clauses) {
+                if (!evaluateCompiledClause(clause)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (connector == IfCommentCompiledExpression.CONNECTOR_OR) {
+            for (CompiledClause clause : clauses) {
+                if (evaluateCompiledClause(clause)) {
+                    return true;
+                }
+            }
+            return false;
+        } else {
+            return evaluateCompiledClause(clauses[0]);
+        }
+    }
+
+    protected boolean evaluateCompiledClause(CompiledClause clause) {
+        final int operator = clause.getOperator();
+        if (operator == IfCommentCompiledExpression.OPERATOR_STAND_ALONE) {
+            final Object value = evaluateCompiledPiece(clause.getLeft());
+            if (value == null) {
+                throwIfCommentNotBooleanResultException();
+            }
+            final boolean result = value instanceof Boolean ? (Boolean) value : Boolean.valueOf(value.toString());
+            return clause.isNot() ? !result : result;
+        }
+        final Object leftResult = evaluateCompiledPiece(clause.getLeft());
+        final Object rightResult = evaluateCompiledPiece(clause.getRight());
+        final String booleanClause = clause.getBooleanClause();
+        switch (operator) {
+        case IfCommentCompiledExpression.OPERATOR_EQUAL:
+            return evaluateEqual(leftResult, rightResult, booleanClause);
+        case IfCommentCompiledExpression.OPERATOR_NOT_EQUAL:
+            return evaluateNotEqual(leftResult, rightResult, booleanClause);
+        case IfCommentCompiledExpression.OPERATOR_GREATER_THAN:
+            return evaluateGreaterThan(leftResult, rightResult, booleanClause);
+        case IfCommentCompiledExpression.OPERATOR_LESS_THAN:
+            return evaluateLessThan(leftResult, rightResult, booleanClause);
+        case IfCommentCompiledExpression.OPERATOR_GREATER_EQUAL:
+            return evaluateGreaterEqual(leftResult, rightResult, booleanClause);
+        case IfCommentCompiledExpression.OPERATOR_LESS_EQUAL:
+            return evaluateLessEqual(leftResult, rightResult, booleanClause);
+        default:
+            String msg = "Unknown operator of the compiled clause: " + operator;
+            throw new IllegalStateException(msg); // no way
+        }
+    }
+
+    protected Object evaluateCompiledPiece(CompiledPiece piece) {
+        if (piece.isLiteral()) {
+            return piece.getLiteralValue();
+        }
+        final String firstName = piece.getFirstName();
+        assertFirstName(firstName);
+        Object baseObject = findBaseObject(firstName);
+        String preProperty = firstName;
+        for (CompiledStep step : piece.getSteps()) {
+            baseObject = processCompiledProperty(baseObject, preProperty, step);
+            preProperty = step.getProperty();
+        }
+        return baseObject;
+    }
+
+    protected Object processCompiledProperty(Object baseObject, String preProperty, CompiledStep step) {
+        if (baseObject == null) {
+            throwIfCommentNullPointerException(preProperty);
+        }
+        final Class<?> baseType = baseObject.getClass();
+        CompiledAccessor accessor = step.findAccessor(baseType);
+        if (accessor == null) {
+            accessor = resolveCompiledAccessor(baseType, step.getProperty());
+            step.cacheAccessor(accessor);
+        }
+        final DfPropertyDesc propertyDesc = accessor.getPropertyDesc();
+        if (propertyDesc != null) { // main case
+            try {
+                return propertyDesc.getValue(baseObject);
+            } catch (DfBeanIllegalPropertyException e) {
+                throwIfCommentPropertyReadFailureException(baseObject, propertyDesc.getPropertyName(), e);
+                return null; // unreachable
+            }
+        }
+        final Method method = accessor.getMethod();
+        if (method != null) { // sub-main case
+            try {
+                return DfReflectionUtil.invoke(method, baseObject, (Object[]) null);
+            } catch (ReflectionFailureException e) {
+                throwIfCommentMethodInvocationFailureException(baseObject, method.getName(), e);
+                return null; // unreachable
+            }
+        }
+        final String property = step.getProperty();
+        if (property.endsWith(METHOD_SUFFIX)) { // not found method
+            return processOneProperty(baseObject, preProperty, property); // for exception
+        }
+        if (MapParameterBean.class.isInstance(baseObject)) { // same as plain evaluation
+            final Map<?, ?> map = ((MapParameterBean<?>) baseObject).getParameterMap();
+            if (map.containsKey(property)) {
+                return map.get(property);
+            }
+        }
+        if (Map.class.isInstance(baseObject)) {
+            return ((Map<?, ?>) baseObject).get(property);
+        }
+        final Integer listIndex = step.getListIndex();
+        if (List.class.isInstance(baseObject) && listIndex != null) {
+            final List<?> list = (List<?>) baseObject;
+            try {
+                return list.get(listIndex);
+            } catch (IndexOutOfBoundsException e) {
+                throwIfCommentListIndexOutOfBoundsException(list, String.valueOf(listIndex), e);
+                return null; // unreachable
+            }
+        }
+        return processOneProperty(baseObject, preProperty, property); // for exceptions
+    }
+
+    protected CompiledAccessor resolveCompiledAccessor(Class<?> baseType, String property) {
+        final DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(baseType);
+        if (beanDesc.hasPropertyDesc(property)) {
+            return new CompiledAccessor(baseType, beanDesc.getPropertyDesc(property), null);
+        }
+        if (property.endsWith(METHOD_SUFFIX)) {
+            final String methodName = property.substring(0, property.length() - METHOD_SUFFIX.length());
+            if (beanDesc.hasMethod(methodName)) {
+                return new CompiledAccessor(baseType, null, beanDesc.getMethod(methodName));
+            }
+        }
+        return new CompiledAccessor(baseType, null, null); // map, list or not found
+    }
+
     // ===================================================================================
     //                                                                         Base Object
     //                                                                         ===========
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql.node;
+
+import java.util.List;
+
+import org.seasar.dbflute.helper.beans.DfPropertyDesc;
+import org.seasar.dbflute.util.DfTypeUtil;
+import org.seasar.dbflute.util.Srl;
+
+/**
+ * The property path of variable comment compiled at analysis time. <br />
+ * Each step has the pre-parsed list index and caches the accessor resolved
+ * for the last type of its base object, so the setupper can bind values
+ * by a direct chain of getters without finding bean descriptions. <br />
+ * It is immutable except the accessor caches (thread-safe) so it can be shared by threads.
+ * @author jflute
+ * @since 1.0.5K (2014/07/10 Thursday)
+ */
+public class ValueAndTypeCompiledPath {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The array of steps, the first element is for the first name (not used). (NotNull) */
+    protected final CompiledStep[] _steps;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param nameList The list of property names, e.g. [pmb, memberName]. (NotNull)
+     */
+    public ValueAndTypeCompiledPath(List<String> nameList) {
+        _steps = new CompiledStep[nameList.size()];
+        for (int i = 0; i < _steps.length; i++) {
+            _steps[i] = new CompiledStep(nameList.get(i));
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Compiled Step
+    //                                                                       =============
+    /**
+     * @param pos The position of the name list. (NotMinus)
+     * @return The compiled step of the position. (NotNull)
+     */
+    public CompiledStep getStep(int pos) {
+        return _steps[pos];
+    }
+
+    /**
+     * The compiled step of property path, e.g. memberName of pmb.memberName
+     */
+    public static class CompiledStep {
+
+        protected final String _property;
+        protected final Integer _listIndex; // null if not list index
+        protected volatile CompiledAccessor _accessor; // cache for the last type
+
+        public CompiledStep(String property) {
+            _property = property;
+            Integer listIndex = null;
+            if (property.startsWith("get(") && property.endsWith(")")) {
+                final String exp = Srl.extractScopeFirst(property, "get(", ")").getContent();
+                try {
+                    listIndex = DfTypeUtil.toInteger(exp);
+                } catch (NumberFormatException ignored) { // the setupper throws it
+                }
+            }
+            _listIndex = listIndex;
+        }
+
+        /**
+         * @param baseType The type of base object. (NotNull)
+         * @return The cached accessor for the type. (NullAllowed: not cached yet or other type)
+         */
+        public CompiledAccessor findAccessor(Class<?> baseType) {
+            final CompiledAccessor accessor = _accessor;
+            return accessor != null && accessor.getBaseType() == baseType ? accessor : null;
+        }
+
+        public void cacheAccessor(CompiledAccessor accessor) {
+            _accessor = accessor;
+        }
+
+        public String getProperty() {
+            return _property;
+        }
+
+        public Integer getListIndex() {
+            return _listIndex;
+        }
+    }
+
+    /**
+     * The accessor of property step resolved for the type of base object. (immutable)
+     */
+    public static class CompiledAccessor {
+
+        protected final Class<?> _baseType;
+        protected final DfPropertyDesc _propertyDesc; // null if not bean property
+        protected final DfPropertyDesc _likeSearchPropertyDesc; // null if no option property
+
+        public CompiledAccessor(Class<?> baseType, DfPropertyDesc propertyDesc, DfPropertyDesc likeSearchPropertyDesc) {
+            _baseType = baseType;
+            _propertyDesc = propertyDesc;
+            _likeSearchPropertyDesc = likeSearchPropertyDesc;
+        }
+
+        public Class<?> getBaseType() {
+            return _baseType;
+        }
+
+        public DfPropertyDesc getPropertyDesc() {
+            return _propertyDesc;
+        }
+
+        public DfPropertyDesc getLikeSearchPropertyDesc() {
+            return _likeSearchPropertyDesc;
+        }
+
+        /**
+         * @return Is it not bean property? e.g. map or list
+         */
+        public boolean isDynamic() {
+            return _propertyDesc == null;
+        }
+    }
+}
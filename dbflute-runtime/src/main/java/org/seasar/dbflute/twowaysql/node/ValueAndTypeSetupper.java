@@ -40,6 +40,8 @@ import org.seasar.dbflute.twowaysql.exception.ForCommentListIndexNotNumberExcept
 import org.seasar.dbflute.twowaysql.exception.ForCommentListIndexOutOfBoundsException;
 import org.seasar.dbflute.twowaysql.exception.ForCommentNotFoundPropertyException;
 import org.seasar.dbflute.twowaysql.exception.ForCommentPropertyReadFailureException;
+import org.seasar.dbflute.twowaysql.node.ValueAndTypeCompiledPath.CompiledAccessor;
+import org.seasar.dbflute.twowaysql.node.ValueAndTypeCompiledPath.CompiledStep;
 import org.seasar.dbflute.twowaysql.pmbean.MapParameterBean;
 import org.seasar.dbflute.util.DfReflectionUtil;
 import org.seasar.dbflute.util.DfTypeUtil;
@@ -62,6 +64,7 @@ public class ValueAndTypeSetupper {
     protected final String _expression; // for logging only
     protected final String _specifiedSql; // for logging only
     protected final CommentType _commentType; // for logging only
+    protected final ValueAndTypeCompiledPath _compiledPath; // null allowed: if null, finds properties per call
 
     public enum CommentType {
         BIND("bind variable comment", "Bind Variable Comment") // bind
@@ -96,10 +99,24 @@ public class ValueAndTypeSetupper {
      * @param commentType The type of comment for logging only. (NotNull)
      */
     public ValueAndTypeSetupper(List<String> nameList, String expression, String specifiedSql, CommentType commentType) {
+        this(nameList, expression, specifiedSql, commentType, null);
+    }
+
+    /**
+     * Constructor.
+     * @param nameList The list of property names. (NotNull)
+     * @param expression The expression of the comment for logging only. (NotNull)
+     * @param specifiedSql The specified SQL for logging only. (NotNull)
+     * @param commentType The type of comment for logging only. (NotNull)
+     * @param compiledPath The compiled path of the name list, which caches accessors. (NullAllowed)
+     */
+    public ValueAndTypeSetupper(List<String> nameList, String expression, String specifiedSql,
+            CommentType commentType, ValueAndTypeCompiledPath compiledPath) {
         _nameList = nameList;
         _expression = expression;
         _specifiedSql = specifiedSql;
         _commentType = commentType;
+        _compiledPath = compiledPath;
     }
 
     // ===================================================================================
@@ -120,6 +137,20 @@ public class ValueAndTypeSetupper {
                 break;
             }
             final String currentName = _nameList.get(pos);
+            final CompiledAccessor accessor = findCompiledAccessor(pos, clazz);
+            if (accessor != null && !accessor.isDynamic()) { // main case (compiled)
+                final DfPropertyDesc likeSearchPd = accessor.getLikeSearchPropertyDesc();
+                if (likeSearchPd != null) {
+                    final LikeSearchOption currentOption = (LikeSearchOption) likeSearchPd.getValue(value);
+                    if (currentOption != null) { // if exists, override option
+                        likeSearchOption = currentOption;
+                    }
+                }
+                final DfPropertyDesc pd = accessor.getPropertyDesc();
+                value = getPropertyValue(clazz, value, currentName, pd);
+                clazz = (value != null ? value.getClass() : pd.getPropertyType());
+                continue;
+            }
             final DfBeanDesc beanDesc = getBeanDesc(clazz);
             if (hasLikeSearchProperty(beanDesc, currentName, value)) {
                 final LikeSearchOption currentOption = getLikeSearchOption(beanDesc, currentName, value);
@@ -151,6 +182,17 @@ public class ValueAndTypeSetupper {
                 continue;
             }
             if (List.class.isInstance(value)) {
+                final Integer compiledIndex = _compiledPath != null ? _compiledPath.getStep(pos).getListIndex() : null;
+                if (compiledIndex != null) { // pre-parsed
+                    final List<?> list = (List<?>) value;
+                    try {
+                        value = list.get(compiledIndex);
+                    } catch (IndexOutOfBoundsException e) {
+                        throwListIndexOutOfBoundsException(String.valueOf(compiledIndex), e);
+                    }
+                    clazz = (value != null ? value.getClass() : null);
+                    continue;
+                }
                 if (currentName.startsWith("get(") && currentName.endsWith(")")) {
                     final List<?> list = (List<?>) value;
                     final String exp = Srl.extractScopeFirst(currentName, "get(", ")").getContent();
@@ -178,6 +220,45 @@ public class ValueAndTypeSetupper {
         return DfBeanDescFactory.getBeanDesc(clazz);
     }
 
+    // -----------------------------------------------------
+    //                                     Compiled Accessor
+    //                                     -----------------
+    /**
+     * @param pos The position of the name list. (NotMinus)
+     * @param clazz The type of current value. (NotNull)
+     * @return The compiled accessor for the type. (NullAllowed: when no compiled path)
+     */
+    protected CompiledAccessor findCompiledAccessor(int pos, Class<?> clazz) {
+        if (_compiledPath == null) {
+            return null;
+        }
+        final CompiledStep step = _compiledPath.getStep(pos);
+        CompiledAccessor accessor = step.findAccessor(clazz);
+        if (accessor == null) {
+            accessor = resolveCompiledAccessor(clazz, step.getProperty());
+            step.cacheAccessor(accessor);
+        }
+        return accessor;
+    }
+
+    protected CompiledAccessor resolveCompiledAccessor(Class<?> clazz, String currentName) {
+        if (Map.class.isAssignableFrom(clazz) || MapParameterBean.class.isAssignableFrom(clazz)) {
+            return new CompiledAccessor(clazz, null, null); // map keys are determined per value
+        }
+        final DfBeanDesc beanDesc = getBeanDesc(clazz);
+        if (!beanDesc.hasPropertyDesc(currentName)) {
+            return new CompiledAccessor(clazz, null, null); // e.g. list
+        }
+        final String likeSearchName = buildLikeSearchPropertyName(currentName);
+        final DfPropertyDesc likeSearchPd;
+        if (beanDesc.hasPropertyDesc(likeSearchName)) {
+            likeSearchPd = beanDesc.getPropertyDesc(likeSearchName);
+        } else {
+            likeSearchPd = null;
+        }
+        return new CompiledAccessor(clazz, beanDesc.getPropertyDesc(currentName), likeSearchPd);
+    }
+
     // -----------------------------------------------------
     //                             LikeSearch for OutsideSql
     //                             -------------------------
@@ -44,6 +44,7 @@ public abstract class VariableNode extends AbstractNode implements LoopAcceptabl
     protected final List<String> _nameList;
     protected final String _specifiedSql;
     protected final boolean _blockNullParameter;
+    protected final ValueAndTypeCompiledPath _compiledPath; // shared by threads, caches accessors
 
     // ===================================================================================
     //                                                                         Constructor
@@ -58,6 +59,7 @@ public abstract class VariableNode extends AbstractNode implements LoopAcceptabl
         }
         this._testValue = testValue;
         this._nameList = Srl.splitList(_expression, ".");
+        this._compiledPath = new ValueAndTypeCompiledPath(_nameList);
         this._specifiedSql = specifiedSql;
         this._blockNullParameter = blockNullParameter;
     }
@@ -119,7 +121,8 @@ public abstract class VariableNode extends AbstractNode implements LoopAcceptabl
 
     protected void setupValueAndType(ValueAndType valueAndType) {
         final CommentType type = getCommentType();
-        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type);
+        final ValueAndTypeSetupper setuper = new ValueAndTypeSetupper(_nameList, _expression, _specifiedSql, type,
+                _compiledPath);
         setuper.setupValueAndType(valueAndType);
     }
 
@@ -15,6 +15,15 @@
  */
 package org.seasar.dbflute;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.seasar.dbflute.Entity.EntityModifiedProperties;
+import org.seasar.dbflute.Entity.EntityModifiedPropertyIndex;
 import org.seasar.dbflute.Entity.FunCustodial;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
@@ -30,4 +39,78 @@ public class EntityTest extends PlainTestCase {
         assertNotNull(FunCustodial.convertEmptyToNull(" "));
         assertNotNull(FunCustodial.convertEmptyToNull("a"));
     }
+
+    public void test_EntityModifiedProperties_bitset() {
+        // ## Arrange ##
+        String[] propertyNames = new String[70];
+        for (int i = 0; i < propertyNames.length; i++) {
+            propertyNames[i] = "prop" + i;
+        }
+        EntityModifiedPropertyIndex index = new EntityModifiedPropertyIndex(propertyNames);
+        EntityModifiedProperties props = new EntityModifiedProperties(index);
+
+        // ## Act ##
+        props.addPropertyOrdinal(3);
+        props.addPropertyOrdinal(65);
+        props.addPropertyName("prop1");
+        props.addPropertyName("extraProp"); // not in the index
+
+        // ## Assert ##
+        Set<String> names = props.getPropertyNames();
+        log(names);
+        assertFalse(props.isEmpty());
+        assertTrue(props.isModifiedOrdinal(1));
+        assertTrue(props.isModifiedOrdinal(65));
+        assertFalse(props.isModifiedOrdinal(64));
+        assertEquals(4, names.size());
+        assertTrue(names.contains("prop3"));
+        assertTrue(names.contains("extraProp"));
+        assertFalse(names.contains("prop4"));
+        Set<String> expectedSet = new LinkedHashSet<String>();
+        expectedSet.add("prop1");
+        expectedSet.add("prop3");
+        expectedSet.add("prop65");
+        expectedSet.add("extraProp");
+        assertEquals(expectedSet, names); // as set
+        assertEquals("[prop1, prop3, prop65, extraProp]", names.toString()); // column order
+
+        EntityModifiedProperties copied = new EntityModifiedProperties(index);
+        copied.accept(props);
+        assertEquals(names, copied.getPropertyNames());
+
+        names.remove("prop65");
+        assertFalse(props.isModifiedOrdinal(65));
+        assertFalse(names.equals(copied.getPropertyNames()));
+        props.clear();
+        assertTrue(props.isEmpty());
+        assertTrue(names.isEmpty());
+    }
+
+    public void test_EntityModifiedProperties_serialize() throws Exception {
+        // ## Arrange ##
+        EntityModifiedPropertyIndex index = EntityModifiedPropertyIndex.shareIndex(new String[] { "serialId",
+                "serialName", "serialDate" });
+        EntityModifiedProperties props = new EntityModifiedProperties(index);
+        props.addPropertyOrdinal(0);
+        props.addPropertyOrdinal(2);
+
+        // ## Act ##
+        ByteArrayOutputStream bao = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bao);
+        oos.writeObject(props);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bao.toByteArray()));
+        EntityModifiedProperties deserialized = (EntityModifiedProperties) ois.readObject();
+        ois.close();
+
+        // ## Assert ##
+        log(deserialized.getPropertyNames());
+        assertSame(index, deserialized.getPropertyIndex()); // resolved to shared one
+        assertSame(index, EntityModifiedPropertyIndex.shareIndex(new String[] { "serialId", "serialName",
+                "serialDate" }));
+        assertEquals(props.getPropertyNames(), deserialized.getPropertyNames());
+        assertTrue(deserialized.isModifiedOrdinal(2));
+        deserialized.addPropertyOrdinal(1); // setter of generated entity
+        assertEquals("[serialId, serialName, serialDate]", deserialized.getPropertyNames().toString());
+    }
 }
@@ -16,10 +16,12 @@
 package org.seasar.dbflute.bhv.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -421,15 +423,211 @@ public class BehaviorCommandInvokerTest extends PlainTestCase {
     protected static class ExecutionCreationCount {
         protected int _count;
 
-        public void increment() {
+        public synchronized void increment() { // different keys are created in parallel
             ++_count;
         }
 
-        public int count() {
+        public synchronized int count() {
             return _count;
         }
     }
 
+    public void test_getOrCreateSqlExecution_sameKeyOnce_differentKeyParallel() throws Exception {
+        // ## Arrange ##
+        final BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+        final ExecutionCreationCount count = new ExecutionCreationCount();
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch slowReleased = new CountDownLatch(1);
+        final SqlExecutionCreator slowCreator = new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                count.increment();
+                slowStarted.countDown();
+                try {
+                    slowReleased.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new SqlExecution() {
+                    public Object execute(Object[] args) {
+                        return null;
+                    }
+                };
+            }
+        };
+        ExecutorService service = Executors.newCachedThreadPool();
+        try {
+            Future<SqlExecution> first = service.submit(new Callable<SqlExecution>() {
+                public SqlExecution call() {
+                    return invoker.getOrCreateSqlExecution("slow", slowCreator);
+                }
+            });
+            slowStarted.await();
+            Future<SqlExecution> second = service.submit(new Callable<SqlExecution>() {
+                public SqlExecution call() {
+                    return invoker.getOrCreateSqlExecution("slow", slowCreator);
+                }
+            });
+
+            // ## Act ##
+            // other key is not blocked by the slow initialization
+            SqlExecution other = invoker.getOrCreateSqlExecution("other", new SqlExecutionCreator() {
+                public SqlExecution createSqlExecution() {
+                    return new SqlExecution() {
+                        public Object execute(Object[] args) {
+                            return null;
+                        }
+                    };
+                }
+            });
+            slowReleased.countDown();
+
+            // ## Assert ##
+            assertNotNull(other);
+            assertSame(first.get(), second.get());
+            assertEquals(1, count.count());
+            assertEquals(2, invoker.getExecutionCacheSize());
+            assertTrue(invoker._executionFutureMap.isEmpty());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    public void test_getOrCreateSqlExecution_createdAfterFirstCheck() {
+        // ## Arrange ##
+        final SqlExecution existing = new SqlExecution() {
+            public Object execute(Object[] args) {
+                return null;
+            }
+        };
+        final BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            protected boolean _firstCheck = true;
+
+            @Override
+            protected SqlExecution getSqlExecution(String key) {
+                if (_firstCheck) { // the creator finishes and removes its future after this check
+                    _firstCheck = false;
+                    _executionMap.put(key, existing);
+                    return null;
+                }
+                return super.getSqlExecution(key);
+            }
+
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+        final ExecutionCreationCount count = new ExecutionCreationCount();
+
+        // ## Act ##
+        SqlExecution execution = invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                count.increment();
+                return new SqlExecution() {
+                    public Object execute(Object[] args) {
+                        return null;
+                    }
+                };
+            }
+        });
+
+        // ## Assert ##
+        assertSame(existing, execution);
+        assertEquals(0, count.count());
+        assertEquals(1, invoker.getExecutionCacheSize());
+        assertTrue(invoker._executionFutureMap.isEmpty());
+    }
+
+    public void test_getOrCreateSqlExecution_failureRetry() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            protected void toBeDisposable() {
+            }
+        };
+
+        // ## Act ##
+        try {
+            invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+                public SqlExecution createSqlExecution() {
+                    throw new IllegalStateException("failed");
+                }
+            });
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+            assertEquals("failed", e.getMessage());
+        }
+        assertTrue(invoker.isExecutionCacheEmpty());
+        assertTrue(invoker._executionFutureMap.isEmpty());
+        SqlExecution execution = invoker.getOrCreateSqlExecution("key", new SqlExecutionCreator() {
+            public SqlExecution createSqlExecution() {
+                return new SqlExecution() {
+                    public Object execute(Object[] args) {
+                        return null;
+                    }
+                };
+            }
+        });
+        assertNotNull(execution);
+        assertEquals(1, invoker.getExecutionCacheSize());
+    }
+
+    public void test_warmUpSqlExecution_basic() {
+        // ## Arrange ##
+        final Set<String> markSet = Collections.synchronizedSet(new HashSet<String>());
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker() {
+            @Override
+            public <RESULT> RESULT invoke(BehaviorCommand<RESULT> behaviorCommand) {
+                markSet.add(behaviorCommand.getCommandName());
+                return null;
+            }
+        };
+        List<BehaviorCommand<?>> commandList = new ArrayList<BehaviorCommand<?>>();
+        for (int i = 0; i < 10; i++) {
+            final String commandName = "command" + i;
+            commandList.add(new MockBehaviorCommand() {
+                @Override
+                public String getCommandName() {
+                    return commandName;
+                }
+
+                @Override
+                public boolean isInitializeOnly() {
+                    return true;
+                }
+            });
+        }
+
+        // ## Act ##
+        invoker.warmUpSqlExecution(commandList, 3);
+
+        // ## Assert ##
+        assertEquals(10, markSet.size());
+        assertTrue(markSet.contains("command0"));
+        assertTrue(markSet.contains("command9"));
+    }
+
+    public void test_warmUpSqlExecution_notInitializeOnly() {
+        // ## Arrange ##
+        BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
+        List<BehaviorCommand<?>> commandList = new ArrayList<BehaviorCommand<?>>();
+        commandList.add(new MockBehaviorCommand());
+
+        // ## Act ##
+        try {
+            invoker.warmUpSqlExecution(commandList, 2);
+            // ## Assert ##
+            fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+    }
+
     public void test_clearContext() {
         // ## Arrange ##
         BehaviorCommandInvoker invoker = new BehaviorCommandInvoker();
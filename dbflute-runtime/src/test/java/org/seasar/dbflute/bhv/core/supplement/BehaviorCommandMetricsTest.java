@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.List;
+
+import org.seasar.dbflute.mock.MockBehaviorCommand;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/13 Sunday)
+ */
+public class BehaviorCommandMetricsTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                             Metrics
+    //                                                                             =======
+    public void test_findEntry_snapshot_reset() {
+        // ## Arrange ##
+        BehaviorCommandMetrics metrics = new BehaviorCommandMetrics();
+        assertFalse(metrics.isEnabled());
+        metrics.enable();
+
+        // ## Act ##
+        CommandMetricsEntry entry = metrics.findEntry(new MockBehaviorCommand());
+        entry.recordCommand(1000L, false);
+        entry.recordCommand(3000L, true);
+        entry.recordSql(800L);
+        entry.recordMappedRows(7);
+        entry.recordBatch(20);
+        entry.recordExecutionCacheMiss();
+
+        // ## Assert ##
+        assertTrue(metrics.isEnabled());
+        assertSame(entry, metrics.findEntry(new MockBehaviorCommand()));
+        List<CommandMetricsSnapshot> snapshotList = metrics.snapshot();
+        assertEquals(1, snapshotList.size());
+        CommandMetricsSnapshot snapshot = snapshotList.get(0);
+        log(snapshot);
+        assertEquals("FooTable:FooCommand", snapshot.getMetricsKey());
+        assertNull(snapshot.getOutsideSqlPath());
+        assertEquals(2L, snapshot.getCommandHistogram().getTotalCount());
+        assertEquals(1000L, snapshot.getCommandHistogram().getMinValue());
+        assertEquals(3000L, snapshot.getCommandHistogram().getMaxValue());
+        assertEquals(1L, snapshot.getSqlHistogram().getTotalCount());
+        assertEquals(1L, snapshot.getFailureCount());
+        assertEquals(7L, snapshot.getMappedRowCount());
+        assertEquals(1L, snapshot.getBatchCount());
+        assertEquals(20L, snapshot.getBatchSizeTotal());
+        assertEquals(1L, snapshot.getExecutionCacheMissCount());
+
+        metrics.reset();
+        CommandMetricsSnapshot resetSnapshot = metrics.snapshot("FooTable:FooCommand");
+        assertEquals(0L, resetSnapshot.getCommandHistogram().getTotalCount());
+        assertEquals(0L, resetSnapshot.getFailureCount());
+        assertEquals(2L, snapshot.getCommandHistogram().getTotalCount()); // detached
+    }
+
+    // ===================================================================================
+    //                                                                           Histogram
+    //                                                                           =========
+    public void test_LatencyHistogram_percentile() {
+        // ## Arrange ##
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000L); // 1 to 1000 micro seconds
+        }
+
+        // ## Act ##
+        long p50 = histogram.getValueAtPercentile(50.0);
+        long p99 = histogram.getValueAtPercentile(99.0);
+        long p100 = histogram.getValueAtPercentile(100.0);
+
+        // ## Assert ##
+        log("p50=" + p50 + ", p99=" + p99 + ", p100=" + p100);
+        assertEquals(1000L, histogram.getTotalCount());
+        assertEquals(500500L, histogram.getMeanValue());
+        assertTrue(Math.abs(p50 - 500000L) <= 500000L / 32);
+        assertTrue(Math.abs(p99 - 990000L) <= 990000L / 32);
+        assertEquals(1000000L, p100);
+    }
+
+    public void test_LatencyHistogram_bucket() {
+        assertEquals(0, LatencyHistogram.toBucketIndex(0L));
+        assertEquals(31, LatencyHistogram.toBucketIndex(31L));
+        assertEquals(32, LatencyHistogram.toBucketIndex(32L));
+        assertEquals(63, LatencyHistogram.toBucketIndex(63L));
+        assertEquals(64, LatencyHistogram.toBucketIndex(64L));
+        assertEquals(64, LatencyHistogram.toBucketIndex(65L));
+        assertEquals(65L, LatencyHistogram.toBucketHighestValue(64));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.toBucketIndex(Long.MAX_VALUE));
+        for (long value = 0; value < 100000L; value += 7) {
+            int index = LatencyHistogram.toBucketIndex(value);
+            assertTrue(value <= LatencyHistogram.toBucketHighestValue(index));
+            assertTrue(index == 0 || value > LatencyHistogram.toBucketHighestValue(index - 1));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.core.supplement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.seasar.dbflute.CallbackContext;
+import org.seasar.dbflute.bhv.core.supplement.LoadReferrerChunkExecutor.ChunkSelector;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class LoadReferrerChunkExecutorTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Merge Order
+    //                                                                         ===========
+    public void test_execute_parallel_mergedInChunkOrder() {
+        // ## Arrange ##
+        LoadReferrerChunkExecutor executor = new LoadReferrerChunkExecutor();
+        List<List<Integer>> chunkList = prepareChunkList(5, 3);
+
+        // ## Act ##
+        List<String> resultList = executor.execute(chunkList, 3, new ChunkSelector<Integer, String>() {
+            public List<String> select(List<Integer> chunk) {
+                sleep((5 - chunk.get(0) / 3) * 20L); // later chunks finish first
+                List<String> ls = new ArrayList<String>();
+                for (Integer key : chunk) {
+                    ls.add("v" + key);
+                }
+                return ls;
+            }
+        });
+
+        // ## Assert ##
+        log(resultList);
+        assertEquals(15, resultList.size());
+        for (int i = 0; i < 15; i++) {
+            assertEquals("v" + i, resultList.get(i));
+        }
+    }
+
+    public void test_execute_sequential_sameThread() {
+        // ## Arrange ##
+        LoadReferrerChunkExecutor executor = new LoadReferrerChunkExecutor();
+        final Thread callerThread = Thread.currentThread();
+
+        // ## Act ##
+        List<Integer> resultList = executor.execute(prepareChunkList(3, 2), 1, new ChunkSelector<Integer, Integer>() {
+            public List<Integer> select(List<Integer> chunk) {
+                assertSame(callerThread, Thread.currentThread());
+                return chunk;
+            }
+        });
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), resultList);
+    }
+
+    // ===================================================================================
+    //                                                                    Callback Context
+    //                                                                    ================
+    public void test_execute_parallel_callbackContextInherited() throws Exception {
+        // ## Arrange ##
+        final ExecutorService service = Executors.newFixedThreadPool(2);
+        LoadReferrerChunkExecutor executor = new LoadReferrerChunkExecutor(service);
+        final CallbackContext callbackContext = new CallbackContext();
+        CallbackContext.setCallbackContextOnThread(callbackContext);
+        final List<Object> contextList = new ArrayList<Object>();
+        try {
+            // ## Act ##
+            executor.execute(prepareChunkList(6, 1), 2, new ChunkSelector<Integer, Integer>() {
+                public List<Integer> select(List<Integer> chunk) {
+                    synchronized (contextList) {
+                        contextList.add(CallbackContext.getCallbackContextOnThread());
+                    }
+                    return chunk;
+                }
+            });
+
+            // ## Assert ##
+            assertEquals(6, contextList.size());
+            for (Object context : contextList) {
+                assertSame(callbackContext, context);
+            }
+            for (int i = 0; i < 2; i++) { // cleared on pool threads after the chunks
+                Object remaining = service.submit(new Callable<Object>() {
+                    public Object call() {
+                        return CallbackContext.getCallbackContextOnThread();
+                    }
+                }).get();
+                assertNull(remaining);
+            }
+        } finally {
+            CallbackContext.clearCallbackContextOnThread();
+            service.shutdown();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                              Nested
+    //                                                                              ======
+    public void test_execute_nested_sequentialOnChunkThread() {
+        // ## Arrange ##
+        final LoadReferrerChunkExecutor executor = new LoadReferrerChunkExecutor();
+
+        // ## Act ##
+        List<Integer> resultList = executor.execute(prepareChunkList(2, 2), 2, new ChunkSelector<Integer, Integer>() {
+            public List<Integer> select(List<Integer> chunk) {
+                assertTrue(LoadReferrerChunkExecutor.isChunkThread());
+                final Thread chunkThread = Thread.currentThread();
+                List<List<Integer>> nestedList = new ArrayList<List<Integer>>();
+                for (Integer key : chunk) {
+                    nestedList.add(Arrays.asList(key));
+                }
+                return executor.execute(nestedList, 2, new ChunkSelector<Integer, Integer>() {
+                    public List<Integer> select(List<Integer> nested) {
+                        assertSame(chunkThread, Thread.currentThread());
+                        return nested;
+                    }
+                });
+            }
+        });
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(0, 1, 2, 3), resultList);
+        assertFalse(LoadReferrerChunkExecutor.isChunkThread());
+    }
+
+    // ===================================================================================
+    //                                                                             Failure
+    //                                                                             =======
+    public void test_execute_parallel_failure() {
+        // ## Arrange ##
+        LoadReferrerChunkExecutor executor = new LoadReferrerChunkExecutor();
+
+        // ## Act ##
+        try {
+            executor.execute(prepareChunkList(4, 1), 2, new ChunkSelector<Integer, Integer>() {
+                public List<Integer> select(List<Integer> chunk) {
+                    if (chunk.get(0) == 2) {
+                        throw new IllegalStateException("chunk failure");
+                    }
+                    return chunk;
+                }
+            });
+
+            // ## Assert ##
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+            assertEquals("chunk failure", e.getMessage());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected List<List<Integer>> prepareChunkList(int chunkCount, int chunkSize) {
+        List<List<Integer>> chunkList = new ArrayList<List<Integer>>();
+        int key = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            List<Integer> chunk = new ArrayList<Integer>();
+            for (int j = 0; j < chunkSize; j++) {
+                chunk.add(key++);
+            }
+            chunkList.add(chunk);
+        }
+        return chunkList;
+    }
+
+    protected void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
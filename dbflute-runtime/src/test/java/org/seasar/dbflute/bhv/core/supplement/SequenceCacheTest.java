@@ -318,6 +318,162 @@ public class SequenceCacheTest extends PlainTestCase {
         assertEquals(6000, allAllSet.size());
     }
 
+    // ===================================================================================
+    //                                                                            Prefetch
+    //                                                                            ========
+    public void test_nextval_prefetch_incrementWay() {
+        // ## Arrange ##
+        int cacheSize = 10;
+        SequenceCache cache = createSequenceCache(cacheSize, Integer.class);
+        cache.setPrefetchLowWaterMark(3);
+        IntegerResultExecutor executor = new IntegerResultExecutor(cacheSize);
+
+        // ## Act & Assert ##
+        for (int i = 1; i <= 6; i++) {
+            assertEquals(i, convertIntegerToInteger(cache.nextval(executor)));
+        }
+        assertEquals(1, executor.getCount());
+        assertEquals(7, convertIntegerToInteger(cache.nextval(executor))); // remaining 3
+        assertEquals(2, executor.getCount()); // prefetched
+        for (int i = 8; i <= 20; i++) {
+            assertEquals(i, convertIntegerToInteger(cache.nextval(executor)));
+        }
+        assertEquals(3, executor.getCount()); // the prefetch of third range is at 17
+        assertEquals(21, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(3, executor.getCount()); // from prefetched range
+        log(cache);
+        assertEquals(3, cache.getRefillCount());
+        assertEquals(2, cache.getPrefetchCount());
+        assertTrue(cache.getMaxRefillNanos() <= cache.getRefillNanos());
+    }
+
+    public void test_nextval_prefetch_batchWay() {
+        // ## Arrange ##
+        int cacheSize = 9;
+        final int incrementSize = 3;
+        SequenceCache cache = createSequenceCache(cacheSize, Integer.class, incrementSize);
+        cache.setPrefetchLowWaterMark(2);
+        ListResultExecutor executor = new ListResultExecutor(cacheSize / incrementSize) {
+            @Override
+            protected int getIncrementSize() {
+                return incrementSize;
+            }
+        };
+
+        // ## Act & Assert ##
+        for (int i = 1; i <= 18; i++) {
+            assertEquals(i, convertIntegerToInteger(cache.nextval(executor)));
+        }
+        assertEquals(3, executor.getCount()); // third range is prefetched at 16
+        assertEquals(2, cache.getPrefetchCount());
+    }
+
+    public void test_nextval_prefetch_threadSafe() {
+        // ## Arrange ##
+        final int cacheSize = 20;
+        final SequenceCache cache = createSequenceCache(cacheSize, Integer.class);
+        cache.setPrefetchLowWaterMark(5);
+        final BigDecimalResultExecutor executor = new BigDecimalResultExecutor(cacheSize) {
+            @Override
+            public synchronized Object execute() {
+                return super.execute();
+            }
+        };
+        ExecutionCreator<Set<Integer>> creator = new ExecutionCreator<Set<Integer>>() {
+            public Execution<Set<Integer>> create() {
+                return new Execution<Set<Integer>>() {
+                    public Set<Integer> execute() {
+                        final Set<Integer> valSet = new LinkedHashSet<Integer>();
+                        for (int i = 0; i < 20; i++) {
+                            valSet.add((Integer) cache.nextval(executor));
+                        }
+                        return valSet;
+                    }
+                };
+            }
+        };
+
+        // ## Act & Assert ##
+        Set<Integer> allAllSet = new LinkedHashSet<Integer>();
+        for (int i = 0; i < 30; i++) {
+            List<Set<Integer>> resultList = fireSameExecution(creator);
+            Set<Integer> allSet = new LinkedHashSet<Integer>();
+            for (Set<Integer> set : resultList) {
+                allSet.addAll(set);
+            }
+            assertEquals(200, allSet.size());
+            allAllSet.addAll(allSet);
+        }
+        log(cache);
+        assertEquals(6000, allAllSet.size());
+        assertTrue(cache.getPrefetchCount() > 0);
+    }
+
+    public void test_nextval_prefetch_failure_retried() {
+        // ## Arrange ##
+        int cacheSize = 10;
+        SequenceCache cache = createSequenceCache(cacheSize, Integer.class);
+        cache.setPrefetchLowWaterMark(3);
+        IntegerResultExecutor executor = new IntegerResultExecutor(cacheSize) {
+            protected boolean _failed;
+
+            @Override
+            public Object execute() {
+                if (_count == 1 && !_failed) { // first prefetch
+                    _failed = true;
+                    throw new IllegalStateException("prefetch failure");
+                }
+                return super.execute();
+            }
+        };
+
+        // ## Act & Assert ##
+        for (int i = 1; i <= 7; i++) { // failure at 7 (remaining 3)
+            assertEquals(i, convertIntegerToInteger(cache.nextval(executor)));
+        }
+        assertEquals(1, executor.getCount());
+        assertEquals(1, cache.getPrefetchFailureCount());
+        assertEquals(8, convertIntegerToInteger(cache.nextval(executor))); // retried
+        assertEquals(2, executor.getCount());
+        for (int i = 9; i <= 12; i++) {
+            assertEquals(i, convertIntegerToInteger(cache.nextval(executor)));
+        }
+        assertEquals(2, executor.getCount());
+        assertEquals(1, cache.getPrefetchCount());
+    }
+
+    // ===================================================================================
+    //                                                                     Extension Point
+    //                                                                     ===============
+    public void test_nextval_extension_addSize() {
+        // ## Arrange ##
+        final List<String> markList = new ArrayList<String>();
+        SequenceCache cache = new SequenceCache(Integer.class, new BigDecimal(10), 1) {
+            @Override
+            protected BigDecimal getAddSize() {
+                return new BigDecimal(2);
+            }
+
+            @Override
+            protected void setupSequence(SequenceRealExecutor executor) {
+                markList.add("setup");
+                super.setupSequence(executor);
+            }
+        };
+        IntegerResultExecutor executor = new IntegerResultExecutor(10);
+
+        // ## Act & Assert ##
+        assertEquals(1, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(3, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(5, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(7, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(9, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(11, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(13, convertIntegerToInteger(cache.nextval(executor)));
+        assertEquals(2, executor.getCount());
+        assertEquals(2, markList.size());
+    }
+
     // ===================================================================================
     //                                                                       Assist Helper
     //                                                                       =============
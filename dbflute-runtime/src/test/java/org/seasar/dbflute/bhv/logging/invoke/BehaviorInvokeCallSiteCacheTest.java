@@ -0,0 +1,171 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.bhv.logging.invoke;
+
+import java.util.ArrayList;
+
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeCallSiteCache.CallSiteKey;
+import org.seasar.dbflute.bhv.logging.invoke.BehaviorInvokeCallSiteCache.CallSiteResult;
+import org.seasar.dbflute.helper.stacktrace.InvokeNameResult;
+import org.seasar.dbflute.helper.stacktrace.StackTraceFrames;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/14 Monday)
+ */
+public class BehaviorInvokeCallSiteCacheTest extends PlainTestCase {
+
+    public void test_createKey_sameCallSite() {
+        // ## Arrange ##
+        BehaviorInvokeCallSiteCache cache = new BehaviorInvokeCallSiteCache();
+        CallSiteKey[] keys = new CallSiteKey[2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false); // same line
+        }
+        CallSiteKey otherLineKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+        CallSiteKey otherTableKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "PURCHASE", null, false);
+        BehaviorInvokeNameResult nameResult = new BehaviorInvokeNameResult("MemberBhv.selectList()",
+                "MemberBhv.selectList", null, new ArrayList<InvokeNameResult>());
+
+        // ## Act ##
+        CallSiteResult registered = cache.register(keys[0], nameResult, null);
+
+        // ## Assert ##
+        log(keys[0]);
+        assertEquals(keys[0], keys[1]);
+        assertSame(registered, cache.find(keys[1]));
+        assertSame(nameResult, cache.find(keys[1]).getNameResult());
+        assertNull(cache.find(keys[1]).getPathResult());
+        assertFalse(keys[0].equals(otherLineKey));
+        assertFalse(otherLineKey.equals(otherTableKey));
+        assertNull(cache.find(otherLineKey));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    public void test_register_limit() {
+        // ## Arrange ##
+        BehaviorInvokeCallSiteCache cache = new BehaviorInvokeCallSiteCache(3, 1);
+        CallSiteKey firstKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+        CallSiteKey secondKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+
+        // ## Act ##
+        cache.register(firstKey, null, null);
+        CallSiteResult second = cache.register(secondKey, null, null);
+
+        // ## Assert ##
+        assertNotNull(second);
+        assertEquals(1, cache.size());
+        assertSame(second, cache.find(secondKey)); // not frozen
+        assertNull(cache.find(firstKey)); // evicted
+    }
+
+    public void test_register_leastRecentlyUsedEvicted() {
+        // ## Arrange ##
+        BehaviorInvokeCallSiteCache cache = new BehaviorInvokeCallSiteCache(3, 2);
+        CallSiteKey firstKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+        CallSiteKey secondKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+        CallSiteKey thirdKey = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+        cache.register(firstKey, null, null);
+        cache.register(secondKey, null, null);
+        assertNotNull(cache.find(firstKey)); // used recently
+
+        // ## Act ##
+        cache.register(thirdKey, null, null);
+
+        // ## Assert ##
+        assertEquals(2, cache.size());
+        assertNotNull(cache.find(firstKey));
+        assertNull(cache.find(secondKey)); // least recently used
+        assertNotNull(cache.find(thirdKey));
+    }
+
+    public void test_register_noCache() {
+        // ## Arrange ##
+        BehaviorInvokeCallSiteCache cache = new BehaviorInvokeCallSiteCache(3, 0);
+        CallSiteKey key = cache.createKey(StackTraceFrames.createCurrentFrames(), "MEMBER", null, false);
+
+        // ## Act ##
+        CallSiteResult result = cache.register(key, null, null);
+
+        // ## Assert ##
+        assertNotNull(result);
+        assertEquals(0, cache.size());
+        assertNull(cache.find(key));
+    }
+
+    public void test_StackTraceFrames_sameAsArray() {
+        // ## Arrange ##
+        Throwable throwable = new Throwable();
+        StackTraceElement[] stackTrace = throwable.getStackTrace();
+
+        // ## Act ##
+        StackTraceFrames frames = new StackTraceFrames(throwable);
+
+        // ## Assert ##
+        assertEquals(stackTrace.length, frames.getDepth());
+        for (int i = 0; i < stackTrace.length; i++) {
+            assertEquals(stackTrace[i], frames.getFrame(i));
+        }
+        assertNull(frames.getFrame(stackTrace.length));
+        assertNull(frames.getFrame(-1));
+    }
+
+    public void test_StackTraceFrames_helperOffset() {
+        // ## Arrange ##
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+
+        // ## Act ##
+        StackTraceFrames frames = createFramesByHelper();
+
+        // ## Assert ##
+        StackTraceElement first = frames.getFrame(0);
+        log(first);
+        assertEquals(getClass().getName(), first.getClassName());
+        assertEquals("test_StackTraceFrames_helperOffset", first.getMethodName());
+        assertEquals(stackTrace.length, frames.getDepth());
+        assertEquals(2, frames.getOffset());
+        assertEquals(stackTrace[1], frames.getFrame(1));
+    }
+
+    protected StackTraceFrames createFramesByHelper() {
+        return StackTraceFrames.createCurrentFrames(1);
+    }
+
+    public void test_createKey_slice() {
+        // ## Arrange ##
+        BehaviorInvokeCallSiteCache cache = new BehaviorInvokeCallSiteCache(3, 10);
+        StackTraceFrames frames = createFramesByHelper();
+        StackTraceElement[] stackTrace = frames.getStackTrace();
+
+        // ## Act ##
+        CallSiteKey key = cache.createKey(frames, "MEMBER", null, false);
+        CallSiteKey detached = key.detach();
+
+        // ## Assert ##
+        log(key);
+        assertSame(stackTrace, frames.getStackTrace()); // no copy for finding
+        assertNotSame(key, detached);
+        assertEquals(key, detached);
+        assertEquals(key.hashCode(), detached.hashCode());
+        assertSame(detached, detached.detach());
+        cache.register(key, null, null);
+        assertNotNull(cache.find(cache.createKey(frames, "MEMBER", null, false)));
+        assertNull(cache.find(cache.createKey(frames, "MEMBER", String.class, false)));
+        assertNull(cache.find(cache.createKey(new StackTraceFrames(stackTrace), "MEMBER", null, false)));
+    }
+}
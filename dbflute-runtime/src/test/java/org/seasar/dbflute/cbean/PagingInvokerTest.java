@@ -18,7 +18,12 @@ package org.seasar.dbflute.cbean;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.seasar.dbflute.cbean.sqlclause.SqlClause;
+import org.seasar.dbflute.cbean.sqlclause.SqlClauseDefault;
+import org.seasar.dbflute.cbean.sqlclause.orderby.OrderByClause;
+import org.seasar.dbflute.cbean.sqlclause.orderby.OrderByElement;
 import org.seasar.dbflute.mock.MockColumnInfo;
+import org.seasar.dbflute.mock.MockConditionBean;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -469,6 +474,114 @@ public class PagingInvokerTest extends PlainTestCase {
         assertEquals(60, tgt.deriveAllRecordCountByLastPage(selectedList, pagingBean));
     }
 
+    public void test_invokePaging_reselect_keysetCleared() {
+        // ## Arrange ##
+        final SqlClause sqlClause = new SqlClauseDefault("dummy") {
+            @Override
+            protected List<OrderByElement> prepareKeysetPagingElementList() {
+                return getOrderBy().getOrderByList(); // no check of DB meta
+            }
+        };
+        sqlClause.registerOrderBy("dfloc.aaa", true, new MockColumnInfo());
+        final KeysetMockConditionBean cb = new KeysetMockConditionBean(sqlClause);
+        cb.paging(20, 3);
+        List<Object> valueList = new ArrayList<Object>();
+        valueList.add("element39");
+        sqlClause.registerKeysetPaging(valueList);
+        PagingInvoker<String> tgt = createTarget();
+
+        // ## Act ##
+        final List<String> markList = new ArrayList<String>();
+        PagingResultBean<String> rb = tgt.invokePaging(new PagingHandler<String>() {
+            public PagingBean getPagingBean() {
+                return cb;
+            }
+
+            public int count() {
+                markList.add("count");
+                return 30;
+            }
+
+            public List<String> paging() {
+                markList.add("paging" + (sqlClause.hasKeysetPaging() ? "(keyset)" : ""));
+                final List<String> selectedList = new ArrayList<String>();
+                if (!sqlClause.hasKeysetPaging()) { // offset of page 2
+                    fillList(selectedList, 10);
+                }
+                return selectedList;
+            }
+        });
+
+        // ## Assert ##
+        log(markList);
+        assertEquals(10, rb.size());
+        assertEquals(30, rb.getAllRecordCount());
+        assertEquals(2, rb.getCurrentPageNumber());
+        assertEquals("count", markList.get(0));
+        assertEquals("paging(keyset)", markList.get(1));
+        assertEquals("count", markList.get(2));
+        assertEquals("paging", markList.get(3));
+        assertFalse(sqlClause.hasKeysetPaging());
+        assertEquals(20, sqlClause.getPageStartIndex());
+    }
+
+    protected static class KeysetMockConditionBean extends MockConditionBean {
+
+        protected final SqlClause _sqlClause;
+
+        public KeysetMockConditionBean(SqlClause sqlClause) {
+            _sqlClause = sqlClause;
+        }
+
+        @Override
+        public SqlClause getSqlClause() {
+            return _sqlClause;
+        }
+
+        @Override
+        public boolean canPagingReSelect() {
+            return true;
+        }
+
+        @Override
+        public void paging(int pageSize, int pageNumber) {
+            fetchFirst(pageSize);
+            fetchPage(pageNumber);
+        }
+
+        @Override
+        public PagingBean fetchFirst(int fetchSize) {
+            _sqlClause.fetchFirst(fetchSize);
+            return this;
+        }
+
+        @Override
+        public PagingBean fetchPage(int fetchPageNumber) {
+            _sqlClause.fetchPage(fetchPageNumber);
+            return this;
+        }
+
+        @Override
+        public int getFetchPageNumber() {
+            return _sqlClause.getFetchPageNumber();
+        }
+
+        @Override
+        public int getFetchSize() {
+            return _sqlClause.getFetchSize();
+        }
+
+        @Override
+        public boolean isFetchScopeEffective() {
+            return _sqlClause.isFetchScopeEffective();
+        }
+
+        @Override
+        public OrderByClause getOrderByComponent() {
+            return _sqlClause.getOrderByComponent();
+        }
+    }
+
     // ===================================================================================
     //                                                        isNecessaryToReadPageAgain()
     //                                                        ============================
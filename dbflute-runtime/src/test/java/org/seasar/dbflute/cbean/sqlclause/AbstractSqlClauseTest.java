@@ -0,0 +1,435 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.cbean.sqlclause;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.seasar.dbflute.dbmeta.DBMeta;
+import org.seasar.dbflute.dbmeta.DBMeta.OptimisticLockType;
+import org.seasar.dbflute.dbmeta.PropertyGateway;
+import org.seasar.dbflute.dbmeta.PropertyMethodFinder;
+import org.seasar.dbflute.cbean.sqlclause.clause.SelectClauseType;
+import org.seasar.dbflute.cbean.sqlclause.select.LocalSelectFragmentKey;
+import org.seasar.dbflute.cbean.sqlclause.union.UnionClauseProvider;
+import org.seasar.dbflute.dbmeta.info.ColumnInfo;
+import org.seasar.dbflute.dbmeta.info.UniqueInfo;
+import org.seasar.dbflute.dbmeta.name.TableSqlName;
+import org.seasar.dbflute.exception.IllegalConditionBeanOperationException;
+import org.seasar.dbflute.mock.MockDBMeta;
+import org.seasar.dbflute.mock.MockDBMetaProvider;
+import org.seasar.dbflute.twowaysql.SqlAnalyzer;
+import org.seasar.dbflute.twowaysql.context.CommandContext;
+import org.seasar.dbflute.twowaysql.context.CommandContextCreator;
+import org.seasar.dbflute.twowaysql.node.Node;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfCollectionUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/02 Wednesday)
+ */
+public class AbstractSqlClauseTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                       Select Clause
+    //                                                                       =============
+    public void test_getSelectClause_localFragmentPool() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("FRAGMENT_POOL_MEMBER");
+        SqlClause first = createSqlClause(dbmeta);
+        SqlClause second = createSqlClause(dbmeta);
+
+        // ## Act ##
+        String firstClause = first.getSelectClause();
+        String secondClause = second.getSelectClause(); // from pool
+
+        // ## Assert ##
+        log(firstClause);
+        assertEquals(firstClause, secondClause);
+        assertTrue(firstClause.startsWith("select"));
+        assertTrue(firstClause.contains("dfloc.MEMBER_ID as MEMBER_ID"));
+        assertTrue(firstClause.contains("dfloc.MEMBER_NAME as MEMBER_NAME"));
+        Map<String, Integer> firstIndexMap = first.getSelectIndexMap().get("loc00");
+        Map<String, Integer> secondIndexMap = second.getSelectIndexMap().get("loc00");
+        assertEquals(firstIndexMap, secondIndexMap);
+        assertEquals(Integer.valueOf(1), secondIndexMap.get("MEMBER_ID"));
+        assertEquals(Integer.valueOf(2), secondIndexMap.get("MEMBER_NAME"));
+        assertEquals("MEMBER_NAME", second.getSelectColumnKeyNameMap().get("MEMBER_NAME"));
+    }
+
+    public void test_getSelectClause_localFragmentPool_sameTableNameOtherDBMeta() {
+        // ## Arrange ##
+        SqlClause main = createSqlClause(new FragmentMockDBMeta("FRAGMENT_POOL_SAME_NAME"));
+        SqlClause other = createSqlClause(new FragmentMockDBMeta("FRAGMENT_POOL_SAME_NAME", "BIRTHDATE"));
+
+        // ## Act ##
+        String mainClause = main.getSelectClause(); // register to pool
+        String otherClause = other.getSelectClause(); // not from pool of main
+
+        // ## Assert ##
+        log(mainClause);
+        log(otherClause);
+        assertFalse(mainClause.contains("BIRTHDATE"));
+        assertTrue(otherClause.contains("dfloc.BIRTHDATE as BIRTHDATE"));
+        assertEquals(Integer.valueOf(3), other.getSelectIndexMap().get("loc00").get("BIRTHDATE"));
+    }
+
+    public void test_getSelectClause_localFragmentPool_limit() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("FRAGMENT_POOL_LIMIT");
+        SqlClause clause = new SqlClauseDefault(dbmeta.getTableDbName()) {
+            @Override
+            protected int getLocalSelectFragmentPoolLimit() {
+                return _localSelectFragmentPool.size(); // already full
+            }
+        }.dbmetaProvider(createMockDBMetaProvider(dbmeta));
+        int poolSize = AbstractSqlClause._localSelectFragmentPool.size();
+
+        // ## Act ##
+        String selectClause = clause.getSelectClause();
+
+        // ## Assert ##
+        log(selectClause);
+        assertTrue(selectClause.contains("dfloc.MEMBER_ID as MEMBER_ID"));
+        assertEquals(Integer.valueOf(1), clause.getSelectIndexMap().get("loc00").get("MEMBER_ID"));
+        assertTrue(AbstractSqlClause._localSelectFragmentPool.size() <= poolSize + 1); // others may register
+        LocalSelectFragmentKey poolKey = ((AbstractSqlClause) clause).buildLocalSelectFragmentPoolKey(dbmeta,
+                "dfloc");
+        assertFalse(AbstractSqlClause._localSelectFragmentPool.containsKey(poolKey));
+    }
+
+    public void test_getSelectClause_localFragmentPool_pkOnly() {
+        // ## Arrange ##
+        SqlClause pooled = createSqlClause("FRAGMENT_POOL_PK_ONLY");
+        pooled.getSelectClause(); // register to pool
+        SqlClause pkOnly = createSqlClause("FRAGMENT_POOL_PK_ONLY");
+        pkOnly.makePKOnlySelectForcedlyEffective();
+
+        // ## Act ##
+        String clause = pkOnly.getSelectClause();
+
+        // ## Assert ##
+        log(clause);
+        assertTrue(clause.contains("dfloc.MEMBER_ID as MEMBER_ID"));
+        assertFalse(clause.contains("MEMBER_NAME"));
+    }
+
+    public void test_getSelectClause_localFragmentPool_sqlServerUnionFirst() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("FRAGMENT_POOL_SQLSERVER_UNION_FIRST");
+        SqlClause union = createSqlServerSqlClause(dbmeta);
+        union.registerUnionQuery(createUnionClauseProvider(), false);
+        SqlClause paging = createSqlServerSqlClause(dbmeta);
+        paging.fetchFirst(20);
+        paging.fetchPage(1);
+
+        // ## Act ##
+        String unionClause = union.getSelectClause(); // register to pool
+        String pagingClause = paging.getSelectClause(); // from pool
+
+        // ## Assert ##
+        log(unionClause);
+        log(pagingClause);
+        assertTrue(unionClause.startsWith("select dfloc.MEMBER_ID as MEMBER_ID"));
+        assertTrue(pagingClause.startsWith("select/*$pmb.selectHint*/ dfloc.MEMBER_ID as MEMBER_ID"));
+        assertEquals(" top 20", paging.getSelectHint()); // embedded to the mark
+        assertEquals(1, countHintMark(paging.getClause()));
+        assertEquals(union.getSelectIndexMap(), paging.getSelectIndexMap());
+
+        // alternate again
+        SqlClause secondUnion = createSqlServerSqlClause(dbmeta);
+        secondUnion.registerUnionQuery(createUnionClauseProvider(), false);
+        assertEquals(unionClause, secondUnion.getSelectClause());
+    }
+
+    public void test_getSelectClause_localFragmentPool_sqlServerPagingFirst() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("FRAGMENT_POOL_SQLSERVER_PAGING_FIRST");
+        SqlClause paging = createSqlServerSqlClause(dbmeta);
+        paging.fetchFirst(20);
+        paging.fetchPage(1);
+        SqlClause union = createSqlServerSqlClause(dbmeta);
+        union.registerUnionQuery(createUnionClauseProvider(), false);
+
+        // ## Act ##
+        String pagingClause = paging.getSelectClause(); // register to pool
+        String unionClause = union.getSelectClause(); // from pool
+
+        // ## Assert ##
+        log(pagingClause);
+        log(unionClause);
+        assertTrue(pagingClause.startsWith("select/*$pmb.selectHint*/ dfloc.MEMBER_ID as MEMBER_ID"));
+        assertTrue(unionClause.startsWith("select dfloc.MEMBER_ID as MEMBER_ID"));
+        String unionWholeClause = union.getClause();
+        log(unionWholeClause);
+        assertTrue(unionWholeClause.startsWith("select/*$pmb.selectHint*/ *")); // enclosing has the hint
+        assertEquals(1, countHintMark(unionWholeClause));
+
+        // alternate again
+        SqlClause secondPaging = createSqlServerSqlClause(dbmeta);
+        secondPaging.fetchFirst(30);
+        secondPaging.fetchPage(1);
+        assertTrue(secondPaging.getSelectClause().startsWith("select/*$pmb.selectHint*/ dfloc.MEMBER_ID"));
+        assertEquals(" top 30", secondPaging.getSelectHint());
+    }
+
+    // ===================================================================================
+    //                                                                       Keyset Paging
+    //                                                                       =============
+    public void test_registerKeysetPaging_mixedDirection() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("KEYSET_MEMBER");
+        SqlClause sqlClause = createSqlClause(dbmeta);
+        sqlClause.registerOrderBy("dfloc.MEMBER_NAME", false, dbmeta.findColumnInfo("MEMBER_NAME"));
+        sqlClause.registerOrderBy("dfloc.MEMBER_ID", true, dbmeta.findColumnInfo("MEMBER_ID"));
+        sqlClause.fetchFirst(20);
+        sqlClause.fetchPage(3);
+        List<Object> valueList = new ArrayList<Object>();
+        valueList.add("foo");
+        valueList.add("3");
+
+        // ## Act ##
+        sqlClause.registerKeysetPaging(valueList);
+
+        // ## Assert ##
+        String whereClause = sqlClause.getWhereClause();
+        log(whereClause);
+        assertTrue(whereClause.contains("where ((dfloc.MEMBER_NAME < /*pmb.sqlClause.keysetPagingValueList.get(0)*/null)"));
+        assertTrue(whereClause.contains("or (dfloc.MEMBER_NAME = /*pmb.sqlClause.keysetPagingValueList.get(0)*/null"
+                + " and dfloc.MEMBER_ID > /*pmb.sqlClause.keysetPagingValueList.get(1)*/null))"));
+        assertEquals(valueList, sqlClause.getKeysetPagingValueList());
+        assertEquals(3, sqlClause.getFetchPageNumber());
+        assertEquals(0, sqlClause.getPageStartIndex());
+        assertEquals(20, sqlClause.getPageEndIndex());
+
+        sqlClause.classifySelectClauseType(SelectClauseType.PLAIN_COUNT);
+        assertFalse(sqlClause.getWhereClause().contains("keysetPagingValueList")); // count needs all
+        sqlClause.rollbackSelectClauseType();
+
+        sqlClause.clearKeysetPaging();
+        assertFalse(sqlClause.getWhereClause().contains("keysetPagingValueList"));
+        assertEquals(40, sqlClause.getPageStartIndex());
+    }
+
+    public void test_registerKeysetPaging_mixedDirection_bind() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("KEYSET_MEMBER");
+        SqlClause sqlClause = createSqlClause(dbmeta);
+        sqlClause.registerOrderBy("dfloc.MEMBER_NAME", false, dbmeta.findColumnInfo("MEMBER_NAME"));
+        sqlClause.registerOrderBy("dfloc.MEMBER_ID", true, dbmeta.findColumnInfo("MEMBER_ID"));
+        sqlClause.fetchFirst(20);
+        sqlClause.fetchPage(3);
+        List<Object> valueList = new ArrayList<Object>();
+        valueList.add("foo");
+        valueList.add(3);
+        sqlClause.registerKeysetPaging(valueList);
+        Node rootNode = new SqlAnalyzer(sqlClause.getWhereClause(), false).analyze();
+        KeysetPagingMockPmb pmb = new KeysetPagingMockPmb(sqlClause);
+        String[] argNames = new String[] { "pmb" };
+        Class<?>[] argTypes = new Class<?>[] { pmb.getClass() };
+        CommandContext ctx = new CommandContextCreator(argNames, argTypes).createCommandContext(new Object[] { pmb });
+
+        // ## Act ##
+        rootNode.accept(ctx);
+
+        // ## Assert ##
+        String sql = ctx.getSql();
+        log(sql);
+        assertTrue(sql.contains("where ((dfloc.MEMBER_NAME < ?)"));
+        assertTrue(sql.contains("or (dfloc.MEMBER_NAME = ? and dfloc.MEMBER_ID > ?))"));
+        Object[] bindVariables = ctx.getBindVariables();
+        assertEquals(3, bindVariables.length);
+        assertEquals("foo", bindVariables[0]);
+        assertEquals("foo", bindVariables[1]);
+        assertEquals(3, bindVariables[2]);
+        assertEquals(String.class, ctx.getBindVariableTypes()[0]);
+        assertEquals(Integer.class, ctx.getBindVariableTypes()[2]);
+    }
+
+    public static class KeysetPagingMockPmb { // public for property access
+
+        protected final SqlClause _sqlClause;
+
+        public KeysetPagingMockPmb(SqlClause sqlClause) {
+            _sqlClause = sqlClause;
+        }
+
+        public SqlClause getSqlClause() {
+            return _sqlClause;
+        }
+    }
+
+    public void test_registerKeysetPaging_notUnique() {
+        // ## Arrange ##
+        DBMeta dbmeta = new FragmentMockDBMeta("KEYSET_MEMBER");
+        SqlClause sqlClause = createSqlClause(dbmeta);
+        sqlClause.registerOrderBy("dfloc.MEMBER_NAME", true, dbmeta.findColumnInfo("MEMBER_NAME"));
+        List<Object> valueList = new ArrayList<Object>();
+        valueList.add("foo");
+
+        // ## Act ##
+        try {
+            sqlClause.registerKeysetPaging(valueList);
+
+            // ## Assert ##
+            fail();
+        } catch (IllegalConditionBeanOperationException e) {
+            log(e.getMessage());
+            assertFalse(sqlClause.hasKeysetPaging());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected SqlClause createSqlClause(String tableDbName) {
+        return createSqlClause(new FragmentMockDBMeta(tableDbName));
+    }
+
+    protected SqlClause createSqlClause(final DBMeta dbmeta) {
+        return new SqlClauseDefault(dbmeta.getTableDbName()).dbmetaProvider(createMockDBMetaProvider(dbmeta));
+    }
+
+    protected MockDBMetaProvider createMockDBMetaProvider(final DBMeta dbmeta) {
+        return new MockDBMetaProvider() {
+            @Override
+            public DBMeta provideDBMeta(String tableFlexibleName) {
+                return dbmeta;
+            }
+
+            @Override
+            public DBMeta provideDBMetaChecked(String tableFlexibleName) {
+                return dbmeta;
+            }
+        };
+    }
+
+    protected SqlClause createSqlServerSqlClause(final DBMeta dbmeta) {
+        return new SqlClauseSqlServer(dbmeta.getTableDbName()).dbmetaProvider(new MockDBMetaProvider() {
+            @Override
+            public DBMeta provideDBMeta(String tableFlexibleName) {
+                return dbmeta;
+            }
+
+            @Override
+            public DBMeta provideDBMetaChecked(String tableFlexibleName) {
+                return dbmeta;
+            }
+        });
+    }
+
+    protected UnionClauseProvider createUnionClauseProvider() {
+        return new UnionClauseProvider() {
+            public String provide() {
+                return " from UNION_MEMBER dfloc"; // select clause is added by the main clause
+            }
+        };
+    }
+
+    protected int countHintMark(String clause) {
+        int count = 0;
+        int index = clause.indexOf("/*$pmb.selectHint*/");
+        while (index >= 0) {
+            ++count;
+            index = clause.indexOf("/*$pmb.selectHint*/", index + 1);
+        }
+        return count;
+    }
+
+    protected static class FragmentMockDBMeta extends MockDBMeta {
+
+        protected final String _tableDbName;
+        protected final List<ColumnInfo> _columnInfoList = new ArrayList<ColumnInfo>();
+
+        public FragmentMockDBMeta(String tableDbName, String... extraColumnNames) {
+            _tableDbName = tableDbName;
+            _columnInfoList.add(new FragmentMockColumnInfo(this, "MEMBER_ID", true));
+            _columnInfoList.add(new FragmentMockColumnInfo(this, "MEMBER_NAME", false));
+            for (String columnName : extraColumnNames) {
+                _columnInfoList.add(new FragmentMockColumnInfo(this, columnName, false));
+            }
+        }
+
+        @Override
+        public String getTableDbName() {
+            return _tableDbName;
+        }
+
+        @Override
+        public TableSqlName getTableSqlName() {
+            return new TableSqlName(_tableDbName, _tableDbName);
+        }
+
+        @Override
+        public List<ColumnInfo> getColumnInfoList() {
+            return _columnInfoList;
+        }
+
+        @Override
+        public ColumnInfo findColumnInfo(String columnFlexibleName) {
+            for (ColumnInfo columnInfo : _columnInfoList) {
+                if (columnInfo.getColumnDbName().equals(columnFlexibleName)) {
+                    return columnInfo;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public UniqueInfo getPrimaryUniqueInfo() {
+            return new UniqueInfo(this, DfCollectionUtil.newArrayList(_columnInfoList.get(0)), true);
+        }
+    }
+
+    protected static class FragmentMockColumnInfo extends ColumnInfo {
+
+        public FragmentMockColumnInfo(DBMeta dbmeta, String columnDbName, boolean primary) {
+            super(dbmeta, columnDbName, columnDbName, null, null, String.class, columnDbName.toLowerCase(),
+                    String.class, primary, false, true, "VARCHAR", 10, 0, null, false, OptimisticLockType.NONE, null,
+                    new ArrayList<String>(), new ArrayList<String>(), null, createPropertyMethodFinder());
+        }
+
+        protected static PropertyMethodFinder createPropertyMethodFinder() {
+            return new PropertyMethodFinder() {
+                public Method findWriteMethod(Class<?> beanType, String propertyName, Class<?> propertyType) {
+                    return null;
+                }
+
+                public Method findReadMethod(Class<?> beanType, String propertyName, Class<?> propertyType) {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        protected PropertyGateway findPropertyGateway() {
+            return null;
+        }
+
+        @Override
+        protected Method findReadMethod() {
+            return null;
+        }
+
+        @Override
+        protected Method findWriteMethod() {
+            return null;
+        }
+    }
+}
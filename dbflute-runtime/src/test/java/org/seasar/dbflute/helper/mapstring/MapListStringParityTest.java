@@ -0,0 +1,469 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.mapstring;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.seasar.dbflute.exception.MapListStringParseFailureException;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * The parity test between the cursor parser and the previous substring parser.
+ * @author jflute
+ * @since 1.0.5K (2014/07/18 Friday)
+ */
+public class MapListStringParityTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                              Parity
+    //                                                                              ======
+    public void test_generateMap_parity_fixed() {
+        assertMapParity("map:{}");
+        assertMapParity("  map:{ }  ");
+        assertMapParity("map:{ key1 = value1 ; key2 = value2 }");
+        assertMapParity("map:{;;key1=value1;;;key2=;key3= null ; = value4 ;}");
+        assertMapParity("map:{ key1 = map:{ key11 = value11 } ; key2 = list:{ a ; b ; } ; key3 = c }");
+        assertMapParity("map:{ key1 = map:{} ; key2 = list:{} }");
+        assertMapParity("map:{ k\\=ey = val\\;ue\\} ; key2 = \\{value2\\} ; key3 = C:\\foo\\bar }");
+        assertMapParity("map:{ key1 = a\\b\\c ; key2 = \\n = \\t }");
+        assertMapParity("map:{ key1 = a=b=c ; key2 = d }");
+        assertMapParity("map:{ key1 = value1 } ; key2 = value2 }");
+        assertMapParity("map:{ key1 = value1 } }");
+        assertMapParity("map:{ key1 = value1 ");
+        assertMapParity("map:{ key1 }");
+        assertMapParity("map:{ key1 = map:{ key2 = value2 }");
+        assertMapParity("map:{ key1 = C:\\foo\\bar\\}");
+        assertMapParity("map:{ key1 = C:\\foo\\bar\\ }");
+        assertMapParity("map:{ key1 = value1 ; key2 = list:{ map:{ a = b } ; list:{ c ; d } } }");
+        assertMapParity("list:{ a ; b }");
+        assertMapParity(null);
+    }
+
+    public void test_generateList_parity_fixed() {
+        assertListParity("list:{}");
+        assertListParity("list:{ a ; b ; ; null ; c }");
+        assertListParity("list:{ a ; map:{ k = v ; k2 = list:{ x } } ; list:{} ; b }");
+        assertListParity("list:{ a\\; ; \\} ; \\{ }");
+        assertListParity("list:{ a } b }");
+        assertListParity("list:{ a ; list:{ b }");
+        assertListParity("map:{ a = b }");
+    }
+
+    public void test_generateMap_parity_random() {
+        // ## Arrange ##
+        final Random random = new Random(20140718L);
+        final String[] tokenArray = new String[] { "map:{", "list:{", "{", "}", ";", "=", "\\", " ", "\n", "\t", "a",
+                "bc", "null", "map:", "list:" };
+
+        // ## Act & Assert ##
+        for (int i = 0; i < 3000; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final boolean mapWay = random.nextBoolean();
+            sb.append(mapWay ? "map:{" : "list:{");
+            final int tokenCount = random.nextInt(30);
+            for (int j = 0; j < tokenCount; j++) {
+                sb.append(tokenArray[random.nextInt(tokenArray.length)]);
+            }
+            sb.append("}");
+            if (mapWay) {
+                assertMapParity(sb.toString());
+            } else {
+                assertListParity(sb.toString());
+            }
+        }
+    }
+
+    public void test_generateMap_parity_built() {
+        // ## Arrange ##
+        final Random random = new Random(7L);
+
+        // ## Act & Assert ##
+        for (int i = 0; i < 200; i++) {
+            final Map<String, Object> map = prepareRandomMap(random, 0);
+            final String mapString = new MapListString().buildMapString(map);
+            assertMapParity(mapString);
+            assertEquals(map, new MapListString().generateMap(mapString));
+        }
+    }
+
+    public void test_generateMap_large() {
+        // ## Arrange ##
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < 20000; i++) {
+            final List<Object> list = new ArrayList<Object>();
+            list.add("value" + i + "\\;");
+            list.add("C:\\foo\\" + i);
+            map.put("key" + i, i % 2 == 0 ? list : "value" + i);
+        }
+        final String mapString = new MapListString().buildMapString(map);
+
+        // ## Act ##
+        final long before = System.currentTimeMillis();
+        final Map<String, Object> generatedMap = new MapListString().generateMap(mapString);
+        final long cost = System.currentTimeMillis() - before;
+
+        // ## Assert ##
+        log("length=" + mapString.length() + ", cost=" + cost + "ms");
+        assertEquals(map, generatedMap);
+    }
+
+    // ===================================================================================
+    //                                                                               Write
+    //                                                                               =====
+    public void test_writeMapString_sameAsBuild() throws Exception {
+        // ## Arrange ##
+        final Map<String, Object> map = prepareRandomMap(new Random(3L), 0);
+        final MapListString maplist = new MapListString();
+        final StringWriter writer = new StringWriter();
+
+        // ## Act ##
+        maplist.writeMapString(map, writer);
+
+        // ## Assert ##
+        assertEquals(maplist.buildMapString(map), writer.toString());
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected void assertMapParity(String mapString) {
+        final String expected = toResult(new LegacyMapListString(), mapString, true);
+        final String actual = toResult(new MapListString(), mapString, true);
+        assertEquals(mapString, expected, actual);
+    }
+
+    protected void assertListParity(String listString) {
+        final String expected = toResult(new LegacyMapListString(), listString, false);
+        final String actual = toResult(new MapListString(), listString, false);
+        assertEquals(listString, expected, actual);
+    }
+
+    protected String toResult(MapListString maplist, String mapListString, boolean mapWay) {
+        try {
+            if (mapWay) {
+                return "map: " + maplist.generateMap(mapListString);
+            } else {
+                return "list: " + maplist.generateList(mapListString);
+            }
+        } catch (MapListStringParseFailureException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    protected Map<String, Object> prepareRandomMap(Random random, int depth) {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        final int size = random.nextInt(5);
+        for (int i = 0; i < size; i++) {
+            map.put(prepareRandomValue(random) + i, prepareRandomElement(random, depth));
+        }
+        return map;
+    }
+
+    protected List<Object> prepareRandomList(Random random, int depth) {
+        final List<Object> list = new ArrayList<Object>();
+        final int size = random.nextInt(5);
+        for (int i = 0; i < size; i++) {
+            list.add(prepareRandomElement(random, depth));
+        }
+        return list;
+    }
+
+    protected Object prepareRandomElement(Random random, int depth) {
+        final int type = depth < 3 ? random.nextInt(4) : 0;
+        if (type == 1) {
+            return prepareRandomMap(random, depth + 1);
+        } else if (type == 2) {
+            return prepareRandomList(random, depth + 1);
+        }
+        return prepareRandomValue(random);
+    }
+
+    protected String prepareRandomValue(Random random) {
+        final String[] partArray = new String[] { "a", "b", "{", "}", ";", "=", "C:\\foo", "-" };
+        final StringBuilder sb = new StringBuilder("v");
+        final int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            sb.append(partArray[random.nextInt(partArray.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The previous parser that cuts the remainder string by substring() for each step.
+     */
+    protected static class LegacyMapListString extends MapListString {
+
+        protected String _legacyRemainderString;
+
+        @Override
+        public Map<String, Object> generateMap(String mapString) {
+            assertMapString(mapString);
+            _topString = mapString;
+            _legacyRemainderString = mapString;
+            removeBothSideSpaceAndTabAndNewLine();
+            removePrefixMapMarkAndStartBrace();
+            final Map<String, Object> generatedMap = newStringObjectMap();
+            parseRemainderMapString(generatedMap);
+            if (!"".equals(_legacyRemainderString)) {
+                throwMapStringUnneededStringFoundException(mapString, generatedMap);
+            }
+            return generatedMap;
+        }
+
+        @Override
+        public List<Object> generateList(String listString) {
+            assertListString(listString);
+            _topString = listString;
+            _legacyRemainderString = listString;
+            removeBothSideSpaceAndTabAndNewLine();
+            removePrefixListMarkAndStartBrace();
+            final List<Object> generatedList = newObjectList();
+            parseRemainderListString(generatedList);
+            if (!"".equals(_legacyRemainderString)) {
+                throwListStringUnneededStringFoundException(listString, generatedList);
+            }
+            return generatedList;
+        }
+
+        @Override
+        protected void parseRemainderMapString(Map<String, Object> currentMap) {
+            while (true) {
+                if (initializeAtLoopBeginning()) {
+                    return;
+                }
+                final int equalIndex = indexOfEqual();
+                assertLegacyMapStringEqualIndex(equalIndex, currentMap);
+                final String mapKey = _legacyRemainderString.substring(0, equalIndex).trim();
+                removePrefixTargetIndexPlus(equalIndex, _equal.length());
+                removeBothSideSpaceAndTabAndNewLine();
+                if (isStartsWithMapPrefix(_legacyRemainderString)) {
+                    removePrefixMapMarkAndStartBrace();
+                    parseRemainderMapString(setupNestMap(currentMap, mapKey));
+                    if (closeAfterParseNestMapList()) {
+                        return;
+                    }
+                    continue;
+                }
+                if (isStartsWithListPrefix(_legacyRemainderString)) {
+                    removePrefixListMarkAndStartBrace();
+                    parseRemainderListString(setupNestList(currentMap, mapKey));
+                    if (closeAfterParseNestMapList()) {
+                        return;
+                    }
+                    continue;
+                }
+                final int delimiterIndex = indexOfDelimiter();
+                final int endBraceIndex = indexOfEndBrace();
+                assertLegacyEndBraceIndex(endBraceIndex, currentMap, null);
+                if (delimiterIndex >= 0 && delimiterIndex < endBraceIndex) {
+                    final String mapValue = _legacyRemainderString.substring(0, delimiterIndex);
+                    currentMap.put(filterMapListKey(mapKey), filterMapListValue(mapValue));
+                    removePrefixTargetIndexPlus(delimiterIndex, _delimiter.length());
+                    continue;
+                }
+                final String mapValue = _legacyRemainderString.substring(0, endBraceIndex);
+                currentMap.put(filterMapListKey(mapKey), filterMapListValue(mapValue));
+                closeByEndBraceIndex(endBraceIndex);
+                return;
+            }
+        }
+
+        @Override
+        protected void parseRemainderListString(List<Object> currentList) {
+            while (true) {
+                if (initializeAtLoopBeginning()) {
+                    return;
+                }
+                if (isStartsWithMapPrefix(_legacyRemainderString)) {
+                    removePrefixMapMarkAndStartBrace();
+                    parseRemainderMapString(setupNestMap(currentList));
+                    if (closeAfterParseNestMapList()) {
+                        return;
+                    }
+                    continue;
+                }
+                if (isStartsWithListPrefix(_legacyRemainderString)) {
+                    removePrefixListMarkAndStartBrace();
+                    parseRemainderListString(setupNestList(currentList));
+                    if (closeAfterParseNestMapList()) {
+                        return;
+                    }
+                    continue;
+                }
+                final int delimiterIndex = indexOfDelimiter();
+                final int endBraceIndex = indexOfEndBrace();
+                assertLegacyEndBraceIndex(endBraceIndex, null, currentList);
+                if (delimiterIndex >= 0 && delimiterIndex < endBraceIndex) {
+                    final String listValue = _legacyRemainderString.substring(0, delimiterIndex);
+                    currentList.add(filterMapListValue(listValue));
+                    removePrefixTargetIndexPlus(delimiterIndex, _delimiter.length());
+                    continue;
+                }
+                final String listValue = _legacyRemainderString.substring(0, endBraceIndex);
+                currentList.add(filterMapListValue(listValue));
+                closeByEndBraceIndex(endBraceIndex);
+                return;
+            }
+        }
+
+        @Override
+        protected boolean initializeAtLoopBeginning() {
+            removePrefixAllDelimiter();
+            if (_legacyRemainderString.equals("")) {
+                return true;
+            }
+            if (isStartsWithEndBrace(_legacyRemainderString)) {
+                removePrefixEndBrace();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected boolean closeAfterParseNestMapList() {
+            if (isStartsWithEndBrace(_legacyRemainderString)) {
+                removePrefixEndBrace();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected void closeByEndBraceIndex(int endBraceIndex) {
+            _legacyRemainderString = _legacyRemainderString.substring(endBraceIndex);
+            removePrefixEndBrace();
+        }
+
+        @Override
+        protected int indexOfEndBrace() {
+            return findLegacyIndexOfControlMark(_legacyRemainderString, _endBrace);
+        }
+
+        @Override
+        protected int indexOfDelimiter() {
+            return findLegacyIndexOfControlMark(_legacyRemainderString, _delimiter);
+        }
+
+        @Override
+        protected int indexOfEqual() {
+            return findLegacyIndexOfControlMark(_legacyRemainderString, _equal);
+        }
+
+        protected int findLegacyIndexOfControlMark(String remainderString, String controlMark) {
+            String current = remainderString;
+            int baseIndex = 0;
+            while (true) {
+                final int index = current.indexOf(controlMark);
+                if (index < 0) {
+                    return index;
+                }
+                if (index > 0) {
+                    final String lastChar = current.substring(index - 1, index);
+                    if (_escapeChar.equals(lastChar)) {
+                        final int nextIndex = index + _escapeChar.length();
+                        baseIndex = baseIndex + nextIndex;
+                        current = current.substring(nextIndex);
+                        continue;
+                    }
+                }
+                return baseIndex + index;
+            }
+        }
+
+        @Override
+        protected void removePrefix(String prefixString) {
+            removeBothSideSpaceAndTabAndNewLine();
+            if (_legacyRemainderString.length() < prefixString.length()) {
+                final String notice = "The remainderString length shuold be greater than the prefixString length.";
+                throwMapListStringPrefixFailureException(notice, prefixString, _topString);
+            }
+            if (!_legacyRemainderString.startsWith(prefixString)) {
+                final String notice = "The remainderString shuold start with the prefixString.";
+                throwMapListStringPrefixFailureException(notice, prefixString, _topString);
+            }
+            _legacyRemainderString = _legacyRemainderString.substring(prefixString.length());
+            removeBothSideSpaceAndTabAndNewLine();
+        }
+
+        @Override
+        protected void removePrefixAllDelimiter() {
+            removeBothSideSpaceAndTabAndNewLine();
+            while (isStartsWithDelimiter(_legacyRemainderString)) {
+                removePrefixDelimiter();
+                removeBothSideSpaceAndTabAndNewLine();
+            }
+        }
+
+        @Override
+        protected void removeBothSideSpaceAndTabAndNewLine() {
+            _legacyRemainderString = _legacyRemainderString.trim();
+        }
+
+        @Override
+        protected void removePrefixTargetIndexPlus(int index, int plusCount) {
+            _legacyRemainderString = _legacyRemainderString.substring(index + plusCount);
+        }
+
+        @Override
+        protected String getRemainderString() {
+            return _legacyRemainderString;
+        }
+
+        @Override
+        protected int getControlMarkCount(String targetString, String controlMark) {
+            int result = 0;
+            String current = targetString;
+            while (true) {
+                final int index = findLegacyIndexOfControlMark(current, controlMark);
+                if (index < 0) {
+                    break;
+                }
+                result++;
+                current = current.substring(index + controlMark.length());
+            }
+            return result == 0 ? -1 : result;
+        }
+
+        protected void assertLegacyMapStringEqualIndex(int equalIndex, Map<String, Object> currentMap) {
+            if (equalIndex < 0) {
+                final String notice = "Not found the equal mark in the map.";
+                throwMapStringEqualFailureException(notice, _legacyRemainderString, equalIndex, _topString,
+                        currentMap);
+            }
+        }
+
+        protected void assertLegacyEndBraceIndex(int endBraceIndex, Map<String, Object> currentMap,
+                List<Object> currentList) {
+            if (endBraceIndex < 0) {
+                final String notice = "Not found the end brace.";
+                if (currentMap != null) {
+                    throwMapStringEndBraceFailureException(notice, _legacyRemainderString, endBraceIndex, _topString,
+                            currentMap);
+                } else {
+                    throwListStringEndBraceFailureException(notice, _legacyRemainderString, endBraceIndex,
+                            _topString, currentList);
+                }
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.seasar.dbflute.mock;
 
 import java.util.Map;
 
+import org.seasar.dbflute.Entity;
 import org.seasar.dbflute.cbean.AndQuery;
 import org.seasar.dbflute.cbean.ConditionBean;
 import org.seasar.dbflute.cbean.ConditionQuery;
@@ -141,6 +142,9 @@ public class MockConditionBean implements ConditionBean {
         return false;
     }
 
+    public void pagingByKeyset(int pageSize, int pageNumber, Entity lastEntity) {
+    }
+
     public PagingBean fetchFirst(int fetchSize) {
         return null;
     }
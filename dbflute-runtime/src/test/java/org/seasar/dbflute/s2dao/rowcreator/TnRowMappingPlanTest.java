@@ -0,0 +1,120 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.rowcreator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.seasar.dbflute.dbmeta.info.ColumnInfo;
+import org.seasar.dbflute.dbmeta.name.ColumnSqlName;
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.beans.DfPropertyAccessor;
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.mock.MockResultSet;
+import org.seasar.dbflute.mock.MockValueType;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyMapping;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/03 Thursday)
+ */
+public class TnRowMappingPlanTest extends PlainTestCase {
+
+    public void test_getValue_byIndex() throws SQLException {
+        // ## Arrange ##
+        String[] columnLabels = new String[] { "MEMBER_ID", "member_name", "MEMBER.BIRTHDATE" };
+        Map<String, TnPropertyMapping> propertyCache = StringKeyMap.createAsCaseInsensitiveOrdered();
+        propertyCache.put("MEMBER_ID", new MockPropertyMapping("memberId"));
+        propertyCache.put("MEMBER_NAME", new MockPropertyMapping("memberName"));
+        propertyCache.put("BIRTHDATE", new MockPropertyMapping("birthdate"));
+        propertyCache.put("MEMBERSTATUSCODE", new MockPropertyMapping("memberStatusCode"));
+        Map<String, String> selectColumnMap = StringKeyMap.createAsFlexible();
+        TnRowMappingPlan plan = new TnRowMappingPlan(columnLabels, selectColumnMap, propertyCache);
+        MockResultSet rs = new MockResultSet();
+
+        // ## Act & Assert ##
+        assertEquals(4, plan.getMappingSize());
+        assertEquals(1, plan.getColumnIndex(0));
+        assertEquals(2, plan.getColumnIndex(1));
+        assertEquals(3, plan.getColumnIndex(2));
+        assertEquals(0, plan.getColumnIndex(3)); // unresolved
+        assertEquals("index:1", plan.getValue(rs, 0));
+        assertEquals("index:2", plan.getValue(rs, 1));
+        assertEquals("index:3", plan.getValue(rs, 2));
+        assertEquals("name:MEMBERSTATUSCODE", plan.getValue(rs, 3));
+        assertEquals("memberName", plan.getMapping(1).getPropertyName());
+        assertSame(propertyCache, plan.getPropertyCache());
+        assertSame(selectColumnMap, plan.getSelectColumnMap());
+    }
+
+    public void test_isSameShape() {
+        // ## Arrange ##
+        String[] columnLabels = new String[] { "MEMBER_ID", "MEMBER_NAME" };
+        Map<String, TnPropertyMapping> propertyCache = StringKeyMap.createAsCaseInsensitive();
+        Map<String, String> selectColumnMap = StringKeyMap.createAsFlexible();
+        TnRowMappingPlan plan = new TnRowMappingPlan(columnLabels, selectColumnMap, propertyCache);
+
+        // ## Act & Assert ##
+        assertTrue(plan.isSameShape(new String[] { "MEMBER_ID", "MEMBER_NAME" }));
+        assertFalse(plan.isSameShape(new String[] { "MEMBER_NAME", "MEMBER_ID" }));
+        assertFalse(plan.isSameShape(new String[] { "MEMBER_ID" }));
+    }
+
+    protected static class MockPropertyMapping implements TnPropertyMapping {
+
+        protected final String _propertyName;
+
+        public MockPropertyMapping(String propertyName) {
+            _propertyName = propertyName;
+        }
+
+        public DfPropertyAccessor getPropertyAccessor() {
+            return null;
+        }
+
+        public ValueType getValueType() {
+            return new MockValueType() {
+                @Override
+                public Object getValue(ResultSet resultSet, int index) throws SQLException {
+                    return "index:" + index;
+                }
+
+                @Override
+                public Object getValue(ResultSet resultSet, String columnName) throws SQLException {
+                    return "name:" + columnName;
+                }
+            };
+        }
+
+        public String getPropertyName() {
+            return _propertyName;
+        }
+
+        public String getColumnDbName() {
+            return null;
+        }
+
+        public ColumnSqlName getColumnSqlName() {
+            return null;
+        }
+
+        public ColumnInfo getEntityColumnInfo() {
+            return null;
+        }
+    }
+}
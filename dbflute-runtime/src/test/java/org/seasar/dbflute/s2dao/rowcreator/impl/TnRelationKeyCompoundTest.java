@@ -0,0 +1,61 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.rowcreator.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/12 Saturday)
+ */
+public class TnRelationKeyCompoundTest extends PlainTestCase {
+
+    public void test_equals_sharedLabels() {
+        // ## Arrange ##
+        String[] labels = new String[] { "MEMBER_ID_0", "PURCHASE_NO_0" };
+        TnRelationKeyCompound first = new TnRelationKeyCompound(labels, new Object[] { 3, "A" });
+        TnRelationKeyCompound second = new TnRelationKeyCompound(labels, new Object[] { 3, "A" });
+        TnRelationKeyCompound third = new TnRelationKeyCompound(labels, new Object[] { 3, "B" });
+
+        // ## Act & Assert ##
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertFalse(first.equals(third));
+        assertTrue(first.containsColumn("PURCHASE_NO_0"));
+        assertFalse(first.containsColumn("PURCHASE_NO"));
+        assertEquals("A", first.extractKeyValue("PURCHASE_NO_0"));
+        assertNull(first.extractKeyValue("PURCHASE_NO"));
+    }
+
+    public void test_equals_mapBased() {
+        // ## Arrange ##
+        Map<String, Object> reverseMap = new LinkedHashMap<String, Object>();
+        reverseMap.put("PURCHASE_NO_0", "A");
+        reverseMap.put("MEMBER_ID_0", 3);
+        String[] labels = new String[] { "MEMBER_ID_0", "PURCHASE_NO_0" };
+        TnRelationKeyCompound arrayKey = new TnRelationKeyCompound(labels, new Object[] { 3, "A" });
+        TnRelationKeyCompound mapKey = new TnRelationKeyCompound(reverseMap);
+
+        // ## Act & Assert ##
+        assertEquals(arrayKey, mapKey);
+        assertEquals(mapKey, arrayKey);
+        assertEquals(arrayKey.hashCode(), mapKey.hashCode());
+        assertEquals(reverseMap, mapKey.getRelKeyValues());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlcommand;
+
+import org.seasar.dbflute.bhv.InsertOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class TnBatchInsertDynamicCommandTest extends PlainTestCase {
+
+    public void test_deriveMultipleRowSize_specified() throws Exception {
+        // ## Arrange ##
+        TnBatchInsertDynamicCommand target = createTarget();
+        InsertOption<ConditionBean> option = new InsertOption<ConditionBean>();
+        option.useMultipleRowBatchInsert(100);
+
+        // ## Act & Assert ##
+        assertEquals(100, target.deriveMultipleRowSize(new TnPropertyType[3], option));
+        assertEquals(0, target.deriveMultipleRowSize(new TnPropertyType[3], new InsertOption<ConditionBean>()));
+        assertEquals(0, target.deriveMultipleRowSize(new TnPropertyType[3], null));
+    }
+
+    public void test_deriveMultipleRowSize_bindParameterLimit() throws Exception {
+        // ## Arrange ##
+        TnBatchInsertDynamicCommand target = createTarget();
+        InsertOption<ConditionBean> option = new InsertOption<ConditionBean>();
+        option.useMultipleRowBatchInsert(5000);
+
+        // ## Act & Assert ##
+        assertEquals(200, target.deriveMultipleRowSize(new TnPropertyType[10], option));
+    }
+
+    public void test_deriveMultipleRowSize_rowValuesLimit() throws Exception {
+        // ## Arrange ##
+        TnBatchInsertDynamicCommand target = createTarget();
+        InsertOption<ConditionBean> option = new InsertOption<ConditionBean>();
+        option.useMultipleRowBatchInsert(5000);
+
+        // ## Act & Assert ##
+        assertEquals(1000, target.deriveMultipleRowSize(new TnPropertyType[1], option));
+        assertEquals(1000, target.deriveMultipleRowSize(new TnPropertyType[2], option));
+        assertEquals(666, target.deriveMultipleRowSize(new TnPropertyType[3], option));
+    }
+
+    protected TnBatchInsertDynamicCommand createTarget() {
+        return new TnBatchInsertDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected boolean isMultipleRowInsertSupported() {
+                return true;
+            }
+        };
+    }
+}
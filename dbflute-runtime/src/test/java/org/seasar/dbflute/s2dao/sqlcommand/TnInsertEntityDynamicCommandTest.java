@@ -0,0 +1,158 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlcommand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.seasar.dbflute.bhv.InsertOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.helper.beans.DfBeanDesc;
+import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.s2dao.metadata.TnBeanMetaData;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
+import org.seasar.dbflute.s2dao.metadata.impl.TnPropertyTypeImpl;
+import org.seasar.dbflute.s2dao.sqlcommand.TnAbstractEntityDynamicCommand.SqlShape;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class TnInsertEntityDynamicCommandTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                     SQL Shape Cache
+    //                                                                     ===============
+    public void test_prepareInsertSqlShape_cached() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnInsertEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType idType = createPropertyType("memberId");
+        TnPropertyType nameType = createPropertyType("memberName");
+
+        // ## Act ##
+        SqlShape first = target.prepareInsertSqlShape(null, new TnPropertyType[] { idType, nameType }, null);
+        SqlShape again = target.prepareInsertSqlShape(null, new TnPropertyType[] { idType, nameType }, null);
+        SqlShape second = target.prepareInsertSqlShape(null, new TnPropertyType[] { nameType }, null);
+
+        // ## Assert ##
+        log(builtList);
+        assertSame(first, again);
+        assertNotSame(first, second);
+        assertEquals(2, builtList.size());
+        assertEquals(2, target.getSqlShapeCacheSize());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+        assertEquals(2L, target.getSqlShapeCacheMissCount());
+    }
+
+    public void test_prepareInsertSqlShape_sameNameOtherType() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnInsertEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType[] types = new TnPropertyType[] { createPropertyType("memberName") };
+        TnPropertyType[] otherTypes = new TnPropertyType[] { createPropertyType("memberName") };
+
+        // ## Act ##
+        SqlShape first = target.prepareInsertSqlShape(null, types, null);
+        SqlShape other = target.prepareInsertSqlShape(null, otherTypes, null);
+
+        // ## Assert ##
+        assertNotSame(first, other);
+        assertSame(otherTypes, other.getPropertyTypes());
+        assertEquals(2, builtList.size());
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    public void test_execute_overriddenPropertyTypes() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        final TnPropertyType[] overriddenTypes = new TnPropertyType[] { createPropertyType("memberName") };
+        final List<TnPropertyType[]> executedList = new ArrayList<TnPropertyType[]>();
+        final List<String> executedSqlList = new ArrayList<String>();
+        TnInsertEntityDynamicCommand target = new TnInsertEntityDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected TnPropertyType[] createInsertPropertyTypes(TnBeanMetaData bmd, Object bean,
+                    String[] propertyNames, InsertOption<ConditionBean> option) {
+                return overriddenTypes;
+            }
+
+            @Override
+            protected String createInsertSql(TnBeanMetaData bmd, TnPropertyType[] propertyTypes,
+                    InsertOption<ConditionBean> option) {
+                String sql = "insert into MEMBER (" + propertyTypes[0].getColumnDbName() + ") ...";
+                builtList.add(sql);
+                return sql;
+            }
+
+            @Override
+            protected Object doExecute(Object bean, TnPropertyType[] propertyTypes, String sql,
+                    InsertOption<ConditionBean> option) {
+                executedList.add(propertyTypes);
+                executedSqlList.add(sql);
+                return Integer.valueOf(1);
+            }
+        };
+
+        // ## Act ##
+        target.execute(new Object[] { new MockEntity() });
+        target.execute(new Object[] { new MockEntity() });
+
+        // ## Assert ##
+        log(executedSqlList);
+        assertEquals(2, executedList.size());
+        assertSame(overriddenTypes, executedList.get(0));
+        assertSame(overriddenTypes, executedList.get(1));
+        assertEquals("insert into MEMBER (memberName) ...", executedSqlList.get(1));
+        assertEquals(1, builtList.size());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected TnInsertEntityDynamicCommand createTarget(final List<String> builtList) {
+        TnInsertEntityDynamicCommand target = new TnInsertEntityDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected String createInsertSql(TnBeanMetaData bmd, TnPropertyType[] propertyTypes,
+                    InsertOption<ConditionBean> option) {
+                String sql = "insert into MEMBER ... /* " + builtList.size() + " */";
+                builtList.add(sql);
+                return sql;
+            }
+        };
+        target.setPropertyNames(new String[] { "memberId", "memberName" });
+        return target;
+    }
+
+    protected TnPropertyType createPropertyType(String propertyName) {
+        DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(MockEntity.class);
+        return new TnPropertyTypeImpl(beanDesc.getPropertyDesc(propertyName));
+    }
+}
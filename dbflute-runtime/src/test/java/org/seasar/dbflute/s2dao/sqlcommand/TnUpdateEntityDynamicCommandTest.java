@@ -0,0 +1,266 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlcommand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.seasar.dbflute.bhv.UpdateOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.helper.beans.DfBeanDesc;
+import org.seasar.dbflute.helper.beans.factory.DfBeanDescFactory;
+import org.seasar.dbflute.mock.MockEntity;
+import org.seasar.dbflute.s2dao.metadata.TnPropertyType;
+import org.seasar.dbflute.s2dao.metadata.impl.TnPropertyTypeImpl;
+import org.seasar.dbflute.s2dao.sqlcommand.TnAbstractEntityDynamicCommand.SqlShape;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/11 Friday)
+ */
+public class TnUpdateEntityDynamicCommandTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                     SQL Shape Cache
+    //                                                                     ===============
+    public void test_prepareUpdateSqlShape_cached() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnUpdateEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType idType = createPropertyType("memberId");
+        TnPropertyType nameType = createPropertyType("memberName");
+
+        // ## Act ##
+        SqlShape first = target.prepareUpdateSqlShape(new MockEntity(), new TnPropertyType[] { idType }, null);
+        SqlShape again = target.prepareUpdateSqlShape(new MockEntity(), new TnPropertyType[] { idType }, null);
+        SqlShape second = target.prepareUpdateSqlShape(new MockEntity(), new TnPropertyType[] { nameType }, null);
+
+        // ## Assert ##
+        log(builtList);
+        assertSame(first, again);
+        assertNotSame(first, second);
+        assertEquals(2, builtList.size());
+        assertEquals(2, target.getSqlShapeCacheSize());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+        assertEquals(2L, target.getSqlShapeCacheMissCount());
+    }
+
+    public void test_prepareUpdateSqlShape_sameNameOtherType() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnUpdateEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType[] types = new TnPropertyType[] { createPropertyType("memberName") };
+        TnPropertyType[] otherTypes = new TnPropertyType[] { createPropertyType("memberName") };
+
+        // ## Act ##
+        SqlShape first = target.prepareUpdateSqlShape(new MockEntity(), types, null);
+        SqlShape other = target.prepareUpdateSqlShape(new MockEntity(), otherTypes, null);
+
+        // ## Assert ##
+        assertNotSame(first, other);
+        assertSame(otherTypes, other.getPropertyTypes());
+        assertEquals(2, builtList.size());
+    }
+
+    public void test_prepareUpdateSqlShape_statement() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnUpdateEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType[] types = new TnPropertyType[] { createPropertyType("memberName") };
+
+        // ## Act ##
+        SqlShape plain = target.prepareUpdateSqlShape(new MockEntity(), types, null);
+        SqlShape plus = target.prepareUpdateSqlShape(new MockEntity(), types, createStatementOption("+ 1"));
+        SqlShape plusAgain = target.prepareUpdateSqlShape(new MockEntity(), types, createStatementOption("+ 1"));
+        SqlShape minus = target.prepareUpdateSqlShape(new MockEntity(), types, createStatementOption("- 1"));
+
+        // ## Assert ##
+        log(builtList);
+        assertNotSame(plain, plus);
+        assertSame(plus, plusAgain);
+        assertNotSame(plus, minus);
+        assertEquals(3, builtList.size());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+    }
+
+    public void test_prepareUpdateSqlShape_uniqueDriven() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnUpdateEntityDynamicCommand target = createTarget(builtList);
+        TnPropertyType[] types = new TnPropertyType[] { createPropertyType("memberName") };
+        Set<String> uniqueSet = new HashSet<String>();
+        uniqueSet.add("memberAccount");
+        MockEntity uniqueDriven = createUniqueDrivenEntity(uniqueSet);
+
+        // ## Act ##
+        SqlShape primary = target.prepareUpdateSqlShape(new MockEntity(), types, null);
+        SqlShape unique = target.prepareUpdateSqlShape(uniqueDriven, types, null);
+        uniqueSet.add("memberBirthdate"); // changed after registration
+        SqlShape changed = target.prepareUpdateSqlShape(uniqueDriven, types, null);
+        SqlShape uniqueAgain = target.prepareUpdateSqlShape(
+                createUniqueDrivenEntity(Collections.singleton("memberAccount")), types, null);
+
+        // ## Assert ##
+        log(builtList);
+        assertNotSame(primary, unique);
+        assertNotSame(unique, changed);
+        assertSame(unique, uniqueAgain);
+        assertEquals(3, builtList.size());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    public void test_execute_overriddenPropertyTypes() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        final TnPropertyType[] overriddenTypes = new TnPropertyType[] { createPropertyType("memberName") };
+        final List<TnPropertyType[]> executedList = new ArrayList<TnPropertyType[]>();
+        TnUpdateEntityDynamicCommand target = new TnUpdateEntityDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected TnPropertyType[] createUpdatePropertyTypes(Object bean, UpdateOption<ConditionBean> option) {
+                return overriddenTypes;
+            }
+
+            @Override
+            protected String createUpdateSql(Object bean, TnPropertyType[] propertyTypes,
+                    UpdateOption<ConditionBean> option) {
+                String sql = "update MEMBER set ... /* " + builtList.size() + " */";
+                builtList.add(sql);
+                return sql;
+            }
+
+            @Override
+            protected Object doExecute(Object bean, TnPropertyType[] propertyTypes, String sql,
+                    UpdateOption<ConditionBean> option) {
+                executedList.add(propertyTypes);
+                return Integer.valueOf(1);
+            }
+        };
+
+        // ## Act ##
+        target.execute(new Object[] { new MockEntity() });
+        target.execute(new Object[] { new MockEntity() });
+
+        // ## Assert ##
+        assertEquals(2, executedList.size());
+        assertSame(overriddenTypes, executedList.get(0));
+        assertSame(overriddenTypes, executedList.get(1));
+        assertEquals(1, builtList.size());
+        assertEquals(1L, target.getSqlShapeCacheHitCount());
+    }
+
+    public void test_execute_noUpdateByOverriddenPropertyTypes() throws Exception {
+        // ## Arrange ##
+        final List<String> builtList = new ArrayList<String>();
+        TnUpdateEntityDynamicCommand target = new TnUpdateEntityDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected TnPropertyType[] createUpdatePropertyTypes(Object bean, UpdateOption<ConditionBean> option) {
+                return new TnPropertyType[0];
+            }
+
+            @Override
+            protected String createUpdateSql(Object bean, TnPropertyType[] propertyTypes,
+                    UpdateOption<ConditionBean> option) {
+                builtList.add("update");
+                return "update";
+            }
+
+            @Override
+            protected String createNonUpdateLogMessage(Object bean) {
+                return "...Skipping update because of non-modification: " + bean;
+            }
+        };
+
+        // ## Act ##
+        Object result = target.execute(new Object[] { new MockEntity() });
+
+        // ## Assert ##
+        assertEquals(Integer.valueOf(1), result);
+        assertTrue(builtList.isEmpty());
+        assertEquals(0, target.getSqlShapeCacheSize());
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected TnUpdateEntityDynamicCommand createTarget(final List<String> builtList) {
+        TnUpdateEntityDynamicCommand target = new TnUpdateEntityDynamicCommand(null, null) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected String createUpdateSql(Object bean, TnPropertyType[] propertyTypes,
+                    UpdateOption<ConditionBean> option) {
+                String sql = "update MEMBER set ... /* " + builtList.size() + " */";
+                builtList.add(sql);
+                return sql;
+            }
+        };
+        target.setPropertyNames(new String[] { "memberId", "memberName" });
+        return target;
+    }
+
+    protected TnPropertyType createPropertyType(String propertyName) {
+        DfBeanDesc beanDesc = DfBeanDescFactory.getBeanDesc(MockEntity.class);
+        return new TnPropertyTypeImpl(beanDesc.getPropertyDesc(propertyName));
+    }
+
+    protected UpdateOption<ConditionBean> createStatementOption(final String statement) {
+        return new UpdateOption<ConditionBean>() {
+            @Override
+            public boolean hasSelfSpecification() {
+                return true;
+            }
+
+            @Override
+            public boolean hasStatement(String columnDbName) {
+                return true;
+            }
+
+            @Override
+            public String buildStatement(String columnDbName) {
+                return columnDbName + " " + statement;
+            }
+        };
+    }
+
+    protected MockEntity createUniqueDrivenEntity(final Set<String> uniqueSet) {
+        return new MockEntity() {
+            @Override
+            public Set<String> myuniqueDrivenProperties() {
+                return uniqueSet;
+            }
+        };
+    }
+}
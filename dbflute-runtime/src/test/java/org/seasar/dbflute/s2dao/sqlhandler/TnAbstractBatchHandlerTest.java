@@ -0,0 +1,183 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlhandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.seasar.dbflute.DBDef;
+import org.seasar.dbflute.bhv.UpdateOption;
+import org.seasar.dbflute.cbean.ConditionBean;
+import org.seasar.dbflute.exception.BatchEntityAlreadyUpdatedException;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/04 Friday)
+ */
+public class TnAbstractBatchHandlerTest extends PlainTestCase {
+
+    public void test_executeBatchChunked_chunkSize() {
+        // ## Arrange ##
+        MockBatchHandler handler = new MockBatchHandler(3, null);
+        List<String> beanList = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+
+        // ## Act ##
+        List<Object> executedBeanList = new ArrayList<Object>();
+        int[] result = handler.executeBatchChunked(null, null, beanList.iterator(), executedBeanList);
+
+        // ## Assert ##
+        log(handler._executedChunkList);
+        assertEquals(beanList, executedBeanList);
+        assertEquals(7, result.length);
+        assertEquals(3, handler._executedChunkList.size());
+        assertEquals(Arrays.asList("a", "b", "c"), handler._executedChunkList.get(0));
+        assertEquals(Arrays.asList("d", "e", "f"), handler._executedChunkList.get(1));
+        assertEquals(Arrays.asList("g"), handler._executedChunkList.get(2));
+        assertEquals(beanList, handler._preparedList);
+    }
+
+    public void test_executeBatchChunked_noChunk() {
+        // ## Arrange ##
+        MockBatchHandler handler = new MockBatchHandler(null, null);
+        List<String> beanList = Arrays.asList("a", "b", "c", "d");
+
+        // ## Act ##
+        int[] result = handler.executeBatchChunked(null, null, beanList.iterator(), new ArrayList<Object>());
+
+        // ## Assert ##
+        assertEquals(4, result.length);
+        assertEquals(1, handler._executedChunkList.size());
+        assertEquals(beanList, handler._executedChunkList.get(0));
+    }
+
+    public void test_executeBatchChunked_alreadyUpdated_totalCount() {
+        // ## Arrange ##
+        MockBatchHandler handler = new MockBatchHandler(2, "d");
+        handler.setOptimisticLockHandling(true);
+        List<String> beanList = Arrays.asList("a", "b", "c", "d", "e");
+
+        // ## Act ##
+        try {
+            handler.executeBatchChunked(null, null, beanList.iterator(), new ArrayList<Object>());
+            // ## Assert ##
+            fail();
+        } catch (BatchEntityAlreadyUpdatedException e) {
+            log(e.getMessage());
+            assertEquals(Integer.valueOf(3), e.getBatchUpdateCount()); // a, b and c
+            assertEquals(2, handler._executedChunkList.size());
+        }
+    }
+
+    public void test_executeBatch_oneShotIterable() {
+        // ## Arrange ##
+        MockBatchHandler handler = new MockBatchHandler(2, null);
+        final List<String> beanList = Arrays.asList("a", "b", "c");
+        Iterable<String> oneShot = new Iterable<String>() {
+            private boolean _iterated;
+
+            public Iterator<String> iterator() {
+                if (_iterated) {
+                    throw new IllegalStateException("Already iterated.");
+                }
+                _iterated = true;
+                return beanList.iterator();
+            }
+        };
+
+        // ## Act ##
+        int[] result = handler.executeBatch(oneShot);
+
+        // ## Assert ##
+        assertEquals(3, result.length);
+        assertEquals(2, handler._executedChunkList.size());
+        assertEquals(beanList, handler._succeededList);
+    }
+
+    protected static class MockBatchHandler extends TnBatchUpdateHandler {
+
+        protected final String _notUpdatedBean;
+        protected final List<Object> _preparedList = new ArrayList<Object>();
+        protected final List<List<Object>> _executedChunkList = new ArrayList<List<Object>>();
+        protected final List<Object> _succeededList = new ArrayList<Object>();
+
+        public MockBatchHandler(Integer chunkSize, String notUpdatedBean) {
+            super(null, null, null, null, null);
+            final UpdateOption<ConditionBean> option = new UpdateOption<ConditionBean>();
+            option.chunkBatchUpdate(chunkSize);
+            setUpdateOption(option);
+            _notUpdatedBean = notUpdatedBean;
+        }
+
+        @Override
+        protected void assertObjectNotNull(String variableName, Object value) {
+            // for no check of constructor
+        }
+
+        @Override
+        protected void prepareBatchElement(Connection conn, PreparedStatement ps, Object bean) {
+            _preparedList.add(bean);
+        }
+
+        @Override
+        protected String handleBatchLogging() {
+            return null;
+        }
+
+        @Override
+        protected int[] executeBatch(PreparedStatement ps, List<?> list) {
+            _executedChunkList.add(new ArrayList<Object>(list));
+            final int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = list.get(i).equals(_notUpdatedBean) ? 0 : 1;
+            }
+            return result;
+        }
+
+        @Override
+        protected Connection getConnection() {
+            return null;
+        }
+
+        @Override
+        protected PreparedStatement prepareStatement(Connection conn) {
+            return null;
+        }
+
+        @Override
+        protected void close(Statement st) {
+        }
+
+        @Override
+        protected void close(Connection conn) {
+        }
+
+        @Override
+        protected void processBatchSuccess(Object bean, int index) {
+            _succeededList.add(bean);
+        }
+
+        @Override
+        protected boolean isCurrentDBDef(DBDef currentDBDef) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.s2dao.sqlhandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.seasar.dbflute.jdbc.ValueType;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/07 Monday)
+ */
+public class TnBatchInsertMultipleRowHandlerTest extends PlainTestCase {
+
+    public void test_prepareBatchElement_groupBound() {
+        // ## Arrange ##
+        final List<Object[]> boundList = new ArrayList<Object[]>();
+        TnBatchInsertMultipleRowHandler handler = new TnBatchInsertMultipleRowHandler(null, null, null, null, null, 3) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+
+            @Override
+            protected void setupInsertBindVariables(Object bean) {
+                _bindVariables = new Object[] { bean + ":id", bean + ":name" };
+                _bindVariableValueTypes = new ValueType[2];
+            }
+
+            @Override
+            protected void logSql(Object[] args, Class<?>[] argTypes) {
+            }
+
+            @Override
+            protected void bindArgs(Connection conn, PreparedStatement ps, Object[] args, ValueType[] valueTypes) {
+                boundList.add(args);
+            }
+
+            @Override
+            protected void addBatch(PreparedStatement ps) {
+            }
+        };
+
+        // ## Act ##
+        handler.prepareBatchElement(null, null, Arrays.asList("a", "b", "c"));
+
+        // ## Assert ##
+        assertEquals(1, boundList.size());
+        Object[] args = boundList.get(0);
+        log(Arrays.asList(args));
+        assertEquals(6, args.length);
+        assertEquals("a:id", args[0]);
+        assertEquals("b:name", args[3]);
+        assertEquals("c:name", args[5]);
+    }
+
+    public void test_expandGroupResult() {
+        // ## Arrange ##
+        TnBatchInsertMultipleRowHandler handler = new TnBatchInsertMultipleRowHandler(null, null, null, null, null, 2) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+        };
+
+        // ## Act ##
+        int[] result = handler.expandGroupResult(new int[] { 2, Statement.SUCCESS_NO_INFO });
+
+        // ## Assert ##
+        assertEquals(4, result.length);
+        assertEquals(1, result[0]);
+        assertEquals(1, result[1]);
+        assertEquals(Statement.SUCCESS_NO_INFO, result[2]);
+        assertEquals(Statement.SUCCESS_NO_INFO, result[3]);
+    }
+
+    public void test_expandGroupResult_actualCount() {
+        // ## Arrange ##
+        TnBatchInsertMultipleRowHandler handler = new TnBatchInsertMultipleRowHandler(null, null, null, null, null, 3) {
+            @Override
+            protected void assertObjectNotNull(String variableName, Object value) {
+                // for no check of constructor
+            }
+        };
+
+        // ## Act ##
+        int[] result = handler.expandGroupResult(new int[] { 2, 0, 4, Statement.EXECUTE_FAILED });
+
+        // ## Assert ##
+        assertEquals(12, result.length);
+        assertEquals(1, result[0]);
+        assertEquals(1, result[1]);
+        assertEquals(0, result[2]);
+        assertEquals(0, result[3]);
+        assertEquals(0, result[4]);
+        assertEquals(0, result[5]);
+        assertEquals(1, result[6]);
+        assertEquals(1, result[7]);
+        assertEquals(2, result[8]);
+        assertEquals(Statement.EXECUTE_FAILED, result[9]);
+        assertEquals(Statement.EXECUTE_FAILED, result[10]);
+        assertEquals(Statement.EXECUTE_FAILED, result[11]);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.twowaysql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.seasar.dbflute.twowaysql.TwoWaySqlNodeCache.TwoWaySqlNodeAnalyzer;
+import org.seasar.dbflute.twowaysql.node.Node;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/01 Tuesday)
+ */
+public class TwoWaySqlNodeCacheTest extends PlainTestCase {
+
+    public void test_findOrAnalyze_hit() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache();
+        MockAnalyzer analyzer = new MockAnalyzer();
+        String sql = "select * from MEMBER where MEMBER_ID = /*pmb.memberId*/3";
+
+        // ## Act ##
+        Node first = cache.findOrAnalyze(sql, analyzer);
+        Node second = cache.findOrAnalyze(sql, analyzer);
+
+        // ## Assert ##
+        assertSame(first, second);
+        assertEquals(1, analyzer.getAnalyzedList().size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(1, cache.getCachedSize());
+    }
+
+    public void test_findOrAnalyze_eviction() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache(2);
+        MockAnalyzer analyzer = new MockAnalyzer();
+
+        // ## Act ##
+        cache.findOrAnalyze("select 1", analyzer);
+        cache.findOrAnalyze("select 2", analyzer);
+        cache.findOrAnalyze("select 3", analyzer);
+        cache.findOrAnalyze("select 1", analyzer); // evicted so analyzed again
+
+        // ## Assert ##
+        log(cache);
+        assertEquals(2, cache.getCachedSize());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(4, analyzer.getAnalyzedList().size());
+    }
+
+    public void test_findOrAnalyze_noCache() {
+        // ## Arrange ##
+        TwoWaySqlNodeCache cache = new TwoWaySqlNodeCache(0);
+        MockAnalyzer analyzer = new MockAnalyzer();
+
+        // ## Act ##
+        cache.findOrAnalyze("select 1", analyzer);
+        cache.findOrAnalyze("select 1", analyzer);
+
+        // ## Assert ##
+        assertEquals(0, cache.getCachedSize());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, analyzer.getAnalyzedList().size());
+    }
+
+    protected static class MockAnalyzer implements TwoWaySqlNodeAnalyzer {
+
+        protected final List<String> _analyzedList = new ArrayList<String>();
+
+        public Node analyze(String twoWaySql) {
+            _analyzedList.add(twoWaySql);
+            return new SqlAnalyzer(twoWaySql, false).analyze();
+        }
+
+        public List<String> getAnalyzedList() {
+            return _analyzedList;
+        }
+    }
+}
@@ -949,6 +949,96 @@ public class IfCommentEvaluatorTest extends PlainTestCase {
         }
     }
 
+    // ===================================================================================
+    //                                                                 Compiled Expression
+    //                                                                 ===================
+    public void test_evaluate_compiled_sameAsPlain() {
+        // ## Arrange ##
+        BasePmb pmb = new BasePmb();
+        pmb.setMemberId(3);
+        pmb.setMemberName("foo");
+        pmb.setBirthdate(DfTypeUtil.toDate("2009/12/24 12:34:56"));
+        pmb.setExistsPurchase(true);
+        NextPmb nextPmb = new NextPmb();
+        nextPmb.setDisplayOrder(7);
+        nextPmb.setExistsLogin(false);
+        pmb.setNextPmb(nextPmb);
+        pmb.putMapPmb("fooKey", 3);
+        List<NextPmb> ls = new ArrayList<NextPmb>();
+        ls.add(nextPmb);
+        pmb.setListPmb(ls);
+        String[] expressions = { "pmb.memberId != null", "pmb.memberName == 'foo'", "pmb.memberName == null",
+                "pmb.memberId == 3 && pmb.memberName != null", "pmb.memberId == 4 || pmb.memberName == 'foo'",
+                "pmb.memberId > 2", "pmb.memberId < 2", "pmb.memberId >= 3", "pmb.memberId <= 2",
+                "pmb.memberId < pmb.nextPmb.displayOrder", "pmb.birthdate > date '2009/12/23'",
+                "date '2009/12/25' > pmb.birthdate", "pmb.existsPurchase", "!pmb.existsPurchase",
+                "pmb.nextPmb.existsLogin", "!pmb.nextPmb.existsLogin", "pmb.mapPmb.fooKey > 2",
+                "pmb.mapPmb.barKey == null", "pmb.listPmb.get(0).displayOrder == 7", "true", "!true",
+                "pmb.nextPmb.displayOrder == null || pmb.nextPmb.displayOrder >= 7" };
+
+        // ## Act && Assert ##
+        for (String expression : expressions) {
+            IfCommentCompiledExpression compiled = IfCommentCompiledExpression.compile(expression);
+            assertNotNull(compiled);
+            boolean expected = createEvaluator(pmb, expression).evaluate();
+            log(expression + " = " + expected);
+            assertEquals(expected, createCompiledEvaluator(pmb, expression, compiled).evaluate());
+            assertEquals(expected, createCompiledEvaluator(pmb, expression, compiled).evaluate()); // cached
+        }
+    }
+
+    public void test_evaluate_compiled_differentType() {
+        // ## Arrange ##
+        String expression = "pmb.memberId == 3";
+        IfCommentCompiledExpression compiled = IfCommentCompiledExpression.compile(expression);
+        BasePmb pmb = new BasePmb();
+        pmb.setMemberId(3);
+        SimpleMapPmb<Integer> mapPmb = new SimpleMapPmb<Integer>();
+        mapPmb.addParameter("memberId", 4);
+
+        // ## Act && Assert ##
+        assertTrue(createCompiledEvaluator(pmb, expression, compiled).evaluate());
+        assertFalse(createCompiledEvaluator(mapPmb, expression, compiled).evaluate());
+        assertTrue(createCompiledEvaluator(pmb, expression, compiled).evaluate());
+    }
+
+    public void test_evaluate_compiled_exception() {
+        // ## Arrange ##
+        BasePmb pmb = new BasePmb();
+        String expression = "pmb.nextPmb.existsLogin";
+        IfCommentCompiledExpression compiled = IfCommentCompiledExpression.compile(expression);
+
+        // ## Act ##
+        try {
+            createCompiledEvaluator(pmb, expression, compiled).evaluate();
+
+            // ## Assert ##
+            fail();
+        } catch (IfCommentNullPointerException e) {
+            // OK
+            log(e.getMessage());
+        }
+        expression = "pmb.memberName.foo()";
+        compiled = IfCommentCompiledExpression.compile(expression);
+        pmb.setMemberName("foo");
+        try {
+            createCompiledEvaluator(pmb, expression, compiled).evaluate();
+            fail();
+        } catch (IfCommentNotFoundMethodException e) {
+            // OK
+            log(e.getMessage());
+        }
+    }
+
+    public void test_compile_invalid() {
+        // ## Arrange & Act && Assert ##
+        assertNull(IfCommentCompiledExpression.compile(null));
+        assertNull(IfCommentCompiledExpression.compile(" "));
+        assertNull(IfCommentCompiledExpression.compile("pmb.memberId = 3"));
+        assertNull(IfCommentCompiledExpression.compile("pmb.foo(3)"));
+        assertNull(IfCommentCompiledExpression.compile("pmb.foo != null && pmb.bar != null || pmb.qux != null"));
+    }
+
     // ===================================================================================
     //                                                                         Test Helper
     //                                                                         ===========
@@ -960,6 +1050,15 @@ public class IfCommentEvaluatorTest extends PlainTestCase {
         }, expression, "select foo from bar", null);
     }
 
+    protected IfCommentEvaluator createCompiledEvaluator(final Object pmb, String expression,
+            IfCommentCompiledExpression compiled) {
+        return new IfCommentEvaluator(new ParameterFinder() {
+            public Object find(String name) {
+                return pmb;
+            }
+        }, expression, "select foo from bar", null, compiled);
+    }
+
     protected static class BasePmb implements ParameterBean {
         private Integer _memberId;
         private String _memberName;
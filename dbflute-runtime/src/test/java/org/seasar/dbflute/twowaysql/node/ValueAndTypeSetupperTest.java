@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.twowaysql.node;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -377,6 +378,57 @@ public class ValueAndTypeSetupperTest extends PlainTestCase {
         assertNull(valueAndType.getLikeSearchOption());
     }
 
+    // ===================================================================================
+    //                                                                       Compiled Path
+    //                                                                       =============
+    public void test_setupValueAndType_compiled_nest_likeSearch() {
+        // ## Arrange ##
+        String expression = "pmb.nestLikePmb.memberName";
+        ValueAndTypeCompiledPath compiledPath = new ValueAndTypeCompiledPath(Srl.splitList(expression, "."));
+        MockPmb nestLikePmb = new MockPmb();
+        nestLikePmb.setMemberName("f|o%o");
+        nestLikePmb.setMemberNameInternalLikeSearchOption(new LikeSearchOption().likeContain());
+        MockPmb pmb = new MockPmb();
+        pmb.setNestLikePmb(nestLikePmb);
+        pmb.setNestLikePmbInternalLikeSearchOption(new LikeSearchOption().likePrefix());
+
+        // ## Act && Assert ##
+        for (int i = 0; i < 2; i++) { // second time uses cached accessors
+            ValueAndType valueAndType = createTargetAndType(pmb);
+            createCompiledTargetAsBind(expression, compiledPath).setupValueAndType(valueAndType);
+            valueAndType.filterValueByOptionIfNeeds();
+            assertEquals("%f||o|%o%", valueAndType.getTargetValue());
+            assertEquals(String.class, valueAndType.getTargetType());
+            assertEquals(" escape '|'", valueAndType.getLikeSearchOption().getRearOption());
+        }
+        assertNotNull(compiledPath.getStep(1).findAccessor(MockPmb.class));
+        assertNotNull(compiledPath.getStep(2).findAccessor(MockPmb.class));
+    }
+
+    public void test_setupValueAndType_compiled_mapAndList() {
+        // ## Arrange ##
+        String expression = "pmb.fooList.get(1)";
+        ValueAndTypeCompiledPath compiledPath = new ValueAndTypeCompiledPath(Srl.splitList(expression, "."));
+        Map<String, Object> pmb = new HashMap<String, Object>();
+        pmb.put("fooList", DfCollectionUtil.newArrayList("foo", "bar"));
+
+        // ## Act && Assert ##
+        for (int i = 0; i < 2; i++) {
+            ValueAndType valueAndType = createTargetAndType(pmb);
+            createCompiledTargetAsBind(expression, compiledPath).setupValueAndType(valueAndType);
+            assertEquals("bar", valueAndType.getTargetValue());
+            assertEquals(String.class, valueAndType.getTargetType());
+        }
+        pmb.put("fooList", DfCollectionUtil.newArrayList("foo"));
+        try {
+            createCompiledTargetAsBind(expression, compiledPath).setupValueAndType(createTargetAndType(pmb));
+            fail();
+        } catch (BindVariableCommentListIndexOutOfBoundsException e) {
+            // OK
+            log(e.getMessage());
+        }
+    }
+
     // ===================================================================================
     //                                                                         Test Helper
     //                                                                         ===========
@@ -385,6 +437,12 @@ public class ValueAndTypeSetupperTest extends PlainTestCase {
         return new ValueAndTypeSetupper(Srl.splitList(expression, "."), expression, "select * from ...", type);
     }
 
+    protected ValueAndTypeSetupper createCompiledTargetAsBind(String expression, ValueAndTypeCompiledPath compiledPath) {
+        CommentType type = CommentType.BIND;
+        List<String> nameList = Srl.splitList(expression, ".");
+        return new ValueAndTypeSetupper(nameList, expression, "select * from ...", type, compiledPath);
+    }
+
     protected ValueAndTypeSetupper createTargetAsForComment(String expression) {
         CommentType type = CommentType.FORCOMMENT;
         return new ValueAndTypeSetupper(Srl.splitList(expression, "."), expression, "select * from ...", type);
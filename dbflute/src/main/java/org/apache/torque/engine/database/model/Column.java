@@ -1077,8 +1077,9 @@ public class Column {
         if (_singleKeyReferrers != null) {
             return _singleKeyReferrers;
         }
-        _singleKeyReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> singleKeyReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _singleKeyReferrers = singleKeyReferrers;
             return _singleKeyReferrers;
         }
         final List<ForeignKey> referrerList = getReferrers();
@@ -1086,8 +1087,9 @@ public class Column {
             if (!referrer.isSimpleKeyFK()) {
                 continue;
             }
-            _singleKeyReferrers.add(referrer);
+            singleKeyReferrers.add(referrer);
         }
+        _singleKeyReferrers = singleKeyReferrers;
         return _singleKeyReferrers;
     }
 
@@ -1097,8 +1099,9 @@ public class Column {
         if (_existsReferrerReferrers != null) {
             return _existsReferrerReferrers;
         }
-        _existsReferrerReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> existsReferrerReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _existsReferrerReferrers = existsReferrerReferrers;
             return _existsReferrerReferrers;
         }
         // compound referrer is handled by other process
@@ -1106,8 +1109,9 @@ public class Column {
             if (!referrer.isExistsReferrerSupported()) {
                 continue;
             }
-            _existsReferrerReferrers.add(referrer);
+            existsReferrerReferrers.add(referrer);
         }
+        _existsReferrerReferrers = existsReferrerReferrers;
         return _existsReferrerReferrers;
     }
 
@@ -1117,8 +1121,9 @@ public class Column {
         if (_inScopeRelationReferrers != null) {
             return _inScopeRelationReferrers;
         }
-        _inScopeRelationReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> inScopeRelationReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _inScopeRelationReferrers = inScopeRelationReferrers;
             return _inScopeRelationReferrers;
         }
         // in-scope relation of compound referrer is unsupported
@@ -1126,8 +1131,9 @@ public class Column {
             if (!referrer.isInScopeRelationAsReferrerSupported()) {
                 continue;
             }
-            _inScopeRelationReferrers.add(referrer);
+            inScopeRelationReferrers.add(referrer);
         }
+        _inScopeRelationReferrers = inScopeRelationReferrers;
         return _inScopeRelationReferrers;
     }
 
@@ -1137,8 +1143,9 @@ public class Column {
         if (_derivedReferrerReferrers != null) {
             return _derivedReferrerReferrers;
         }
-        _derivedReferrerReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> derivedReferrerReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _derivedReferrerReferrers = derivedReferrerReferrers;
             return _derivedReferrerReferrers;
         }
         // compound referrer is handled by other process
@@ -1146,8 +1153,9 @@ public class Column {
             if (!referrer.isDerivedReferrerSupported()) {
                 continue;
             }
-            _derivedReferrerReferrers.add(referrer);
+            derivedReferrerReferrers.add(referrer);
         }
+        _derivedReferrerReferrers = derivedReferrerReferrers;
         return _derivedReferrerReferrers;
     }
 
@@ -1455,13 +1463,14 @@ public class Column {
             return _javaName;
         }
         final String resourceName = (_synonym != null ? _synonym : getName());
+        final String javaName;
         if (needsJavaNameConvert()) {
-            _javaName = getDatabaseChecked().convertJavaNameByJdbcNameAsColumn(resourceName);
+            javaName = getDatabaseChecked().convertJavaNameByJdbcNameAsColumn(resourceName);
         } else {
             // initial-capitalize only
-            _javaName = initCap(resourceName);
+            javaName = initCap(resourceName);
         }
-        _javaName = filterJavaNameNonCompilableConnector(_javaName); // for example, "SPACE EXISTS"
+        _javaName = filterJavaNameNonCompilableConnector(javaName); // for example, "SPACE EXISTS"
         return _javaName;
     }
 
@@ -2478,16 +2487,17 @@ public class Column {
         if (_commonColumn != null) {
             return _commonColumn;
         }
-        _commonColumn = false;
+        boolean commonColumn = false;
         if (getTable().hasAllCommonColumn()) {
             final List<Column> commonColumnList = getTable().getCommonColumnList();
             for (Column column : commonColumnList) {
                 if (column.getName().equalsIgnoreCase(getName())) {
-                    _commonColumn = true;
+                    commonColumn = true;
                     break;
                 }
             }
         }
+        _commonColumn = commonColumn;
         return _commonColumn;
     }
 
@@ -1380,19 +1380,20 @@ public class ForeignKey implements Constraint {
      */
     public boolean isOneToOne() {
         if (_oneToOne == null) {
-            _oneToOne = false;
+            boolean oneToOne = false;
             final List<Column> localColumnList = getLocalColumnList();
             final List<Column> localPrimaryColumnList = getTable().getPrimaryKey();
             if (localColumnList.equals(localPrimaryColumnList)) {
-                _oneToOne = true;
+                oneToOne = true;
             } else {
                 final List<Unique> uniqueList = getTable().getUniqueList();
                 for (final Unique unique : uniqueList) {
                     if (unique.hasSameColumnSet(localColumnList)) {
-                        _oneToOne = true;
+                        oneToOne = true;
                     }
                 }
             }
+            _oneToOne = oneToOne;
         }
         return _oneToOne;
     }
@@ -1462,7 +1462,8 @@ public class Table {
         return resolveReferrerIndex(foreignKey);
     }
 
-    protected int doResolveRelationIndex(ForeignKey foreignKey, boolean referer, boolean oneToOne) {
+    // synchronized because templates may be rendered in parallel (the map is mutated here)
+    protected synchronized int doResolveRelationIndex(ForeignKey foreignKey, boolean referer, boolean oneToOne) {
         try {
             final String relationIndexKey = buildRefererIndexKey(foreignKey, referer, oneToOne);
             final Integer realIndex = _relationIndexMap.get(relationIndexKey);
@@ -1649,8 +1650,9 @@ public class Table {
         if (_singleKeyReferrers != null) {
             return _singleKeyReferrers;
         }
-        _singleKeyReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> singleKeyReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _singleKeyReferrers = singleKeyReferrers;
             return _singleKeyReferrers;
         }
         final List<ForeignKey> referrerList = getReferrers();
@@ -1658,8 +1660,9 @@ public class Table {
             if (!referrer.isSimpleKeyFK()) {
                 continue;
             }
-            _singleKeyReferrers.add(referrer);
+            singleKeyReferrers.add(referrer);
         }
+        _singleKeyReferrers = singleKeyReferrers;
         return _singleKeyReferrers;
     }
 
@@ -1673,8 +1676,9 @@ public class Table {
         if (_compoundKeyReferrers != null) {
             return _compoundKeyReferrers;
         }
-        _compoundKeyReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> compoundKeyReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _compoundKeyReferrers = compoundKeyReferrers;
             return _compoundKeyReferrers;
         }
         final List<ForeignKey> referrerList = getReferrers();
@@ -1682,8 +1686,9 @@ public class Table {
             if (!referrer.isCompoundFK()) {
                 continue;
             }
-            _compoundKeyReferrers.add(referrer);
+            compoundKeyReferrers.add(referrer);
         }
+        _compoundKeyReferrers = compoundKeyReferrers;
         return _compoundKeyReferrers;
     }
 
@@ -1693,16 +1698,18 @@ public class Table {
         if (_derivedReferrerReferrers != null) {
             return _derivedReferrerReferrers;
         }
-        _derivedReferrerReferrers = new ArrayList<ForeignKey>(5);
+        final List<ForeignKey> derivedReferrerReferrers = new ArrayList<ForeignKey>(5);
         if (!hasReferrer()) {
+            _derivedReferrerReferrers = derivedReferrerReferrers;
             return _derivedReferrerReferrers;
         }
         for (ForeignKey referrer : getReferrers()) {
             if (!referrer.isDerivedReferrerSupported()) {
                 continue;
             }
-            _derivedReferrerReferrers.add(referrer);
+            derivedReferrerReferrers.add(referrer);
         }
+        _derivedReferrerReferrers = derivedReferrerReferrers;
         return _derivedReferrerReferrers;
     }
 
@@ -1735,11 +1742,11 @@ public class Table {
         if (_singleKeyStringOrIntegerReferrers != null) {
             return _singleKeyStringOrIntegerReferrers;
         }
-        _singleKeyStringOrIntegerReferrers = new ArrayList<ForeignKey>(5);
-        if (!hasReferrer()) {
-            return _singleKeyStringOrIntegerReferrers;
+        final List<ForeignKey> singleKeyStringOrIntegerReferrers = new ArrayList<ForeignKey>(5);
+        if (hasReferrer()) {
+            prepareStringOrIntegerForeignKeyList(singleKeyStringOrIntegerReferrers, true);
         }
-        prepareStringOrIntegerForeignKeyList(_singleKeyStringOrIntegerReferrers, true);
+        _singleKeyStringOrIntegerReferrers = singleKeyStringOrIntegerReferrers;
         return _singleKeyStringOrIntegerReferrers;
     }
 
@@ -2076,12 +2083,13 @@ public class Table {
             return _javaName;
         }
         final String pureName = getName();
+        final String javaName;
         if (needsJavaNameConvert()) {
-            _javaName = getDatabase().convertJavaNameByJdbcNameAsTable(pureName);
+            javaName = getDatabase().convertJavaNameByJdbcNameAsTable(pureName);
         } else {
-            _javaName = pureName; // for sql2entity mainly
+            javaName = pureName; // for sql2entity mainly
         }
-        _javaName = filterJavaNameNonCompilableConnector(_javaName);
+        _javaName = filterJavaNameNonCompilableConnector(javaName);
         return _javaName;
     }
 
@@ -2985,18 +2993,20 @@ public class Table {
         if (_subColumnSequenceColumnList != null) {
             return _subColumnSequenceColumnList;
         }
-        _subColumnSequenceColumnList = DfCollectionUtil.newArrayList();
+        final List<Column> subColumnSequenceColumnList = DfCollectionUtil.newArrayList();
         final DfSequenceIdentityProperties prop = getSequenceIdentityProperties();
         if (!prop.hasSubColumnSequence()) {
+            _subColumnSequenceColumnList = subColumnSequenceColumnList;
             return _subColumnSequenceColumnList;
         }
         final List<Column> columnList = getColumnList();
         for (Column column : columnList) {
             final String sequenceName = prop.getSubColumnSequenceName(getTableDbName(), column.getName());
             if (sequenceName != null) {
-                _subColumnSequenceColumnList.add(column);
+                subColumnSequenceColumnList.add(column);
             }
         }
+        _subColumnSequenceColumnList = subColumnSequenceColumnList;
         return _subColumnSequenceColumnList;
     }
 
@@ -3741,7 +3751,7 @@ public class Table {
         final DfBehaviorFilterProperties prop = getProperties().getBehaviorFilterProperties();
         final Map<String, Object> map = prop.getBeforeInsertMap();
         final Set<String> columnNameSet = map.keySet();
-        _behaviorFilterBeforeInsertColumnList = new ArrayList<Column>();
+        final List<Column> behaviorFilterBeforeInsertColumnList = new ArrayList<Column>();
         final Set<String> commonColumnNameSet = new HashSet<String>();
         if (hasAllCommonColumn()) {
             final List<Column> commonColumnList = getCommonColumnList();
@@ -3752,7 +3762,7 @@ public class Table {
         for (String columnName : columnNameSet) {
             Column column = getColumn(columnName);
             if (column != null && !commonColumnNameSet.contains(columnName)) {
-                _behaviorFilterBeforeInsertColumnList.add(column);
+                behaviorFilterBeforeInsertColumnList.add(column);
                 String expression = (String) map.get(columnName);
                 if (expression == null || expression.trim().length() == 0) {
                     String msg = "The value expression was not found in beforeInsertMap: column=" + column;
@@ -3761,6 +3771,7 @@ public class Table {
                 column.setBehaviorFilterBeforeInsertColumnExpression(expression);
             }
         }
+        _behaviorFilterBeforeInsertColumnList = behaviorFilterBeforeInsertColumnList;
         return _behaviorFilterBeforeInsertColumnList;
     }
 
@@ -3783,7 +3794,7 @@ public class Table {
         DfBehaviorFilterProperties prop = getProperties().getBehaviorFilterProperties();
         Map<String, Object> map = prop.getBeforeUpdateMap();
         Set<String> columnNameSet = map.keySet();
-        _behaviorFilterBeforeUpdateColumnList = new ArrayList<Column>();
+        final List<Column> behaviorFilterBeforeUpdateColumnList = new ArrayList<Column>();
         Set<String> commonColumnNameSet = new HashSet<String>();
         if (hasAllCommonColumn()) {
             List<Column> commonColumnList = getCommonColumnList();
@@ -3794,7 +3805,7 @@ public class Table {
         for (String columnName : columnNameSet) {
             Column column = getColumn(columnName);
             if (column != null && !commonColumnNameSet.contains(columnName)) {
-                _behaviorFilterBeforeUpdateColumnList.add(column);
+                behaviorFilterBeforeUpdateColumnList.add(column);
                 String expression = (String) map.get(columnName);
                 if (expression == null || expression.trim().length() == 0) {
                     String msg = "The value expression was not found in beforeUpdateMap: column=" + column;
@@ -3803,6 +3814,7 @@ public class Table {
                 column.setBehaviorFilterBeforeUpdateColumnExpression(expression);
             }
         }
+        _behaviorFilterBeforeUpdateColumnList = behaviorFilterBeforeUpdateColumnList;
         return _behaviorFilterBeforeUpdateColumnList;
     }
 
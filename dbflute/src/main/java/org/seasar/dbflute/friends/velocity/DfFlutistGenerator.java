@@ -27,12 +27,23 @@ import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
-
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.torque.engine.database.model.Table;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
@@ -107,12 +118,41 @@ public class DfFlutistGenerator extends DfGenerator {
     /**
      * The list of file name parsed. {DBFlute Original Attribute}
      */
-    protected List<String> parseFileNameList = new ArrayList<String>();// [Extension]
+    protected List<String> parseFileNameList = Collections.synchronizedList(new ArrayList<String>());// [Extension]
 
     /**
      * The list of file name skipped. {DBFlute Original Attribute}
      */
-    protected List<String> skipFileNameList = new ArrayList<String>();// [Extension]
+    protected List<String> skipFileNameList = Collections.synchronizedList(new ArrayList<String>());// [Extension]
+
+    /**
+     * The service to render templates in parallel. {DBFlute Original Attribute}
+     * (NullAllowed: when sequential)
+     */
+    protected ExecutorService parallelService;// [Extension]
+
+    /**
+     * The list of rendering submitted to the service. {DBFlute Original Attribute}
+     * (written by the order of submission)
+     */
+    protected final LinkedList<PendingRendering> pendingRenderingList = new LinkedList<PendingRendering>();
+
+    /**
+     * The set of output file created at submission and not written yet. {DBFlute Original Attribute}
+     * (the first written rendering of the file is not appended)
+     */
+    protected final Set<String> earlyCreatedFileSet = new HashSet<String>();// [Extension]
+
+    /**
+     * The context for nested parsing in the thread of parallel rendering. {DBFlute Original Attribute}
+     */
+    protected final ThreadLocal<Context> renderingContextLocal = new ThreadLocal<Context>();// [Extension]
+
+    /**
+     * The manifest of generated files. {DBFlute Original Attribute}
+     * (NullAllowed: when the manifest is invalid)
+     */
+    protected DfGenerateManifest manifest;// [Extension]
 
     // ===================================================================================
     //                                                                         Constructor
@@ -199,8 +239,9 @@ public class DfFlutistGenerator extends DfGenerator {
             String msg = "The argument 'inputTemplate' should not be null: outputFile=" + outputFile;
             throw new IllegalArgumentException(msg);
         }
+        final Context baseContext = getRenderingContext();
         if (objectID != null && object != null) {
-            controlContext.put(objectID, object);
+            baseContext.put(objectID, object);
         }
         if (specifiedInputEncoding == null || specifiedInputEncoding.trim().length() == 0) {
             specifiedInputEncoding = this.inputEncoding;
@@ -208,46 +249,81 @@ public class DfFlutistGenerator extends DfGenerator {
         if (specifiedOutputEncoding == null || specifiedOutputEncoding.trim().length() == 0) {
             specifiedOutputEncoding = this.outputEncoding;
         }
+        if (isParallelRenderingTarget(outputFile)) {
+            parseFileNameList.add(outputFile);
+            submitRendering(inputTemplate, specifiedInputEncoding, outputFile, specifiedOutputEncoding);
+            return "";
+        }
         try {
             final Template template = getTemplate(inputTemplate, specifiedInputEncoding);
             parseFileNameList.add(outputFile);
 
-            final VelocityContext vc = new VelocityContext(controlContext);
-            final StringWriter sw = new StringWriter();
-            template.merge(vc, sw);
-            final String newContent = resolveLineSeparatorIfNeeds(sw.toString());
+            final String newContent = render(template, new VelocityContext(baseContext));
 
             // return the contents as string if no output
             if (outputFile == null || outputFile.isEmpty()) {
                 return newContent;
             }
 
-            final File oldFile = new File(getOutputPath() + "/" + outputFile);
-            if (oldFile.exists()) { // then it might skip to generate if it's completely same
-                final String oldContent = new String(getBytes(oldFile), specifiedOutputEncoding);
-                if (newContent.equals(oldContent)) {
-                    skipFileNameList.add(oldFile.getName());
-                    return "";
-                }
-            }
-
-            final Writer writer = findOutputWriter(outputFile, specifiedOutputEncoding);
-            writer.write(newContent);
-
-            // this is commented out because it is closed in shutdown();
-            //writer.close();
+            final boolean appended = writers.containsKey(outputFile);
+            writeOutput(getOutputPath(), outputFile, specifiedOutputEncoding, newContent, appended, inputTemplate,
+                    describeModel(baseContext));
         } catch (Throwable e) {
             throwTemplateParsingException(inputTemplate, specifiedInputEncoding, e);
         }
         return "";
     }
 
-    protected Writer findOutputWriter(String outputFile, String specifiedOutputEncoding) throws Exception {
+    protected String render(Template template, Context context) throws Exception {
+        final StringWriter sw = new StringWriter();
+        template.merge(context, sw);
+        return resolveLineSeparatorIfNeeds(sw.toString());
+    }
+
+    protected void writeOutput(String outputDirectory, String outputFile, String specifiedOutputEncoding,
+            String newContent, boolean appended, String inputTemplate, String model) throws Exception {
+        final String outputPath = outputDirectory + "/" + outputFile;
+        final File oldFile = new File(outputPath);
+        final String contentHash;
+        if (manifest != null) {
+            contentHash = DfGenerateManifest.toHash(newContent, specifiedOutputEncoding, getManifestLineSeparator());
+        } else {
+            contentHash = null;
+        }
+        if (manifest != null) {
+            if (appended) { // the contents of file are not same as this contents
+                manifest.exclude(outputPath);
+            } else if (manifest.isUnchanged(outputPath, contentHash)) { // skip without reading the file
+                skipFileNameList.add(oldFile.getName());
+                manifest.register(outputPath, inputTemplate, model, contentHash);
+                return;
+            }
+        }
+        if (oldFile.exists()) { // then it might skip to generate if it's completely same
+            final String oldContent = new String(getBytes(oldFile), specifiedOutputEncoding);
+            if (newContent.equals(oldContent)) {
+                skipFileNameList.add(oldFile.getName());
+                if (manifest != null && !appended) {
+                    manifest.register(outputPath, inputTemplate, model, contentHash);
+                }
+                return;
+            }
+        }
+        final Writer writer = findOutputWriter(outputDirectory, outputFile, specifiedOutputEncoding);
+        writer.write(newContent);
+        if (manifest != null && !appended) {
+            manifest.register(outputPath, inputTemplate, model, contentHash);
+        }
+        // this is commented out because it is closed in shutdown();
+        //writer.close();
+    }
+
+    protected Writer findOutputWriter(String outputDirectory, String outputFile, String specifiedOutputEncoding)
+            throws Exception {
         Writer writer = null;
         if (writers.get(outputFile) == null) {
             // We have never seen this file before so create a new file writer for it.
-            writer = getWriter(getOutputPath() + File.separator + outputFile, specifiedOutputEncoding);
-
+            writer = getWriter(outputDirectory + File.separator + outputFile, specifiedOutputEncoding);
             // Place the file writer in our collection of file writers.
             writers.put(outputFile, writer);
         } else {
@@ -256,6 +332,22 @@ public class DfFlutistGenerator extends DfGenerator {
         return writer;
     }
 
+    /**
+     * @param context The context for rendering. (NotNull)
+     * @return The description of input model for the manifest. (NullAllowed: when no table)
+     */
+    protected String describeModel(Context context) {
+        final Object table = context.get("table");
+        return table instanceof Table ? ((Table) table).getTableDbName() : null;
+    }
+
+    /**
+     * @return The line separator that contents are converted to, for the manifest. (NullAllowed: when no conversion)
+     */
+    protected String getManifestLineSeparator() {
+        return isConvertSourceCodeLineSeparator() ? getSourceLineSeparator() : null;
+    }
+
     protected String resolveLineSeparatorIfNeeds(String contents) {
         if (isConvertSourceCodeLineSeparator()) {
             if (isSourceLineSeparatorLf()) {
@@ -313,6 +405,8 @@ public class DfFlutistGenerator extends DfGenerator {
         this.controlContext = controlContext;
         fillContextDefaults(this.controlContext);
         fillContextProperties(this.controlContext);
+        prepareParallelRendering();
+        prepareManifest();
 
         Template template = getTemplate(controlTemplate, inputEncoding);
         StringWriter sw = new StringWriter();
@@ -390,6 +484,15 @@ public class DfFlutistGenerator extends DfGenerator {
      * writers that we have been holding on to.
      */
     public void shutdown() {
+        try {
+            finishParallelRendering();
+        } finally {
+            closeWriters();
+            saveManifestIfNeeds();
+        }
+    }
+
+    protected void closeWriters() {
         Iterator<Writer> iterator = writers.values().iterator();
 
         while (iterator.hasNext()) {
@@ -405,6 +508,201 @@ public class DfFlutistGenerator extends DfGenerator {
         writers.clear();
     }
 
+    // ===================================================================================
+    //                                                                  Parallel Rendering
+    //                                                                  ==================
+    protected void prepareParallelRendering() {
+        if (parallelService != null) { // e.g. the previous generation failed
+            parallelService.shutdownNow();
+            pendingRenderingList.clear();
+        }
+        parallelService = null;
+        earlyCreatedFileSet.clear();
+        final int threadPoolSize = getGenerateThreadPoolSize();
+        if (threadPoolSize <= 1) {
+            return;
+        }
+        _log.info("...Rendering templates in parallel by " + threadPoolSize + " threads");
+        parallelService = Executors.newFixedThreadPool(threadPoolSize, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "DfFlutistGenerator-rendering");
+                thread.setDaemon(true); // not to block the end of process when the control fails
+                return thread;
+            }
+        });
+    }
+
+    protected Context getRenderingContext() {
+        final Context renderingContext = renderingContextLocal.get();
+        return renderingContext != null ? renderingContext : controlContext;
+    }
+
+    protected boolean isParallelRenderingTarget(String outputFile) {
+        // nested parsing in rendering threads is executed sequentially in the thread
+        return parallelService != null && outputFile != null && !outputFile.isEmpty()
+                && renderingContextLocal.get() == null;
+    }
+
+    protected void submitRendering(final String inputTemplate, final String specifiedInputEncoding,
+            String outputFile, String specifiedOutputEncoding) throws Exception {
+        // the control template changes its variables and output directory after this
+        // so the rendering needs their copies at this point
+        final Context renderingContext = copyControlContext();
+        final String outputDirectory = getOutputPath();
+        if (!writers.containsKey(outputFile) && !new File(outputDirectory + "/" + outputFile).exists()) {
+            // the control template may handle the new file after parsing (e.g. copyright of extended class)
+            // so it is created here like sequential parsing
+            findOutputWriter(outputDirectory, outputFile, specifiedOutputEncoding);
+            earlyCreatedFileSet.add(outputFile);
+        }
+        final Future<String> future = parallelService.submit(new Callable<String>() {
+            public String call() throws Exception {
+                renderingContextLocal.set(renderingContext);
+                try {
+                    final Template template = getTemplate(inputTemplate, specifiedInputEncoding);
+                    return render(template, new VelocityContext(renderingContext));
+                } catch (Throwable e) {
+                    throwTemplateParsingException(inputTemplate, specifiedInputEncoding, e);
+                    return null; // unreachable
+                } finally {
+                    renderingContextLocal.remove();
+                }
+            }
+        });
+        final String model = describeModel(renderingContext);
+        pendingRenderingList.add(new PendingRendering(inputTemplate, specifiedInputEncoding, outputDirectory,
+                outputFile, specifiedOutputEncoding, model, future));
+        writePendingRendering(false); // not to keep many contents in memory
+    }
+
+    protected Context copyControlContext() {
+        final VelocityContext renderingContext = new VelocityContext();
+        for (Object key : controlContext.getKeys()) {
+            final String name = (String) key;
+            renderingContext.put(name, controlContext.get(name));
+        }
+        return renderingContext;
+    }
+
+    /**
+     * Write the outputs of pending rendering by the order of submission.
+     * @param waitAll Does it wait for all rendering? (if false, it writes only the finished head of pending)
+     * @throws Exception When it fails to render or write.
+     */
+    protected void writePendingRendering(boolean waitAll) throws Exception {
+        while (!pendingRenderingList.isEmpty()) {
+            final PendingRendering pending = pendingRenderingList.getFirst();
+            final Future<String> future = pending.getFuture();
+            if (!waitAll && !future.isDone()) {
+                break;
+            }
+            final String newContent;
+            try {
+                newContent = future.get();
+            } catch (ExecutionException e) {
+                throwTemplateParsingException(pending.getInputTemplate(), pending.getInputEncoding(), e.getCause());
+                return; // unreachable
+            }
+            pendingRenderingList.removeFirst();
+            final String outputFile = pending.getOutputFile();
+            // determined at writing because the same file may be parsed again before the first is written
+            final boolean appended = writers.containsKey(outputFile) && !earlyCreatedFileSet.remove(outputFile);
+            writeOutput(pending.getOutputDirectory(), outputFile, pending.getOutputEncoding(), newContent, appended,
+                    pending.getInputTemplate(), pending.getModel());
+        }
+    }
+
+    protected void finishParallelRendering() {
+        if (parallelService == null) {
+            return;
+        }
+        try {
+            writePendingRendering(true);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the rendering of templates.", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to write the rendered outputs.", e);
+        } finally {
+            parallelService.shutdownNow();
+            parallelService = null;
+            pendingRenderingList.clear();
+            earlyCreatedFileSet.clear();
+        }
+    }
+
+    protected static class PendingRendering {
+
+        protected final String inputTemplate;
+        protected final String inputEncoding;
+        protected final String outputDirectory;
+        protected final String outputFile;
+        protected final String outputEncoding;
+        protected final String model;
+        protected final Future<String> future;
+
+        public PendingRendering(String inputTemplate, String inputEncoding, String outputDirectory,
+                String outputFile, String outputEncoding, String model, Future<String> future) {
+            this.inputTemplate = inputTemplate;
+            this.inputEncoding = inputEncoding;
+            this.outputDirectory = outputDirectory;
+            this.outputFile = outputFile;
+            this.outputEncoding = outputEncoding;
+            this.model = model;
+            this.future = future;
+        }
+
+        public String getInputTemplate() {
+            return inputTemplate;
+        }
+
+        public String getInputEncoding() {
+            return inputEncoding;
+        }
+
+        public String getOutputDirectory() {
+            return outputDirectory;
+        }
+
+        public String getOutputFile() {
+            return outputFile;
+        }
+
+        public String getOutputEncoding() {
+            return outputEncoding;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public Future<String> getFuture() {
+            return future;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                   Generate Manifest
+    //                                                                   =================
+    protected void prepareManifest() {
+        manifest = null;
+        if (!isGenerateManifestValid()) {
+            return;
+        }
+        manifest = new DfGenerateManifest(getGenerateManifestFile());
+        manifest.load();
+    }
+
+    protected void saveManifestIfNeeds() {
+        if (manifest == null) {
+            return;
+        }
+        manifest.save(); // after closing writers to record the last modified of files
+        manifest = null;
+    }
+
     // ===================================================================================
     //                                                                      General Helper
     //                                                                      ==============
@@ -587,6 +885,18 @@ public class DfFlutistGenerator extends DfGenerator {
         return getProperties().getLittleAdjustmentProperties().isSkipGenerateIfSameFile();
     }
 
+    protected int getGenerateThreadPoolSize() {
+        return getProperties().getLittleAdjustmentProperties().getGenerateThreadPoolSize();
+    }
+
+    protected boolean isGenerateManifestValid() {
+        return getProperties().getLittleAdjustmentProperties().isGenerateManifestValid();
+    }
+
+    protected String getGenerateManifestFile() {
+        return getBasicProperties().getProjectGenerateManifestFile();
+    }
+
     // ===================================================================================
     //                                                                      Basic Override
     //                                                                      ==============
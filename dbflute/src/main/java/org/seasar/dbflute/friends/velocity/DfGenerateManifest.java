@@ -0,0 +1,241 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.friends.velocity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.seasar.dbflute.helper.mapstring.MapListFile;
+
+/**
+ * The manifest of generated files, which records the inputs (template and model) and the hash
+ * of contents (with output encoding and line separator) for each output file. <br />
+ * If the hash of new contents is same as the recorded one and the file has not been touched
+ * since then (same size and last modified), the generator skips the file without reading it.
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfGenerateManifest {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** Log instance. */
+    private static final Log _log = LogFactory.getLog(DfGenerateManifest.class);
+
+    protected static final String KEY_OUTPUT_MAP = "outputMap";
+    protected static final String KEY_TEMPLATE = "template";
+    protected static final String KEY_MODEL = "model";
+    protected static final String KEY_CONTENT_HASH = "contentHash";
+    protected static final String KEY_FILE_SIZE = "fileSize";
+    protected static final String KEY_LAST_MODIFIED = "lastModified";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The path of manifest file. (NotNull) */
+    protected final String _manifestFilePath;
+
+    /** The map of outputs loaded from the file. map:{outputPath = map:{template, model, ...}} (NotNull) */
+    protected final Map<String, Map<String, String>> _loadedMap;
+
+    /** The map of outputs generated or verified at this time, whose file info is fixed when saved. (NotNull) */
+    protected final Map<String, Map<String, String>> _currentMap;
+
+    /** The set of outputs that cannot be recorded, e.g. appended by several parsing. (NotNull) */
+    protected final Map<String, String> _excludedMap;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param manifestFilePath The path of manifest file. (NotNull)
+     */
+    public DfGenerateManifest(String manifestFilePath) {
+        _manifestFilePath = manifestFilePath;
+        _loadedMap = new ConcurrentHashMap<String, Map<String, String>>();
+        _currentMap = new ConcurrentHashMap<String, Map<String, String>>();
+        _excludedMap = new ConcurrentHashMap<String, String>();
+    }
+
+    // ===================================================================================
+    //                                                                         Load & Save
+    //                                                                         ===========
+    /**
+     * Load the manifest file if it exists.
+     */
+    public void load() {
+        final File manifestFile = new File(_manifestFilePath);
+        if (!manifestFile.exists()) {
+            return;
+        }
+        final Map<String, Object> manifestMap;
+        try {
+            manifestMap = new MapListFile().readMap(new FileInputStream(manifestFile));
+        } catch (IOException e) {
+            _log.info("*Cannot read the generate manifest so ignore it: " + e.getMessage());
+            return;
+        } catch (RuntimeException e) { // e.g. broken file
+            _log.info("*The generate manifest is broken so ignore it: " + e.getMessage());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        final Map<String, Map<String, String>> outputMap = (Map<String, Map<String, String>>) manifestMap
+                .get(KEY_OUTPUT_MAP);
+        if (outputMap != null) {
+            for (Entry<String, Map<String, String>> entry : outputMap.entrySet()) {
+                if (entry.getValue() != null) {
+                    _loadedMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        _log.info("...Loading the generate manifest: " + _loadedMap.size() + " files");
+    }
+
+    /**
+     * Save the manifest file with the outputs of this time and the loaded outputs still existing. <br />
+     * This should be called after all output files are closed because it records their size and last modified.
+     */
+    public void save() {
+        final Map<String, Object> savedMap = new TreeMap<String, Object>(); // sorted for diff
+        for (Entry<String, Map<String, String>> entry : _loadedMap.entrySet()) {
+            final String outputPath = entry.getKey();
+            if (new File(outputPath).exists() && !_excludedMap.containsKey(outputPath)) { // e.g. other tasks
+                savedMap.put(outputPath, entry.getValue());
+            }
+        }
+        for (Entry<String, Map<String, String>> entry : _currentMap.entrySet()) {
+            final String outputPath = entry.getKey();
+            final File outputFile = new File(outputPath);
+            if (!outputFile.exists() || _excludedMap.containsKey(outputPath)) {
+                savedMap.remove(outputPath);
+                continue;
+            }
+            final Map<String, String> output = entry.getValue();
+            output.put(KEY_FILE_SIZE, String.valueOf(outputFile.length()));
+            output.put(KEY_LAST_MODIFIED, String.valueOf(outputFile.lastModified()));
+            savedMap.put(outputPath, output);
+        }
+        final Map<String, Object> manifestMap = new LinkedHashMap<String, Object>();
+        manifestMap.put(KEY_OUTPUT_MAP, savedMap);
+        try {
+            new MapListFile().writeMap(new FileOutputStream(_manifestFilePath), manifestMap);
+        } catch (IOException e) { // the manifest is not required
+            _log.info("*Cannot write the generate manifest: " + e.getMessage());
+            return;
+        }
+        _log.info("...Saving the generate manifest: " + savedMap.size() + " files");
+    }
+
+    // ===================================================================================
+    //                                                                Determine & Register
+    //                                                                ====================
+    /**
+     * Is the output file unchanged from the recorded one? (without reading the file)
+     * @param outputPath The path of output file, which is the key of manifest. (NotNull)
+     * @param contentHash The hash of new contents. (NotNull)
+     * @return The determination, true or false.
+     */
+    public boolean isUnchanged(String outputPath, String contentHash) {
+        final Map<String, String> output = _loadedMap.get(outputPath);
+        if (output == null || !contentHash.equals(output.get(KEY_CONTENT_HASH))) {
+            return false;
+        }
+        final File outputFile = new File(outputPath);
+        if (!outputFile.exists()) {
+            return false;
+        }
+        final String fileSize = String.valueOf(outputFile.length());
+        final String lastModified = String.valueOf(outputFile.lastModified());
+        return fileSize.equals(output.get(KEY_FILE_SIZE)) && lastModified.equals(output.get(KEY_LAST_MODIFIED));
+    }
+
+    /**
+     * Register the output generated or verified at this time.
+     * @param outputPath The path of output file, which is the key of manifest. (NotNull)
+     * @param template The name of input template. (NotNull)
+     * @param model The description of input model, e.g. table name. (NullAllowed)
+     * @param contentHash The hash of contents. (NotNull)
+     */
+    public void register(String outputPath, String template, String model, String contentHash) {
+        final Map<String, String> output = new LinkedHashMap<String, String>();
+        output.put(KEY_TEMPLATE, template);
+        if (model != null) {
+            output.put(KEY_MODEL, model);
+        }
+        output.put(KEY_CONTENT_HASH, contentHash);
+        _currentMap.put(outputPath, output);
+    }
+
+    /**
+     * Exclude the output from the manifest, e.g. the file is appended by several parsing.
+     * @param outputPath The path of output file, which is the key of manifest. (NotNull)
+     */
+    public void exclude(String outputPath) {
+        _excludedMap.put(outputPath, outputPath);
+    }
+
+    // ===================================================================================
+    //                                                                         Hash Helper
+    //                                                                         ===========
+    /**
+     * The output encoding and line separator are also hashed
+     * because the same contents are written as different bytes by them.
+     * @param contents The contents of output file. (NotNull)
+     * @param outputEncoding The encoding of output file. (NullAllowed: when default encoding)
+     * @param lineSeparator The line separator converted to. (NullAllowed: when no conversion)
+     * @return The hex string of the hash. (NotNull)
+     */
+    public static String toHash(String contents, String outputEncoding, String lineSeparator) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("encoding=" + outputEncoding + "\n").getBytes("UTF-8"));
+            digest.update(("lineSeparator=" + lineSeparator + "\n").getBytes("UTF-8"));
+            final byte[] hashed = digest.digest(contents.getBytes("UTF-8"));
+            final StringBuilder sb = new StringBuilder(hashed.length * 2);
+            for (byte element : hashed) {
+                sb.append(Character.forDigit((element >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(element & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) { // no way
+            String msg = "Not found the algorithm of hash: SHA-1";
+            throw new IllegalStateException(msg, e);
+        } catch (UnsupportedEncodingException e) { // no way
+            String msg = "Unsupported encoding: UTF-8";
+            throw new IllegalStateException(msg, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getManifestFilePath() {
+        return _manifestFilePath;
+    }
+}
@@ -177,43 +177,47 @@ public class DfTableXlsReader {
             final HSSFSheet sheet = _workbook.getSheetAt(i);
             final String largeTableName = "LARGE_DATA"; // unused
             final DfDataTable table = setupTable(sheet, largeTableName, new DfDataTable(largeTableName));
-            _largeDataMap = DfCollectionUtil.newLinkedHashMap();
-            final Map<Integer, String> indexColumnTitleMap = DfCollectionUtil.newLinkedHashMap();
-            for (int columnIndex = 0; columnIndex < table.getColumnSize(); columnIndex++) {
-                final DfDataColumn column = table.getColumn(columnIndex);
-                final String columnTitle = column.getColumnDbName();
-                if (!columnTitle.contains(".")) { // should be e.g. MEMBER.MEMBER_NAME
-                    throwLargeDataInvalidColumnTitleException(sheetName, columnTitle);
-                }
-                Map<String, String> dataMap = _largeDataMap.get(columnTitle);
-                if (dataMap == null) {
-                    dataMap = DfCollectionUtil.newLinkedHashMap();
-                }
-                _largeDataMap.put(columnTitle, dataMap);
-                indexColumnTitleMap.put(columnIndex, columnTitle);
+            setupLargeDataMap(sheetName, table);
+            break; // only one
+        }
+    }
+
+    protected void setupLargeDataMap(String sheetName, DfDataTable table) {
+        _largeDataMap = DfCollectionUtil.newLinkedHashMap();
+        final Map<Integer, String> indexColumnTitleMap = DfCollectionUtil.newLinkedHashMap();
+        for (int columnIndex = 0; columnIndex < table.getColumnSize(); columnIndex++) {
+            final DfDataColumn column = table.getColumn(columnIndex);
+            final String columnTitle = column.getColumnDbName();
+            if (!columnTitle.contains(".")) { // should be e.g. MEMBER.MEMBER_NAME
+                throwLargeDataInvalidColumnTitleException(sheetName, columnTitle);
             }
-            for (int rowIndex = 0; rowIndex < table.getRowSize(); rowIndex++) {
-                final DfDataRow row = table.getRow(rowIndex);
-                for (int columnIndex = 0; columnIndex < table.getColumnSize(); ++columnIndex) {
-                    final Object obj = row.getValue(columnIndex);
-                    if (obj == null) {
-                        continue;
-                    }
-                    final String value = obj.toString(); // basically String, but just in case
-                    final String columnTitle = indexColumnTitleMap.get(columnIndex);
-                    final Map<String, String> dataMap = _largeDataMap.get(columnTitle);
-                    if (!value.contains(LDATA_KEY_DELIMITER)) { // should be e.g. key(df:delimiter){value}
-                        throwLargeDataInvalidManagedDataException(sheetName, columnTitle, row, value);
-                    }
-                    final String dataKey = Srl.substringFirstFront(value, LDATA_KEY_DELIMITER);
-                    final String largeValue = Srl.substringFirstRear(value, LDATA_KEY_DELIMITER);
-                    final String unquotedValue = Srl.unquoteAnything(largeValue, LDATA_QUOTE_BEGIN, LDATA_QUOTE_END);
-                    final String existingValue = dataMap.get(dataKey);
-                    final String realValue = existingValue != null ? existingValue + unquotedValue : unquotedValue;
-                    dataMap.put(dataKey, realValue);
+            Map<String, String> dataMap = _largeDataMap.get(columnTitle);
+            if (dataMap == null) {
+                dataMap = DfCollectionUtil.newLinkedHashMap();
+            }
+            _largeDataMap.put(columnTitle, dataMap);
+            indexColumnTitleMap.put(columnIndex, columnTitle);
+        }
+        for (int rowIndex = 0; rowIndex < table.getRowSize(); rowIndex++) {
+            final DfDataRow row = table.getRow(rowIndex);
+            for (int columnIndex = 0; columnIndex < table.getColumnSize(); ++columnIndex) {
+                final Object obj = row.getValue(columnIndex);
+                if (obj == null) {
+                    continue;
                 }
+                final String value = obj.toString(); // basically String, but just in case
+                final String columnTitle = indexColumnTitleMap.get(columnIndex);
+                final Map<String, String> dataMap = _largeDataMap.get(columnTitle);
+                if (!value.contains(LDATA_KEY_DELIMITER)) { // should be e.g. key(df:delimiter){value}
+                    throwLargeDataInvalidManagedDataException(sheetName, columnTitle, row, value);
+                }
+                final String dataKey = Srl.substringFirstFront(value, LDATA_KEY_DELIMITER);
+                final String largeValue = Srl.substringFirstRear(value, LDATA_KEY_DELIMITER);
+                final String unquotedValue = Srl.unquoteAnything(largeValue, LDATA_QUOTE_BEGIN, LDATA_QUOTE_END);
+                final String existingValue = dataMap.get(dataKey);
+                final String realValue = existingValue != null ? existingValue + unquotedValue : unquotedValue;
+                dataMap.put(dataKey, realValue);
             }
-            break; // only one
         }
     }
 
@@ -261,6 +265,12 @@ public class DfTableXlsReader {
     //                                            Data Table
     //                                            ----------
     protected DfDataTable prepareTable(String sheetName, HSSFSheet sheet) {
+        final String tableName = resolveTableName(sheetName);
+        final DfDataTable table = _dataSet.addTable(tableName);
+        return setupTable(sheet, tableName, table);
+    }
+
+    protected String resolveTableName(String sheetName) {
         String tableName = sheetName;
         if (_tableNameMap != null && !_tableNameMap.isEmpty() && sheetName.startsWith("$")) {
             String realTableName = _tableNameMap.get(sheetName);
@@ -272,8 +282,7 @@ public class DfTableXlsReader {
             }
             tableName = realTableName;
         }
-        final DfDataTable table = _dataSet.addTable(tableName);
-        return setupTable(sheet, tableName, table);
+        return tableName;
     }
 
     protected DfDataTable setupTable(HSSFSheet sheet, String tableName, final DfDataTable table) {
@@ -392,6 +401,13 @@ public class DfTableXlsReader {
 
     protected void throwCellValueHandlingException(DfDataTable table, DfDataColumn column, HSSFRow row, HSSFCell cell,
             Object value, RuntimeException cause) {
+        final Integer rowNum = column != null ? row.getRowNum() : null;
+        final Integer cellType = cell != null ? cell.getCellType() : null;
+        throwCellValueHandlingException(table, column, rowNum, cellType, value, cause);
+    }
+
+    protected void throwCellValueHandlingException(DfDataTable table, DfDataColumn column, Integer rowNum,
+            Integer cellType, Object value, RuntimeException cause) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Failed to handle the cell value on the xls file.");
         br.addItem("Advice");
@@ -410,8 +426,8 @@ public class DfTableXlsReader {
         final DfDtsColumnType columnType = column.getColumnType();
         br.addElement(columnType != null ? columnType.getType() : null);
         br.addItem("Cell Type");
-        if (cell != null) {
-            switch (cell.getCellType()) {
+        if (cellType != null) {
+            switch (cellType) {
             case HSSFCell.CELL_TYPE_NUMERIC:
                 br.addElement("CELL_TYPE_NUMERIC");
                 break;
@@ -431,14 +447,14 @@ public class DfTableXlsReader {
                 br.addElement("CELL_TYPE_ERROR");
                 break;
             default:
-                br.addElement(cell.getCellType());
+                br.addElement(cellType);
                 break;
             }
         }
         br.addItem("Cell Value");
         br.addElement(value);
         br.addItem("Row Number");
-        br.addElement(column != null ? row.getRowNum() : null);
+        br.addElement(rowNum);
         final String msg = br.buildExceptionMessage();
         throw new DfXlsReaderReadFailureException(msg, cause);
     }
@@ -480,11 +496,15 @@ public class DfTableXlsReader {
             return decodeAsBase64(str);
         }
         // normal cell here
-        return resolveLargeDataIfNeeds(table, columnIndex, row, str);
+        return resolveLargeDataIfNeeds(table, columnIndex, row.getRowNum(), str);
     }
 
     protected String rtrimCellValueIfNeeds(DfDataTable table, HSSFCell cell, String str) {
-        if (str != null && _rtrimCellValue && !isNotTrimTarget(table, cell)) {
+        return rtrimCellValueIfNeeds(table, cell.getColumnIndex(), str);
+    }
+
+    protected String rtrimCellValueIfNeeds(DfDataTable table, int columnIndex, String str) {
+        if (str != null && _rtrimCellValue && !isNotTrimTarget(table, columnIndex)) {
             return Srl.rtrim(str);
         }
         return str;
@@ -508,7 +528,7 @@ public class DfTableXlsReader {
         return str != null ? DfTypeUtil.decodeAsBase64(str) : null;
     }
 
-    protected String resolveLargeDataIfNeeds(DfDataTable table, int columnIndex, HSSFRow row, String str) {
+    protected String resolveLargeDataIfNeeds(DfDataTable table, int columnIndex, int rowNum, String str) {
         if (str == null) {
             return null;
         }
@@ -525,16 +545,16 @@ public class DfTableXlsReader {
                 if (largeData != null) {
                     return largeData;
                 } else {
-                    throwLargeDataReferenceDataNotFoundException(table, columnIndex, row, str, dataKey);
+                    throwLargeDataReferenceDataNotFoundException(table, columnIndex, rowNum, str, dataKey);
                 }
             } else {
-                throwLargeDataReferenceDataNotFoundException(table, columnIndex, row, str, dataKey);
+                throwLargeDataReferenceDataNotFoundException(table, columnIndex, rowNum, str, dataKey);
             }
         }
         return str;
     }
 
-    protected void throwLargeDataReferenceDataNotFoundException(DfDataTable table, int columnIndex, HSSFRow row,
+    protected void throwLargeDataReferenceDataNotFoundException(DfDataTable table, int columnIndex, int rowNum,
             String str, String dataKey) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Not found the reference data of large data for the column.");
@@ -545,7 +565,7 @@ public class DfTableXlsReader {
         br.addItem("Column");
         br.addElement(table.getColumnName(columnIndex));
         br.addItem("Row Number");
-        br.addElement(row.getRowNum());
+        br.addElement(rowNum);
         br.addItem("Cell Value");
         br.addElement(str);
         br.addItem("Data Key");
@@ -555,12 +575,16 @@ public class DfTableXlsReader {
     }
 
     public boolean isNotTrimTarget(DfDataTable table, HSSFCell cell) {
+        return isNotTrimTarget(table, cell.getColumnIndex());
+    }
+
+    public boolean isNotTrimTarget(DfDataTable table, int columnIndex) {
         final String tableName = table.getTableDbName();
         if (!_notTrimTableColumnMap.containsKey(tableName)) {
             return false;
         }
         final List<String> notTrimTargetColumnList = _notTrimTableColumnMap.get(tableName);
-        final DfDataColumn column = table.getColumn(cell.getColumnIndex());
+        final DfDataColumn column = table.getColumn(columnIndex);
         final String target = column.getColumnDbName();
         for (String specified : notTrimTargetColumnList) {
             if (target.equalsIgnoreCase(specified)) {
@@ -611,13 +635,20 @@ public class DfTableXlsReader {
     protected boolean isCellBase64Formatted(HSSFCell cell) {
         final HSSFCellStyle cs = cell.getCellStyle();
         final short dfNum = cs.getDataFormat();
-        return DfDataSetConstants.BASE64_FORMAT.equals(_dataFormat.getFormat(dfNum));
+        return isBase64Format(_dataFormat.getFormat(dfNum));
+    }
+
+    protected boolean isBase64Format(String format) {
+        return DfDataSetConstants.BASE64_FORMAT.equals(format);
     }
 
     protected boolean isCellDateFormatted(HSSFCell cell) {
         final HSSFCellStyle cs = cell.getCellStyle();
         final short dfNum = cs.getDataFormat();
-        final String format = _dataFormat.getFormat(dfNum);
+        return isDateFormat(_dataFormat.getFormat(dfNum));
+    }
+
+    protected boolean isDateFormat(String format) {
         if (format == null || format.length() == 0) {
             return false;
         }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.io.xls;
+
+import org.seasar.dbflute.helper.dataset.DfDataRow;
+import org.seasar.dbflute.helper.dataset.DfDataTable;
+
+/**
+ * The handler of tables and rows read by the stream reader of XLS. <br />
+ * The rows are not kept in the table so handle them here.
+ * @author jflute
+ * @since 1.0.5K (2014/07/20 Sunday)
+ */
+public interface DfTableXlsStreamHandler {
+
+    /**
+     * Handle the table whose columns are set up. (before its rows)
+     * @param table The data table that has columns but no rows. (NotNull)
+     */
+    void handleTable(DfDataTable table);
+
+    /**
+     * Handle the row of the table.
+     * @param table The data table of the row. (NotNull)
+     * @param row The data row that has values of the sheet columns. (NotNull)
+     */
+    void handleRow(DfDataTable table, DfDataRow row);
+
+    /**
+     * Handle the end of the table. (after all rows)
+     * @param table The data table. (NotNull)
+     */
+    void handleTableEnd(DfDataTable table);
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.io.xls;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFDateUtil;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.seasar.dbflute.helper.dataset.DfDataColumn;
+import org.seasar.dbflute.helper.dataset.DfDataRow;
+import org.seasar.dbflute.helper.dataset.DfDataSet;
+import org.seasar.dbflute.helper.dataset.DfDataTable;
+import org.seasar.dbflute.helper.dataset.states.DfDtsRowStates;
+import org.seasar.dbflute.helper.dataset.types.DfDtsColumnType;
+import org.seasar.dbflute.helper.dataset.types.DfDtsColumnTypes;
+import org.seasar.dbflute.util.DfTypeUtil;
+
+/**
+ * The reader of table XLS by the event model of POI. <br />
+ * The workbook is not loaded as object model, and rows are passed to the handler one by one,
+ * so the memory does not depend on the row count of sheets. (shared strings are loaded) <br />
+ * The rules of values are same as the plain reader, e.g. large data sheet and empty string columns.
+ * <pre>
+ * e.g.
+ *  reader.read(new DfTableXlsStreamHandler() {
+ *      public void handleTable(DfDataTable table) { ... }
+ *      public void handleRow(DfDataTable table, DfDataRow row) { ... }
+ *      public void handleTableEnd(DfDataTable table) { ... }
+ *  });
+ * </pre>
+ * @author jflute
+ * @since 1.0.5K (2014/07/20 Sunday)
+ */
+public class DfTableXlsStreamReader extends DfTableXlsReader {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Log _log = LogFactory.getLog(DfTableXlsStreamReader.class);
+    protected static final short ABORT_READING = 1;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public DfTableXlsStreamReader(File xlsFile // XLS file to read
+            , Map<String, String> tableNameMap // map for long table name
+            , Map<String, List<String>> notTrimTableColumnMap // map for not-trim column
+            , Map<String, List<String>> emptyStringTableColumnMap // map for empty-string-allowed column
+            , Pattern skipSheetPattern // pattern of skipped sheet
+            , boolean rtrimCellValue) { // Does it right-trim cell value?
+        super(xlsFile, tableNameMap, notTrimTableColumnMap, emptyStringTableColumnMap, skipSheetPattern,
+                rtrimCellValue);
+    }
+
+    @Override
+    protected InputStream toStream(File file) {
+        return null; // opened when reading
+    }
+
+    @Override
+    protected void setupWorkbook(InputStream ins) {
+        // not read in constructor, read by events when reading
+    }
+
+    // ===================================================================================
+    //                                                                                Read
+    //                                                                                ====
+    /**
+     * Read all tables with their rows as data set. <br />
+     * The rows are kept in memory so use read(handler) for large data.
+     * @return The data set that has all tables of the XLS file. (NotNull)
+     */
+    @Override
+    public DfDataSet read() {
+        final DfDataSet dataSet = new DfDataSet();
+        doRead(new DfTableXlsStreamHandler() {
+            public void handleTable(DfDataTable table) {
+                dataSet.addTable(table);
+            }
+
+            public void handleRow(DfDataTable table, DfDataRow row) {
+                // already added to the table
+            }
+
+            public void handleTableEnd(DfDataTable table) {
+            }
+        }, true);
+        return dataSet;
+    }
+
+    /**
+     * Read the tables and pass their rows to the handler without keeping them.
+     * @param handler The handler of tables and rows. (NotNull)
+     */
+    public void read(DfTableXlsStreamHandler handler) {
+        doRead(handler, false);
+    }
+
+    protected void doRead(DfTableXlsStreamHandler handler, boolean keepRows) {
+        final POIFSFileSystem fs = openFileSystem();
+        _largeDataMap = null;
+        // large data first because it is referred from tables
+        // (the events are aborted after the workbook globals if no large data sheet)
+        processEvents(fs, new XlsEventListener(null, true));
+        processEvents(fs, new XlsEventListener(handler, keepRows));
+    }
+
+    protected POIFSFileSystem openFileSystem() {
+        InputStream ins = null;
+        try {
+            ins = new FileInputStream(_xlsFile);
+            return new POIFSFileSystem(ins);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the xls file: " + _xlsFile, e);
+        } finally {
+            if (ins != null) {
+                try {
+                    ins.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    protected void processEvents(POIFSFileSystem fs, XlsEventListener listener) {
+        final HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(listener);
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read the xls file: " + _xlsFile, e);
+        } catch (HSSFUserException e) { // no way
+            throw new IllegalStateException("Failed to read the xls file: " + _xlsFile, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Event Listener
+    //                                                                      ==============
+    /**
+     * The listener of XLS records. <br />
+     * Cells of a row come after the row records of the block, and they are ordered by row,
+     * so one row is buffered and handled when the next row begins.
+     */
+    protected class XlsEventListener extends AbortableHSSFListener {
+
+        protected final DfTableXlsStreamHandler _handler; // null when large data
+        protected final boolean _largeDataOnly;
+        protected final boolean _keepRows;
+        protected final FormatTrackingHSSFListener _formatTracker = new FormatTrackingHSSFListener(null);
+        protected final List<String> _sheetNameList = new ArrayList<String>();
+        protected SSTRecord _sstRecord;
+        protected boolean _date1904;
+        protected int _depth; // nest level of BOF and EOF
+        protected int _sheetIndex = -1; // -1 means workbook globals
+
+        // sheet resources (reset per sheet)
+        protected String _sheetName; // null when out of target sheet
+        protected String _tableName;
+        protected BitSet _rowRecordSet; // index of rows that have row record
+        protected int _maxRowRecordIndex;
+        protected Map<Integer, XlsStreamCell> _headerCellMap; // null until the first row is handled
+        protected final Map<Integer, XlsStreamCell> _bufferedCellMap = new HashMap<Integer, XlsStreamCell>();
+        protected int _bufferedRowIndex;
+        protected int _lastHandledRowIndex;
+        protected boolean _rowEnd; // true after a missing row, e.g. reading is stopped
+        protected DfDataTable _table; // null until columns are set up
+        protected int _sheetColumnSize; // not contains columns added by the handler
+
+        public XlsEventListener(DfTableXlsStreamHandler handler, boolean keepRows) {
+            _handler = handler;
+            _largeDataOnly = handler == null;
+            _keepRows = _largeDataOnly || keepRows;
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) {
+            _formatTracker.processRecordInternally(record);
+            switch (record.getSid()) {
+            case BOFRecord.sid:
+                ++_depth;
+                if (_depth == 1 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+                    ++_sheetIndex; // also for e.g. chart sheet to be synchronized with bound sheets
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        beginSheet(_sheetNameList.get(_sheetIndex));
+                    }
+                }
+                break;
+            case EOFRecord.sid:
+                --_depth;
+                if (_depth == 0) {
+                    if (_sheetIndex < 0) { // end of workbook globals
+                        if (_largeDataOnly && !_sheetNameList.contains(LDATA_SHEET_NAME)) {
+                            return ABORT_READING;
+                        }
+                    } else if (_sheetName != null) {
+                        endSheet();
+                        if (_largeDataOnly) { // only one
+                            return ABORT_READING;
+                        }
+                    }
+                }
+                break;
+            case BoundSheetRecord.sid:
+                _sheetNameList.add(((BoundSheetRecord) record).getSheetname());
+                break;
+            case SSTRecord.sid:
+                _sstRecord = (SSTRecord) record;
+                break;
+            case DateWindow1904Record.sid:
+                _date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+                break;
+            default:
+                if (_sheetName != null && _depth == 1) {
+                    processSheetRecord(record);
+                }
+                break;
+            }
+            return 0;
+        }
+
+        protected void processSheetRecord(Record record) {
+            switch (record.getSid()) {
+            case RowRecord.sid:
+                final int rowIndex = ((RowRecord) record).getRowNumber();
+                _rowRecordSet.set(rowIndex);
+                _maxRowRecordIndex = Math.max(_maxRowRecordIndex, rowIndex);
+                break;
+            case NumberRecord.sid:
+                final NumberRecord numberRecord = (NumberRecord) record;
+                final Double numberValue = numberRecord.getValue();
+                handleCell(createCell(numberRecord, HSSFCell.CELL_TYPE_NUMERIC, numberValue, findFormat(numberRecord)));
+                break;
+            case LabelSSTRecord.sid:
+                final LabelSSTRecord sstRecord = (LabelSSTRecord) record;
+                final String sstValue = _sstRecord.getString(sstRecord.getSSTIndex()).getString();
+                handleCell(createCell(sstRecord, HSSFCell.CELL_TYPE_STRING, sstValue, findFormat(sstRecord)));
+                break;
+            case LabelRecord.sid: // old format
+                final LabelRecord labelRecord = (LabelRecord) record;
+                final String labelValue = labelRecord.getValue();
+                handleCell(createCell(labelRecord, HSSFCell.CELL_TYPE_STRING, labelValue, findFormat(labelRecord)));
+                break;
+            case BoolErrRecord.sid:
+                final BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+                if (boolErrRecord.isBoolean()) {
+                    final Boolean boolValue = boolErrRecord.getBooleanValue();
+                    handleCell(createCell(boolErrRecord, HSSFCell.CELL_TYPE_BOOLEAN, boolValue, null));
+                } else {
+                    handleCell(createCell(boolErrRecord, HSSFCell.CELL_TYPE_ERROR, null, null));
+                }
+                break;
+            case FormulaRecord.sid: // formula values are not read like the plain reader
+                handleCell(createCell((FormulaRecord) record, HSSFCell.CELL_TYPE_FORMULA, null, null));
+                break;
+            case BlankRecord.sid:
+                handleCell(createCell((BlankRecord) record, HSSFCell.CELL_TYPE_BLANK, null, null));
+                break;
+            case MulBlankRecord.sid: // basically converted to blank records by POI, but just in case
+                final MulBlankRecord mulBlankRecord = (MulBlankRecord) record;
+                for (int i = 0; i < mulBlankRecord.getNumColumns(); i++) {
+                    final int columnIndex = mulBlankRecord.getFirstColumn() + i;
+                    final int cellType = HSSFCell.CELL_TYPE_BLANK;
+                    handleCell(new XlsStreamCell(mulBlankRecord.getRow(), columnIndex, cellType, null, null));
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        protected XlsStreamCell createCell(CellValueRecordInterface record, int cellType, Object value, String format) {
+            return new XlsStreamCell(record.getRow(), record.getColumn(), cellType, value, format);
+        }
+
+        protected String findFormat(CellValueRecordInterface record) {
+            final int formatIndex = _formatTracker.getFormatIndex(record);
+            return formatIndex >= 0 ? _formatTracker.getFormatString(formatIndex) : null;
+        }
+
+        protected void beginSheet(String sheetName) {
+            if (_largeDataOnly) {
+                if (!isLargeDataSheet(sheetName)) {
+                    return;
+                }
+                _tableName = "LARGE_DATA"; // unused
+            } else {
+                if (isCommentOutSheet(sheetName)) { // since 0.7.9
+                    _log.info("*The sheet has comment-out mark so skip it: " + sheetName);
+                    return;
+                }
+                if (isSkipSheet(sheetName)) { // since 0.7.9 for [DBFLUTE-251]
+                    _log.info("*The sheet name matched skip-sheet specification so skip it: " + sheetName);
+                    return;
+                }
+                if (isLargeDataSheet(sheetName)) { // already analyzed here
+                    return;
+                }
+                _tableName = resolveTableName(sheetName);
+            }
+            _sheetName = sheetName;
+            _rowRecordSet = new BitSet();
+            _maxRowRecordIndex = -1;
+            _headerCellMap = null;
+            _bufferedCellMap.clear();
+            _bufferedRowIndex = -1;
+            _lastHandledRowIndex = -1;
+            _rowEnd = false;
+            _table = null;
+            _sheetColumnSize = 0;
+        }
+
+        protected void endSheet() {
+            handleBufferedRow();
+            if (!_rowEnd) { // trailing rows that have no cell
+                handleEmptyRowsUntil(_maxRowRecordIndex + 1);
+            }
+            if (_headerCellMap == null) {
+                throwXlsReaderFirstRowNotColumnDefinitionException(_tableName);
+            }
+            if (_table == null) { // no data row
+                setupColumns(null);
+            }
+            if (_largeDataOnly) {
+                setupLargeDataMap(_sheetName, _table);
+            } else {
+                _handler.handleTableEnd(_table);
+            }
+            _sheetName = null;
+            _table = null;
+        }
+
+        protected void handleCell(XlsStreamCell cell) {
+            if (_rowEnd) {
+                return;
+            }
+            final int rowIndex = cell.getRowIndex();
+            if (rowIndex != _bufferedRowIndex) {
+                if (rowIndex <= _lastHandledRowIndex) { // no way
+                    return;
+                }
+                handleBufferedRow();
+                handleEmptyRowsUntil(rowIndex);
+                if (_rowEnd) {
+                    return;
+                }
+                _bufferedRowIndex = rowIndex;
+            }
+            _bufferedCellMap.put(cell.getColumnIndex(), cell);
+        }
+
+        protected void handleBufferedRow() {
+            if (_bufferedRowIndex < 0) {
+                return;
+            }
+            handleRow(_bufferedRowIndex, _bufferedCellMap);
+            _bufferedRowIndex = -1;
+            _bufferedCellMap.clear();
+        }
+
+        protected void handleEmptyRowsUntil(int exclusiveRowIndex) {
+            final Map<Integer, XlsStreamCell> emptyMap = Collections.emptyMap();
+            for (int rowIndex = _lastHandledRowIndex + 1; rowIndex < exclusiveRowIndex; rowIndex++) {
+                if (!_rowRecordSet.get(rowIndex)) { // missing row ends the sheet like the plain reader
+                    _rowEnd = true;
+                    return;
+                }
+                handleRow(rowIndex, emptyMap); // e.g. formatted row
+            }
+        }
+
+        protected void handleRow(int rowIndex, Map<Integer, XlsStreamCell> cellMap) {
+            _lastHandledRowIndex = rowIndex;
+            if (rowIndex == 0) { // column definition
+                _headerCellMap = new HashMap<Integer, XlsStreamCell>(cellMap);
+                return;
+            }
+            if (_table == null) { // first data row
+                setupColumns(cellMap);
+            }
+            final DfDataRow dataRow = setupRow(rowIndex, cellMap);
+            if (_handler != null) {
+                _handler.handleRow(_table, dataRow);
+            }
+        }
+
+        protected void setupColumns(Map<Integer, XlsStreamCell> valueCellMap) {
+            final DfDataTable table = new DfDataTable(_tableName);
+            for (int i = 0;; ++i) {
+                final XlsStreamCell nameCell = _headerCellMap.get(i);
+                if (nameCell == null || nameCell.getCellType() != HSSFCell.CELL_TYPE_STRING) {
+                    break; // blank cell is also here
+                }
+                final String columnName = ((String) nameCell.getValue()).trim();
+                if (columnName.length() == 0) {
+                    break;
+                }
+                final XlsStreamCell valueCell = valueCellMap != null ? valueCellMap.get(i) : null;
+                if (valueCell != null) {
+                    table.addColumn(columnName, getColumnType(valueCell));
+                } else {
+                    table.addColumn(columnName);
+                }
+            }
+            _table = table;
+            _sheetColumnSize = table.getColumnSize();
+            if (_handler != null) {
+                _handler.handleTable(table);
+            }
+        }
+
+        protected DfDataRow setupRow(int rowIndex, Map<Integer, XlsStreamCell> cellMap) {
+            final DfDataRow dataRow = createDataRow();
+            XlsStreamCell cell = null;
+            Object value = null;
+            DfDataColumn column = null;
+            try {
+                for (int columnIndex = 0; columnIndex < _sheetColumnSize; ++columnIndex) {
+                    cell = cellMap.get(columnIndex);
+                    value = extractCellValue(_table, columnIndex, rowIndex, cell);
+                    column = _table.getColumn(columnIndex);
+                    final String columnName = column.getColumnDbName();
+                    try {
+                        dataRow.addValue(columnName, value);
+                    } catch (NumberFormatException e) {
+                        if (cell.getCellType() != HSSFCell.CELL_TYPE_STRING) {
+                            throw e;
+                        }
+                        _log.info("...Changing the column type to STRING type: name=" + columnName + " value="
+                                + value);
+                        column.setColumnType(DfDtsColumnTypes.STRING);
+                        dataRow.addValue(columnName, value);
+                    }
+                }
+            } catch (RuntimeException e) {
+                final Integer rowNum = column != null ? rowIndex : null;
+                final Integer cellType = cell != null ? cell.getCellType() : null;
+                throwCellValueHandlingException(_table, column, rowNum, cellType, value, e);
+            }
+            return dataRow;
+        }
+
+        protected DfDataRow createDataRow() {
+            if (_keepRows) {
+                return _table.addRow();
+            }
+            final DfDataRow dataRow = new DfDataRow(_table, _lastHandledRowIndex); // same as index of kept rows
+            dataRow.setState(DfDtsRowStates.CREATED);
+            return dataRow;
+        }
+
+        protected Object extractCellValue(DfDataTable table, int columnIndex, int rowIndex, XlsStreamCell cell) {
+            if (cell == null) {
+                return isEmptyStringTarget(table, columnIndex) ? "" : null;
+            }
+            switch (cell.getCellType()) {
+            case HSSFCell.CELL_TYPE_NUMERIC:
+                final double numericCellValue = (Double) cell.getValue();
+                if (isDateFormat(cell.getFormat())) {
+                    return DfTypeUtil.toTimestamp(HSSFDateUtil.getJavaDate(numericCellValue, _date1904));
+                }
+                if (isInt(numericCellValue)) {
+                    return new BigDecimal((int) numericCellValue);
+                }
+                return new BigDecimal(Double.toString(numericCellValue));
+            case HSSFCell.CELL_TYPE_STRING:
+                return processRichStringCellValue(table, columnIndex, rowIndex, cell);
+            case HSSFCell.CELL_TYPE_BOOLEAN:
+                return cell.getValue();
+            default:
+                return isEmptyStringTarget(table, columnIndex) ? "" : null;
+            }
+        }
+
+        protected Object processRichStringCellValue(DfDataTable table, int columnIndex, int rowIndex,
+                XlsStreamCell cell) {
+            String str = (String) cell.getValue();
+            str = rtrimCellValueIfNeeds(table, columnIndex, str); // basically for compatible
+            str = treatEmptyAsNullBasically(str); // empty means null basically
+            str = treatNullAsEmptyIfTarget(table, columnIndex, str); // but empty if target
+            str = treatCrLfAsLf(str); // remove CR
+            if (isBase64Format(cell.getFormat())) {
+                return decodeAsBase64(str);
+            }
+            // normal cell here
+            return resolveLargeDataIfNeeds(table, columnIndex, rowIndex, str);
+        }
+
+        protected DfDtsColumnType getColumnType(XlsStreamCell cell) {
+            switch (cell.getCellType()) {
+            case HSSFCell.CELL_TYPE_NUMERIC:
+                if (isDateFormat(cell.getFormat())) {
+                    return DfDtsColumnTypes.TIMESTAMP;
+                }
+                return DfDtsColumnTypes.BIGDECIMAL;
+            case HSSFCell.CELL_TYPE_BOOLEAN:
+                return DfDtsColumnTypes.BOOLEAN;
+            case HSSFCell.CELL_TYPE_STRING:
+                if (isBase64Format(cell.getFormat())) {
+                    return DfDtsColumnTypes.BINARY;
+                }
+                return DfDtsColumnTypes.STRING;
+            default:
+                return DfDtsColumnTypes.STRING;
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                          Stream Cell
+    //                                          -----------
+    /**
+     * The cell read from the record, which has the type of usermodel cell.
+     */
+    protected static class XlsStreamCell {
+
+        protected final int _rowIndex;
+        protected final int _columnIndex;
+        protected final int _cellType; // e.g. HSSFCell.CELL_TYPE_STRING
+        protected final Object _value; // Double, String, Boolean or null
+        protected final String _format; // null allowed
+
+        public XlsStreamCell(int rowIndex, int columnIndex, int cellType, Object value, String format) {
+            _rowIndex = rowIndex;
+            _columnIndex = columnIndex;
+            _cellType = cellType;
+            _value = value;
+            _format = format;
+        }
+
+        public int getRowIndex() {
+            return _rowIndex;
+        }
+
+        public int getColumnIndex() {
+            return _columnIndex;
+        }
+
+        public int getCellType() {
+            return _cellType;
+        }
+
+        public Object getValue() {
+            return _value;
+        }
+
+        public String getFormat() {
+            return _format;
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class DfRunnerInformation {
     protected boolean _ignoreTxError;
     protected boolean _suppressLoggingSql;
     protected String _encoding;
+    protected int _sqlBatchSize; // zero or one means no batch
 
     // ===================================================================================
     //                                                                            Accessor
@@ -138,4 +139,12 @@ public class DfRunnerInformation {
     public void setEncoding(String encoding) {
         this._encoding = encoding;
     }
+
+    public int getSqlBatchSize() {
+        return _sqlBatchSize;
+    }
+
+    public void setSqlBatchSize(int sqlBatchSize) {
+        this._sqlBatchSize = sqlBatchSize;
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.jdbc.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.seasar.dbflute.util.DfTypeUtil;
+
+/**
+ * The data source that always returns the one dedicated connection. <br />
+ * This is for a worker thread that needs its own connection (e.g. parallel loading),
+ * because the fitting data source shares one cached connection.
+ * @author jflute
+ * @since 1.0.5K (2014/07/16 Wednesday)
+ */
+public class DfDedicatedDataSource extends DfCushionDataSource {
+
+    protected final DfFittingConnection _connection;
+
+    /**
+     * @param realConnection The real connection dedicated to this data source. (NotNull)
+     */
+    public DfDedicatedDataSource(Connection realConnection) {
+        _connection = new DfFittingConnection(realConnection); // close() does not close it
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return _connection;
+    }
+
+    /**
+     * Close the dedicated connection really. (basically auto-commit so no commit here)
+     * @throws SQLException When it fails to close.
+     */
+    public void closeReally() throws SQLException {
+        _connection.closeReally();
+    }
+
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":" + _connection;
+    }
+}
@@ -99,12 +99,13 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
         BufferedReader br = null;
         try {
             br = new BufferedReader(newInputStreamReader());
-            final List<String> sqlList = extractSqlList(br);
+            final SqlStatementReader sqlReader = createSqlStatementReader(br); // streaming
 
             setupConnection();
             setupStatement();
             int sqlNumber = 0;
-            for (String sql : sqlList) {
+            String sql;
+            while ((sql = sqlReader.readSql()) != null) {
                 ++sqlNumber;
                 currentSql = sql;
                 if (sqlNumber == 1 && !isTargetFile(sql)) { // first SQL only 
@@ -121,6 +122,7 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
                 }
                 execSQL(realSql);
             }
+            flushSql();
             rollbackOrCommit();
         } catch (SQLFailureException breakCause) {
             if (_runInfo.isBreakCauseThrow()) {
@@ -336,139 +338,216 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
     // ===================================================================================
     //                                                                         Extract SQL
     //                                                                         ===========
+    /**
+     * Extract all SQL statements in the file at once. <br />
+     * The runner reads them one by one by {@link SqlStatementReader} so this is for e.g. analysis.
+     * @param br The reader of SQL file. (NotNull)
+     * @return The list of SQL statements. (NotNull)
+     */
     protected List<String> extractSqlList(BufferedReader br) {
         final List<String> sqlList = new ArrayList<String>();
-        final DelimiterChanger delimiterChanger = newDelimterChanger();
-        try {
-            String sql = "";
-            String line = "";
-            boolean inGroup = false;
-            boolean alwaysNeedsLineSeparator = false;
-            boolean isAlreadyProcessUTF8Bom = false;
-            while ((line = br.readLine()) != null) {
-                if (!isAlreadyProcessUTF8Bom) {
-                    line = removeUTF8BomIfNeeds(line);
-                    isAlreadyProcessUTF8Bom = true;
-                }
-                if (!inGroup && isSqlTrimAndRemoveLineSeparator()) {
-                    line = line.trim();
-                }
-                if (!alwaysNeedsLineSeparator && isSqlTrimAndRemoveLineSeparator()
-                        && isHandlingCommentOnLineSeparator()) {
-                    if (isDbCommentLine(line)) {
-                        alwaysNeedsLineSeparator = true;
-                    }
-                }
-
-                // SQL defines "--" as a comment to EOL
-                // and in Oracle it may contain a hint
-                // so we cannot just remove it, instead we must end it
-                if (line.trim().startsWith("--")) { // If this line is comment only, ...
-                    // = = = = = = = = = = =
-                    // Line for Line Comment
-                    // = = = = = = = = = = =
-
-                    // Group Specification
-                    // /- - - - - - - - - - - - - - - -
-                    if (line.trim().contains("#df:begin#")) {
-                        inGroup = true;
-                        if (!sql.contains("#df:checkEnv(")) { // patch for checkEnv
-                            sql = "";
-                        }
-                        continue;
-                    } else if (line.trim().contains("#df:end#")) {
-                        inGroup = false;
-                        sql = removeTerminater4ToolIfNeeds(sql); // [DBFLUTE-309]
-                        addSqlToList(sqlList, sql);
-
-                        // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
-                        continue;
-                    }
-                    // - - - - - - - - - -/
+        final SqlStatementReader sqlReader = createSqlStatementReader(br);
+        String sql;
+        while ((sql = sqlReader.readSql()) != null) {
+            sqlList.add(sql);
+        }
+        return sqlList;
+    }
 
-                    // real line comment
-                    line = replaceCommentQuestionMarkIfNeeds(line);
+    protected SqlStatementReader createSqlStatementReader(BufferedReader br) {
+        return new SqlStatementReader(br, newDelimterChanger());
+    }
 
-                    if (inGroup) {
-                        sql = sql + line + ln();
-                        continue;
+    /**
+     * The reader of SQL statements in the file, which reads lines until the end of next statement. <br />
+     * So the memory does not depend on the size of file, and the runner can execute the statement soon.
+     */
+    protected class SqlStatementReader {
+
+        protected final BufferedReader _br;
+        protected final DelimiterChanger _delimiterChanger;
+        protected final StringBuilder _sql = new StringBuilder();
+        protected boolean _inGroup;
+        protected boolean _alwaysNeedsLineSeparator;
+        protected boolean _alreadyProcessUTF8Bom;
+        protected boolean _finished;
+
+        public SqlStatementReader(BufferedReader br, DelimiterChanger delimiterChanger) {
+            _br = br;
+            _delimiterChanger = delimiterChanger;
+        }
+
+        /**
+         * Read the next SQL statement.
+         * @return The SQL statement that is not line comment only. (NullAllowed: if null, end of file)
+         */
+        public String readSql() {
+            if (_finished) {
+                return null;
+            }
+            try {
+                String line;
+                while ((line = _br.readLine()) != null) {
+                    final String sql = handleLine(line);
+                    if (sql != null) {
+                        return sql;
                     }
-                    sql = sql + line + ln();
-                } else {
-                    // = = = = = = = = = =
-                    // Line for SQL Clause
-                    // = = = = = = = = = =
+                }
+            } catch (IOException e) {
+                String msg = "Failed to read the SQL file: " + _sqlFile;
+                throw new IllegalStateException(msg, e);
+            }
+            _finished = true;
+            final String lastSql = _sql.toString().trim();
+            _sql.setLength(0);
+            if (lastSql.length() > 0) {
+                return prepareExtractedSql(lastSql); // for Last SQL
+            }
+            return null;
+        }
 
-                    if (inGroup) {
-                        sql = sql + line + ln();
-                        continue;
-                    }
+        protected String handleLine(String line) {
+            if (!_alreadyProcessUTF8Bom) {
+                line = removeUTF8BomIfNeeds(line);
+                _alreadyProcessUTF8Bom = true;
+            }
+            if (!_inGroup && isSqlTrimAndRemoveLineSeparator()) {
+                line = line.trim();
+            }
+            if (!_alwaysNeedsLineSeparator && isSqlTrimAndRemoveLineSeparator() && isHandlingCommentOnLineSeparator()) {
+                if (isDbCommentLine(line)) {
+                    _alwaysNeedsLineSeparator = true;
+                }
+            }
 
-                    final String lineConnect;
-                    if (isSqlTrimAndRemoveLineSeparator()) {
-                        if (alwaysNeedsLineSeparator) {
-                            lineConnect = ln();
-                        } else {
-                            lineConnect = " ";
-                        }
-                    } else {
-                        lineConnect = "";
-                    }
-                    if (line.indexOf("--") >= 0) { // If this line contains both SQL and comment, ...
-                        // With Line Comment
-                        line = replaceCommentQuestionMarkIfNeeds(line);
-                        sql = sql + lineConnect + line + ln();
-                    } else {
-                        // SQL Clause Only
-                        final String lineTerminator = isSqlTrimAndRemoveLineSeparator() ? "" : ln();
-                        sql = sql + lineConnect + line + lineTerminator;
+            // SQL defines "--" as a comment to EOL
+            // and in Oracle it may contain a hint
+            // so we cannot just remove it, instead we must end it
+            final String trimmedLine = line.trim();
+            if (trimmedLine.startsWith("--")) { // If this line is comment only, ...
+                // = = = = = = = = = = =
+                // Line for Line Comment
+                // = = = = = = = = = = =
+
+                // Group Specification
+                // /- - - - - - - - - - - - - - - -
+                if (trimmedLine.contains("#df:begin#")) {
+                    _inGroup = true;
+                    if (_sql.indexOf("#df:checkEnv(") < 0) { // patch for checkEnv
+                        _sql.setLength(0);
                     }
+                    return null;
+                } else if (trimmedLine.contains("#df:end#")) {
+                    _inGroup = false;
+                    final String sql = removeTerminater4ToolIfNeeds(_sql.toString()); // [DBFLUTE-309]
+
+                    // End Point of SQL!
+                    _alwaysNeedsLineSeparator = false;
+                    _sql.setLength(0);
+                    return prepareExtractedSql(sql);
+                }
+                // - - - - - - - - - -/
+
+                // real line comment
+                line = replaceCommentQuestionMarkIfNeeds(line);
+                _sql.append(line).append(ln());
+                if (_inGroup) {
+                    return null;
                 }
+            } else {
+                // = = = = = = = = = =
+                // Line for SQL Clause
+                // = = = = = = = = = =
 
-                if (sql.trim().endsWith(_runInfo.getDelimiter())) {
-                    // = = = = = = = =
-                    // End of the SQL
-                    // = = = = = = = =
+                if (_inGroup) {
+                    _sql.append(line).append(ln());
+                    return null;
+                }
 
-                    sql = sql.trim();
-                    sql = sql.substring(0, sql.length() - _runInfo.getDelimiter().length());
-                    sql = sql.trim();
-                    if ("".equals(sql)) {
-                        continue;
+                final String lineConnect;
+                if (isSqlTrimAndRemoveLineSeparator()) {
+                    if (_alwaysNeedsLineSeparator) {
+                        lineConnect = ln();
+                    } else {
+                        lineConnect = " ";
                     }
-                    if (!delimiterChanger.isDelimiterChanger(sql)) {
-                        addSqlToList(sqlList, sql);
+                } else {
+                    lineConnect = "";
+                }
+                if (line.indexOf("--") >= 0) { // If this line contains both SQL and comment, ...
+                    // With Line Comment
+                    line = replaceCommentQuestionMarkIfNeeds(line);
+                    _sql.append(lineConnect).append(line).append(ln());
+                } else {
+                    // SQL Clause Only
+                    final String lineTerminator = isSqlTrimAndRemoveLineSeparator() ? "" : ln();
+                    _sql.append(lineConnect).append(line).append(lineTerminator);
+                }
+            }
 
-                        // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
-                    } else {
-                        _runInfo.setDelimiter(delimiterChanger.getNewDelimiter(sql, _runInfo.getDelimiter()));
+            final String delimiter = _runInfo.getDelimiter();
+            if (endsWithDelimiter(_sql, delimiter)) {
+                // = = = = = = = =
+                // End of the SQL
+                // = = = = = = = =
+
+                String sql = _sql.toString().trim();
+                sql = sql.substring(0, sql.length() - delimiter.length());
+                sql = sql.trim();
+                _sql.setLength(0);
+                if ("".equals(sql)) {
+                    return null;
+                }
 
-                        // End Point of SQL!
-                        alwaysNeedsLineSeparator = false;
-                        sql = "";
-                    }
+                // End Point of SQL!
+                _alwaysNeedsLineSeparator = false;
+                if (!_delimiterChanger.isDelimiterChanger(sql)) {
+                    return prepareExtractedSql(sql);
+                } else {
+                    _runInfo.setDelimiter(_delimiterChanger.getNewDelimiter(sql, delimiter));
                 }
             }
-            sql = sql.trim();
-            if (sql.length() > 0) {
-                addSqlToList(sqlList, sql); // for Last SQL
+            return null;
+        }
+    }
+
+    /**
+     * Does the trimmed SQL end with the delimiter? (without building the trimmed string)
+     * @param sql The building SQL. (NotNull)
+     * @param delimiter The delimiter of SQL statements. (NotNull)
+     * @return The determination, true or false.
+     */
+    protected boolean endsWithDelimiter(CharSequence sql, String delimiter) {
+        int end = sql.length();
+        while (end > 0 && sql.charAt(end - 1) <= ' ') { // same as String#trim()
+            --end;
+        }
+        int begin = 0;
+        while (begin < end && sql.charAt(begin) <= ' ') {
+            ++begin;
+        }
+        final int delimiterLength = delimiter.length();
+        if (end - begin < delimiterLength) {
+            return false;
+        }
+        final int offset = end - delimiterLength;
+        for (int i = 0; i < delimiterLength; i++) {
+            if (sql.charAt(offset + i) != delimiter.charAt(i)) {
+                return false;
             }
-        } catch (IOException e) {
-            String msg = "The method 'extractSqlList()' threw the IOException!";
-            throw new IllegalStateException(msg, e);
         }
-        return sqlList;
+        return true;
     }
 
-    protected void addSqlToList(List<String> sqlList, String sql) {
+    /**
+     * @param sql The extracted SQL. (NotNull)
+     * @return The SQL to be executed. (NullAllowed: if null, the SQL has line comments only)
+     */
+    protected String prepareExtractedSql(String sql) {
         if (isSqlLineCommentOnly(sql)) {
-            return;
+            return null;
         }
-        sqlList.add(removeCR(sql));
+        return removeCR(sql);
     }
 
     protected boolean isSqlLineCommentOnly(String sql) {
@@ -610,6 +689,13 @@ public abstract class DfSqlFileRunnerBase implements DfSqlFileRunner {
      */
     protected abstract void execSQL(String sql);
 
+    /**
+     * Flush the SQL statements pending in the runner (e.g. batch) before the end of transaction.
+     */
+    protected void flushSql() {
+        // do nothing as default (executed one by one)
+    }
+
     /**
      * @return The determination, true or false.
      */
@@ -15,7 +15,10 @@
  */
 package org.seasar.dbflute.helper.jdbc.sqlfile;
 
+import java.io.File;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -38,6 +41,7 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
     //                                                                           Attribute
     //                                                                           =========
     protected DfSqlFileRunnerDispatcher _dispatcher;
+    protected final List<String> _batchSqlList = new ArrayList<String>(); // pending in the statement
 
     // ===================================================================================
     //                                                                         Constructor
@@ -46,6 +50,12 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
         super(runInfo, dataSource);
     }
 
+    @Override
+    public void prepare(File sqlFile) {
+        super.prepare(sqlFile);
+        _batchSqlList.clear(); // just in case (e.g. broken by reading error)
+    }
+
     // ===================================================================================
     //                                                                         Execute SQL
     //                                                                         ===========
@@ -53,6 +63,9 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
      * {@inheritDoc}
      */
     protected void execSQL(String sql) {
+        if (!isBatchTargetSql(sql)) {
+            flushBatchSql(); // keep the order of statements
+        }
         boolean lazyConnectFailed = false;
         try {
             final DfRunnerDispatchResult dispatchResult = dispatch(sql);
@@ -95,6 +108,10 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
 
     protected void processNonDispatch(String sql) throws SQLException {
         checkStatement(sql);
+        if (isBatchTargetSql(sql)) {
+            addBatchSql(sql);
+            return;
+        }
         _currentStatement.execute(sql);
     }
 
@@ -146,6 +163,102 @@ public class DfSqlFileRunnerExecute extends DfSqlFileRunnerBase {
         return sb;
     }
 
+    // ===================================================================================
+    //                                                                           Batch SQL
+    //                                                                           =========
+    /**
+     * Is the SQL executed as batch? <br />
+     * Only plain DML statements are grouped when the SQL batch size is set,
+     * and error-continue is not supported with batch because a failure cannot be related to one statement.
+     * @param sql The SQL to be executed. (NotNull)
+     * @return The determination, true or false.
+     */
+    protected boolean isBatchTargetSql(String sql) {
+        if (_runInfo.getSqlBatchSize() <= 1 || _runInfo.isErrorContinue()) {
+            return false;
+        }
+        if (!isBatchDispatchFree()) {
+            return false;
+        }
+        return isPlainDmlSql(sql);
+    }
+
+    /**
+     * @return Is the dispatcher not executing statements now? (e.g. no change user)
+     */
+    protected boolean isBatchDispatchFree() { // for override
+        return _dispatcher == null;
+    }
+
+    protected boolean isPlainDmlSql(String sql) {
+        String rear = sql.trim();
+        while (rear.startsWith("--")) { // skip line comments
+            final int lineEnd = rear.indexOf(ln());
+            if (lineEnd < 0) {
+                return false;
+            }
+            rear = rear.substring(lineEnd + ln().length()).trim();
+        }
+        final int firstSpace = indexOfWhitespace(rear);
+        if (firstSpace < 0) {
+            return false;
+        }
+        final String keyword = rear.substring(0, firstSpace);
+        return "insert".equalsIgnoreCase(keyword) || "update".equalsIgnoreCase(keyword)
+                || "delete".equalsIgnoreCase(keyword);
+    }
+
+    protected int indexOfWhitespace(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isWhitespace(str.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    protected void addBatchSql(String sql) throws SQLException {
+        _currentStatement.addBatch(sql);
+        _batchSqlList.add(sql);
+        if (_batchSqlList.size() >= _runInfo.getSqlBatchSize()) {
+            flushBatchSql();
+        }
+    }
+
+    protected void flushBatchSql() {
+        if (_batchSqlList.isEmpty()) {
+            return;
+        }
+        try {
+            _currentStatement.executeBatch();
+        } catch (SQLException e) {
+            _goodSqlCount = _goodSqlCount - _batchSqlList.size(); // counted when added
+            throwSQLFailureException(buildBatchDisplaySql(), e);
+        } finally {
+            _batchSqlList.clear();
+            try {
+                if (_currentStatement != null) {
+                    _currentStatement.clearBatch();
+                }
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    protected String buildBatchDisplaySql() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("(batch of ").append(_batchSqlList.size()).append(" statements)");
+        for (String sql : _batchSqlList) {
+            sb.append(ln()).append(sql).append(";");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected void flushSql() {
+        flushBatchSql();
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
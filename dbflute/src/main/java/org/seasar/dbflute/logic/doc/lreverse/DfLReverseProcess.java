@@ -42,10 +42,11 @@ import org.seasar.dbflute.exception.DfXlsReaderReadFailureException;
 import org.seasar.dbflute.exception.factory.ExceptionMessageBuilder;
 import org.seasar.dbflute.helper.StringKeyMap;
 import org.seasar.dbflute.helper.StringSet;
-import org.seasar.dbflute.helper.dataset.DfDataSet;
+import org.seasar.dbflute.helper.dataset.DfDataRow;
 import org.seasar.dbflute.helper.dataset.DfDataTable;
 import org.seasar.dbflute.helper.io.compress.DfZipArchiver;
-import org.seasar.dbflute.helper.io.xls.DfTableXlsReader;
+import org.seasar.dbflute.helper.io.xls.DfTableXlsStreamHandler;
+import org.seasar.dbflute.helper.io.xls.DfTableXlsStreamReader;
 import org.seasar.dbflute.helper.jdbc.context.DfSchemaSource;
 import org.seasar.dbflute.logic.jdbc.schemaxml.DfSchemaXmlReader;
 import org.seasar.dbflute.logic.jdbc.schemaxml.DfSchemaXmlSerializer;
@@ -441,13 +442,8 @@ public class DfLReverseProcess {
         final String dataDirPath = resolvePath(baseDir);
         final Map<String, String> tableNameMap = _tableNameProp.getTableNameMap(dataDirPath);
         for (File existingXls : existingXlsList) {
-            final DfTableXlsReader reader = createTableXlsReader(baseDir, existingXls, tableNameMap);
-            final DfDataSet dataSet = reader.read();
-            final List<String> tableList = new ArrayList<String>();
-            for (int i = 0; i < dataSet.getTableSize(); i++) {
-                final DfDataTable dataTable = dataSet.getTable(i);
-                final String tableDbName = dataTable.getTableDbName();
-                tableList.add(tableDbName);
+            final List<String> tableList = readExistingTableList(baseDir, existingXls, tableNameMap);
+            for (String tableDbName : tableList) {
                 if (tableExistingXlsMap.containsKey(tableDbName)) {
                     throwLoadDataReverseDuplicateTableException(tableExistingXlsMap, tableDbName);
                 }
@@ -458,12 +454,24 @@ public class DfLReverseProcess {
         return new DfLReverseExistingXlsInfo(existingXlsTableListMap, tableExistingXlsMap);
     }
 
-    protected DfTableXlsReader createTableXlsReader(File baseDir, File existingXls, Map<String, String> tableNameMap) {
+    protected List<String> readExistingTableList(File baseDir, File existingXls, Map<String, String> tableNameMap) {
+        final DfTableXlsStreamReader reader = createTableXlsReader(existingXls, tableNameMap);
+        final List<String> tableList = new ArrayList<String>();
         try {
-            return new DfTableXlsReader(existingXls, tableNameMap, null, null, null, false);
+            reader.read(new DfTableXlsStreamHandler() { // only table names are needed so rows are not kept
+                public void handleTable(DfDataTable table) {
+                    tableList.add(table.getTableDbName());
+                }
+
+                public void handleRow(DfDataTable table, DfDataRow row) {
+                }
+
+                public void handleTableEnd(DfDataTable table) {
+                }
+            });
         } catch (DfXlsReaderReadFailureException e) {
             final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
-            br.addNotice("Failed to create xls reader for LoadDataReverse.");
+            br.addNotice("Failed to read the existing xls for LoadDataReverse.");
             br.addItem("Base Dir");
             br.addElement(resolvePath(baseDir));
             br.addItem("Xls File");
@@ -471,6 +479,11 @@ public class DfLReverseProcess {
             final String msg = br.buildExceptionMessage();
             throw new DfLReverseProcessFailureException(msg, e);
         }
+        return tableList;
+    }
+
+    protected DfTableXlsStreamReader createTableXlsReader(File existingXls, Map<String, String> tableNameMap) {
+        return new DfTableXlsStreamReader(existingXls, tableNameMap, null, null, null, false);
     }
 
     protected void throwLoadDataReverseDuplicateTableException(Map<String, File> existingXlsMap, String tableDbName) {
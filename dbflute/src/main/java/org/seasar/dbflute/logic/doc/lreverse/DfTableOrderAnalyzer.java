@@ -292,6 +292,68 @@ public class DfTableOrderAnalyzer {
         }
     }
 
+    // ===================================================================================
+    //                                                                        Analyze Wave
+    //                                                                        ============
+    /**
+     * Analyze the waves of tables by their names, which each table depends on only tables in previous waves. <br />
+     * The tables in one wave are independent so they can be handled concurrently (e.g. parallel loading).
+     * The level of dependency is the same as {@link #analyzeOrder(List, List)} but no grouping. <br />
+     * Cyclic tables that cannot be analyzed are added to the tail as one table per one wave
+     * in order of the keys of the map (e.g. file order of loading data, the same as sequential loading).
+     * @param parentNameMap The map of table name and its parent table names, ordered for cyclic tables. (NotNull)
+     * @return The list of waves that contain table names ordered by the name. (NotNull)
+     */
+    public List<List<String>> analyzeWave(Map<String, Set<String>> parentNameMap) {
+        final Set<String> targetNameSet = new HashSet<String>(); // lower case to ignore case
+        for (String tableName : parentNameMap.keySet()) {
+            targetNameSet.add(tableName.toLowerCase());
+        }
+        final Set<String> alreadyRegisteredSet = new HashSet<String>(); // lower case
+        final List<List<String>> waveList = new ArrayList<List<String>>();
+        List<String> unregisteredList = new ArrayList<String>(new TreeSet<String>(parentNameMap.keySet()));
+        while (!unregisteredList.isEmpty()) {
+            final List<String> elementList = new ArrayList<String>();
+            final List<String> nextList = new ArrayList<String>();
+            for (String tableName : unregisteredList) {
+                boolean dependsOnAny = false;
+                for (String parentName : parentNameMap.get(tableName)) {
+                    final String parentKey = parentName.toLowerCase();
+                    if (parentKey.equals(tableName.toLowerCase())) { // self reference
+                        continue;
+                    }
+                    if (targetNameSet.contains(parentKey) && !alreadyRegisteredSet.contains(parentKey)) {
+                        dependsOnAny = true; // found non-registered parent table in targets
+                        break;
+                    }
+                }
+                if (dependsOnAny) {
+                    nextList.add(tableName);
+                } else {
+                    elementList.add(tableName);
+                }
+            }
+            if (elementList.isEmpty()) { // means cyclic dependency
+                final Set<String> cyclicNameSet = new HashSet<String>(nextList);
+                for (String tableName : parentNameMap.keySet()) { // in order of the map
+                    if (!cyclicNameSet.contains(tableName)) {
+                        continue;
+                    }
+                    final List<String> singleList = new ArrayList<String>(1);
+                    singleList.add(tableName);
+                    waveList.add(singleList);
+                }
+                break; // sadly end
+            }
+            for (String tableName : elementList) { // after the wave (not to register in the same wave)
+                alreadyRegisteredSet.add(tableName.toLowerCase());
+            }
+            waveList.add(elementList);
+            unregisteredList = nextList;
+        }
+        return waveList;
+    }
+
     // ===================================================================================
     //                                                                           Main Name
     //                                                                           =========
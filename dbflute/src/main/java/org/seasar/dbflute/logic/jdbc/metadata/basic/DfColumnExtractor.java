@@ -18,9 +18,14 @@ package org.seasar.dbflute.logic.jdbc.metadata.basic;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -49,6 +54,9 @@ public class DfColumnExtractor extends DfAbstractMetaDataBasicExtractor {
     //                                                                           =========
     protected DfJdbcTypeMapper _jdbcTypeMapper;
 
+    /** The map of column list extracted in bulk. map:{ schema = map:{ tableName = list:{ column } } } */
+    protected final Map<UnifiedSchema, Map<String, List<DfColumnMeta>>> _bulkColumnListMap = new ConcurrentHashMap<UnifiedSchema, Map<String, List<DfColumnMeta>>>();
+
     // ===================================================================================
     //                                                                        Meta Getting
     //                                                                        ============
@@ -74,6 +82,10 @@ public class DfColumnExtractor extends DfAbstractMetaDataBasicExtractor {
     public List<DfColumnMeta> getColumnList(DatabaseMetaData metaData, UnifiedSchema unifiedSchema, String tableName)
             throws SQLException {
         final String translatedName = translateTableCaseName(tableName);
+        final List<DfColumnMeta> bulkList = findBulkColumnList(unifiedSchema, translatedName);
+        if (bulkList != null) { // extracted in bulk
+            return bulkList;
+        }
         List<DfColumnMeta> ls = doGetColumnList(metaData, unifiedSchema, translatedName, false);
         if (isRetryCaseInsensitiveColumn()) {
             if (ls.isEmpty() && !translatedName.equals(translatedName.toLowerCase())) { // retry by lower case
@@ -126,26 +138,7 @@ public class DfColumnExtractor extends DfAbstractMetaDataBasicExtractor {
                 }
                 columnNameSet.add(columnName);
 
-                final Integer jdbcTypeCode = Integer.valueOf(rs.getString(5));
-                final String dbTypeName = rs.getString(6);
-                final Integer columnSize = Integer.valueOf(rs.getInt(7));
-                final Integer decimalDigits = rs.getInt(9);
-                final Integer nullType = Integer.valueOf(rs.getInt(11));
-                final String columnComment = rs.getString(12);
-                final String defaultValue = rs.getString(13);
-
-                final DfColumnMeta columnMeta = new DfColumnMeta();
-                columnMeta.setTableName(metaTableName);
-                columnMeta.setColumnName(columnName);
-                columnMeta.setJdbcDefValue(jdbcTypeCode);
-                columnMeta.setDbTypeName(dbTypeName);
-                columnMeta.setColumnSize(columnSize);
-                columnMeta.setDecimalDigits(decimalDigits);
-                columnMeta.setRequired(nullType == 0);
-                columnMeta.setColumnComment(columnComment);
-                columnMeta.setDefaultValue(filterDefaultValue(defaultValue));
-
-                columnList.add(columnMeta);
+                columnList.add(createColumnMeta(rs, metaTableName, columnName));
             }
         } finally {
             if (rs != null) {
@@ -169,6 +162,29 @@ public class DfColumnExtractor extends DfAbstractMetaDataBasicExtractor {
         return columnList;
     }
 
+    protected DfColumnMeta createColumnMeta(ResultSet rs, String metaTableName, String columnName)
+            throws SQLException {
+        final Integer jdbcTypeCode = Integer.valueOf(rs.getString(5));
+        final String dbTypeName = rs.getString(6);
+        final Integer columnSize = Integer.valueOf(rs.getInt(7));
+        final Integer decimalDigits = rs.getInt(9);
+        final Integer nullType = Integer.valueOf(rs.getInt(11));
+        final String columnComment = rs.getString(12);
+        final String defaultValue = rs.getString(13);
+
+        final DfColumnMeta columnMeta = new DfColumnMeta();
+        columnMeta.setTableName(metaTableName);
+        columnMeta.setColumnName(columnName);
+        columnMeta.setJdbcDefValue(jdbcTypeCode);
+        columnMeta.setDbTypeName(dbTypeName);
+        columnMeta.setColumnSize(columnSize);
+        columnMeta.setDecimalDigits(decimalDigits);
+        columnMeta.setRequired(nullType == 0);
+        columnMeta.setColumnComment(columnComment);
+        columnMeta.setDefaultValue(filterDefaultValue(defaultValue));
+        return columnMeta;
+    }
+
     protected ResultSet extractColumnMetaData(DatabaseMetaData metaData, UnifiedSchema unifiedSchema, String tableName,
             boolean retry) throws SQLException {
         final String catalogName = unifiedSchema.getPureCatalog();
@@ -229,6 +245,73 @@ public class DfColumnExtractor extends DfAbstractMetaDataBasicExtractor {
         return map;
     }
 
+    // ===================================================================================
+    //                                                                     Bulk Extraction
+    //                                                                     ===============
+    /**
+     * Prepare the column lists of all tables in the schema by one meta data call. <br />
+     * The prepared list is used (only once) instead of meta data per table,
+     * and tables not found in it are extracted per table as before.
+     * @param metaData The meta data of database. (NotNull)
+     * @param unifiedSchema The unified schema that can contain catalog name and no-name mark. (NotNull)
+     * @return The set of table names (case sensitive) whose columns are prepared. (NotNull)
+     * @throws SQLException When it fails to extract the meta data.
+     */
+    public Set<String> prepareBulkColumnList(DatabaseMetaData metaData, UnifiedSchema unifiedSchema)
+            throws SQLException {
+        // the key is real table name so it does not use flexible map
+        final Map<String, List<DfColumnMeta>> tableColumnMap = newConcurrentHashMap();
+        final Map<String, Set<String>> columnNameSetMap = newLinkedHashMap();
+        final Set<String> duplicateTableNameSet = new LinkedHashSet<String>();
+        ResultSet rs = null;
+        try {
+            final String catalogName = unifiedSchema.getPureCatalog();
+            final String schemaName = unifiedSchema.getPureSchema();
+            rs = metaData.getColumns(catalogName, schemaName, null, null); // all tables of the schema
+            while (rs.next()) {
+                final String metaTableName = rs.getString(3);
+                final String columnName = rs.getString(4);
+                if (isColumnExcept(unifiedSchema, metaTableName, columnName)) {
+                    continue;
+                }
+                Set<String> columnNameSet = columnNameSetMap.get(metaTableName);
+                if (columnNameSet == null) {
+                    columnNameSet = StringSet.createAsFlexible();
+                    columnNameSetMap.put(metaTableName, columnNameSet);
+                    tableColumnMap.put(metaTableName, new ArrayList<DfColumnMeta>());
+                }
+                if (columnNameSet.contains(columnName)) {
+                    duplicateTableNameSet.add(metaTableName);
+                    continue;
+                }
+                columnNameSet.add(columnName);
+                tableColumnMap.get(metaTableName).add(createColumnMeta(rs, metaTableName, columnName));
+            }
+        } finally {
+            if (rs != null) {
+                rs.close();
+            }
+        }
+        for (String duplicateTableName : duplicateTableNameSet) { // e.g. Oracle synonym
+            tableColumnMap.remove(duplicateTableName); // extracted per table with duplicate handling
+        }
+        _bulkColumnListMap.put(unifiedSchema, tableColumnMap);
+        return new HashSet<String>(tableColumnMap.keySet());
+    }
+
+    protected List<DfColumnMeta> findBulkColumnList(UnifiedSchema unifiedSchema, String tableName) {
+        if (_bulkColumnListMap.isEmpty()) {
+            return null;
+        }
+        final Map<String, List<DfColumnMeta>> tableColumnMap = _bulkColumnListMap.get(unifiedSchema);
+        if (tableColumnMap == null) {
+            return null;
+        }
+        // removed because column meta instances are modified by callers
+        // (next extraction of the table is executed per table)
+        return tableColumnMap.remove(tableName);
+    }
+
     // ===================================================================================
     //                                                                 Torque Type Getting
     //                                                                 ===================
@@ -35,6 +35,7 @@ import org.apache.torque.engine.database.model.UnifiedSchema;
 import org.seasar.dbflute.exception.DfIllegalPropertySettingException;
 import org.seasar.dbflute.helper.StringKeyMap;
 import org.seasar.dbflute.helper.jdbc.context.DfDataSourceContext;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractor.UserForeignKeyColumn;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfForeignKeyMeta;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfTableMeta;
 import org.seasar.dbflute.logic.jdbc.metadata.supplement.DfUniqueKeyFkExtractor;
@@ -60,6 +61,9 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
     //                                                                           =========
     protected Map<String, DfTableMeta> _generatedTableMap;
 
+    /** The map of FK columns extracted in bulk. map:{ schema = map:{ tableName = list:{ FK column } } } */
+    protected final Map<UnifiedSchema, Map<String, List<UserForeignKeyColumn>>> _bulkForeignKeyMap = new ConcurrentHashMap<UnifiedSchema, Map<String, List<UserForeignKeyColumn>>>();
+
     // ===================================================================================
     //                                                                         Foreign Key
     //                                                                         ===========
@@ -88,6 +92,10 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
     public Map<String, DfForeignKeyMeta> getForeignKeyMap(DatabaseMetaData metaData, UnifiedSchema unifiedSchema,
             String tableName) throws SQLException {
         final String translatedName = translateTableCaseName(tableName);
+        final List<UserForeignKeyColumn> bulkColumnList = findBulkForeignKeyColumnList(unifiedSchema, translatedName);
+        if (bulkColumnList != null) { // extracted in bulk
+            return setupForeignKeyMap(unifiedSchema, translatedName, bulkColumnList);
+        }
         Map<String, DfForeignKeyMeta> map = doGetForeignKeyMap(metaData, unifiedSchema, translatedName, false);
         if (isRetryCaseInsensitiveForeignKey()) {
             if (map.isEmpty() && !translatedName.equals(translatedName.toLowerCase())) { // retry by lower case
@@ -102,11 +110,10 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
 
     protected Map<String, DfForeignKeyMeta> doGetForeignKeyMap(DatabaseMetaData metaData, UnifiedSchema unifiedSchema,
             String tableName, boolean retry) throws SQLException {
-        final Map<String, DfForeignKeyMeta> fkMap = newTableConstraintMap();
         if (isForeignKeyExtractingUnsupported()) {
-            return fkMap;
+            return newTableConstraintMap();
         }
-        final Map<String, String> exceptedFKMap = newLinkedHashMap();
+        final List<UserForeignKeyColumn> fkColumnList = new ArrayList<UserForeignKeyColumn>();
         ResultSet rs = null;
         try {
             rs = extractForeignKeyMetaData(metaData, unifiedSchema, tableName, retry);
@@ -124,12 +131,7 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
                     continue;
                 }
 
-                final String foreignCatalogName = rs.getString(1);
-                final String foreignSchemaName = rs.getString(2);
                 final String foreignTableName = rs.getString(3);
-                final String foreignColumnName = rs.getString(4);
-                final String localCatalogName = rs.getString(5);
-                final String localSchemaName = rs.getString(6);
                 final String localColumnName = rs.getString(8);
                 final String fkName;
                 {
@@ -144,58 +146,90 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
                         _log.info("...Making FK name (because of no name): " + fkName);
                     }
                 }
-
-                // handling except tables if the set for check is set
-                // (basically if the foreign table is non-generate target, it is excepted)
-                if (!isForeignTableGenerated(foreignTableName)) {
-                    exceptedFKMap.put(fkName, foreignTableName);
-                    continue;
-                }
-
-                // check except columns
-                assertFKColumnNotExcepted(unifiedSchema, tableName, localColumnName);
-                final UnifiedSchema foreignSchema = createAsDynamicSchema(foreignCatalogName, foreignSchemaName);
-                assertPKColumnNotExcepted(foreignSchema, foreignTableName, foreignColumnName);
-
-                DfForeignKeyMeta meta = fkMap.get(fkName);
-                if (meta == null) { // basically here
-                    meta = new DfForeignKeyMeta();
-                    fkMap.put(fkName, meta);
-                } else { // same-name FK was found!
-                    final String firstName = meta.getForeignTablePureName(); // pure name is enough for check
-                    final String secondName = foreignTableName;
-                    if (firstName.equalsIgnoreCase(secondName)) { // means compound FK
-                        meta.putColumnName(localColumnName, foreignColumnName);
-                        continue; // putting columns only
-                    } else { // here: same-name FK and same different foreign table.
-                        // Basically no way!
-                        // But DB2 returns to-ALIAS foreign key as same-name FK.
-                        // Same type as local's type is prior
-                        // and if types are different, use first.
-                        final String msgBase = "...Handling same-name FK ";
-                        if (judgeSameNameForeignKey(tableName, firstName, secondName)) {
-                            // use first (skip current)
-                            _log.info(msgBase + "(use first one): " + fkName + " to " + firstName);
-                            continue;
-                        } else {
-                            // use second (override)
-                            _log.info(msgBase + "(use second one): " + fkName + " to " + secondName);
-                        }
-                    }
-                }
-                // first or override
-                meta.setForeignKeyName(fkName);
-                meta.setLocalSchema(createAsDynamicSchema(localCatalogName, localSchemaName));
-                meta.setLocalTablePureName(localTableName);
-                meta.setForeignSchema(foreignSchema);
-                meta.setForeignTablePureName(foreignTableName);
-                meta.putColumnName(localColumnName, foreignColumnName);
+                final UserForeignKeyColumn fkColumn = new UserForeignKeyColumn();
+                fkColumn.setForeignKeyName(fkName);
+                fkColumn.setLocalCatalogName(rs.getString(5));
+                fkColumn.setLocalSchemaName(rs.getString(6));
+                fkColumn.setLocalTableName(localTableName);
+                fkColumn.setLocalColumnName(localColumnName);
+                fkColumn.setForeignCatalogName(rs.getString(1));
+                fkColumn.setForeignSchemaName(rs.getString(2));
+                fkColumn.setForeignTableName(foreignTableName);
+                fkColumn.setForeignColumnName(rs.getString(4));
+                fkColumnList.add(fkColumn);
             }
         } finally {
             if (rs != null) {
                 rs.close();
             }
         }
+        return setupForeignKeyMap(unifiedSchema, tableName, fkColumnList);
+    }
+
+    protected Map<String, DfForeignKeyMeta> setupForeignKeyMap(UnifiedSchema unifiedSchema, String tableName,
+            List<UserForeignKeyColumn> fkColumnList) {
+        final Map<String, DfForeignKeyMeta> fkMap = newTableConstraintMap();
+        if (isForeignKeyExtractingUnsupported()) {
+            return fkMap;
+        }
+        final Map<String, String> exceptedFKMap = newLinkedHashMap();
+        for (UserForeignKeyColumn fkColumn : fkColumnList) {
+            final String fkName = fkColumn.getForeignKeyName();
+            final String localTableName = fkColumn.getLocalTableName();
+            final String localColumnName = fkColumn.getLocalColumnName();
+            final String foreignTableName = fkColumn.getForeignTableName();
+            final String foreignColumnName = fkColumn.getForeignColumnName();
+
+            // handling except tables if the set for check is set
+            // (basically if the foreign table is non-generate target, it is excepted)
+            if (!isForeignTableGenerated(foreignTableName)) {
+                exceptedFKMap.put(fkName, foreignTableName);
+                continue;
+            }
+
+            // check except columns
+            assertFKColumnNotExcepted(unifiedSchema, tableName, localColumnName);
+            final String foreignCatalogName = fkColumn.getForeignCatalogName();
+            final String foreignSchemaName = fkColumn.getForeignSchemaName();
+            final UnifiedSchema foreignSchema = createAsDynamicSchema(foreignCatalogName, foreignSchemaName);
+            assertPKColumnNotExcepted(foreignSchema, foreignTableName, foreignColumnName);
+
+            DfForeignKeyMeta meta = fkMap.get(fkName);
+            if (meta == null) { // basically here
+                meta = new DfForeignKeyMeta();
+                fkMap.put(fkName, meta);
+            } else { // same-name FK was found!
+                final String firstName = meta.getForeignTablePureName(); // pure name is enough for check
+                final String secondName = foreignTableName;
+                if (firstName.equalsIgnoreCase(secondName)) { // means compound FK
+                    meta.putColumnName(localColumnName, foreignColumnName);
+                    continue; // putting columns only
+                } else { // here: same-name FK and same different foreign table.
+                    // Basically no way!
+                    // But DB2 returns to-ALIAS foreign key as same-name FK.
+                    // Same type as local's type is prior
+                    // and if types are different, use first.
+                    final String msgBase = "...Handling same-name FK ";
+                    if (judgeSameNameForeignKey(tableName, firstName, secondName)) {
+                        // use first (skip current)
+                        _log.info(msgBase + "(use first one): " + fkName + " to " + firstName);
+                        continue;
+                    } else {
+                        // use second (override)
+                        _log.info(msgBase + "(use second one): " + fkName + " to " + secondName);
+                    }
+                }
+            }
+            // first or override
+            final String localCatalogName = fkColumn.getLocalCatalogName();
+            final String localSchemaName = fkColumn.getLocalSchemaName();
+            meta.setForeignKeyName(fkName);
+            meta.setLocalSchema(createAsDynamicSchema(localCatalogName, localSchemaName));
+            meta.setLocalTablePureName(localTableName);
+            meta.setForeignSchema(foreignSchema);
+            meta.setForeignTablePureName(foreignTableName);
+            meta.putColumnName(localColumnName, foreignColumnName);
+        }
         reflectUniqueKeyFk(unifiedSchema, tableName, fkMap);
         handleExceptedForeignKey(exceptedFKMap, tableName);
         return immobilizeOrder(filterSameStructureForeignKey(fkMap));
@@ -320,6 +354,34 @@ public class DfForeignKeyExtractor extends DfAbstractMetaDataBasicExtractor {
         };
     }
 
+    // ===================================================================================
+    //                                                                     Bulk Extraction
+    //                                                                     ===============
+    /**
+     * Accept the FK columns extracted in bulk (e.g. from data dictionary).
+     * @param unifiedSchema The unified schema of the tables. (NotNull)
+     * @param tableNameSet The set of table names covered by the bulk extraction, case sensitive. (NotNull)
+     * @param foreignKeyMap The map of FK columns, which has only tables that have foreign keys. (NotNull)
+     */
+    public void acceptBulkForeignKey(UnifiedSchema unifiedSchema, Set<String> tableNameSet,
+            Map<String, List<UserForeignKeyColumn>> foreignKeyMap) {
+        final Map<String, List<UserForeignKeyColumn>> tableFkMap = newConcurrentHashMap();
+        final List<UserForeignKeyColumn> emptyList = DfCollectionUtil.emptyList();
+        for (String tableName : tableNameSet) {
+            final List<UserForeignKeyColumn> columnList = foreignKeyMap.get(tableName);
+            tableFkMap.put(tableName, columnList != null ? columnList : emptyList); // empty if no FK
+        }
+        _bulkForeignKeyMap.put(unifiedSchema, tableFkMap);
+    }
+
+    protected List<UserForeignKeyColumn> findBulkForeignKeyColumnList(UnifiedSchema unifiedSchema, String tableName) {
+        if (_bulkForeignKeyMap.isEmpty()) {
+            return null;
+        }
+        final Map<String, List<UserForeignKeyColumn>> tableFkMap = _bulkForeignKeyMap.get(unifiedSchema);
+        return tableFkMap != null ? tableFkMap.get(tableName) : null;
+    }
+
     // ===================================================================================
     //                                                                        UniqueKey FK
     //                                                                        ============
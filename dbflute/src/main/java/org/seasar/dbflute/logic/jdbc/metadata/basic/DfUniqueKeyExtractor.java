@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +46,12 @@ public class DfUniqueKeyExtractor extends DfAbstractMetaDataBasicExtractor {
     //                                                                          ==========
     private static final Log _log = LogFactory.getLog(DfUniqueKeyExtractor.class);
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of primary key extracted in bulk. map:{ schema = map:{ tableName = PK meta } } */
+    protected final Map<UnifiedSchema, Map<String, DfPrimaryKeyMeta>> _bulkPrimaryKeyMap = new ConcurrentHashMap<UnifiedSchema, Map<String, DfPrimaryKeyMeta>>();
+
     // ===================================================================================
     //                                                                         Primary Key
     //                                                                         ===========
@@ -72,6 +79,10 @@ public class DfUniqueKeyExtractor extends DfAbstractMetaDataBasicExtractor {
     public DfPrimaryKeyMeta getPrimaryKey(DatabaseMetaData metaData, UnifiedSchema unifiedSchema, String tableName)
             throws SQLException {
         final String translatedName = translateTableCaseName(tableName);
+        final DfPrimaryKeyMeta bulkInfo = findBulkPrimaryKey(unifiedSchema, translatedName);
+        if (bulkInfo != null) { // extracted in bulk
+            return bulkInfo;
+        }
         DfPrimaryKeyMeta info = doGetPrimaryKey(metaData, unifiedSchema, translatedName, false);
         if (isRetryCaseInsensitivePrimaryKey()) {
             if (!info.hasPrimaryKey() && !translatedName.equals(translatedName.toLowerCase())) { // retry by lower case
@@ -136,6 +147,30 @@ public class DfUniqueKeyExtractor extends DfAbstractMetaDataBasicExtractor {
         return info;
     }
 
+    /**
+     * Accept the primary keys extracted in bulk (e.g. from data dictionary).
+     * @param unifiedSchema The unified schema of the tables. (NotNull)
+     * @param tableNameSet The set of table names covered by the bulk extraction, case sensitive. (NotNull)
+     * @param primaryKeyMap The map of primary key, which has only tables that have primary key. (NotNull)
+     */
+    public void acceptBulkPrimaryKey(UnifiedSchema unifiedSchema, Set<String> tableNameSet,
+            Map<String, DfPrimaryKeyMeta> primaryKeyMap) {
+        final Map<String, DfPrimaryKeyMeta> tablePkMap = newConcurrentHashMap();
+        for (String tableName : tableNameSet) {
+            final DfPrimaryKeyMeta pkMeta = primaryKeyMap.get(tableName);
+            tablePkMap.put(tableName, pkMeta != null ? pkMeta : new DfPrimaryKeyMeta()); // empty if no PK
+        }
+        _bulkPrimaryKeyMap.put(unifiedSchema, tablePkMap);
+    }
+
+    protected DfPrimaryKeyMeta findBulkPrimaryKey(UnifiedSchema unifiedSchema, String tableName) {
+        if (_bulkPrimaryKeyMap.isEmpty()) {
+            return null;
+        }
+        final Map<String, DfPrimaryKeyMeta> tablePkMap = _bulkPrimaryKeyMap.get(unifiedSchema);
+        return tablePkMap != null ? tablePkMap.get(tableName) : null;
+    }
+
     protected void warnPrimaryKeyPositionNotNumberException(String tableName, String columnName, String posStr) {
         String msg = "The primary key column should have ordinal-position as number but: ";
         msg = msg + posStr + ", " + tableName + "." + columnName;
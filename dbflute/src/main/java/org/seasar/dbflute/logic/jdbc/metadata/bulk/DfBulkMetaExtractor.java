@@ -0,0 +1,128 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+import java.util.List;
+import java.util.Map;
+
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfPrimaryKeyMeta;
+
+/**
+ * The extractor of constraint meta data for all tables of a schema in bulk. <br />
+ * It selects data dictionary by set-based queries instead of JDBC meta data per table.
+ * The keys of returned maps are real table names (case sensitive)
+ * because e.g. MEMBER_STATUS and MEMBERSTATUS are different tables.
+ * @author jflute
+ * @since 1.0.5K (2014/07/17 Thursday)
+ */
+public interface DfBulkMetaExtractor {
+
+    /**
+     * Extract primary keys of all tables in the schema.
+     * @return The map of primary key. map:{ tableName = PK meta } (NotNull: only tables that have PK)
+     */
+    Map<String, DfPrimaryKeyMeta> extractPrimaryKeyMap();
+
+    /**
+     * Extract foreign keys (to primary key or unique key) of all tables in the schema.
+     * @return The map of FK columns. map:{ tableName = list:{ columns ordered by FK name and position } } (NotNull)
+     */
+    Map<String, List<UserForeignKeyColumn>> extractForeignKeyMap();
+
+    public static class UserForeignKeyColumn {
+        protected String _foreignKeyName;
+        protected String _localCatalogName;
+        protected String _localSchemaName;
+        protected String _localTableName;
+        protected String _localColumnName;
+        protected String _foreignCatalogName;
+        protected String _foreignSchemaName;
+        protected String _foreignTableName;
+        protected String _foreignColumnName;
+
+        public String getForeignKeyName() {
+            return _foreignKeyName;
+        }
+
+        public void setForeignKeyName(String foreignKeyName) {
+            this._foreignKeyName = foreignKeyName;
+        }
+
+        public String getLocalCatalogName() {
+            return _localCatalogName;
+        }
+
+        public void setLocalCatalogName(String localCatalogName) {
+            this._localCatalogName = localCatalogName;
+        }
+
+        public String getLocalSchemaName() {
+            return _localSchemaName;
+        }
+
+        public void setLocalSchemaName(String localSchemaName) {
+            this._localSchemaName = localSchemaName;
+        }
+
+        public String getLocalTableName() {
+            return _localTableName;
+        }
+
+        public void setLocalTableName(String localTableName) {
+            this._localTableName = localTableName;
+        }
+
+        public String getLocalColumnName() {
+            return _localColumnName;
+        }
+
+        public void setLocalColumnName(String localColumnName) {
+            this._localColumnName = localColumnName;
+        }
+
+        public String getForeignCatalogName() {
+            return _foreignCatalogName;
+        }
+
+        public void setForeignCatalogName(String foreignCatalogName) {
+            this._foreignCatalogName = foreignCatalogName;
+        }
+
+        public String getForeignSchemaName() {
+            return _foreignSchemaName;
+        }
+
+        public void setForeignSchemaName(String foreignSchemaName) {
+            this._foreignSchemaName = foreignSchemaName;
+        }
+
+        public String getForeignTableName() {
+            return _foreignTableName;
+        }
+
+        public void setForeignTableName(String foreignTableName) {
+            this._foreignTableName = foreignTableName;
+        }
+
+        public String getForeignColumnName() {
+            return _foreignColumnName;
+        }
+
+        public void setForeignColumnName(String foreignColumnName) {
+            this._foreignColumnName = foreignColumnName;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.logic.jdbc.metadata.DfAbstractMetaDataExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfPrimaryKeyMeta;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/17 Thursday)
+ */
+public abstract class DfBulkMetaExtractorBase extends DfAbstractMetaDataExtractor implements DfBulkMetaExtractor {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Log _log = LogFactory.getLog(DfBulkMetaExtractorBase.class);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected DataSource _dataSource;
+    protected UnifiedSchema _unifiedSchema;
+
+    // ===================================================================================
+    //                                                                         Primary Key
+    //                                                                         ===========
+    public Map<String, DfPrimaryKeyMeta> extractPrimaryKeyMap() {
+        final String sql = buildPrimaryKeySql(preparePureSchema());
+        final Map<String, DfPrimaryKeyMeta> resultMap = newLinkedHashMap();
+        Connection conn = null;
+        Statement st = null;
+        ResultSet rs = null;
+        try {
+            conn = _dataSource.getConnection();
+            st = conn.createStatement();
+            _log.info(sql);
+            rs = st.executeQuery(sql);
+            while (rs.next()) { // ordered by table name and position
+                final String tableName = rs.getString("TABLE_NAME");
+                final String primaryKeyName = rs.getString("PRIMARY_KEY_NAME");
+                final String columnName = rs.getString("COLUMN_NAME");
+                DfPrimaryKeyMeta pkMeta = resultMap.get(tableName);
+                if (pkMeta == null) {
+                    pkMeta = new DfPrimaryKeyMeta();
+                    resultMap.put(tableName, pkMeta);
+                }
+                pkMeta.addPrimaryKey(columnName, primaryKeyName);
+            }
+            return resultMap;
+        } catch (SQLException e) {
+            String msg = "Failed to extract primary keys in bulk: sql=" + sql;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            close(conn, st, rs);
+        }
+    }
+
+    /**
+     * @param pureSchema The pure name of schema. (NotNull)
+     * @return The SQL that selects TABLE_NAME, PRIMARY_KEY_NAME, COLUMN_NAME ordered by table and position. (NotNull)
+     */
+    protected abstract String buildPrimaryKeySql(String pureSchema);
+
+    // ===================================================================================
+    //                                                                         Foreign Key
+    //                                                                         ===========
+    public Map<String, List<UserForeignKeyColumn>> extractForeignKeyMap() {
+        final String sql = buildForeignKeySql(preparePureSchema());
+        final Map<String, List<UserForeignKeyColumn>> resultMap = newLinkedHashMap();
+        Connection conn = null;
+        Statement st = null;
+        ResultSet rs = null;
+        try {
+            conn = _dataSource.getConnection();
+            st = conn.createStatement();
+            _log.info(sql);
+            rs = st.executeQuery(sql);
+            while (rs.next()) { // ordered by table name, FK name and position
+                final UserForeignKeyColumn fkColumn = new UserForeignKeyColumn();
+                fkColumn.setForeignKeyName(rs.getString("FOREIGN_KEY_NAME"));
+                fkColumn.setLocalSchemaName(rs.getString("LOCAL_SCHEMA_NAME"));
+                fkColumn.setLocalTableName(rs.getString("LOCAL_TABLE_NAME"));
+                fkColumn.setLocalColumnName(rs.getString("LOCAL_COLUMN_NAME"));
+                fkColumn.setForeignSchemaName(rs.getString("FOREIGN_SCHEMA_NAME"));
+                fkColumn.setForeignTableName(rs.getString("FOREIGN_TABLE_NAME"));
+                fkColumn.setForeignColumnName(rs.getString("FOREIGN_COLUMN_NAME"));
+                final String tableName = fkColumn.getLocalTableName();
+                List<UserForeignKeyColumn> columnList = resultMap.get(tableName);
+                if (columnList == null) {
+                    columnList = new ArrayList<UserForeignKeyColumn>();
+                    resultMap.put(tableName, columnList);
+                }
+                columnList.add(fkColumn);
+            }
+            return resultMap;
+        } catch (SQLException e) {
+            String msg = "Failed to extract foreign keys in bulk: sql=" + sql;
+            throw new IllegalStateException(msg, e);
+        } finally {
+            close(conn, st, rs);
+        }
+    }
+
+    /**
+     * @param pureSchema The pure name of schema. (NotNull)
+     * @return The SQL that selects FK columns (see the labels in extractForeignKeyMap()). (NotNull)
+     */
+    protected abstract String buildForeignKeySql(String pureSchema);
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected String preparePureSchema() {
+        if (_unifiedSchema == null || !_unifiedSchema.existsPureSchema()) {
+            String msg = "Extracting meta data in bulk requires pure schema in unified schema:";
+            msg = msg + " unifiedSchema=" + _unifiedSchema;
+            throw new IllegalStateException(msg);
+        }
+        return _unifiedSchema.getPureSchema();
+    }
+
+    protected void close(Connection conn, Statement st, ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException ignored) {
+                _log.info("rs.close() threw the exception!", ignored);
+            }
+        }
+        if (st != null) {
+            try {
+                st.close();
+            } catch (SQLException ignored) {
+                _log.info("st.close() threw the exception!", ignored);
+            }
+        }
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException ignored) {
+                _log.info("conn.close() threw the exception!", ignored);
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public void setDataSource(DataSource dataSource) {
+        _dataSource = dataSource;
+    }
+
+    public UnifiedSchema getUnifiedSchema() {
+        return _unifiedSchema;
+    }
+
+    public void setUnifiedSchema(UnifiedSchema unifiedSchema) {
+        this._unifiedSchema = unifiedSchema;
+    }
+}
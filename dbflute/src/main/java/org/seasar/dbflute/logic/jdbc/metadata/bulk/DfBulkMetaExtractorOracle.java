@@ -0,0 +1,62 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/17 Thursday)
+ */
+public class DfBulkMetaExtractorOracle extends DfBulkMetaExtractorBase {
+
+    // ===================================================================================
+    //                                                                           Build SQL
+    //                                                                           =========
+    @Override
+    protected String buildPrimaryKeySql(String pureSchema) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("select cons.TABLE_NAME, cons.CONSTRAINT_NAME as PRIMARY_KEY_NAME, cols.COLUMN_NAME");
+        sb.append(" from ALL_CONSTRAINTS cons");
+        sb.append(" inner join ALL_CONS_COLUMNS cols");
+        sb.append(" on cons.OWNER = cols.OWNER and cons.CONSTRAINT_NAME = cols.CONSTRAINT_NAME");
+        sb.append(" where cons.OWNER = '").append(pureSchema).append("'");
+        sb.append(" and cons.CONSTRAINT_TYPE = 'P'"); // primary key
+        sb.append(" order by cons.TABLE_NAME, cols.POSITION");
+        return sb.toString();
+    }
+
+    @Override
+    protected String buildForeignKeySql(String pureSchema) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("select cons.CONSTRAINT_NAME as FOREIGN_KEY_NAME");
+        sb.append(", cons.OWNER as LOCAL_SCHEMA_NAME");
+        sb.append(", cons.TABLE_NAME as LOCAL_TABLE_NAME, cols.COLUMN_NAME as LOCAL_COLUMN_NAME");
+        sb.append(", yourCons.OWNER as FOREIGN_SCHEMA_NAME");
+        sb.append(", yourCons.TABLE_NAME as FOREIGN_TABLE_NAME, yourCols.COLUMN_NAME as FOREIGN_COLUMN_NAME");
+        sb.append(" from ALL_CONSTRAINTS cons");
+        sb.append(" inner join ALL_CONSTRAINTS yourCons");
+        sb.append(" on cons.R_OWNER = yourCons.OWNER and cons.R_CONSTRAINT_NAME = yourCons.CONSTRAINT_NAME");
+        sb.append(" inner join ALL_CONS_COLUMNS cols");
+        sb.append(" on cons.OWNER = cols.OWNER and cons.CONSTRAINT_NAME = cols.CONSTRAINT_NAME");
+        sb.append(" inner join ALL_CONS_COLUMNS yourCols");
+        sb.append(" on yourCons.OWNER = yourCols.OWNER and yourCons.CONSTRAINT_NAME = yourCols.CONSTRAINT_NAME");
+        sb.append(" and cols.POSITION = yourCols.POSITION");
+        sb.append(" where cons.OWNER = '").append(pureSchema).append("'");
+        sb.append(" and cons.CONSTRAINT_TYPE = 'R'"); // foreign key
+        sb.append(" and yourCons.CONSTRAINT_TYPE in ('P', 'U')"); // to primary key or unique key
+        sb.append(" order by cons.TABLE_NAME, cons.CONSTRAINT_NAME, cols.POSITION");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/17 Thursday)
+ */
+public class DfBulkMetaExtractorPostgreSQL extends DfBulkMetaExtractorBase {
+
+    // ===================================================================================
+    //                                                                           Build SQL
+    //                                                                           =========
+    @Override
+    protected String buildPrimaryKeySql(String pureSchema) {
+        // constraint names are unique only in a table so it uses pg_catalog with OID
+        final StringBuilder sb = new StringBuilder();
+        sb.append("select cl.relname as TABLE_NAME, con.conname as PRIMARY_KEY_NAME, att.attname as COLUMN_NAME");
+        sb.append(" from (select conname, conrelid, conkey, generate_subscripts(conkey, 1) as pos");
+        sb.append(" from pg_catalog.pg_constraint where contype = 'p') con");
+        sb.append(" inner join pg_catalog.pg_class cl on cl.oid = con.conrelid");
+        sb.append(" inner join pg_catalog.pg_namespace ns on ns.oid = cl.relnamespace");
+        sb.append(" inner join pg_catalog.pg_attribute att");
+        sb.append(" on att.attrelid = con.conrelid and att.attnum = con.conkey[con.pos]");
+        sb.append(" where ns.nspname = '").append(pureSchema).append("'");
+        sb.append(" order by cl.relname, con.pos");
+        return sb.toString();
+    }
+
+    @Override
+    protected String buildForeignKeySql(String pureSchema) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("select con.conname as FOREIGN_KEY_NAME");
+        sb.append(", lns.nspname as LOCAL_SCHEMA_NAME");
+        sb.append(", lcl.relname as LOCAL_TABLE_NAME, latt.attname as LOCAL_COLUMN_NAME");
+        sb.append(", fns.nspname as FOREIGN_SCHEMA_NAME");
+        sb.append(", fcl.relname as FOREIGN_TABLE_NAME, fatt.attname as FOREIGN_COLUMN_NAME");
+        sb.append(" from (select conname, conrelid, confrelid, conkey, confkey");
+        sb.append(", generate_subscripts(conkey, 1) as pos");
+        sb.append(" from pg_catalog.pg_constraint where contype = 'f') con");
+        sb.append(" inner join pg_catalog.pg_class lcl on lcl.oid = con.conrelid");
+        sb.append(" inner join pg_catalog.pg_namespace lns on lns.oid = lcl.relnamespace");
+        sb.append(" inner join pg_catalog.pg_attribute latt");
+        sb.append(" on latt.attrelid = con.conrelid and latt.attnum = con.conkey[con.pos]");
+        sb.append(" inner join pg_catalog.pg_class fcl on fcl.oid = con.confrelid");
+        sb.append(" inner join pg_catalog.pg_namespace fns on fns.oid = fcl.relnamespace");
+        sb.append(" inner join pg_catalog.pg_attribute fatt");
+        sb.append(" on fatt.attrelid = con.confrelid and fatt.attnum = con.confkey[con.pos]");
+        sb.append(" where lns.nspname = '").append(pureSchema).append("'");
+        sb.append(" order by lcl.relname, con.conname, con.pos");
+        return sb.toString();
+    }
+}
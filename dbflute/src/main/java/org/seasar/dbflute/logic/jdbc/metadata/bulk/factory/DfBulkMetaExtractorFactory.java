@@ -0,0 +1,74 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk.factory;
+
+import javax.sql.DataSource;
+
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractorOracle;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractorPostgreSQL;
+import org.seasar.dbflute.properties.facade.DfDatabaseTypeFacadeProp;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/17 Thursday)
+ */
+public class DfBulkMetaExtractorFactory {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final DataSource _dataSource;
+    protected final UnifiedSchema _unifiedSchema;
+    protected final DfDatabaseTypeFacadeProp _databaseTypeFacadeProp;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param dataSource The data source. (NotNull)
+     * @param unifiedSchema The unified schema to extract. (NotNull)
+     * @param databaseTypeFacadeProp The facade properties for database type. (NotNull)
+     */
+    public DfBulkMetaExtractorFactory(DataSource dataSource, UnifiedSchema unifiedSchema,
+            DfDatabaseTypeFacadeProp databaseTypeFacadeProp) {
+        _dataSource = dataSource;
+        _unifiedSchema = unifiedSchema;
+        _databaseTypeFacadeProp = databaseTypeFacadeProp;
+    }
+
+    // ===================================================================================
+    //                                                                              Create
+    //                                                                              ======
+    /**
+     * @return The extractor of meta data in bulk. (NullAllowed: if null, unsupported DBMS)
+     */
+    public DfBulkMetaExtractor createBulkMetaExtractor() {
+        if (_databaseTypeFacadeProp.isDatabaseOracle()) {
+            final DfBulkMetaExtractorOracle extractor = new DfBulkMetaExtractorOracle();
+            extractor.setDataSource(_dataSource);
+            extractor.setUnifiedSchema(_unifiedSchema);
+            return extractor;
+        } else if (_databaseTypeFacadeProp.isDatabasePostgreSQL()) {
+            final DfBulkMetaExtractorPostgreSQL extractor = new DfBulkMetaExtractorPostgreSQL();
+            extractor.setDataSource(_dataSource);
+            extractor.setUnifiedSchema(_unifiedSchema);
+            return extractor;
+        }
+        return null;
+    }
+}
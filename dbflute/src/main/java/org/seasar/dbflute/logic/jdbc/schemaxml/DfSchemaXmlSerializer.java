@@ -76,6 +76,9 @@ import org.seasar.dbflute.logic.jdbc.metadata.basic.DfIndexExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.basic.DfProcedureExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.basic.DfTableExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.basic.DfUniqueKeyExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractor.UserForeignKeyColumn;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.factory.DfBulkMetaExtractorFactory;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor.UserColComments;
 import org.seasar.dbflute.logic.jdbc.metadata.comment.DfDbCommentExtractor.UserTabComments;
@@ -421,6 +424,9 @@ public class DfSchemaXmlSerializer {
         _log.info("");
         _log.info("$ /= = = = = = = = = = = = = = = = = = = = = = = = = =");
         _log.info("$ [Table List]");
+        if (isMetaDataBulkExtractionValid()) {
+            prepareBulkMetaData(metaData, tableList);
+        }
         final int runnerCount = getMetaDataCountDownRaceRunnerCount();
         if (runnerCount > 1 && _dataSource.getDataSource() instanceof DfFittingDataSource) {
             countDownRaceProcessTable(tableList, runnerCount, (DfFittingDataSource) _dataSource.getDataSource());
@@ -439,6 +445,49 @@ public class DfSchemaXmlSerializer {
         _log.info("");
     }
 
+    protected boolean isMetaDataBulkExtractionValid() {
+        return getDatabaseProperties().isMetaDataBulkExtractionValid();
+    }
+
+    /**
+     * Prepare meta data of all tables per schema in bulk, which is used instead of meta data per table. <br />
+     * Tables not covered by the bulk extraction (e.g. synonym) are extracted per table as before.
+     * @param metaData The meta data of a database. (NotNull)
+     * @param tableList The list of table meta. (NotNull)
+     */
+    protected void prepareBulkMetaData(DatabaseMetaData metaData, List<DfTableMeta> tableList) {
+        final Set<UnifiedSchema> unifiedSchemaSet = new LinkedHashSet<UnifiedSchema>();
+        for (DfTableMeta tableMeta : tableList) {
+            unifiedSchemaSet.add(tableMeta.getUnifiedSchema());
+        }
+        for (UnifiedSchema unifiedSchema : unifiedSchemaSet) {
+            _log.info("$ ...Extracting meta data in bulk: " + unifiedSchema);
+            try {
+                final Set<String> tableNameSet = _columnExtractor.prepareBulkColumnList(metaData, unifiedSchema);
+                final DfBulkMetaExtractor extractor = createBulkMetaExtractor(unifiedSchema);
+                if (extractor != null) {
+                    final Map<String, DfPrimaryKeyMeta> pkMap = extractor.extractPrimaryKeyMap();
+                    final Map<String, List<UserForeignKeyColumn>> fkMap = extractor.extractForeignKeyMap();
+                    _uniqueKeyExtractor.acceptBulkPrimaryKey(unifiedSchema, tableNameSet, pkMap);
+                    _foreignKeyExtractor.acceptBulkForeignKey(unifiedSchema, tableNameSet, fkMap);
+                }
+            } catch (SQLException continued) { // extracted per table
+                _log.info("$ *Failed to extract meta data in bulk: " + continued.getMessage());
+            } catch (RuntimeException continued) { // extracted per table
+                _log.info("$ *Failed to extract meta data in bulk: " + continued.getMessage());
+            }
+        }
+    }
+
+    protected DfBulkMetaExtractor createBulkMetaExtractor(UnifiedSchema unifiedSchema) {
+        final DfBulkMetaExtractorFactory factory = createBulkMetaExtractorFactory(unifiedSchema);
+        return factory.createBulkMetaExtractor();
+    }
+
+    protected DfBulkMetaExtractorFactory createBulkMetaExtractorFactory(UnifiedSchema unifiedSchema) {
+        return new DfBulkMetaExtractorFactory(_dataSource, unifiedSchema, getDatabaseTypeFacadeProp());
+    }
+
     protected int getMetaDataCountDownRaceRunnerCount() {
         final DfDatabaseProperties prop = getDatabaseProperties();
         return prop.getMetaDataCountDownRaceRunnerCount();
@@ -19,11 +19,26 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.sql.DataSource;
 
@@ -31,6 +46,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.torque.engine.database.model.UnifiedSchema;
 import org.seasar.dbflute.exception.DfDelimiterDataRegistrationFailureException;
+import org.seasar.dbflute.helper.jdbc.connection.DfDedicatedDataSource;
+import org.seasar.dbflute.helper.jdbc.connection.DfFittingDataSource;
+import org.seasar.dbflute.logic.doc.lreverse.DfTableOrderAnalyzer;
+import org.seasar.dbflute.logic.jdbc.metadata.basic.DfForeignKeyExtractor;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfForeignKeyMeta;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataHandler;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResource;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfDelimiterDataResultInfo;
@@ -60,6 +80,7 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
     protected boolean _suppressCheckColumnDef;
     protected boolean _suppressCheckImplicitSet;
     protected DfDataWritingInterceptor _dataWritingInterceptor;
+    protected int _loadingThreadPoolSize; // zero or one means sequential loading
 
     /** The data-prop of default value map. (NotNull: after initialization) */
     protected DfDefaultValueProp _defaultValueProp;
@@ -106,28 +127,17 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
 
                 final Map<String, Map<String, String>> convertValueMap = getConvertValueMap(resource, encoding);
                 final Map<String, String> defaultValueMap = getDefaultValueMap(resource, encoding);
+                final DfDelimiterDataWritingResource writingResource = new DfDelimiterDataWritingResource(resource,
+                        encoding, convertValueMap, defaultValueMap);
+                if (isParallelLoading(sortedFileNameSet)) {
+                    writeDataParallel(writingResource, sortedFileNameSet, resultInfo, loadedDataInfo);
+                    continue;
+                }
                 for (String fileName : sortedFileNameSet) {
-                    final String fileNamePath = basePath + "/" + encoding + "/" + fileName;
-                    final DfDelimiterDataWriterImpl writer = new DfDelimiterDataWriterImpl(_dataSource, _unifiedSchema);
-                    writer.setLoggingInsertSql(isLoggingInsertSql());
-                    writer.setFileName(fileNamePath);
-                    writer.setEncoding(encoding);
-                    writer.setDelimiter(resource.getDelimiter());
-                    writer.setConvertValueMap(convertValueMap);
-                    writer.setDefaultValueMap(defaultValueMap);
-                    writer.setSuppressBatchUpdate(isSuppressBatchUpdate());
-                    writer.setSuppressCheckColumnDef(isSuppressCheckColumnDef());
-                    writer.setSuppressCheckImplicitSet(isSuppressCheckImplicitSet());
-                    writer.setDataWritingInterceptor(_dataWritingInterceptor);
-                    writer.setDefaultValueProp(_defaultValueProp);
-                    writer.setLoadingControlProp(_loadingControlProp);
+                    final DfDelimiterDataWriterImpl writer = createDataWriter(writingResource, fileName, _dataSource);
                     writer.writeData(resultInfo);
                     prepareImplicitClassificationLazyCheck(loadedDataInfo, writer);
-
-                    final String loadType = resource.getLoadType();
-                    final String fileType = resource.getFileType();
-                    final boolean warned = resultInfo.getWarningFileMap().containsKey(fileNamePath);
-                    loadedDataInfo.addLoadedFile(loadType, fileType, encoding, fileName, warned);
+                    registerLoadedFile(writingResource, fileName, resultInfo, loadedDataInfo);
                 }
             }
         } catch (IOException e) {
@@ -137,6 +147,286 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
         return resultInfo;
     }
 
+    protected DfDelimiterDataWriterImpl createDataWriter(DfDelimiterDataWritingResource writingResource,
+            String fileName, DataSource dataSource) {
+        final DfDelimiterDataWriterImpl writer = new DfDelimiterDataWriterImpl(dataSource, _unifiedSchema);
+        writer.setLoggingInsertSql(isLoggingInsertSql());
+        writer.setFileName(writingResource.buildFilePath(fileName));
+        writer.setEncoding(writingResource.getEncoding());
+        writer.setDelimiter(writingResource.getResource().getDelimiter());
+        writer.setConvertValueMap(writingResource.getConvertValueMap());
+        writer.setDefaultValueMap(writingResource.getDefaultValueMap());
+        writer.setSuppressBatchUpdate(isSuppressBatchUpdate());
+        writer.setSuppressCheckColumnDef(isSuppressCheckColumnDef());
+        writer.setSuppressCheckImplicitSet(isSuppressCheckImplicitSet());
+        writer.setDataWritingInterceptor(_dataWritingInterceptor);
+        writer.setDefaultValueProp(_defaultValueProp);
+        writer.setLoadingControlProp(_loadingControlProp);
+        return writer;
+    }
+
+    protected void registerLoadedFile(DfDelimiterDataWritingResource writingResource, String fileName,
+            DfDelimiterDataResultInfo resultInfo, DfLoadedDataInfo loadedDataInfo) {
+        final DfDelimiterDataResource resource = writingResource.getResource();
+        final String loadType = resource.getLoadType();
+        final String fileType = resource.getFileType();
+        final String encoding = writingResource.getEncoding();
+        final boolean warned = resultInfo.getWarningFileMap().containsKey(writingResource.buildFilePath(fileName));
+        loadedDataInfo.addLoadedFile(loadType, fileType, encoding, fileName, warned);
+    }
+
+    protected static class DfDelimiterDataWritingResource {
+
+        protected final DfDelimiterDataResource _resource;
+        protected final String _encoding;
+        protected final Map<String, Map<String, String>> _convertValueMap;
+        protected final Map<String, String> _defaultValueMap;
+
+        public DfDelimiterDataWritingResource(DfDelimiterDataResource resource, String encoding,
+                Map<String, Map<String, String>> convertValueMap, Map<String, String> defaultValueMap) {
+            _resource = resource;
+            _encoding = encoding;
+            _convertValueMap = convertValueMap;
+            _defaultValueMap = defaultValueMap;
+        }
+
+        public String buildDataDirectory() {
+            return _resource.getBasePath() + "/" + _encoding;
+        }
+
+        public String buildFilePath(String fileName) {
+            return buildDataDirectory() + "/" + fileName;
+        }
+
+        public DfDelimiterDataResource getResource() {
+            return _resource;
+        }
+
+        public String getEncoding() {
+            return _encoding;
+        }
+
+        public Map<String, Map<String, String>> getConvertValueMap() {
+            return _convertValueMap;
+        }
+
+        public Map<String, String> getDefaultValueMap() {
+            return _defaultValueMap;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                    Parallel Loading
+    //                                                                    ================
+    protected boolean isParallelLoading(SortedSet<String> sortedFileNameSet) {
+        if (_loadingThreadPoolSize <= 1 || sortedFileNameSet.size() <= 1) {
+            return false;
+        }
+        if (_dataWritingInterceptor != null) { // e.g. identity insert is session scope
+            return false;
+        }
+        if (!(_dataSource instanceof DfFittingDataSource)) { // cannot get new connections for threads
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Write the data files in parallel by waves of tables ordered by foreign keys. <br />
+     * The files of one table are written in order of file name by one thread,
+     * and each thread uses its own connection from the pool.
+     * @param writingResource The resource of writing for the encoding directory. (NotNull)
+     * @param sortedFileNameSet The set of file names sorted ascend. (NotNull)
+     * @param resultInfo The result info of delimiter data to be merged. (NotNull)
+     * @param loadedDataInfo The info of loaded data to register loaded files. (NotNull)
+     * @throws IOException When it fails to read the data file.
+     */
+    protected void writeDataParallel(final DfDelimiterDataWritingResource writingResource,
+            SortedSet<String> sortedFileNameSet, DfDelimiterDataResultInfo resultInfo, DfLoadedDataInfo loadedDataInfo)
+            throws IOException {
+        // prepare the cache of loading control here because it is not thread-safe
+        _loadingControlProp.getLoggingInsertType(writingResource.buildDataDirectory(), isLoggingInsertSql());
+
+        final Map<String, List<String>> tableFileListMap = new LinkedHashMap<String, List<String>>();
+        for (String fileName : sortedFileNameSet) {
+            final String tableDbName = extractTableDbName(fileName);
+            List<String> fileList = tableFileListMap.get(tableDbName);
+            if (fileList == null) {
+                fileList = new ArrayList<String>();
+                tableFileListMap.put(tableDbName, fileList);
+            }
+            fileList.add(fileName);
+        }
+        final List<List<String>> waveList = analyzeLoadingWave(tableFileListMap.keySet());
+        final int threadPoolSize = Math.min(_loadingThreadPoolSize, tableFileListMap.size());
+        _log.info("...Loading " + tableFileListMap.size() + " tables in " + waveList.size() + " waves by "
+                + threadPoolSize + " threads");
+        final BlockingQueue<DataSource> dataSourceQueue = new LinkedBlockingQueue<DataSource>();
+        final List<DfDedicatedDataSource> dedicatedList = new ArrayList<DfDedicatedDataSource>();
+        final ExecutorService service = Executors.newFixedThreadPool(threadPoolSize);
+        try {
+            for (int i = 0; i < threadPoolSize; i++) {
+                final DfDedicatedDataSource dedicated = new DfDedicatedDataSource(newLoadingConnection());
+                dedicatedList.add(dedicated);
+                dataSourceQueue.add(dedicated);
+            }
+            for (List<String> tableList : waveList) {
+                final Map<String, Future<DfParallelLoadingResult>> futureMap;
+                futureMap = new LinkedHashMap<String, Future<DfParallelLoadingResult>>();
+                for (String tableDbName : tableList) {
+                    final List<String> fileList = tableFileListMap.get(tableDbName);
+                    futureMap.put(tableDbName, service.submit(new Callable<DfParallelLoadingResult>() {
+                        public DfParallelLoadingResult call() throws Exception {
+                            final DataSource dataSource = dataSourceQueue.take();
+                            try {
+                                return doWriteTableData(writingResource, fileList, dataSource);
+                            } finally {
+                                dataSourceQueue.add(dataSource);
+                            }
+                        }
+                    }));
+                }
+                handleLoadingWave(writingResource, futureMap, resultInfo, loadedDataInfo);
+            }
+        } catch (SQLException e) {
+            String msg = "Failed to get the connection for parallel loading.";
+            throw new DfDelimiterDataRegistrationFailureException(msg, e);
+        } finally {
+            service.shutdownNow();
+            for (DfDedicatedDataSource dedicated : dedicatedList) {
+                try {
+                    dedicated.closeReally();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    protected DfParallelLoadingResult doWriteTableData(DfDelimiterDataWritingResource writingResource,
+            List<String> fileList, DataSource dataSource) throws IOException {
+        final DfParallelLoadingResult loadingResult = new DfParallelLoadingResult();
+        for (String fileName : fileList) {
+            final DfDelimiterDataWriterImpl writer = createDataWriter(writingResource, fileName, dataSource);
+            writer.writeData(loadingResult.getResultInfo());
+            loadingResult.addWriter(fileName, writer);
+        }
+        return loadingResult;
+    }
+
+    protected void handleLoadingWave(DfDelimiterDataWritingResource writingResource,
+            Map<String, Future<DfParallelLoadingResult>> futureMap, DfDelimiterDataResultInfo resultInfo,
+            DfLoadedDataInfo loadedDataInfo) throws IOException {
+        Throwable firstCause = null;
+        for (Entry<String, Future<DfParallelLoadingResult>> entry : futureMap.entrySet()) {
+            final String tableDbName = entry.getKey();
+            final DfParallelLoadingResult loadingResult;
+            try {
+                loadingResult = entry.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                String msg = "Interrupted while waiting for the parallel loading: table=" + tableDbName;
+                throw new IllegalStateException(msg, e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                _log.warn("*Failed to load the table: " + tableDbName + " (" + cause.getClass().getName() + ")");
+                if (firstCause == null) {
+                    firstCause = cause; // waits for other tables in the wave to report them
+                }
+                continue;
+            }
+            // merge in order of tables in the wave (not completion order)
+            final DfDelimiterDataResultInfo tableResultInfo = loadingResult.getResultInfo();
+            resultInfo.getNotFoundColumnMap().putAll(tableResultInfo.getNotFoundColumnMap());
+            resultInfo.getWarningFileMap().putAll(tableResultInfo.getWarningFileMap());
+            for (Entry<String, DfDelimiterDataWriterImpl> writerEntry : loadingResult.getWriterMap().entrySet()) {
+                prepareImplicitClassificationLazyCheck(loadedDataInfo, writerEntry.getValue());
+                registerLoadedFile(writingResource, writerEntry.getKey(), resultInfo, loadedDataInfo);
+            }
+        }
+        if (firstCause != null) {
+            if (firstCause instanceof IOException) {
+                throw (IOException) firstCause;
+            }
+            if (firstCause instanceof RuntimeException) {
+                throw (RuntimeException) firstCause;
+            }
+            if (firstCause instanceof Error) {
+                throw (Error) firstCause;
+            }
+            String msg = "Failed to load the delimiter data in parallel.";
+            throw new DfDelimiterDataRegistrationFailureException(msg, firstCause);
+        }
+    }
+
+    protected List<List<String>> analyzeLoadingWave(Set<String> tableDbNameSet) {
+        final Map<String, Set<String>> parentNameMap = new LinkedHashMap<String, Set<String>>();
+        Connection conn = null;
+        try {
+            conn = _dataSource.getConnection();
+            final DatabaseMetaData metaData = conn.getMetaData();
+            final DfForeignKeyExtractor extractor = new DfForeignKeyExtractor();
+            extractor.suppressExceptTarget();
+            for (String tableDbName : tableDbNameSet) {
+                final Set<String> parentSet = new HashSet<String>();
+                final Map<String, DfForeignKeyMeta> fkMap = extractor.getForeignKeyMap(metaData, _unifiedSchema,
+                        tableDbName);
+                for (DfForeignKeyMeta fkMeta : fkMap.values()) {
+                    parentSet.add(fkMeta.getForeignTablePureName());
+                }
+                parentNameMap.put(tableDbName, parentSet);
+            }
+        } catch (SQLException e) {
+            String msg = "Failed to get foreign keys for parallel loading: tables=" + tableDbNameSet;
+            throw new DfDelimiterDataRegistrationFailureException(msg, e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+        return new DfTableOrderAnalyzer().analyzeWave(parentNameMap);
+    }
+
+    protected Connection newLoadingConnection() throws SQLException {
+        if (!(_dataSource instanceof DfFittingDataSource)) { // may return the shared connection
+            String msg = "The data source for parallel loading should be fitting data source: " + _dataSource;
+            throw new IllegalStateException(msg); // not to close the shared connection really
+        }
+        return ((DfFittingDataSource) _dataSource).newConnection(); // because it shares one connection
+    }
+
+    protected String extractTableDbName(String fileName) { // same as writer
+        String tableDbName = fileName.substring(0, fileName.lastIndexOf("."));
+        if (tableDbName.indexOf("-") >= 0) {
+            tableDbName = tableDbName.substring(tableDbName.indexOf("-") + "-".length());
+        }
+        return tableDbName;
+    }
+
+    protected static class DfParallelLoadingResult {
+
+        protected final DfDelimiterDataResultInfo _resultInfo = new DfDelimiterDataResultInfo();
+        protected final Map<String, DfDelimiterDataWriterImpl> _writerMap;
+
+        public DfParallelLoadingResult() {
+            _writerMap = new LinkedHashMap<String, DfDelimiterDataWriterImpl>(); // file name order
+        }
+
+        public void addWriter(String fileName, DfDelimiterDataWriterImpl writer) {
+            _writerMap.put(fileName, writer);
+        }
+
+        public DfDelimiterDataResultInfo getResultInfo() {
+            return _resultInfo;
+        }
+
+        public Map<String, DfDelimiterDataWriterImpl> getWriterMap() {
+            return _writerMap;
+        }
+    }
+
     protected boolean isUnsupportedEncodingDirectory(String encoding) {
         try {
             new String(new byte[0], 0, 0, encoding);
@@ -244,4 +534,12 @@ public class DfDelimiterDataHandlerImpl implements DfDelimiterDataHandler {
     public void setLoadingControlProp(DfLoadingControlProp loadingControlProp) {
         this._loadingControlProp = loadingControlProp;
     }
+
+    public int getLoadingThreadPoolSize() {
+        return _loadingThreadPoolSize;
+    }
+
+    public void setLoadingThreadPoolSize(int loadingThreadPoolSize) {
+        this._loadingThreadPoolSize = loadingThreadPoolSize;
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.seasar.dbflute.logic.replaceschema.loaddata.impl;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -44,7 +45,8 @@ public class DfDelimiterDataWriteSqlBuilder {
     protected Map<String, Map<String, String>> _convertValueMap;
     protected Map<String, String> _defaultValueMap;
     protected DfColumnBindTypeProvider _bindTypeProvider;
-    protected Map<String, String> _basicColumnValueMap;
+    protected List<DfDelimiterDataColumnMapping> _columnMappingList; // derived lazily, reused for all records
+    protected DfColumnValueConverter _columnValueConverter; // derived lazily, reused for all records
     protected Map<String, String> _allColumnConvertMap;
     protected DfDefaultValueProp _defaultValueProp;
     protected Set<String> _sysdateColumnSet;
@@ -86,9 +88,12 @@ public class DfDelimiterDataWriteSqlBuilder {
         //        && (_defaultValueMap == null || _defaultValueMap.isEmpty())) { // and no default
         //    return;
         //}
-        final DfColumnValueConverter converter = createColumnValueConverter();
-        converter.emptyToNullIfNoConvert(); // e.g. TSV might have empty string (treated as null as default)
-        converter.convert(_tableDbName, columnValueMap, _columnMetaMap);
+        if (_columnValueConverter == null) { // the converter has no state per record
+            _columnValueConverter = createColumnValueConverter();
+            // e.g. TSV might have empty string (treated as null as default)
+            _columnValueConverter.emptyToNullIfNoConvert();
+        }
+        _columnValueConverter.convert(_tableDbName, columnValueMap, _columnMetaMap);
     }
 
     protected DfColumnValueConverter createColumnValueConverter() {
@@ -108,11 +113,40 @@ public class DfDelimiterDataWriteSqlBuilder {
     // ===================================================================================
     //                                                                           SQL Parts
     //                                                                           =========
+    /**
+     * Create the map of column and value for the current value list. <br />
+     * The instance of the builder can be reused for records in the same file
+     * because the mapping between columns and values is analyzed only once.
+     * @return The new-created map of column DB name and value. (NotNull)
+     */
     protected Map<String, String> createBasicColumnValueMap() {
-        if (_basicColumnValueMap != null) {
-            return _basicColumnValueMap;
+        final List<DfDelimiterDataColumnMapping> mappingList = getColumnMappingList();
+        final Map<String, String> basicColumnValueMap = new LinkedHashMap<String, String>(mappingList.size());
+        for (DfDelimiterDataColumnMapping mapping : mappingList) {
+            final int columnIndex = mapping.getColumnIndex();
+            final String value;
+            try {
+                if (columnIndex < _valueList.size()) {
+                    value = _valueList.get(columnIndex);
+                } else {
+                    value = null;
+                }
+            } catch (RuntimeException e) {
+                String msg = "valueList.get(columnCount) threw the exception:";
+                msg = msg + " tableName=" + _tableDbName + " columnNameList=" + _columnNameList;
+                msg = msg + " valueList=" + _valueList + " columnCount=" + columnIndex;
+                throw new DfDelimiterDataRegistrationFailureException(msg, e);
+            }
+            basicColumnValueMap.put(mapping.getColumnDbName(), value);
+        }
+        return basicColumnValueMap;
+    }
+
+    protected List<DfDelimiterDataColumnMapping> getColumnMappingList() {
+        if (_columnMappingList != null) {
+            return _columnMappingList;
         }
-        _basicColumnValueMap = new LinkedHashMap<String, String>();
+        final List<DfDelimiterDataColumnMapping> mappingList = new ArrayList<DfDelimiterDataColumnMapping>();
         int columnCount = -1;
         for (String columnName : _columnNameList) {
             columnCount++;
@@ -128,27 +162,35 @@ public class DfDelimiterDataWriteSqlBuilder {
                 notFoundColumnSet.add(columnName);
                 continue;
             }
-            final String value;
-            try {
-                if (columnCount < _valueList.size()) {
-                    value = _valueList.get(columnCount);
-                } else {
-                    value = null;
-                }
-            } catch (RuntimeException e) {
-                String msg = "valueList.get(columnCount) threw the exception:";
-                msg = msg + " tableName=" + _tableDbName + " columnNameList=" + _columnNameList;
-                msg = msg + " valueList=" + _valueList + " columnCount=" + columnCount;
-                throw new DfDelimiterDataRegistrationFailureException(msg, e);
-            }
+            final String columnDbName;
             if (!_columnMetaMap.isEmpty() && _columnMetaMap.containsKey(columnName)) {
-                String realDbName = _columnMetaMap.get(columnName).getColumnName();
-                _basicColumnValueMap.put(realDbName, value);
+                columnDbName = _columnMetaMap.get(columnName).getColumnName();
             } else {
-                _basicColumnValueMap.put(columnName, value);
+                columnDbName = columnName;
             }
+            mappingList.add(new DfDelimiterDataColumnMapping(columnCount, columnDbName));
+        }
+        _columnMappingList = mappingList;
+        return _columnMappingList;
+    }
+
+    protected static class DfDelimiterDataColumnMapping {
+
+        protected final int _columnIndex;
+        protected final String _columnDbName;
+
+        public DfDelimiterDataColumnMapping(int columnIndex, String columnDbName) {
+            _columnIndex = columnIndex;
+            _columnDbName = columnDbName;
+        }
+
+        public int getColumnIndex() {
+            return _columnIndex;
+        }
+
+        public String getColumnDbName() {
+            return _columnDbName;
         }
-        return _basicColumnValueMap;
     }
 
     // ===================================================================================
@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.sql.DataSource;
 
@@ -60,6 +62,12 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
     /** Log instance. */
     private static final Log _log = LogFactory.getLog(DfDelimiterDataWriterImpl.class);
 
+    /** The buffer size of file reader, larger than default for large data. */
+    protected static final int READER_BUFFER_SIZE = 64 * 1024;
+
+    /** The max size of records waiting for registration, read ahead by the reader thread. */
+    protected static final int RECORD_QUEUE_SIZE = 1000;
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -109,7 +117,6 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         beforeHandlingTable(tableDbName, columnMetaMap);
 
         String lineString = null;
-        String preContinueString = null;
         String executedSql = null;
         final List<String> columnNameList = new ArrayList<String>();
         final List<String> additionalColumnList = new ArrayList<String>();
@@ -118,101 +125,65 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         final File dataFile = new File(_fileName);
         Connection conn = null;
         PreparedStatement ps = null;
+        DfDelimiterDataRecordReader recordReader = null;
         try {
             fis = new FileInputStream(dataFile);
             ir = new InputStreamReader(fis, _encoding);
-            br = new BufferedReader(ir);
-
-            FirstLineInfo firstLineInfo = null;
-            int loopIndex = -1;
-            int rowNumber = 0;
-            int addedBatchSize = 0;
-            while (true) {
-                ++loopIndex;
-
-                lineString = br.readLine();
-                if (lineString == null) {
-                    break;
+            br = new BufferedReader(ir, READER_BUFFER_SIZE);
+
+            // /- - - - - - - - - - - - - - - - - - - - - -
+            // initialize column definition from first line
+            // - - - - - - - - - -/
+            lineString = br.readLine();
+            final FirstLineInfo firstLineInfo;
+            if (lineString != null) {
+                firstLineInfo = getFirstLineInfo(_delimiter, lineString);
+                columnNameList.addAll(firstLineInfo.getColumnNameList());
+                if (columnNameList.isEmpty()) {
+                    throwDelimiterDataColumnDefNotFoundException(_fileName, tableDbName);
                 }
-
-                // /- - - - - - - - - - - - - - - - - - - - - -
-                // initialize column definition from first line
-                // - - - - - - - - - -/
-                if (loopIndex == 0) {
-                    firstLineInfo = getFirstLineInfo(_delimiter, lineString);
-                    columnNameList.addAll(firstLineInfo.getColumnNameList());
-                    if (columnNameList.isEmpty()) {
-                        throwDelimiterDataColumnDefNotFoundException(_fileName, tableDbName);
-                    }
-                    if (isCheckColumnDefExistence(dataDirectory)) { // should be before default process
-                        checkColumnDefExistence(dataDirectory, dataFile, tableDbName, columnNameList, columnMetaMap);
-                    }
-                    final StringSet columnSet = StringSet.createAsFlexible();
-                    columnSet.addAll(columnNameList);
-                    for (String defaultColumn : _defaultValueMap.keySet()) {
-                        if (columnSet.contains(defaultColumn)) {
-                            continue;
-                        }
-                        additionalColumnList.add(defaultColumn);
-                    }
-                    columnNameList.addAll(additionalColumnList); // no DB column is ignored later
-                    continue;
+                if (isCheckColumnDefExistence(dataDirectory)) { // should be before default process
+                    checkColumnDefExistence(dataDirectory, dataFile, tableDbName, columnNameList, columnMetaMap);
                 }
-
-                // /- - - - - - - - - - - - - - -
-                // analyze values in line strings
-                // - - - - - - - - - -/
-                lineString = filterLineString(lineString);
-                {
-                    if (preContinueString != null && !preContinueString.equals("")) {
-                        lineString = preContinueString + "\n" + lineString;
-                    }
-                    final ValueLineInfo valueLineInfo = arrangeValueList(lineString, _delimiter);
-                    final List<String> ls = valueLineInfo.getValueList();
-                    if (valueLineInfo.isContinueNextLine()) {
-                        preContinueString = ls.remove(ls.size() - 1);
-                        valueList.addAll(ls);
+                final StringSet columnSet = StringSet.createAsFlexible();
+                columnSet.addAll(columnNameList);
+                for (String defaultColumn : _defaultValueMap.keySet()) {
+                    if (columnSet.contains(defaultColumn)) {
                         continue;
                     }
-                    valueList.addAll(ls);
+                    additionalColumnList.add(defaultColumn);
+                }
+                columnNameList.addAll(additionalColumnList); // no DB column is ignored later
+            } else {
+                firstLineInfo = null; // empty file
+            }
+
+            // values are analyzed by the reader thread while this thread registers them
+            recordReader = firstLineInfo != null ? startRecordReader(br, firstLineInfo) : null;
+            final DfDelimiterDataWriteSqlBuilder sqlBuilder = createSqlBuilder(tableDbName, columnMetaMap,
+                    columnNameList, valueList, resultInfo); // reused for all records
+            int rowNumber = 0;
+            int addedBatchSize = 0;
+            while (recordReader != null) {
+                final DfDelimiterDataRecord record = recordReader.takeRecord();
+                if (record == null) { // end of file
+                    break;
                 }
-                // *one record is prepared here
 
                 // /- - - - - - - - - - - - - -
                 // check definition differences
                 // - - - - - - - - - -/
-                if (isDifferentColumnValueCount(firstLineInfo, valueList)) {
-                    String msg = "The count of values wasn't correct:";
-                    msg = msg + " column=" + firstLineInfo.getColumnNameList().size();
-                    msg = msg + " value=" + valueList.size();
-                    msg = msg + " -> " + valueList;
-                    resultInfo.registerWarningFile(_fileName, msg);
-
-                    // clear temporary variables
-                    valueList.clear();
-                    preContinueString = null;
+                if (record.getWarningMessage() != null) {
+                    resultInfo.registerWarningFile(_fileName, record.getWarningMessage());
                     continue;
                 }
+                valueList.addAll(record.getValueList());
                 // *valid record is prepared here
                 ++rowNumber;
 
                 // /- - - - - - - - - - - - - - - -
                 // process registration to database
                 // - - - - - - - - - -/
-                final DfDelimiterDataWriteSqlBuilder sqlBuilder = new DfDelimiterDataWriteSqlBuilder();
-                sqlBuilder.setTableDbName(tableDbName);
-                sqlBuilder.setColumnMetaMap(columnMetaMap);
-                sqlBuilder.setColumnNameList(columnNameList);
-                sqlBuilder.setValueList(valueList);
-                sqlBuilder.setNotFoundColumnMap(resultInfo.getNotFoundColumnMap());
-                sqlBuilder.setConvertValueMap(_convertValueMap);
-                sqlBuilder.setDefaultValueMap(_defaultValueMap);
-                sqlBuilder.setBindTypeProvider(new DfColumnBindTypeProvider() {
-                    public Class<?> provide(String tableName, DfColumnMeta columnMeta) {
-                        return getBindType(tableName, columnMeta);
-                    }
-                });
-                sqlBuilder.setDefaultValueProp(_defaultValueProp);
                 if (conn == null) {
                     conn = _dataSource.getConnection();
                 }
@@ -279,7 +250,6 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
                 // if an exception occurs from execute() or addBatch(),
                 // this valueList is to be information for debug
                 valueList.clear();
-                preContinueString = null;
             }
             if (ps != null && addedBatchSize > 0) {
                 ps.executeBatch();
@@ -304,6 +274,9 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
             String msg = buildRegExpMessage(_fileName, tableDbName, executedSql, valueList, e);
             throw new DfDelimiterDataRegistrationFailureException(msg, e);
         } finally {
+            if (recordReader != null) {
+                recordReader.stop(); // before closing the reader
+            }
             try {
                 if (fis != null) {
                     fis.close();
@@ -415,6 +388,183 @@ public class DfDelimiterDataWriterImpl extends DfAbsractDataWriter implements Df
         throw new DfDelimiterDataColumnDefNotFoundException(msg);
     }
 
+    // ===================================================================================
+    //                                                                       Record Reader
+    //                                                                       =============
+    protected DfDelimiterDataWriteSqlBuilder createSqlBuilder(String tableDbName,
+            Map<String, DfColumnMeta> columnMetaMap, List<String> columnNameList, List<String> valueList,
+            DfDelimiterDataResultInfo resultInfo) {
+        final DfDelimiterDataWriteSqlBuilder sqlBuilder = new DfDelimiterDataWriteSqlBuilder();
+        sqlBuilder.setTableDbName(tableDbName);
+        sqlBuilder.setColumnMetaMap(columnMetaMap);
+        sqlBuilder.setColumnNameList(columnNameList);
+        sqlBuilder.setValueList(valueList); // the instance is reused for all records
+        sqlBuilder.setNotFoundColumnMap(resultInfo.getNotFoundColumnMap());
+        sqlBuilder.setConvertValueMap(_convertValueMap);
+        sqlBuilder.setDefaultValueMap(_defaultValueMap);
+        sqlBuilder.setBindTypeProvider(new DfColumnBindTypeProvider() {
+            public Class<?> provide(String tableName, DfColumnMeta columnMeta) {
+                return getBindType(tableName, columnMeta);
+            }
+        });
+        sqlBuilder.setDefaultValueProp(_defaultValueProp);
+        return sqlBuilder;
+    }
+
+    protected DfDelimiterDataRecordReader startRecordReader(BufferedReader br, FirstLineInfo firstLineInfo) {
+        findConvertLineMapping(); // initialize the lazy cache before the reader thread
+        final DfDelimiterDataRecordReader recordReader = new DfDelimiterDataRecordReader(br, firstLineInfo);
+        recordReader.start();
+        return recordReader;
+    }
+
+    /**
+     * The reader of records in the delimiter file on its own thread. <br />
+     * Reading lines and analyzing values (e.g. quoted multi-line value) are executed
+     * while the writer thread registers previous records to database.
+     * The records are handed to the writer thread in order of lines by the bounded queue.
+     */
+    protected class DfDelimiterDataRecordReader implements Runnable {
+
+        protected final BufferedReader _br;
+        protected final FirstLineInfo _firstLineInfo;
+        protected final BlockingQueue<DfDelimiterDataRecord> _recordQueue;
+        protected Thread _thread;
+
+        public DfDelimiterDataRecordReader(BufferedReader br, FirstLineInfo firstLineInfo) {
+            _br = br;
+            _firstLineInfo = firstLineInfo;
+            _recordQueue = new ArrayBlockingQueue<DfDelimiterDataRecord>(RECORD_QUEUE_SIZE);
+        }
+
+        public void start() {
+            _thread = new Thread(this, "DfDelimiterDataReader");
+            _thread.setDaemon(true);
+            _thread.start();
+        }
+
+        public void run() {
+            try {
+                doReadRecord();
+                _recordQueue.put(DfDelimiterDataRecord.END);
+            } catch (InterruptedException e) { // stopped by the writer thread
+                return;
+            } catch (Throwable cause) { // handed to the writer thread
+                try {
+                    _recordQueue.put(new DfDelimiterDataRecord(null, null, cause));
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }
+
+        protected void doReadRecord() throws IOException, InterruptedException {
+            String preContinueString = null;
+            List<String> valueList = new ArrayList<String>();
+            String lineString;
+            while ((lineString = _br.readLine()) != null) {
+                // /- - - - - - - - - - - - - - -
+                // analyze values in line strings
+                // - - - - - - - - - -/
+                lineString = filterLineString(lineString);
+                if (preContinueString != null && !preContinueString.equals("")) {
+                    lineString = preContinueString + "\n" + lineString;
+                }
+                final ValueLineInfo valueLineInfo = arrangeValueList(lineString, _delimiter);
+                final List<String> ls = valueLineInfo.getValueList();
+                if (valueLineInfo.isContinueNextLine()) {
+                    preContinueString = ls.remove(ls.size() - 1);
+                    valueList.addAll(ls);
+                    continue;
+                }
+                valueList.addAll(ls);
+                // *one record is prepared here
+
+                if (isDifferentColumnValueCount(_firstLineInfo, valueList)) {
+                    String msg = "The count of values wasn't correct:";
+                    msg = msg + " column=" + _firstLineInfo.getColumnNameList().size();
+                    msg = msg + " value=" + valueList.size();
+                    msg = msg + " -> " + valueList;
+                    _recordQueue.put(new DfDelimiterDataRecord(null, msg, null));
+                } else {
+                    _recordQueue.put(new DfDelimiterDataRecord(valueList, null, null));
+                }
+                valueList = new ArrayList<String>(valueList.size());
+                preContinueString = null;
+            }
+        }
+
+        /**
+         * @return The next record. (NullAllowed: if null, end of file)
+         * @throws IOException When the reader thread fails to read the file.
+         */
+        public DfDelimiterDataRecord takeRecord() throws IOException {
+            final DfDelimiterDataRecord record;
+            try {
+                record = _recordQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                String msg = "Interrupted while waiting for the record: " + _fileName;
+                throw new IllegalStateException(msg, e);
+            }
+            if (record == DfDelimiterDataRecord.END) {
+                return null;
+            }
+            final Throwable cause = record.getCause();
+            if (cause != null) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                String msg = "Failed to read the record: " + _fileName;
+                throw new IllegalStateException(msg, cause);
+            }
+            return record;
+        }
+
+        public void stop() {
+            if (_thread != null && _thread.isAlive()) {
+                _thread.interrupt(); // may be waiting for the queue
+                try {
+                    _thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    protected static class DfDelimiterDataRecord {
+
+        public static final DfDelimiterDataRecord END = new DfDelimiterDataRecord(null, null, null);
+
+        protected final List<String> _valueList; // null if warning or failure
+        protected final String _warningMessage; // not null if the count of values is different
+        protected final Throwable _cause; // not null if the reader failed
+
+        public DfDelimiterDataRecord(List<String> valueList, String warningMessage, Throwable cause) {
+            _valueList = valueList;
+            _warningMessage = warningMessage;
+            _cause = cause;
+        }
+
+        public List<String> getValueList() {
+            return _valueList;
+        }
+
+        public String getWarningMessage() {
+            return _warningMessage;
+        }
+
+        public Throwable getCause() {
+            return _cause;
+        }
+    }
+
     // ===================================================================================
     //                                                                    Process per Type
     //                                                                    ================
@@ -59,6 +59,8 @@ import org.seasar.dbflute.helper.dataset.states.DfDtsSqlContext;
 import org.seasar.dbflute.helper.dataset.types.DfDtsColumnType;
 import org.seasar.dbflute.helper.dataset.types.DfDtsColumnTypes;
 import org.seasar.dbflute.helper.io.xls.DfTableXlsReader;
+import org.seasar.dbflute.helper.io.xls.DfTableXlsStreamHandler;
+import org.seasar.dbflute.helper.io.xls.DfTableXlsStreamReader;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfColumnBindTypeProvider;
 import org.seasar.dbflute.logic.replaceschema.loaddata.DfLoadedDataInfo;
@@ -83,6 +85,9 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
     /** Log instance. */
     private static final Log _log = LogFactory.getLog(DfXlsDataHandlerImpl.class);
 
+    /** The size of rows executed as one batch, which is also the size of rows kept for retry. */
+    protected static final int BATCH_ROW_SIZE = 10000;
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -126,11 +131,14 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
             _log.info("/= = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = = ");
             _log.info("writeData(" + file + ")");
             _log.info("= = = = = = =/");
-            final DfTableXlsReader xlsReader = createTableXlsReader(dataDirectory, file);
-            final DfDataSet dataSet = xlsReader.read();
-            filterValidColumn(dataSet);
-            setupDefaultValue(dataDirectory, dataSet);
-            doWriteDataSet(resource, file, dataSet, msgSb);
+            final DfTableXlsStreamReader xlsReader = createTableXlsStreamReader(dataDirectory, file);
+            msgSb.append(ln()).append(ln()).append("[" + file.getName() + "]");
+            final XlsStreamTableWriter tableWriter = createStreamTableWriter(resource, file, msgSb);
+            try {
+                xlsReader.read(tableWriter); // rows are written while reading
+            } finally {
+                tableWriter.closeUnfinishedTable(); // e.g. when reading the sheet fails
+            }
             final boolean warned = false; // this has no warning fixedly
             loadedDataInfo.addLoadedFile(resource.getEnvType(), "xls", null, file.getName(), warned);
         }
@@ -143,130 +151,243 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
     }
 
     // -----------------------------------------------------
-    //                                               DataSet
-    //                                               -------
-    protected void doWriteDataSet(DfXlsDataResource resource, File file, DfDataSet dataSet, StringBuilder msgSb) {
-        msgSb.append(ln()).append(ln()).append("[" + file.getName() + "]");
-        for (int i = 0; i < dataSet.getTableSize(); i++) {
-            final DfDataTable dataTable = dataSet.getTable(i);
-            final int loadedCount = doWriteDataTable(resource, file, dataTable);
-            msgSb.append(ln()).append("  " + dataTable.getTableDbName() + " (" + loadedCount + ")");
-        }
+    //                                            DataTable
+    //                                            ---------
+    protected XlsStreamTableWriter createStreamTableWriter(DfXlsDataResource resource, File file,
+            StringBuilder msgSb) {
+        return new XlsStreamTableWriter(resource, file, msgSb);
     }
 
-    // -----------------------------------------------------
-    //                                             DataTable
-    //                                             ---------
-    protected int doWriteDataTable(DfXlsDataResource resource, File file, DfDataTable dataTable) {
-        final String tableDbName = dataTable.getTableDbName();
-        if (dataTable.getRowSize() == 0) {
-            _log.info("*Not found row at the table: " + tableDbName);
-            return 0;
+    /**
+     * The writer of tables read by the stream reader. <br />
+     * Rows are registered as they are read, and the batch is executed per fixed size in one transaction
+     * of the table, so the memory does not depend on the row count of the sheet. <br />
+     * Only rows of the current batch are kept for the non-batch retry that finds the failure row.
+     */
+    protected class XlsStreamTableWriter implements DfTableXlsStreamHandler {
+
+        protected final DfXlsDataResource _resource;
+        protected final File _file;
+        protected final StringBuilder _msgSb;
+
+        // table resources (reset per table)
+        protected DfDataTable _currentTable; // null if no table is being written
+        protected List<String> _defaultColumnList; // columns added by default value
+        protected Map<String, DfColumnMeta> _columnMetaMap; // null until the first row
+        protected List<String> _columnNameList;
+        protected LoggingInsertType _loggingInsertType;
+        protected boolean _suppressBatchUpdate;
+        protected Connection _conn;
+        protected PreparedStatement _ps;
+        protected String _preparedSql;
+        protected boolean _beginTransaction;
+        protected boolean _transactionClosed;
+        protected final List<DfDataRow> _batchRowList = new ArrayList<DfDataRow>();
+        protected int _loadedRowCount;
+        protected boolean _existsEmptyRow;
+        protected SQLException _retryEx;
+        protected DfDataRow _retryDataRow;
+
+        public XlsStreamTableWriter(DfXlsDataResource resource, File file, StringBuilder msgSb) {
+            _resource = resource;
+            _file = file;
+            _msgSb = msgSb;
         }
 
-        final Map<String, DfColumnMeta> columnMetaMap = getColumnMetaMap(tableDbName);
-        if (columnMetaMap.isEmpty()) {
-            throwTableNotFoundException(file, tableDbName);
+        public void handleTable(DfDataTable table) {
+            filterValidColumn(table);
+            _defaultColumnList = setupDefaultValueColumn(_resource.getDataDirectory(), table);
         }
 
-        beforeHandlingTable(tableDbName, columnMetaMap);
-        checkHeaderColumnIfNeeds(resource, file, dataTable, columnMetaMap);
-        final List<String> columnNameList = extractColumnNameList(dataTable);
+        public void handleRow(DfDataTable table, DfDataRow row) {
+            for (String defaultColumn : _defaultColumnList) {
+                row.addValue(defaultColumn, null); // value is set later
+            }
+            boolean success = false;
+            try {
+                if (_columnMetaMap == null) { // first row
+                    beginTable(table);
+                }
+                doWriteRow(table, row);
+                success = true;
+            } finally {
+                if (!success) {
+                    closeTable(table);
+                }
+            }
+        }
 
-        final String dataDirectory = resource.getDataDirectory();
-        final LoggingInsertType loggingInsertType = getLoggingInsertType(dataDirectory);
-        final boolean suppressBatchUpdate = isMergedSuppressBatchUpdate(resource.getDataDirectory());
-        Connection conn = null;
-        PreparedStatement ps = null;
-        String preparedSql = null;
-        SQLException retryEx = null;
-        DfDataRow retryDataRow = null;
-        try {
-            conn = _dataSource.getConnection();
-            int loadedRowCount = 0;
-            final int rowSize = dataTable.getRowSize();
-            boolean existsEmptyRow = false;
-            for (int i = 0; i < rowSize; i++) {
-                final DfDataRow dataRow = dataTable.getRow(i);
-                if (ps == null) {
-                    final MyCreatedState myCreatedState = new MyCreatedState();
-                    preparedSql = myCreatedState.buildPreparedSql(dataRow);
-                    ps = conn.prepareStatement(preparedSql);
+        public void handleTableEnd(DfDataTable table) {
+            final String tableDbName = table.getTableDbName();
+            if (_columnMetaMap == null) {
+                _log.info("*Not found row at the table: " + tableDbName);
+                appendLoadedCount(table, 0);
+                return;
+            }
+            final int loadedRowCount;
+            try {
+                doEndTable(table);
+            } finally {
+                loadedRowCount = _loadedRowCount; // before reset by closing
+                closeTable(table);
+            }
+            appendLoadedCount(table, loadedRowCount);
+        }
+
+        protected void beginTable(DfDataTable table) {
+            final String tableDbName = table.getTableDbName();
+            final Map<String, DfColumnMeta> columnMetaMap = getColumnMetaMap(tableDbName);
+            if (columnMetaMap.isEmpty()) {
+                throwTableNotFoundException(_file, tableDbName);
+            }
+            beforeHandlingTable(tableDbName, columnMetaMap);
+            _currentTable = table;
+            _columnMetaMap = columnMetaMap; // for finally handling
+            checkHeaderColumnIfNeeds(_resource, _file, table, columnMetaMap);
+            _columnNameList = extractColumnNameList(table);
+            final String dataDirectory = _resource.getDataDirectory();
+            _loggingInsertType = getLoggingInsertType(dataDirectory);
+            _suppressBatchUpdate = isMergedSuppressBatchUpdate(dataDirectory);
+        }
+
+        protected void doWriteRow(DfDataTable table, DfDataRow row) {
+            final String dataDirectory = _resource.getDataDirectory();
+            try {
+                if (_conn == null) {
+                    _conn = _dataSource.getConnection();
+                }
+                if (_ps == null) {
+                    _preparedSql = new MyCreatedState().buildPreparedSql(row);
+                    _ps = _conn.prepareStatement(_preparedSql);
+                    if (!_suppressBatchUpdate) {
+                        _conn.setAutoCommit(false); // transaction to retry after
+                        _beginTransaction = true;
+                    }
                 }
-                if (doWriteDataRow(resource, file, dataTable, dataRow // basic resources
-                        , columnMetaMap // meta data
-                        , conn, ps // JDBC resources
-                        , loggingInsertType, suppressBatchUpdate)) { // option
-                    ++loadedRowCount;
-                    if (existsEmptyRow) {
-                        final int emptyRowNumber = dataRow.getRowNumber() - 1;
-                        throwXlsDataEmptyRowDataException(dataDirectory, file, dataTable, emptyRowNumber);
+                if (doWriteDataRow(_resource, _file, table, row // basic resources
+                        , _columnMetaMap // meta data
+                        , _conn, _ps // JDBC resources
+                        , _loggingInsertType, _suppressBatchUpdate)) { // option
+                    ++_loadedRowCount;
+                    if (_existsEmptyRow) {
+                        final int emptyRowNumber = row.getRowNumber() - 1;
+                        throwXlsDataEmptyRowDataException(dataDirectory, _file, table, emptyRowNumber);
+                    }
+                    if (!_suppressBatchUpdate) {
+                        _batchRowList.add(row);
+                        if (_batchRowList.size() >= BATCH_ROW_SIZE) {
+                            executeBatch(table); // to avoid OutOfMemory
+                        }
                     }
                 } else {
-                    existsEmptyRow = true;
+                    _existsEmptyRow = true;
                 }
+            } catch (RuntimeException e) {
+                handleXlsDataRegistartionFailureException(dataDirectory, _file, table.getTableDbName(), e);
+            } catch (SQLException e) {
+                handleWriteTableException(dataDirectory, _file, table, e, _retryEx, _retryDataRow, _columnNameList);
             }
-            if (existsEmptyRow) {
-                _log.info("...Skipping the terminal garbage row");
+        }
+
+        protected void doEndTable(DfDataTable table) {
+            final String dataDirectory = _resource.getDataDirectory();
+            final String tableDbName = table.getTableDbName();
+            try {
+                if (_existsEmptyRow) {
+                    _log.info("...Skipping the terminal garbage row");
+                }
+                if (!_suppressBatchUpdate) {
+                    executeBatch(table);
+                    _conn.commit();
+                    _transactionClosed = true;
+                }
+                noticeLoadedRowSize(tableDbName, _loadedRowCount);
+                checkImplicitClassification(_file, tableDbName, _columnNameList);
+            } catch (RuntimeException e) {
+                handleXlsDataRegistartionFailureException(dataDirectory, _file, tableDbName, e);
+            } catch (SQLException e) {
+                handleWriteTableException(dataDirectory, _file, table, e, _retryEx, _retryDataRow, _columnNameList);
             }
-            if (!suppressBatchUpdate) {
-                boolean beginTransaction = false;
-                boolean transactionClosed = false;
-                try {
-                    conn.setAutoCommit(false); // transaction to retry after
-                    beginTransaction = true;
-                    ps.executeBatch();
-                    conn.commit();
-                    transactionClosed = true;
-                } catch (SQLException e) {
-                    conn.rollback();
-                    transactionClosed = true;
-                    if (!(e instanceof BatchUpdateException)) {
-                        throw e;
-                    }
-                    _log.info("...Retrying by suppressing batch update: " + tableDbName);
-                    final PreparedStatement retryPs = conn.prepareStatement(preparedSql);
-                    for (int i = 0; i < rowSize; i++) {
-                        final DfDataRow dataRow = dataTable.getRow(i);
-                        try {
-                            doWriteDataRow(resource, file, dataTable, dataRow // basic resources
-                                    , columnMetaMap // meta data
-                                    , conn, retryPs // JDBC resources
-                                    , LoggingInsertType.NONE, true); // option (no logging and suppress batch)
-                        } catch (SQLException rowEx) {
-                            retryEx = rowEx;
-                            retryDataRow = dataRow;
-                            break;
-                        }
+        }
+
+        protected void executeBatch(DfDataTable table) throws SQLException {
+            if (_batchRowList.isEmpty()) {
+                return;
+            }
+            try {
+                _ps.executeBatch();
+                _ps.clearBatch(); // for next batch
+            } catch (SQLException e) {
+                _conn.rollback();
+                _transactionClosed = true;
+                if (!(e instanceof BatchUpdateException)) {
+                    throw e;
+                }
+                _log.info("...Retrying by suppressing batch update: " + table.getTableDbName());
+                final PreparedStatement retryPs = _conn.prepareStatement(_preparedSql);
+                for (DfDataRow dataRow : _batchRowList) { // rows of previous batches are not retried
+                    try {
+                        doWriteDataRow(_resource, _file, table, dataRow // basic resources
+                                , _columnMetaMap // meta data
+                                , _conn, retryPs // JDBC resources
+                                , LoggingInsertType.NONE, true); // option (no logging and suppress batch)
+                    } catch (SQLException rowEx) {
+                        _retryEx = rowEx;
+                        _retryDataRow = dataRow;
+                        break;
                     }
+                }
+                try {
+                    retryPs.close();
+                } catch (SQLException ignored) {
+                }
+                throw e;
+            }
+            _batchRowList.clear();
+        }
+
+        protected void closeTable(DfDataTable table) {
+            try {
+                if (_beginTransaction) {
                     try {
-                        retryPs.close();
+                        if (!_transactionClosed) {
+                            _conn.rollback(); // for other exceptions
+                        }
+                        _conn.setAutoCommit(true);
                     } catch (SQLException ignored) {
+                        _log.info("Failed to close the transaction: " + table.getTableDbName(), ignored);
                     }
-                    throw e;
-                } finally {
-                    if (!transactionClosed) {
-                        conn.rollback(); // for other exceptions
-                    }
-                    if (beginTransaction) {
-                        conn.setAutoCommit(true);
-                    }
                 }
+                closeResource(_conn, _ps);
+                if (_columnMetaMap != null) {
+                    // process after (finally) handling table
+                    finallyHandlingTable(table.getTableDbName(), _columnMetaMap);
+                }
+            } finally {
+                _currentTable = null;
+                _columnMetaMap = null;
+                _columnNameList = null;
+                _conn = null;
+                _ps = null;
+                _preparedSql = null;
+                _beginTransaction = false;
+                _transactionClosed = false;
+                _batchRowList.clear();
+                _loadedRowCount = 0;
+                _existsEmptyRow = false;
+                _retryEx = null;
+                _retryDataRow = null;
             }
-            noticeLoadedRowSize(tableDbName, loadedRowCount);
-            checkImplicitClassification(file, tableDbName, columnNameList);
-            return loadedRowCount;
-        } catch (RuntimeException e) {
-            handleXlsDataRegistartionFailureException(dataDirectory, file, tableDbName, e);
-            return -1; // unreachable
-        } catch (SQLException e) {
-            handleWriteTableException(dataDirectory, file, dataTable, e, retryEx, retryDataRow, columnNameList);
-            return -1; // unreachable
-        } finally {
-            closeResource(conn, ps);
+        }
+
+        public void closeUnfinishedTable() {
+            if (_currentTable != null) {
+                closeTable(_currentTable);
+            }
+        }
 
-            // process after (finally) handling table
-            finallyHandlingTable(tableDbName, columnMetaMap);
+        protected void appendLoadedCount(DfDataTable table, int loadedCount) {
+            _msgSb.append(ln()).append("  " + table.getTableDbName() + " (" + loadedCount + ")");
         }
     }
 
@@ -566,6 +687,15 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
                 _skipSheetPattern, rtrimCellValue);
     }
 
+    protected DfTableXlsStreamReader createTableXlsStreamReader(String dataDirectory, File file) {
+        final Map<String, String> tableNameMap = getTableNameMap(dataDirectory);
+        final Map<String, List<String>> notTrimTableColumnMap = getNotTrimTableColumnMap(dataDirectory);
+        final Map<String, List<String>> emptyStringTableColumnMap = getEmptyStringTableColumnMap(dataDirectory);
+        final boolean rtrimCellValue = isRTrimCellValue(dataDirectory);
+        return new DfTableXlsStreamReader(file, tableNameMap, notTrimTableColumnMap, emptyStringTableColumnMap,
+                _skipSheetPattern, rtrimCellValue);
+    }
+
     protected List<File> getXlsList(DfXlsDataResource resource) {
         final Comparator<File> fileNameAscComparator = new Comparator<File>() {
             public int compare(File o1, File o2) {
@@ -591,17 +721,12 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
         return new ArrayList<File>(sortedFileSet);
     }
 
-    protected void filterValidColumn(final DfDataSet dataSet) {
-        for (int i = 0; i < dataSet.getTableSize(); i++) {
-            final DfDataTable table = dataSet.getTable(i);
-            final String tableName = table.getTableDbName();
-
-            final Map<String, DfColumnMeta> metaMetaMap = getColumnMetaMap(tableName);
-            for (int j = 0; j < table.getColumnSize(); j++) {
-                final DfDataColumn dataColumn = table.getColumn(j);
-                if (!metaMetaMap.containsKey(dataColumn.getColumnDbName())) {
-                    dataColumn.setWritable(false);
-                }
+    protected void filterValidColumn(DfDataTable table) {
+        final Map<String, DfColumnMeta> metaMetaMap = getColumnMetaMap(table.getTableDbName());
+        for (int i = 0; i < table.getColumnSize(); i++) {
+            final DfDataColumn dataColumn = table.getColumn(i);
+            if (!metaMetaMap.containsKey(dataColumn.getColumnDbName())) {
+                dataColumn.setWritable(false);
             }
         }
     }
@@ -629,34 +754,31 @@ public class DfXlsDataHandlerImpl extends DfAbsractDataWriter implements DfXlsDa
         converter.convert(tableName, columnValueMap, columnMetaMap);
     }
 
-    protected void setupDefaultValue(String dataDirectory, final DfDataSet dataSet) {
+    /**
+     * Set up the columns of default value that are not defined in the table.
+     * @param dataDirectory The data directory of the table. (NotNull)
+     * @param table The data table that has no row yet. (NotNull)
+     * @return The list of added column names, whose values should be added to rows as null. (NotNull)
+     */
+    protected List<String> setupDefaultValueColumn(String dataDirectory, DfDataTable table) {
         final Map<String, String> defaultValueMap = getDefaultValueMap(dataDirectory);
-        for (int i = 0; i < dataSet.getTableSize(); i++) {
-            final DfDataTable table = dataSet.getTable(i);
-            final Set<String> defaultValueMapKeySet = defaultValueMap.keySet();
-            final String tableName = table.getTableDbName();
-
-            final Map<String, DfColumnMeta> metaMetaMap = getColumnMetaMap(tableName);
-            for (String defaultTargetColumnName : defaultValueMapKeySet) {
-                final String defaultValue = defaultValueMap.get(defaultTargetColumnName);
-
-                if (metaMetaMap.containsKey(defaultTargetColumnName) && !table.hasColumn(defaultTargetColumnName)) {
-                    // values are resolved later so resolve type only here
-                    final DfDtsColumnType columnType;
-                    if (defaultValue.equalsIgnoreCase("sysdate")) {
-                        columnType = DfDtsColumnTypes.TIMESTAMP;
-                    } else {
-                        columnType = DfDtsColumnTypes.STRING;
-                    }
-                    table.addColumn(defaultTargetColumnName, columnType);
-
-                    for (int j = 0; j < table.getRowSize(); j++) {
-                        final DfDataRow row = table.getRow(j);
-                        row.addValue(defaultTargetColumnName, null); // value is set later
-                    }
+        final Map<String, DfColumnMeta> metaMetaMap = getColumnMetaMap(table.getTableDbName());
+        final List<String> addedColumnList = new ArrayList<String>();
+        for (String defaultTargetColumnName : defaultValueMap.keySet()) {
+            final String defaultValue = defaultValueMap.get(defaultTargetColumnName);
+            if (metaMetaMap.containsKey(defaultTargetColumnName) && !table.hasColumn(defaultTargetColumnName)) {
+                // values are resolved later so resolve type only here
+                final DfDtsColumnType columnType;
+                if (defaultValue.equalsIgnoreCase("sysdate")) {
+                    columnType = DfDtsColumnTypes.TIMESTAMP;
+                } else {
+                    columnType = DfDtsColumnTypes.STRING;
                 }
+                table.addColumn(defaultTargetColumnName, columnType);
+                addedColumnList.add(defaultTargetColumnName);
             }
         }
+        return addedColumnList;
     }
 
     // ===================================================================================
@@ -140,6 +140,7 @@ public class DfCreateSchemaProcess extends DfAbstractReplaceSchemaProcess {
         checkBeforeInitialize();
         initializeSchema();
         final DfRunnerInformation runInfo = createRunnerInformation();
+        runInfo.setSqlBatchSize(getReplaceSchemaProperties().getSqlFileBatchSize());
         final DfSqlFileFireResult fireResult = createSchema(runInfo);
         return createFinalInfo(fireResult);
     }
@@ -393,6 +394,11 @@ public class DfCreateSchemaProcess extends DfAbstractReplaceSchemaProcess {
             return getReplaceSchemaProperties().isTargetRepsFile(sql);
         }
 
+        @Override
+        protected boolean isBatchDispatchFree() {
+            return _currentUser == null || _currentUser.trim().length() == 0; // same as dispatcher
+        }
+
         @Override
         protected boolean isTargetSql(String sql) {
             final String changeUesr = analyzeChangeUser(sql);
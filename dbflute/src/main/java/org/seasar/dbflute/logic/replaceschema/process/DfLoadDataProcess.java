@@ -208,6 +208,7 @@ public class DfLoadDataProcess extends DfAbstractReplaceSchemaProcess {
         handler.setDataWritingInterceptor(getDataWritingInterceptor());
         handler.setDefaultValueProp(_defaultValueProp);
         handler.setLoadingControlProp(_loadingControlProp);
+        handler.setLoadingThreadPoolSize(getLoadDataThreadPoolSize());
         _delimiterDataHandlerImpl = handler;
         return _delimiterDataHandlerImpl;
     }
@@ -520,6 +521,10 @@ public class DfLoadDataProcess extends DfAbstractReplaceSchemaProcess {
         return getReplaceSchemaProperties().isSuppressBatchUpdate();
     }
 
+    public int getLoadDataThreadPoolSize() {
+        return getReplaceSchemaProperties().getLoadDataThreadPoolSize();
+    }
+
     public boolean isSuppressCheckColumnDef() {
         return _suppressCheckColumnDef;
     }
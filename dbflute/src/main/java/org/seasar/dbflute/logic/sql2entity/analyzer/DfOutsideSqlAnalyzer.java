@@ -16,8 +16,11 @@
 package org.seasar.dbflute.logic.sql2entity.analyzer;
 
 import java.io.File;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +47,7 @@ import org.seasar.dbflute.logic.sql2entity.cmentity.DfCustomizeEntityMetaExtract
 import org.seasar.dbflute.logic.sql2entity.pmbean.DfPmbMetaData;
 import org.seasar.dbflute.properties.DfBasicProperties;
 import org.seasar.dbflute.properties.DfDatabaseProperties;
+import org.seasar.dbflute.properties.DfOutsideSqlProperties;
 import org.seasar.dbflute.util.Srl;
 
 /**
@@ -68,6 +72,7 @@ public class DfOutsideSqlAnalyzer extends DfSqlFileRunnerBase {
     protected final DfSql2EntityMarkAnalyzer _outsideSqlMarkAnalyzer = new DfSql2EntityMarkAnalyzer();
     protected final DfOutsideSqlNameResolver _sqlFileNameResolver = new DfOutsideSqlNameResolver();
     protected final DfBehaviorQueryPathSetupper _bqpSetupper = new DfBehaviorQueryPathSetupper();
+    protected DfSql2EntityColumnMetaCache _columnMetaCache; // null allowed (no cache)
 
     // ===================================================================================
     //                                                                         Constructor
@@ -112,17 +117,32 @@ public class DfOutsideSqlAnalyzer extends DfSqlFileRunnerBase {
             DfCustomizeEntityInfo customizeEntityInfo = null;
             boolean alreadyIncrementGoodSqlCount = false;
             if (isTargetEntityMakingSql(sql)) {
-                {
-                    final String executedSql = buildExecutedSql(sql);
+                final String executedSql = buildExecutedSql(sql);
+                final Map<String, DfColumnMeta> cachedMap = findCachedColumnMetaMap(sql, executedSql);
+                Map<String, DfColumnMeta> metaDataOnlyMap = null;
+                if (cachedMap == null) {
                     checkStatement(executedSql);
-                    rs = _currentStatement.executeQuery(executedSql);
+                    metaDataOnlyMap = extractColumnMetaMapWithoutData(sql, executedSql);
+                    if (metaDataOnlyMap == null) { // needs to execute
+                        rs = _currentStatement.executeQuery(executedSql);
+                    }
                 }
 
                 _goodSqlCount++;
                 alreadyIncrementGoodSqlCount = true;
 
                 // for Customize Entity
-                final Map<String, DfColumnMeta> columnMetaMap = extractColumnMetaMap(sql, rs);
+                final Map<String, DfColumnMeta> columnMetaMap;
+                if (cachedMap != null) {
+                    columnMetaMap = cachedMap;
+                } else {
+                    if (metaDataOnlyMap != null) {
+                        columnMetaMap = metaDataOnlyMap;
+                    } else {
+                        columnMetaMap = extractColumnMetaMap(sql, rs);
+                    }
+                    registerColumnMetaCache(executedSql, columnMetaMap);
+                }
                 customizeEntityInfo = processCustomizeEntity(sql, columnMetaMap);
             }
             if (isTargetParameterBeanMakingSql(sql)) {
@@ -169,17 +189,163 @@ public class DfOutsideSqlAnalyzer extends DfSqlFileRunnerBase {
         return filtered;
     }
 
+    // -----------------------------------------------------
+    //                                       MetaData Cache
+    //                                       --------------
+    /**
+     * Find the column meta map of the SQL from the cache.
+     * @param sql The string of SQL. (NotNull)
+     * @param executedSql The string of executed SQL, which is the key of cache. (NotNull)
+     * @return The map of column meta with forced java native types. (NullAllowed: when no cache or not cached)
+     */
+    protected Map<String, DfColumnMeta> findCachedColumnMetaMap(String sql, String executedSql) {
+        if (_columnMetaCache == null) {
+            return null;
+        }
+        final Map<String, DfColumnMeta> cachedMap = _columnMetaCache.find(executedSql);
+        if (cachedMap == null) {
+            return null;
+        }
+        final DfForcedJavaNativeProvider provider = createForcedJavaNativeProvider(sql);
+        for (DfColumnMeta columnMeta : cachedMap.values()) {
+            columnMeta.setSql2EntityForcedJavaNative(provider.provide(columnMeta.getColumnName()));
+        }
+        return cachedMap;
+    }
+
+    protected void registerColumnMetaCache(String executedSql, Map<String, DfColumnMeta> columnMetaMap) {
+        if (_columnMetaCache == null) {
+            return;
+        }
+        _columnMetaCache.register(executedSql, columnMetaMap);
+    }
+
+    // -----------------------------------------------------
+    //                                       MetaData First
+    //                                       --------------
+    /**
+     * Extract the column meta map without selecting data if meta-data-first. <br />
+     * The prepared meta data is used at first, and the zero-row guard SQL is next.
+     * @param sql The string of SQL. (NotNull)
+     * @param executedSql The string of executed SQL, comments are filtered. (NotNull)
+     * @return The map of column meta. (NullAllowed: when not meta-data-first or cannot derive it)
+     */
+    protected Map<String, DfColumnMeta> extractColumnMetaMapWithoutData(String sql, String executedSql) {
+        if (!getOutsideSqlProperties().isSql2EntityMetaDataFirst()) {
+            return null;
+        }
+        final Map<String, DfColumnMeta> preparedMap = extractColumnMetaMapByPrepared(sql, executedSql);
+        if (preparedMap != null) {
+            return preparedMap;
+        }
+        final String guardSql = buildZeroRowGuardSql(executedSql);
+        if (guardSql != null) {
+            final Map<String, DfColumnMeta> guardedMap = extractColumnMetaMapByPrepared(sql, guardSql);
+            if (guardedMap != null) {
+                return guardedMap;
+            }
+        }
+        _log.info("*Cannot derive the meta data without execution so execute the SQL.");
+        return null;
+    }
+
+    protected Map<String, DfColumnMeta> extractColumnMetaMapByPrepared(String sql, String preparedSql) {
+        // failure of the SQL aborts the transaction on some databases (e.g. PostgreSQL)
+        // so it uses save-point to continue the next way
+        final Savepoint savepoint = setSavepointIfPossible();
+        PreparedStatement ps = null;
+        try {
+            ps = _currentConnection.prepareStatement(preparedSql);
+            final ResultSetMetaData md = ps.getMetaData(); // null allowed if the driver does not support it
+            if (md == null || md.getColumnCount() == 0) {
+                return null;
+            }
+            final DfCustomizeEntityMetaExtractor extractor = new DfCustomizeEntityMetaExtractor();
+            final Map<String, DfColumnMeta> columnMetaMap;
+            columnMetaMap = extractor.extractColumnMetaInfoMap(md, sql, createForcedJavaNativeProvider(sql));
+            releaseSavepointIfNeeds(savepoint);
+            return columnMetaMap;
+        } catch (SQLException continued) {
+            _log.info("Failed to get the meta data without execution: " + continued.getMessage());
+            rollbackSavepointIfNeeds(savepoint);
+            return null;
+        } finally {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException ignored) {
+                    _log.warn("Ignored exception: " + ignored.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the SQL that selects no row but has the same columns as the SQL.
+     * @param executedSql The string of executed SQL, comments are filtered. (NotNull)
+     * @return The string of guard SQL. (NullAllowed: when the SQL cannot be guarded)
+     */
+    protected String buildZeroRowGuardSql(String executedSql) {
+        final String plainSql = removeLineComment(removeBlockComment(executedSql)).trim();
+        if (!Srl.startsWithIgnoreCase(plainSql, "select")) { // e.g. with clause, procedure call
+            return null;
+        }
+        // the alias without 'as' for Oracle
+        // and the line separator for the line comment at the last line
+        final String derived = "(" + ln() + executedSql + ln() + ") dfzero";
+        if (_currentDBDef.equals(DBDef.SQLServer) || _currentDBDef.equals(DBDef.Sybase)) {
+            return "select top 0 * from " + derived;
+        }
+        return "select * from " + derived + " where 1 = 0";
+    }
+
+    protected Savepoint setSavepointIfPossible() {
+        try {
+            if (_currentConnection.getAutoCommit()) {
+                return null;
+            }
+            return _currentConnection.setSavepoint();
+        } catch (SQLException continued) { // e.g. unsupported
+            return null;
+        }
+    }
+
+    protected void releaseSavepointIfNeeds(Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            _currentConnection.releaseSavepoint(savepoint);
+        } catch (SQLException ignored) { // e.g. unsupported, released at the end of transaction anyway
+        }
+    }
+
+    protected void rollbackSavepointIfNeeds(Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            _currentConnection.rollback(savepoint);
+        } catch (SQLException ignored) {
+            _log.warn("Ignored exception: " + ignored.getMessage());
+        }
+    }
+
     // -----------------------------------------------------
     //                                       CustomizeEntity
     //                                       ---------------
     protected Map<String, DfColumnMeta> extractColumnMetaMap(String sql, ResultSet rs) throws SQLException {
-        final Map<String, String> columnForcedJavaNativeMap = createColumnForcedJavaNativeMap(sql);
         final DfCustomizeEntityMetaExtractor extractor = new DfCustomizeEntityMetaExtractor();
-        return extractor.extractColumnMetaInfoMap(rs, sql, new DfForcedJavaNativeProvider() {
+        return extractor.extractColumnMetaInfoMap(rs, sql, createForcedJavaNativeProvider(sql));
+    }
+
+    protected DfForcedJavaNativeProvider createForcedJavaNativeProvider(String sql) {
+        final Map<String, String> columnForcedJavaNativeMap = createColumnForcedJavaNativeMap(sql);
+        return new DfForcedJavaNativeProvider() {
             public String provide(String columnName) {
                 return columnForcedJavaNativeMap.get(columnName);
             }
-        });
+        };
     }
 
     protected Map<String, String> createColumnForcedJavaNativeMap(String sql) {
@@ -429,4 +595,15 @@ public class DfOutsideSqlAnalyzer extends DfSqlFileRunnerBase {
     protected DfDatabaseProperties getDatabaseProperties() {
         return getProperties().getDatabaseProperties();
     }
+
+    protected DfOutsideSqlProperties getOutsideSqlProperties() {
+        return getProperties().getOutsideSqlProperties();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public void setColumnMetaCache(DfSql2EntityColumnMetaCache columnMetaCache) {
+        _columnMetaCache = columnMetaCache;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.sql2entity.analyzer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.torque.engine.database.model.AppData;
+import org.seasar.dbflute.helper.jdbc.DfRunnerInformation;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.sql2entity.cmentity.DfCustomizeEntityMetaExtractor.DfForcedJavaNativeProvider;
+
+/**
+ * The prefetcher of column meta data for customize-entity SQLs. <br />
+ * It only derives the meta data from the database and registers them to the cache,
+ * and the SQL files are analyzed by the normal analyzer later using the cache. <br />
+ * So it can run in parallel with its own connection per thread.
+ * @author jflute
+ * @since 1.0.5K (2014/07/19 Saturday)
+ */
+public class DfOutsideSqlColumnMetaPrefetcher extends DfOutsideSqlAnalyzer {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** Log instance. */
+    private static final Log _log = LogFactory.getLog(DfOutsideSqlColumnMetaPrefetcher.class);
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public DfOutsideSqlColumnMetaPrefetcher(DfRunnerInformation runInfo, DataSource dataSource,
+            DfOutsideSqlPack outsideSqlPack, AppData schemaData, DfSql2EntityColumnMetaCache columnMetaCache) {
+        super(runInfo, dataSource, new DfSql2EntityMeta(), outsideSqlPack, schemaData); // meta is not used
+        setColumnMetaCache(columnMetaCache);
+    }
+
+    // ===================================================================================
+    //                                                                           Execution
+    //                                                                           =========
+    @Override
+    protected void execSQL(String sql) {
+        if (!isTargetEntityMakingSql(sql)) {
+            return;
+        }
+        final String executedSql = buildExecutedSql(sql);
+        if (_columnMetaCache.contains(executedSql)) { // already prefetched or cached
+            return;
+        }
+        // failure of the SQL aborts the transaction on some databases (e.g. PostgreSQL)
+        // so it uses save-point to continue the next SQL
+        final Savepoint savepoint = setSavepointIfPossible();
+        ResultSet rs = null;
+        try {
+            checkStatement(executedSql);
+            Map<String, DfColumnMeta> columnMetaMap = extractColumnMetaMapWithoutData(sql, executedSql);
+            if (columnMetaMap == null) {
+                rs = _currentStatement.executeQuery(executedSql);
+                columnMetaMap = extractColumnMetaMap(sql, rs);
+            }
+            _columnMetaCache.register(executedSql, columnMetaMap);
+            releaseSavepointIfNeeds(savepoint);
+            _goodSqlCount++;
+        } catch (SQLException continued) {
+            // the SQL is executed again by the normal analyzer that reports the failure
+            _log.info("*Failed to prefetch the meta data: " + _sqlFile.getName() + " " + continued.getMessage());
+            rollbackSavepointIfNeeds(savepoint);
+        } finally {
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException ignored) {
+                    _log.warn("Ignored exception: " + ignored.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected DfForcedJavaNativeProvider createForcedJavaNativeProvider(String sql) {
+        return null; // the cache does not save forced java native types (set by normal analyzer)
+    }
+
+    @Override
+    protected void traceSql(String sql) {
+        // the SQL is logged by normal analyzer
+    }
+
+    @Override
+    protected void traceResult(int goodSqlCount, int totalSqlCount) {
+        // the result is logged by normal analyzer
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.sql2entity.analyzer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.mapstring.MapListFile;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+
+/**
+ * The cache of column meta data for customize-entity SQLs. <br />
+ * The key is the hash of executed SQL and the cache is valid only for the same schema version,
+ * so unchanged SQLs are not executed again at the next Sql2Entity. <br />
+ * The meta data are saved as raw values of the database (forced java native types are not saved).
+ * @author jflute
+ * @since 1.0.5K (2014/07/19 Saturday)
+ */
+public class DfSql2EntityColumnMetaCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** Log instance. */
+    private static final Log _log = LogFactory.getLog(DfSql2EntityColumnMetaCache.class);
+
+    protected static final String KEY_SCHEMA_VERSION = "schemaVersion";
+    protected static final String KEY_COLUMN_META_MAP = "columnMetaMap";
+    protected static final String KEY_COLUMN_NAME = "columnName";
+    protected static final String KEY_RELATED_TABLE_NAME = "relatedTableName";
+    protected static final String KEY_RELATED_COLUMN_NAME = "relatedColumnName";
+    protected static final String KEY_JDBC_TYPE = "jdbcType";
+    protected static final String KEY_DB_TYPE_NAME = "dbTypeName";
+    protected static final String KEY_COLUMN_SIZE = "columnSize";
+    protected static final String KEY_DECIMAL_DIGITS = "decimalDigits";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The path of cache file. (NullAllowed: if null, the cache is on memory only) */
+    protected final String _cacheFilePath;
+
+    /** The version of schema that the cache depends on. (NotNull) */
+    protected final String _schemaVersion;
+
+    /** The map of cached meta loaded from the file. map:{sqlHash = list:{columnMeta}} (NotNull) */
+    protected final Map<String, List<Map<String, String>>> _loadedMap;
+
+    /** The map of meta used or registered at this time, which is saved. (NotNull) */
+    protected final Map<String, List<Map<String, String>>> _currentMap;
+
+    /** The set of key registered at this time, e.g. prefetched, which is not counted as hit. (NotNull) */
+    protected final Set<String> _registeredKeySet;
+
+    protected final AtomicInteger _hitCount = new AtomicInteger();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param cacheFilePath The path of cache file. (NullAllowed: if null, the cache is on memory only)
+     * @param schemaVersion The version of schema that the cache depends on. (NotNull)
+     */
+    public DfSql2EntityColumnMetaCache(String cacheFilePath, String schemaVersion) {
+        _cacheFilePath = cacheFilePath;
+        _schemaVersion = schemaVersion;
+        _loadedMap = new ConcurrentHashMap<String, List<Map<String, String>>>();
+        _currentMap = new ConcurrentHashMap<String, List<Map<String, String>>>();
+        _registeredKeySet = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    // ===================================================================================
+    //                                                                         Load & Save
+    //                                                                         ===========
+    /**
+     * Load the cache file if it exists and its schema version is same as current one.
+     */
+    public void load() {
+        if (_cacheFilePath == null) {
+            return;
+        }
+        final File cacheFile = new File(_cacheFilePath);
+        if (!cacheFile.exists()) {
+            return;
+        }
+        final Map<String, Object> cacheMap;
+        try {
+            cacheMap = new MapListFile().readMap(new FileInputStream(cacheFile));
+        } catch (IOException e) {
+            _log.info("*Cannot read the Sql2Entity cache so ignore it: " + e.getMessage());
+            return;
+        } catch (RuntimeException e) { // e.g. broken file
+            _log.info("*The Sql2Entity cache is broken so ignore it: " + e.getMessage());
+            return;
+        }
+        if (!_schemaVersion.equals(cacheMap.get(KEY_SCHEMA_VERSION))) {
+            _log.info("*The schema has been changed so the Sql2Entity cache is cleared.");
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        final Map<String, List<Map<String, String>>> columnMetaMap = (Map<String, List<Map<String, String>>>) cacheMap
+                .get(KEY_COLUMN_META_MAP);
+        if (columnMetaMap != null) {
+            for (Entry<String, List<Map<String, String>>> entry : columnMetaMap.entrySet()) {
+                final List<Map<String, String>> metaList = entry.getValue();
+                _loadedMap.put(entry.getKey(), metaList != null ? metaList : new ArrayList<Map<String, String>>());
+            }
+        }
+        _log.info("...Loading the Sql2Entity cache: " + _loadedMap.size() + " SQLs");
+    }
+
+    /**
+     * Save the cache file with the meta used or registered at this time.
+     * @param removeUnused Does it remove the meta unused at this time? (e.g. false when partial analysis)
+     */
+    public void save(boolean removeUnused) {
+        if (_cacheFilePath == null) {
+            return;
+        }
+        final Map<String, Object> savedMap = new TreeMap<String, Object>(); // sorted for diff
+        if (!removeUnused) {
+            savedMap.putAll(_loadedMap);
+        }
+        savedMap.putAll(_currentMap);
+        final Map<String, Object> cacheMap = new LinkedHashMap<String, Object>();
+        cacheMap.put(KEY_SCHEMA_VERSION, _schemaVersion);
+        cacheMap.put(KEY_COLUMN_META_MAP, savedMap);
+        try {
+            new MapListFile().writeMap(new FileOutputStream(_cacheFilePath), cacheMap);
+        } catch (IOException e) { // the cache is not required
+            _log.info("*Cannot write the Sql2Entity cache: " + e.getMessage());
+            return;
+        }
+        _log.info("...Saving the Sql2Entity cache: " + savedMap.size() + " SQLs (hit=" + _hitCount.get() + ")");
+    }
+
+    // ===================================================================================
+    //                                                                     Find & Register
+    //                                                                     ===============
+    /**
+     * Find the column meta map of the executed SQL from the cache.
+     * @param executedSql The string of executed SQL. (NotNull)
+     * @return The new-created map of column meta. (NullAllowed: when not cached)
+     */
+    public Map<String, DfColumnMeta> find(String executedSql) {
+        final String key = buildKey(executedSql);
+        final List<Map<String, String>> currentList = _currentMap.get(key);
+        final List<Map<String, String>> metaList = currentList != null ? currentList : _loadedMap.get(key);
+        if (metaList == null) {
+            return null;
+        }
+        final Map<String, DfColumnMeta> columnMetaMap = StringKeyMap.createAsFlexibleOrdered();
+        try {
+            for (Map<String, String> meta : metaList) {
+                final DfColumnMeta columnMeta = restoreColumnMeta(meta);
+                columnMetaMap.put(columnMeta.getColumnName(), columnMeta);
+            }
+        } catch (RuntimeException e) { // e.g. broken entry, treated as not cached
+            _log.info("*The Sql2Entity cache entry is broken so ignore it: " + e.getMessage());
+            _currentMap.remove(key);
+            _loadedMap.remove(key);
+            return null;
+        }
+        if (currentList == null) {
+            _currentMap.put(key, metaList);
+        }
+        if (!_registeredKeySet.contains(key)) { // e.g. prefetched at this time is not hit
+            _hitCount.incrementAndGet();
+        }
+        return columnMetaMap;
+    }
+
+    /**
+     * Does the cache have the column meta of the executed SQL? (without counting hit)
+     * @param executedSql The string of executed SQL. (NotNull)
+     * @return The determination, true or false.
+     */
+    public boolean contains(String executedSql) {
+        final String key = buildKey(executedSql);
+        return _currentMap.containsKey(key) || _loadedMap.containsKey(key);
+    }
+
+    /**
+     * Register the column meta map of the executed SQL to the cache. (thread-safe)
+     * @param executedSql The string of executed SQL. (NotNull)
+     * @param columnMetaMap The map of column meta derived from the database. (NotNull)
+     */
+    public void register(String executedSql, Map<String, DfColumnMeta> columnMetaMap) {
+        final List<Map<String, String>> metaList = new ArrayList<Map<String, String>>();
+        for (DfColumnMeta columnMeta : columnMetaMap.values()) {
+            metaList.add(convertColumnMeta(columnMeta));
+        }
+        final String key = buildKey(executedSql);
+        _registeredKeySet.add(key);
+        _currentMap.put(key, metaList);
+    }
+
+    protected Map<String, String> convertColumnMeta(DfColumnMeta columnMeta) {
+        final Map<String, String> meta = new LinkedHashMap<String, String>();
+        meta.put(KEY_COLUMN_NAME, columnMeta.getColumnName());
+        meta.put(KEY_RELATED_TABLE_NAME, columnMeta.getSql2EntityRelatedTableName());
+        meta.put(KEY_RELATED_COLUMN_NAME, columnMeta.getSql2EntityRelatedColumnName());
+        meta.put(KEY_JDBC_TYPE, String.valueOf(columnMeta.getJdbcDefValue()));
+        meta.put(KEY_DB_TYPE_NAME, columnMeta.getDbTypeName());
+        meta.put(KEY_COLUMN_SIZE, String.valueOf(columnMeta.getColumnSize()));
+        meta.put(KEY_DECIMAL_DIGITS, String.valueOf(columnMeta.getDecimalDigits()));
+        return meta;
+    }
+
+    protected DfColumnMeta restoreColumnMeta(Map<String, String> meta) {
+        final DfColumnMeta columnMeta = new DfColumnMeta();
+        columnMeta.setColumnName(meta.get(KEY_COLUMN_NAME));
+        columnMeta.setSql2EntityRelatedTableName(meta.get(KEY_RELATED_TABLE_NAME));
+        columnMeta.setSql2EntityRelatedColumnName(meta.get(KEY_RELATED_COLUMN_NAME));
+        columnMeta.setJdbcDefValue(Integer.parseInt(meta.get(KEY_JDBC_TYPE)));
+        columnMeta.setDbTypeName(meta.get(KEY_DB_TYPE_NAME));
+        columnMeta.setColumnSize(Integer.parseInt(meta.get(KEY_COLUMN_SIZE)));
+        columnMeta.setDecimalDigits(Integer.parseInt(meta.get(KEY_DECIMAL_DIGITS)));
+        return columnMeta;
+    }
+
+    // ===================================================================================
+    //                                                                         Hash Helper
+    //                                                                         ===========
+    protected String buildKey(String executedSql) {
+        return toHash(executedSql);
+    }
+
+    /**
+     * Convert the value to hash string, e.g. for key of SQL or schema version.
+     * @param value The value to be hashed. (NotNull)
+     * @return The hex string of the hash. (NotNull)
+     */
+    public static String toHash(String value) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final byte[] hashed = digest.digest(value.getBytes("UTF-8"));
+            final StringBuilder sb = new StringBuilder(hashed.length * 2);
+            for (byte element : hashed) {
+                sb.append(Character.forDigit((element >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(element & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) { // no way
+            String msg = "Not found the algorithm of hash: SHA-1";
+            throw new IllegalStateException(msg, e);
+        } catch (UnsupportedEncodingException e) { // no way
+            String msg = "Unsupported encoding: UTF-8";
+            throw new IllegalStateException(msg, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getSchemaVersion() {
+        return _schemaVersion;
+    }
+
+    public int getHitCount() {
+        return _hitCount.get();
+    }
+}
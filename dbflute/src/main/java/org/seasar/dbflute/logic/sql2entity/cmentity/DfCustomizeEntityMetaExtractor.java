@@ -42,8 +42,20 @@ public class DfCustomizeEntityMetaExtractor {
     //                                                                                ====
     public Map<String, DfColumnMeta> extractColumnMetaInfoMap(ResultSet rs, String sql,
             DfForcedJavaNativeProvider forcedJavaNativeProvider) throws SQLException {
+        return extractColumnMetaInfoMap(rs.getMetaData(), sql, forcedJavaNativeProvider);
+    }
+
+    /**
+     * Extract the meta of columns from the meta data, which may be provided without execution.
+     * @param md The meta data of result set, e.g. from prepared statement. (NotNull)
+     * @param sql The string of the SQL for messages. (NotNull)
+     * @param forcedJavaNativeProvider The provider of forced java native type. (NullAllowed)
+     * @return The map of column meta, ordered and flexible. (NotNull)
+     * @throws SQLException When it fails to get meta data.
+     */
+    public Map<String, DfColumnMeta> extractColumnMetaInfoMap(ResultSetMetaData md, String sql,
+            DfForcedJavaNativeProvider forcedJavaNativeProvider) throws SQLException {
         final Map<String, DfColumnMeta> columnMetaInfoMap = StringKeyMap.createAsFlexibleOrdered();
-        final ResultSetMetaData md = rs.getMetaData();
         for (int i = 1; i <= md.getColumnCount(); i++) {
             final DfColumnMeta columnMeta = new DfColumnMeta();
 
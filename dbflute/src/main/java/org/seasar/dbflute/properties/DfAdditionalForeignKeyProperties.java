@@ -66,7 +66,7 @@ public final class DfAdditionalForeignKeyProperties extends DfAbstractHelperProp
         if (_additionalForeignKeyMap != null) {
             return _additionalForeignKeyMap;
         }
-        _additionalForeignKeyMap = newLinkedHashMap();
+        final Map<String, Map<String, String>> additionalForeignKeyMap = newLinkedHashMap();
         final Map<String, Object> generatedMap = mapProp("torque." + KEY_additionalForeignKeyMap, DEFAULT_EMPTY_MAP);
         final Set<String> fisrtKeySet = generatedMap.keySet();
         for (Object foreignName : fisrtKeySet) { // FK Loop!
@@ -80,8 +80,9 @@ public final class DfAdditionalForeignKeyProperties extends DfAbstractHelperProp
             final Map<?, ?> fkDefMap = (Map<?, ?>) firstValue;
             final Set<?> secondKeySet = fkDefMap.keySet();
             final Map<String, String> genericMap = prepareFKDefGenericMap(foreignName, fkDefMap, secondKeySet);
-            _additionalForeignKeyMap.put((String) foreignName, genericMap);
+            additionalForeignKeyMap.put((String) foreignName, genericMap);
         }
+        _additionalForeignKeyMap = additionalForeignKeyMap;
         return _additionalForeignKeyMap;
     }
 
@@ -47,7 +47,7 @@ public final class DfAdditionalPrimaryKeyProperties extends DfAbstractHelperProp
 
     public Map<String, Map<String, String>> getAdditionalPrimaryKeyMap() {
         if (_additionalPrimaryKeyMap == null) {
-            _additionalPrimaryKeyMap = new LinkedHashMap<String, Map<String, String>>();
+            final Map<String, Map<String, String>> additionalPrimaryKeyMap = newLinkedHashMap();
             final Map<String, Object> generatedMap = mapProp("torque." + KEY_additionalPrimaryKeyMap, DEFAULT_EMPTY_MAP);
             final Set<String> fisrtKeySet = generatedMap.keySet();
             for (Object primaryName : fisrtKeySet) { // PK loop!
@@ -79,8 +79,9 @@ public final class DfAdditionalPrimaryKeyProperties extends DfAbstractHelperProp
                     }
                     genericForeignDefinitiontMap.put((String) componentName, (String) secondValue);
                 }
-                _additionalPrimaryKeyMap.put((String) primaryName, genericForeignDefinitiontMap);
+                additionalPrimaryKeyMap.put((String) primaryName, genericForeignDefinitiontMap);
             }
+            _additionalPrimaryKeyMap = additionalPrimaryKeyMap;
         }
         return _additionalPrimaryKeyMap;
     }
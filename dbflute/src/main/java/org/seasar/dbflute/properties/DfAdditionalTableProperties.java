@@ -58,8 +58,9 @@ public final class DfAdditionalTableProperties extends DfAbstractHelperPropertie
     public Map<String, Object> getAdditionalTableMap() {
         if (_additionalTableMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_additionalTableMap, DEFAULT_EMPTY_MAP);
-            _additionalTableMap = newLinkedHashMap();
-            _additionalTableMap.putAll(map);
+            final Map<String, Object> additionalTableMap = newLinkedHashMap();
+            additionalTableMap.putAll(map);
+            _additionalTableMap = additionalTableMap;
         }
         return _additionalTableMap;
     }
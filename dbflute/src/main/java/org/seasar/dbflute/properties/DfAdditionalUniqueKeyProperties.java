@@ -48,7 +48,7 @@ public final class DfAdditionalUniqueKeyProperties extends DfAbstractHelperPrope
 
     public Map<String, Map<String, String>> getAdditionalUniqueKeyMap() {
         if (_additionalUniqueKeyMap == null) {
-            _additionalUniqueKeyMap = new LinkedHashMap<String, Map<String, String>>();
+            final Map<String, Map<String, String>> additionalUniqueKeyMap = newLinkedHashMap();
             final Map<String, Object> generatedMap = mapProp("torque." + KEY_additionalUniqueKeyMap, DEFAULT_EMPTY_MAP);
             final Set<String> fisrtKeySet = generatedMap.keySet();
             for (Object primaryName : fisrtKeySet) {// PK Loop!
@@ -80,8 +80,9 @@ public final class DfAdditionalUniqueKeyProperties extends DfAbstractHelperPrope
                     }
                     genericForeignDefinitiontMap.put((String) componentName, (String) secondValue);
                 }
-                _additionalUniqueKeyMap.put((String) primaryName, genericForeignDefinitiontMap);
+                additionalUniqueKeyMap.put((String) primaryName, genericForeignDefinitiontMap);
             }
+            _additionalUniqueKeyMap = additionalUniqueKeyMap;
         }
         return _additionalUniqueKeyMap;
     }
@@ -68,8 +68,9 @@ public final class DfBasicProperties extends DfAbstractHelperProperties {
     public Map<String, Object> getBasicInfoMap() {
         if (_basicInfoMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_basicInfoMap, DEFAULT_EMPTY_MAP);
-            _basicInfoMap = newLinkedHashMap();
-            _basicInfoMap.putAll(map);
+            final Map<String, Object> basicInfoMap = newLinkedHashMap();
+            basicInfoMap.putAll(map);
+            _basicInfoMap = basicInfoMap;
         }
         return _basicInfoMap;
     }
@@ -353,6 +354,28 @@ public final class DfBasicProperties extends DfAbstractHelperProperties {
         return getProperty("projectSchemaXMLEncoding", DEFAULT_projectSchemaXMLEncoding);
     }
 
+    public String getProjectSql2EntityMetaCacheFile() { // closet
+        return getProperty("projectSql2EntityMetaCacheFilePath", buildDefaultSql2EntityMetaCacheFilePath());
+    }
+
+    protected String buildDefaultSql2EntityMetaCacheFilePath() {
+        final StringBuilder sb = new StringBuilder();
+        final String projectName = getBasicProperties().getProjectName();
+        sb.append("./schema/project-sql2entity-").append(projectName).append(".cachemap");
+        return sb.toString();
+    }
+
+    public String getProjectGenerateManifestFile() { // closet
+        return getProperty("projectGenerateManifestFilePath", buildDefaultGenerateManifestFilePath());
+    }
+
+    protected String buildDefaultGenerateManifestFilePath() {
+        final StringBuilder sb = new StringBuilder();
+        final String projectName = getBasicProperties().getProjectName();
+        sb.append("./schema/project-generate-").append(projectName).append(".manifest");
+        return sb.toString();
+    }
+
     public String getProjectSchemaHistoryFile() { // closet
         return getProperty("projectSchemaHistoryFilePath", buildDefaultSchemaHistoryFilePath());
     }
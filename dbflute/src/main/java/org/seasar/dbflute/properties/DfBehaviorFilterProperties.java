@@ -42,8 +42,9 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
     public Map<String, Object> getBehaviorFilterMap() {
         if (_behaviorFilterMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_behaviorFilterMap, DEFAULT_EMPTY_MAP);
-            _behaviorFilterMap = newLinkedHashMap();
-            _behaviorFilterMap.putAll(map);
+            final Map<String, Object> behaviorFilterMap = newLinkedHashMap();
+            behaviorFilterMap.putAll(map);
+            _behaviorFilterMap = behaviorFilterMap;
         }
         return _behaviorFilterMap;
     }
@@ -70,6 +71,7 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
     public Map<String, Object> getBeforeInsertMap() {
         if (_beforeInsertMap == null) {
             getBehaviorFilterMap();// For initialization of behaviorFilterMap.
+            final Map<String, Object> filterMap;
             if (_behaviorFilterMap != null && _behaviorFilterMap.containsKey("beforeInsertMap")) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -82,11 +84,12 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
                 //     ; UPDATE_PROCESS    = entity.getRegisterProcess()
                 // }
                 // - - - - - - - - - -/ 
-                _beforeInsertMap = (Map<String, Object>) _behaviorFilterMap.get("beforeInsertMap");
+                filterMap = (Map<String, Object>) _behaviorFilterMap.get("beforeInsertMap");
             } else {
-                _beforeInsertMap = newLinkedHashMap();
+                filterMap = newLinkedHashMap();
             }
-            filterCommonColumnSetupValue(_beforeInsertMap);
+            filterCommonColumnSetupValue(filterMap);
+            _beforeInsertMap = filterMap;
         }
         return _beforeInsertMap;
     }
@@ -115,6 +118,7 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
     public Map<String, Object> getBeforeUpdateMap() {
         if (_beforeUpdateMap == null) {
             getBehaviorFilterMap();// For initialization of behaviorFilterMap.
+            final Map<String, Object> filterMap;
             if (_behaviorFilterMap != null && _behaviorFilterMap.containsKey("beforeUpdateMap")) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -124,11 +128,12 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
                 //     ; REGISTER_PROCESS  = $$AccessContext$$.getAccessProcessOnThread()
                 // }
                 // - - - - - - - - - -/ 
-                _beforeUpdateMap = (Map<String, Object>) _behaviorFilterMap.get("beforeUpdateMap");
+                filterMap = (Map<String, Object>) _behaviorFilterMap.get("beforeUpdateMap");
             } else {
-                _beforeUpdateMap = newLinkedHashMap();
+                filterMap = newLinkedHashMap();
             }
-            filterCommonColumnSetupValue(_beforeUpdateMap);
+            filterCommonColumnSetupValue(filterMap);
+            _beforeUpdateMap = filterMap;
         }
         return _beforeUpdateMap;
     }
@@ -157,6 +162,7 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
     public Map<String, Object> getBeforeDeleteMap() {
         if (_beforeDeleteMap == null) {
             getBehaviorFilterMap();// For initialization of behaviorFilterMap.
+            final Map<String, Object> filterMap;
             if (_behaviorFilterMap != null && _behaviorFilterMap.containsKey("beforeDeleteMap")) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -169,11 +175,12 @@ public final class DfBehaviorFilterProperties extends DfAbstractHelperProperties
                 //     ; UPDATE_PROCESS    = entity.getRegisterProcess()
                 // }
                 // - - - - - - - - - -/ 
-                _beforeDeleteMap = (Map<String, Object>) _behaviorFilterMap.get("beforeDeleteMap");
+                filterMap = (Map<String, Object>) _behaviorFilterMap.get("beforeDeleteMap");
             } else {
-                _beforeDeleteMap = newLinkedHashMap();
+                filterMap = newLinkedHashMap();
             }
-            filterCommonColumnSetupValue(_beforeDeleteMap);
+            filterCommonColumnSetupValue(filterMap);
+            _beforeDeleteMap = filterMap;
         }
         return _beforeDeleteMap;
     }
@@ -368,12 +368,13 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
         if (_hasImplicitSetCheck != null) {
             return _hasImplicitSetCheck;
         }
-        _hasImplicitSetCheck = false;
+        boolean hasImplicitSetCheck = false;
         for (Entry<String, DfClassificationTop> entry : getClassificationTopMap().entrySet()) {
             if (entry.getValue().isCheckImplicitSet()) {
-                _hasImplicitSetCheck = true;
+                hasImplicitSetCheck = true;
             }
         }
+        _hasImplicitSetCheck = hasImplicitSetCheck;
         return _hasImplicitSetCheck;
     }
 
@@ -733,7 +734,7 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
         if (_classificationValidNameOnlyList != null) {
             return _classificationValidNameOnlyList;
         }
-        _classificationValidNameOnlyList = new ArrayList<String>();
+        final List<String> classificationValidNameOnlyList = new ArrayList<String>();
         final Map<String, DfClassificationTop> definitionMap = getClassificationTopMap();
         clsLoop: for (Entry<String, DfClassificationTop> entry : definitionMap.entrySet()) {
             final String classificationName = entry.getKey();
@@ -745,11 +746,12 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
 
                 // IgnoreCase because codes and names may be filtered
                 if (!code.equalsIgnoreCase(name)) {
-                    _classificationValidNameOnlyList.add(classificationName);
+                    classificationValidNameOnlyList.add(classificationName);
                     continue clsLoop;
                 }
             }
         }
+        _classificationValidNameOnlyList = classificationValidNameOnlyList;
         return _classificationValidNameOnlyList;
     }
 
@@ -759,7 +761,7 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
         if (_classificationValidAliasOnlyList != null) {
             return _classificationValidAliasOnlyList;
         }
-        _classificationValidAliasOnlyList = new ArrayList<String>();
+        final List<String> classificationValidAliasOnlyList = new ArrayList<String>();
         final Map<String, DfClassificationTop> definitionMap = getClassificationTopMap();
         clsLoop: for (Entry<String, DfClassificationTop> entry : definitionMap.entrySet()) {
             final String classificationName = entry.getKey();
@@ -772,11 +774,12 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
 
                 // IgnoreCase because codes and names may be filtered
                 if (!code.equalsIgnoreCase(alias) && !name.equalsIgnoreCase(alias)) {
-                    _classificationValidAliasOnlyList.add(classificationName);
+                    classificationValidAliasOnlyList.add(classificationName);
                     continue clsLoop;
                 }
             }
         }
+        _classificationValidAliasOnlyList = classificationValidAliasOnlyList;
         return _classificationValidAliasOnlyList;
     }
 
@@ -1118,8 +1121,9 @@ public final class DfClassificationProperties extends DfAbstractHelperProperties
         final String classificationName;
         {
             if (_fkeyAllColumnClassificationMap == null) {
-                _fkeyAllColumnClassificationMap = StringKeyMap.createAsFlexible();
-                _fkeyAllColumnClassificationMap.putAll(plainMap);
+                final Map<String, String> fkeyAllColumnClassificationMap = StringKeyMap.createAsFlexible();
+                fkeyAllColumnClassificationMap.putAll(plainMap);
+                _fkeyAllColumnClassificationMap = fkeyAllColumnClassificationMap;
             }
             classificationName = _fkeyAllColumnClassificationMap.get(columnName);
         }
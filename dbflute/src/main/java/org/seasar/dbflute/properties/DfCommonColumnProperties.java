@@ -55,9 +55,9 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
     public Map<String, String> getCommonColumnMap() {
         if (_commonColumnTopMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_commonColumnMap, DEFAULT_EMPTY_MAP);
-            _commonColumnTopMap = newLinkedHashMap();
-            _commonColumnTopMap.putAll(map);
-            if (_commonColumnTopMap.containsKey(KEY_commonColumnMap)) {
+            final Map<String, Object> commonColumnTopMap = newLinkedHashMap();
+            commonColumnTopMap.putAll(map);
+            if (commonColumnTopMap.containsKey(KEY_commonColumnMap)) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
                 // map:{
@@ -67,7 +67,7 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
                 //     }
                 //     ; ...
                 // - - - - - - - - - -/ 
-                final Map<String, String> commonColumnMap = (Map<String, String>) _commonColumnTopMap
+                final Map<String, String> commonColumnMap = (Map<String, String>) commonColumnTopMap
                         .get(KEY_commonColumnMap);
                 final Map<String, String> flmap = StringKeyMap.createAsFlexibleOrdered();
                 flmap.putAll(commonColumnMap);
@@ -75,6 +75,7 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
             } else {
                 _commonColumnMap = new HashMap<String, String>(); // empty
             }
+            _commonColumnTopMap = commonColumnTopMap;
         }
         return _commonColumnMap;
     }
@@ -116,14 +117,15 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
 
     public List<String> getCommonColumnNameConversionList() {
         if (_commonColumnNameConversionList == null) {
-            _commonColumnNameConversionList = new ArrayList<String>();
+            final List<String> commonColumnNameConversionList = new ArrayList<String>();
             final Map<String, String> commonColumnMap = getCommonColumnMap();
             final Set<String> keySet = commonColumnMap.keySet();
             for (String columnName : keySet) {
                 if (columnName.startsWith(COMMON_COLUMN_CONVERSION_PREFIX_MARK)) {
-                    _commonColumnNameConversionList.add(columnName);
+                    commonColumnNameConversionList.add(columnName);
                 }
             }
+            _commonColumnNameConversionList = commonColumnNameConversionList;
         }
         return _commonColumnNameConversionList;
     }
@@ -203,6 +205,7 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
     public Map<String, Object> getBeforeInsertMap() {
         if (_beforeInsertMap == null) {
             getCommonColumnMap(); // For initialization of commonColumnMap.
+            final Map<String, Object> interceptorMap;
             if (_commonColumnTopMap != null && _commonColumnTopMap.containsKey("beforeInsertMap")) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -215,15 +218,16 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
                 //     ; UPDATE_PROCESS    = entity.getRegisterProcess()
                 // }
                 // - - - - - - - - - -/ 
-                _beforeInsertMap = (Map<String, Object>) _commonColumnTopMap.get("beforeInsertMap");
+                interceptorMap = (Map<String, Object>) _commonColumnTopMap.get("beforeInsertMap");
             } else {
                 // For old style.
                 final String key = "torque." + KEY_commonColumnSetupBeforeInsertInterceptorLogicMap;
                 final Map<String, Object> map = mapProp(key, DEFAULT_EMPTY_MAP);
-                _beforeInsertMap = newLinkedHashMap();
-                _beforeInsertMap.putAll(map);
+                interceptorMap = newLinkedHashMap();
+                interceptorMap.putAll(map);
             }
-            filterCommonColumnSetupValue(_beforeInsertMap);
+            filterCommonColumnSetupValue(interceptorMap);
+            _beforeInsertMap = interceptorMap;
         }
         return _beforeInsertMap;
     }
@@ -253,6 +257,7 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
     public Map<String, Object> getBeforeUpdateMap() {
         if (_beforeUpdateMap == null) {
             getCommonColumnMap(); // For initialization of commonColumnMap.
+            final Map<String, Object> interceptorMap;
             if (_commonColumnTopMap != null && _commonColumnTopMap.containsKey("beforeUpdateMap")) {
                 // For the way by dfprop-setting.
                 // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -262,15 +267,16 @@ public final class DfCommonColumnProperties extends DfAbstractHelperProperties {
                 //     ; REGISTER_PROCESS  = $$AccessContext$$.getAccessProcessOnThread()
                 // }
                 // - - - - - - - - - -/ 
-                _beforeUpdateMap = (Map<String, Object>) _commonColumnTopMap.get("beforeUpdateMap");
+                interceptorMap = (Map<String, Object>) _commonColumnTopMap.get("beforeUpdateMap");
             } else {
                 // For old style.
                 final String key = "torque." + KEY_commonColumnSetupBeforeUpdateInterceptorLogicMap;
                 final Map<String, Object> map = mapProp(key, DEFAULT_EMPTY_MAP);
-                _beforeUpdateMap = newLinkedHashMap();
-                _beforeUpdateMap.putAll(map);
+                interceptorMap = newLinkedHashMap();
+                interceptorMap.putAll(map);
             }
-            filterCommonColumnSetupValue(_beforeUpdateMap);
+            filterCommonColumnSetupValue(interceptorMap);
+            _beforeUpdateMap = interceptorMap;
         }
         return _beforeUpdateMap;
     }
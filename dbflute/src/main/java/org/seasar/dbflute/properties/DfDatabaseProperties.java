@@ -347,8 +347,8 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
             msg = msg + " in databaseInfoMap.dfprop: columnExceptList=" + oldStyleList;
             throw new IllegalStateException(msg);
         }
-        _columnExceptMap = StringKeyMap.createAsFlexible();
-        _columnExceptGenOnlyMap = StringKeyMap.createAsFlexible();
+        final Map<String, List<String>> exceptMap = StringKeyMap.createAsFlexible();
+        final Map<String, List<String>> exceptGenOnlyMap = StringKeyMap.createAsFlexible();
         final Map<String, Object> keyMap = getVairousStringKeyMap("columnExceptMap");
         for (Entry<String, Object> entry : keyMap.entrySet()) {
             final String tableName = entry.getKey();
@@ -363,9 +363,11 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
             final List<String> exceptList = new ArrayList<String>();
             final List<String> exceptGenOnlyList = new ArrayList<String>();
             setupTableOrColumnExceptList(plainList, exceptList, exceptGenOnlyList);
-            _columnExceptMap.put(tableName, exceptList);
-            _columnExceptGenOnlyMap.put(tableName, exceptGenOnlyList);
+            exceptMap.put(tableName, exceptList);
+            exceptGenOnlyMap.put(tableName, exceptGenOnlyList);
         }
+        _columnExceptGenOnlyMap = exceptGenOnlyMap; // before the main map to be checked as initialized
+        _columnExceptMap = exceptMap;
         return _columnExceptMap;
     }
 
@@ -401,9 +403,10 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
             return _additionalSchemaMap;
         }
         assertOldStyleAdditionalSchema();
-        _additionalSchemaMap = StringKeyMap.createAsCaseInsensitive();
+        final Map<String, DfAdditionalSchemaInfo> schemaInfoMap = StringKeyMap.createAsCaseInsensitive();
         final Map<String, Object> additionalSchemaMap = getVairousStringKeyMap("additionalSchemaMap");
         if (additionalSchemaMap == null) {
+            _additionalSchemaMap = schemaInfoMap;
             return _additionalSchemaMap;
         }
         final Set<Entry<String, Object>> entrySet = additionalSchemaMap.entrySet();
@@ -443,8 +446,9 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
             setupAdditionalSchemaColumnExceptList(info, elementMap);
             info.setSuppressCommonColumn(isProperty("isSuppressCommonColumn", false, elementMap));
             info.setSuppressProcedure(isProperty("isSuppressProcedure", false, elementMap));
-            _additionalSchemaMap.put(unifiedSchema.getIdentifiedSchema(), info);
+            schemaInfoMap.put(unifiedSchema.getIdentifiedSchema(), info);
         }
+        _additionalSchemaMap = schemaInfoMap;
         return _additionalSchemaMap;
     }
 
@@ -596,6 +600,18 @@ public final class DfDatabaseProperties extends DfAbstractHelperProperties {
         return isDatabaseOracle();
     }
 
+    // ===================================================================================
+    //                                                                       Bulk MetaData
+    //                                                                       =============
+    public boolean isMetaDataBulkExtractionValid() {
+        return isVariousBoolean("isMetaDataBulkExtractionValid", isMetaDataBulkExtractionDefaultValid());
+    }
+
+    protected boolean isMetaDataBulkExtractionDefaultValid() {
+        // dictionary queries for constraints are prepared for them
+        return isDatabaseOracle() || isDatabasePostgreSQL();
+    }
+
     // ===================================================================================
     //                                                              Retry Case Insensitive
     //                                                              ======================
@@ -46,8 +46,9 @@ public final class DfDependencyInjectionProperties extends DfAbstractHelperPrope
     public Map<String, Object> getDependencyInjectionMap() {
         if (_dependencyInjectionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_dependencyInjectionMap, DEFAULT_EMPTY_MAP);
-            _dependencyInjectionMap = newLinkedHashMap();
-            _dependencyInjectionMap.putAll(map);
+            final Map<String, Object> dependencyInjectionMap = newLinkedHashMap();
+            dependencyInjectionMap.putAll(map);
+            _dependencyInjectionMap = dependencyInjectionMap;
         }
         return _dependencyInjectionMap;
     }
@@ -163,8 +164,9 @@ public final class DfDependencyInjectionProperties extends DfAbstractHelperPrope
         }
         String key = KEY_dbfluteDiconBeforeJ2eeIncludeDefinitionMap;
         final Map<String, Object> map = getPropertyAsMap(key, DEFAULT_EMPTY_MAP);
-        _dbfluteDiconBeforeJ2eeIncludeDefinitionMap = newLinkedHashMap();
-        _dbfluteDiconBeforeJ2eeIncludeDefinitionMap.putAll(map);
+        final Map<String, Object> dbfluteDiconBeforeJ2eeIncludeDefinitionMap = newLinkedHashMap();
+        dbfluteDiconBeforeJ2eeIncludeDefinitionMap.putAll(map);
+        _dbfluteDiconBeforeJ2eeIncludeDefinitionMap = dbfluteDiconBeforeJ2eeIncludeDefinitionMap;
         return _dbfluteDiconBeforeJ2eeIncludeDefinitionMap;
     }
 
@@ -181,8 +183,9 @@ public final class DfDependencyInjectionProperties extends DfAbstractHelperPrope
         }
         String key = KEY_dbfluteDiconOtherIncludeDefinitionMap;
         final Map<String, Object> map = getPropertyAsMap(key, DEFAULT_EMPTY_MAP);
-        _dbfluteDiconOtherIncludeDefinitionMap = newLinkedHashMap();
-        _dbfluteDiconOtherIncludeDefinitionMap.putAll(map);
+        final Map<String, Object> dbfluteDiconOtherIncludeDefinitionMap = newLinkedHashMap();
+        dbfluteDiconOtherIncludeDefinitionMap.putAll(map);
+        _dbfluteDiconOtherIncludeDefinitionMap = dbfluteDiconOtherIncludeDefinitionMap;
         return _dbfluteDiconOtherIncludeDefinitionMap;
     }
 
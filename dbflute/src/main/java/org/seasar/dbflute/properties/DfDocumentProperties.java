@@ -75,8 +75,9 @@ public final class DfDocumentProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getDocumentDefinitionMap() {
         if (_documentDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_documentDefinitionMap, DEFAULT_EMPTY_MAP);
-            _documentDefinitionMap = newLinkedHashMap();
-            _documentDefinitionMap.putAll(map);
+            final Map<String, Object> documentDefinitionMap = newLinkedHashMap();
+            documentDefinitionMap.putAll(map);
+            _documentDefinitionMap = documentDefinitionMap;
         }
         return _documentDefinitionMap;
     }
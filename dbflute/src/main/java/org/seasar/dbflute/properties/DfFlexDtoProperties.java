@@ -42,8 +42,9 @@ public final class DfFlexDtoProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getFlexDtoDefinitionMap() {
         if (_flexDtoDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque.flexDtoDefinitionMap", DEFAULT_EMPTY_MAP);
-            _flexDtoDefinitionMap = newLinkedHashMap();
-            _flexDtoDefinitionMap.putAll(map);
+            final Map<String, Object> flexDtoDefinitionMap = newLinkedHashMap();
+            flexDtoDefinitionMap.putAll(map);
+            _flexDtoDefinitionMap = flexDtoDefinitionMap;
         }
         return _flexDtoDefinitionMap;
     }
@@ -119,8 +119,9 @@ public final class DfFreeGenProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getFreeGenDefinitionMap() {
         if (_freeGenDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque.freeGenDefinitionMap", DEFAULT_EMPTY_MAP);
-            _freeGenDefinitionMap = newLinkedHashMap();
-            _freeGenDefinitionMap.putAll(map);
+            final Map<String, Object> freeGenDefinitionMap = newLinkedHashMap();
+            freeGenDefinitionMap.putAll(map);
+            _freeGenDefinitionMap = freeGenDefinitionMap;
         }
         return _freeGenDefinitionMap;
     }
@@ -131,7 +132,7 @@ public final class DfFreeGenProperties extends DfAbstractHelperProperties {
         if (_freeGenRequestList != null) {
             return _freeGenRequestList;
         }
-        _freeGenRequestList = new ArrayList<DfFreeGenRequest>();
+        final List<DfFreeGenRequest> freeGenRequestList = new ArrayList<DfFreeGenRequest>();
         final Map<String, Object> definitionMap = getFreeGenDefinitionMap();
         final Map<String, DfFreeGenRequest> requestMap = StringKeyMap.createAsCaseInsensitive(); // for correlation relation
         for (Entry<String, Object> entry : definitionMap.entrySet()) {
@@ -171,9 +172,10 @@ public final class DfFreeGenProperties extends DfAbstractHelperProperties {
 
             final DfPackagePathHandler packagePathHandler = new DfPackagePathHandler(getBasicProperties());
             request.setPackagePathHandler(packagePathHandler);
-            _freeGenRequestList.add(request);
+            freeGenRequestList.add(request);
             requestMap.put(requestName, request);
         }
+        _freeGenRequestList = freeGenRequestList;
         return _freeGenRequestList;
     }
 
@@ -42,8 +42,9 @@ public final class DfHibernateProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getHibernateDefinitionMap() { // It's closet!
         if (_hibernateDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque.hibernateDefinitionMap", DEFAULT_EMPTY_MAP);
-            _hibernateDefinitionMap = newLinkedHashMap();
-            _hibernateDefinitionMap.putAll(map);
+            final Map<String, Object> hibernateDefinitionMap = newLinkedHashMap();
+            hibernateDefinitionMap.putAll(map);
+            _hibernateDefinitionMap = hibernateDefinitionMap;
         }
         return _hibernateDefinitionMap;
     }
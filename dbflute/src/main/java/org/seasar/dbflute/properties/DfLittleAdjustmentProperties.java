@@ -55,8 +55,9 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
     public Map<String, Object> getLittleAdjustmentMap() {
         if (_littleAdjustmentMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_littleAdjustmentMap, DEFAULT_EMPTY_MAP);
-            _littleAdjustmentMap = newLinkedHashMap();
-            _littleAdjustmentMap.putAll(map);
+            final Map<String, Object> littleAdjustmentMap = newLinkedHashMap();
+            littleAdjustmentMap.putAll(map);
+            _littleAdjustmentMap = littleAdjustmentMap;
         }
         return _littleAdjustmentMap;
     }
@@ -499,14 +500,17 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         }
         final Map<String, Object> littleAdjustmentMap = getLittleAdjustmentMap();
         final Object obj = littleAdjustmentMap.get("quoteTableNameList");
+        final Set<String> quoteTableNameSet;
         if (obj != null) {
             final List<String> list = castToList(obj, "littleAdjustmentMap.quoteTableNameList");
-            _quoteTableNameSet = StringSet.createAsFlexible();
-            _quoteTableNameSet.addAll(list);
+            final Set<String> flexibleSet = StringSet.createAsFlexible();
+            flexibleSet.addAll(list);
+            quoteTableNameSet = flexibleSet;
         } else {
-            _quoteTableNameSet = new HashSet<String>();
+            quoteTableNameSet = new HashSet<String>();
         }
-        _quoteTableNameAll = _quoteTableNameSet.contains("$$ALL$$");
+        _quoteTableNameAll = quoteTableNameSet.contains("$$ALL$$"); // before the set to be checked as initialized
+        _quoteTableNameSet = quoteTableNameSet;
         return _quoteTableNameSet;
     }
 
@@ -548,14 +552,17 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         }
         final Map<String, Object> littleAdjustmentMap = getLittleAdjustmentMap();
         final Object obj = littleAdjustmentMap.get("quoteColumnNameList");
+        final Set<String> quoteColumnNameSet;
         if (obj != null) {
             final List<String> list = castToList(obj, "littleAdjustmentMap.quoteColumnNameList");
-            _quoteColumnNameSet = StringSet.createAsFlexible();
-            _quoteColumnNameSet.addAll(list);
+            final Set<String> flexibleSet = StringSet.createAsFlexible();
+            flexibleSet.addAll(list);
+            quoteColumnNameSet = flexibleSet;
         } else {
-            _quoteColumnNameSet = new HashSet<String>();
+            quoteColumnNameSet = new HashSet<String>();
         }
-        _quoteColumnNameAll = _quoteColumnNameSet.contains("$$ALL$$");
+        _quoteColumnNameAll = quoteColumnNameSet.contains("$$ALL$$"); // before the set to be checked as initialized
+        _quoteColumnNameSet = quoteColumnNameSet;
         return _quoteColumnNameSet;
     }
 
@@ -653,8 +660,9 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         } else {
             plainMap = newLinkedHashMap();
         }
-        _relationalNullObjectProviderForeignMap = StringKeyMap.createAsFlexibleOrdered();
-        _relationalNullObjectProviderForeignMap.putAll(plainMap);
+        final Map<String, String> relationalNullObjectProviderForeignMap = StringKeyMap.createAsFlexibleOrdered();
+        relationalNullObjectProviderForeignMap.putAll(plainMap);
+        _relationalNullObjectProviderForeignMap = relationalNullObjectProviderForeignMap;
         return _relationalNullObjectProviderForeignMap;
     }
 
@@ -847,7 +855,7 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         if (_pgReservColumnSet != null) {
             return _pgReservColumnSet;
         }
-        _pgReservColumnSet = StringSet.createAsFlexible();
+        final Set<String> pgReservColumnSet = StringSet.createAsFlexible();
         final Map<String, Object> littleAdjustmentMap = getLittleAdjustmentMap();
         final Object obj = littleAdjustmentMap.get("pgReservColumnList");
         final List<String> pgReservColumnList;
@@ -856,7 +864,8 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         } else {
             pgReservColumnList = DfCollectionUtil.emptyList();
         }
-        _pgReservColumnSet.addAll(pgReservColumnList);
+        pgReservColumnSet.addAll(pgReservColumnList);
+        _pgReservColumnSet = pgReservColumnSet;
         return _pgReservColumnSet;
     }
 
@@ -993,6 +1002,24 @@ public final class DfLittleAdjustmentProperties extends DfAbstractHelperProperti
         return isProperty("isSkipGenerateIfSameFile", true);
     }
 
+    // ===================================================================================
+    //                                                                     Generate Thread
+    //                                                                     ===============
+    /**
+     * @return The size of thread pool to render templates in parallel. (zero or one means sequential)
+     */
+    public int getGenerateThreadPoolSize() { // closet
+        return Integer.valueOf(getProperty("generateThreadPoolSize", "0"));
+    }
+
+    // ===================================================================================
+    //                                                                   Generate Manifest
+    //                                                                   =================
+    public boolean isGenerateManifestValid() { // closet
+        // the manifest records the hash of generated files to skip them without reading
+        return isProperty("isGenerateManifestValid", false);
+    }
+
     // ===================================================================================
     //                                              ToLower in Generator Underscore Method
     //                                              ======================================
@@ -54,8 +54,9 @@ public final class DfMultipleFKPropertyProperties extends DfAbstractHelperProper
         if (_multipleFKPropertyMap == null) {
             final Object obj = mapProp("torque." + KEY_multipleFKPropertyMap, DEFAULT_EMPTY_MAP);
             final Map<String, Map<String, Map<String, String>>> map = (Map<String, Map<String, Map<String, String>>>) obj;
-            _multipleFKPropertyMap = newLinkedHashMap();
-            _multipleFKPropertyMap.putAll(map);
+            final Map<String, Map<String, Map<String, String>>> multipleFKPropertyMap = newLinkedHashMap();
+            multipleFKPropertyMap.putAll(map);
+            _multipleFKPropertyMap = multipleFKPropertyMap;
         }
         return _multipleFKPropertyMap;
     }
@@ -51,8 +51,9 @@ public final class DfOptimisticLockProperties extends DfAbstractHelperProperties
     public Map<String, Object> getOptimisticLockDefinitionMap() {
         if (_optimisticLockDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_optimisticLockDefinitionMap, DEFAULT_EMPTY_MAP);
-            _optimisticLockDefinitionMap = newLinkedHashMap();
-            _optimisticLockDefinitionMap.putAll(map);
+            final Map<String, Object> optimisticLockDefinitionMap = newLinkedHashMap();
+            optimisticLockDefinitionMap.putAll(map);
+            _optimisticLockDefinitionMap = optimisticLockDefinitionMap;
         }
         return _optimisticLockDefinitionMap;
     }
@@ -60,8 +60,9 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getOutsideSqlDefinitionMap() {
         if (_outsideSqlDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_outsideSqlDefinitionMap, DEFAULT_EMPTY_MAP);
-            _outsideSqlDefinitionMap = newLinkedHashMap();
-            _outsideSqlDefinitionMap.putAll(map);
+            final Map<String, Object> outsideSqlDefinitionMap = newLinkedHashMap();
+            outsideSqlDefinitionMap.putAll(map);
+            _outsideSqlDefinitionMap = outsideSqlDefinitionMap;
         }
         return _outsideSqlDefinitionMap;
     }
@@ -155,20 +156,24 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
             return _targetProcedureNameList;
         }
         final List<String> propertyList = getOutsideSqlPropertyAsList("targetProcedureNameList");
+        final List<String> nameList;
+        final List<String> nameToDBLinkList;
         if (propertyList != null) {
-            _targetProcedureNameList = DfCollectionUtil.newArrayList();
-            _targetProcedureNameToDBLinkList = DfCollectionUtil.newArrayList();
+            nameList = DfCollectionUtil.newArrayList();
+            nameToDBLinkList = DfCollectionUtil.newArrayList();
             for (String property : propertyList) {
                 if (isTargetProcedureToDBLink(property)) {
-                    _targetProcedureNameToDBLinkList.add(property);
+                    nameToDBLinkList.add(property);
                 } else {
-                    _targetProcedureNameList.add(property);
+                    nameList.add(property);
                 }
             }
         } else {
-            _targetProcedureNameList = DfCollectionUtil.emptyList();
-            _targetProcedureNameToDBLinkList = DfCollectionUtil.emptyList();
+            nameList = DfCollectionUtil.emptyList();
+            nameToDBLinkList = DfCollectionUtil.emptyList();
         }
+        _targetProcedureNameToDBLinkList = nameToDBLinkList; // before the main list to be checked as initialized
+        _targetProcedureNameList = nameList;
         return _targetProcedureNameList;
     }
 
@@ -274,6 +279,36 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
         return isProperty("isSuppressParameterCommentCheck", false);
     }
 
+    // ===================================================================================
+    //                                                                 Sql2Entity MetaData
+    //                                                                 ===================
+    /**
+     * Is the meta data of customize-entity SQL derived without execution first? <br />
+     * The prepared meta data or the zero-row guard SQL is used,
+     * and only SQL whose meta data cannot be derived is executed.
+     * @return The determination, true or false.
+     */
+    public boolean isSql2EntityMetaDataFirst() {
+        return isProperty("isSql2EntityMetaDataFirst", false);
+    }
+
+    /**
+     * Is the meta data of customize-entity SQL cached on the file for next Sql2Entity? <br />
+     * The cache is keyed by the hash of SQL and cleared when the schema is changed,
+     * so only changed or new SQLs are executed (or prepared) at Sql2Entity.
+     * @return The determination, true or false.
+     */
+    public boolean isSql2EntityMetaCacheValid() {
+        return isProperty("isSql2EntityMetaCacheValid", false);
+    }
+
+    /**
+     * @return The size of thread pool to derive meta data of SQL files in parallel. (zero or one means sequential)
+     */
+    public int getSql2EntityThreadPoolSize() {
+        return getOutsideSqlPropertyAsInt("sql2EntityThreadPoolSize", 0);
+    }
+
     // ===================================================================================
     //                                                                     SqlFileEncoding
     //                                                                     ===============
@@ -299,13 +334,14 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
         if (_outsideSqlLocationList != null) {
             return _outsideSqlLocationList;
         }
-        _outsideSqlLocationList = new ArrayList<DfOutsideSqlLocation>();
+        final List<DfOutsideSqlLocation> outsideSqlLocationList = new ArrayList<DfOutsideSqlLocation>();
         final String mainProjectName = "main"; // basically unused
         final String mainDir = getMainSqlDirectory();
         final String mainOutput = getSql2EntityOutputDirectory();
-        _outsideSqlLocationList.add(createOutsideSqlLocation(mainProjectName, mainDir, mainOutput, false, false));
+        outsideSqlLocationList.add(createOutsideSqlLocation(mainProjectName, mainDir, mainOutput, false, false));
         final Object obj = getOutsideSqlDefinitionMap().get("applicationOutsideSqlMap");
         if (obj == null) {
+            _outsideSqlLocationList = outsideSqlLocationList;
             return _outsideSqlLocationList;
         }
         if (!(obj instanceof Map<?, ?>)) {
@@ -363,8 +399,9 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
 
             final DfOutsideSqlLocation sqlApLocation = createOutsideSqlLocation(projectName, sqlDirectory,
                     sql2EntityOutputDirectory, true, suppressDirectoryCheck);
-            _outsideSqlLocationList.add(sqlApLocation);
+            outsideSqlLocationList.add(sqlApLocation);
         }
+        _outsideSqlLocationList = outsideSqlLocationList;
         return _outsideSqlLocationList;
     }
 
@@ -680,4 +717,18 @@ public final class DfOutsideSqlProperties extends DfAbstractHelperProperties {
     protected List<String> getOutsideSqlPropertyAsList(String key) {
         return (List<String>) getOutsideSqlDefinitionMap().get(key);
     }
+
+    protected int getOutsideSqlPropertyAsInt(String key, int defaultValue) {
+        final String value = (String) getOutsideSqlDefinitionMap().get(key);
+        if (value == null || value.trim().length() == 0) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            String msg = "The property '" + key + "' of outsideSqlDefinitionMap";
+            msg = msg + " should be number but: value=" + value;
+            throw new DfIllegalPropertyTypeException(msg, e);
+        }
+    }
 }
\ No newline at end of file
@@ -68,8 +68,9 @@ public final class DfReplaceSchemaProperties extends DfAbstractHelperProperties
     public Map<String, Object> getReplaceSchemaDefinitionMap() {
         if (_replaceSchemaDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_replaceSchemaDefinitionMap, DEFAULT_EMPTY_MAP);
-            _replaceSchemaDefinitionMap = newLinkedHashMap();
-            _replaceSchemaDefinitionMap.putAll(map);
+            final Map<String, Object> replaceSchemaDefinitionMap = newLinkedHashMap();
+            replaceSchemaDefinitionMap.putAll(map);
+            _replaceSchemaDefinitionMap = replaceSchemaDefinitionMap;
         }
         return _replaceSchemaDefinitionMap;
     }
@@ -304,11 +305,13 @@ public final class DfReplaceSchemaProperties extends DfAbstractHelperProperties
         if (_filterVariablesMap != null) {
             return _filterVariablesMap;
         }
-        _filterVariablesMap = (Map<String, String>) getReplaceSchemaDefinitionMap().get("filterVariablesMap");
-        if (_filterVariablesMap == null) {
-            _filterVariablesMap = new LinkedHashMap<String, String>();
+        Map<String, String> filterVariablesMap = (Map<String, String>) getReplaceSchemaDefinitionMap().get(
+                "filterVariablesMap");
+        if (filterVariablesMap == null) {
+            filterVariablesMap = new LinkedHashMap<String, String>();
         }
-        setupDefaultFilterVariables(_filterVariablesMap);
+        setupDefaultFilterVariables(filterVariablesMap);
+        _filterVariablesMap = filterVariablesMap;
         return _filterVariablesMap;
     }
 
@@ -431,6 +434,40 @@ public final class DfReplaceSchemaProperties extends DfAbstractHelperProperties
         return isProperty("isSuppressBatchUpdate", false, getReplaceSchemaDefinitionMap());
     }
 
+    // ===================================================================================
+    //                                                                      SQL File Batch
+    //                                                                      ==============
+    /**
+     * @return The size of batch for plain DML statements in SQL files of create-schema. (zero or one means no batch)
+     */
+    public int getSqlFileBatchSize() {
+        return getReplaceSchemaPropertyAsInt("sqlFileBatchSize", 0);
+    }
+
+    protected int getReplaceSchemaPropertyAsInt(String key, int defaultValue) {
+        final String value = (String) getReplaceSchemaDefinitionMap().get(key);
+        if (value == null || value.trim().length() == 0) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            String msg = "The property '" + key + "' of replaceSchemaDefinitionMap";
+            msg = msg + " should be number but: value=" + value;
+            throw new DfIllegalPropertyTypeException(msg, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                    Load Data Thread
+    //                                                                    ================
+    /**
+     * @return The size of thread pool to load delimiter data in parallel. (zero or one means sequential)
+     */
+    public int getLoadDataThreadPoolSize() {
+        return getReplaceSchemaPropertyAsInt("loadDataThreadPoolSize", 0);
+    }
+
     // ===================================================================================
     //                                                             Object Type Target List
     //                                                             =======================
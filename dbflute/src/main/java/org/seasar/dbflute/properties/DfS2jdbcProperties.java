@@ -38,8 +38,9 @@ public final class DfS2jdbcProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getS2JdbcDefinitionMap() { // It's closet!
         if (_s2jdbcDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque.s2jdbcDefinitionMap", DEFAULT_EMPTY_MAP);
-            _s2jdbcDefinitionMap = newLinkedHashMap();
-            _s2jdbcDefinitionMap.putAll(map);
+            final Map<String, Object> s2jdbcDefinitionMap = newLinkedHashMap();
+            s2jdbcDefinitionMap.putAll(map);
+            _s2jdbcDefinitionMap = s2jdbcDefinitionMap;
         }
         return _s2jdbcDefinitionMap;
     }
@@ -567,8 +567,9 @@ public final class DfSequenceIdentityProperties extends DfAbstractHelperProperti
     protected Map<String, Object> getIdentityDefinitionMap() {
         if (_identityDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_identityDefinitionMap, DEFAULT_EMPTY_MAP);
-            _identityDefinitionMap = newLinkedHashMap();
-            _identityDefinitionMap.putAll(map);
+            final Map<String, Object> identityDefinitionMap = newLinkedHashMap();
+            identityDefinitionMap.putAll(map);
+            _identityDefinitionMap = identityDefinitionMap;
         }
         return _identityDefinitionMap;
     }
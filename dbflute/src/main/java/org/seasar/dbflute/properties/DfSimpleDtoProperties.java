@@ -45,8 +45,9 @@ public final class DfSimpleDtoProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getSimpleDtoDefinitionMap() {
         if (_simpleDtoDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque.simpleDtoDefinitionMap", DEFAULT_EMPTY_MAP);
-            _simpleDtoDefinitionMap = newLinkedHashMap();
-            _simpleDtoDefinitionMap.putAll(map);
+            final Map<String, Object> simpleDtoDefinitionMap = newLinkedHashMap();
+            simpleDtoDefinitionMap.putAll(map);
+            _simpleDtoDefinitionMap = simpleDtoDefinitionMap;
         }
         return _simpleDtoDefinitionMap;
     }
@@ -40,8 +40,9 @@ public final class DfSqlLogRegistryProperties extends DfAbstractHelperProperties
     protected Map<String, Object> getSqlLogRegistryDefinitionMap() { // It's closet!
         if (_sqlLogRegistryDefinitionMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_sqlLogRegistryDefinitionMap, DEFAULT_EMPTY_MAP);
-            _sqlLogRegistryDefinitionMap = newLinkedHashMap();
-            _sqlLogRegistryDefinitionMap.putAll(map);
+            final Map<String, Object> sqlLogRegistryDefinitionMap = newLinkedHashMap();
+            sqlLogRegistryDefinitionMap.putAll(map);
+            _sqlLogRegistryDefinitionMap = sqlLogRegistryDefinitionMap;
         }
         return _sqlLogRegistryDefinitionMap;
     }
@@ -46,8 +46,9 @@ public final class DfTypeMappingProperties extends DfAbstractHelperProperties {
     protected Map<String, Object> getTypeMappingMap() {
         if (_typeMappingMap == null) {
             final Map<String, Object> map = mapProp("torque." + KEY_typeMappingMap, DEFAULT_EMPTY_MAP);
-            _typeMappingMap = newLinkedHashMap();
-            _typeMappingMap.putAll(map);
+            final Map<String, Object> typeMappingMap = newLinkedHashMap();
+            typeMappingMap.putAll(map);
+            _typeMappingMap = typeMappingMap;
         }
         return _typeMappingMap;
     }
@@ -15,11 +15,26 @@
  */
 package org.seasar.dbflute.task;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +54,9 @@ import org.seasar.dbflute.exception.factory.ExceptionMessageBuilder;
 import org.seasar.dbflute.friends.velocity.DfVelocityContextFactory;
 import org.seasar.dbflute.helper.StringKeyMap;
 import org.seasar.dbflute.helper.jdbc.DfRunnerInformation;
+import org.seasar.dbflute.helper.jdbc.connection.DfDedicatedDataSource;
+import org.seasar.dbflute.helper.jdbc.connection.DfFittingDataSource;
+import org.seasar.dbflute.helper.jdbc.context.DfSchemaSource;
 import org.seasar.dbflute.helper.jdbc.sqlfile.DfSqlFileFireMan;
 import org.seasar.dbflute.helper.jdbc.sqlfile.DfSqlFileRunner;
 import org.seasar.dbflute.logic.generate.language.DfLanguageDependency;
@@ -47,8 +65,10 @@ import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfProcedureColumnMeta;
 import org.seasar.dbflute.logic.jdbc.schemaxml.DfSchemaXmlReader;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlAnalyzer;
+import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlColumnMetaPrefetcher;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlFile;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlPack;
+import org.seasar.dbflute.logic.sql2entity.analyzer.DfSql2EntityColumnMetaCache;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfSql2EntityMarkAnalyzer;
 import org.seasar.dbflute.logic.sql2entity.analyzer.DfSql2EntityMeta;
 import org.seasar.dbflute.logic.sql2entity.bqp.DfBehaviorQueryPathSetupper;
@@ -63,6 +83,7 @@ import org.seasar.dbflute.properties.DfOutsideSqlProperties;
 import org.seasar.dbflute.task.DfDBFluteTaskStatus.TaskType;
 import org.seasar.dbflute.task.bs.DfAbstractTexenTask;
 import org.seasar.dbflute.task.bs.assistant.DfSpecifiedSqlFile;
+import org.seasar.dbflute.util.DfResourceUtil;
 import org.seasar.dbflute.util.Srl;
 import org.seasar.dbflute.util.Srl.IndexOfInfo;
 
@@ -89,6 +110,9 @@ public class DfSql2EntityTask extends DfAbstractTexenTask {
     // for getting schema
     protected AppData _schemaData;
 
+    // for column meta data of SQL (null allowed: no cache and sequential)
+    protected DfSql2EntityColumnMetaCache _columnMetaCache;
+
     // to use same process as generating here
     protected final Database _database = new Database();
 
@@ -140,8 +164,11 @@ public class DfSql2EntityTask extends DfAbstractTexenTask {
         // FireMan's fire result is ignored here because runner's option breakCauseThrow=true
         final DfSqlFileFireMan fireMan = new DfSqlFileFireMan();
         final DfOutsideSqlPack outsideSqlPack = getTargetSqlFileList();
+        _columnMetaCache = prepareColumnMetaCache(outsideSqlPack);
+        prefetchColumnMetaIfNeeds(runInfo, outsideSqlPack);
         final DfSqlFileRunner runner = createSqlFileRunner(runInfo, outsideSqlPack);
         fireMan.fire(runner, outsideSqlPack.getPhysicalFileList());
+        saveColumnMetaCacheIfNeeds();
 
         setupProcedure();
 
@@ -207,7 +234,10 @@ public class DfSql2EntityTask extends DfAbstractTexenTask {
      * @return SQL file runner. (NotNull)
      */
     protected DfSqlFileRunner createSqlFileRunner(DfRunnerInformation runInfo, DfOutsideSqlPack outsideSqlPack) {
-        return new DfOutsideSqlAnalyzer(runInfo, getDataSource(), _sql2entityMeta, outsideSqlPack, _schemaData);
+        final DfOutsideSqlAnalyzer analyzer = new DfOutsideSqlAnalyzer(runInfo, getDataSource(), _sql2entityMeta,
+                outsideSqlPack, _schemaData);
+        analyzer.setColumnMetaCache(_columnMetaCache);
+        return analyzer;
     }
 
     protected void handleException() {
@@ -231,6 +261,154 @@ public class DfSql2EntityTask extends DfAbstractTexenTask {
         _log.warn(" ");
     }
 
+    // ===================================================================================
+    //                                                                   Column Meta Cache
+    //                                                                   =================
+    /**
+     * Prepare the cache of column meta data for SQLs.
+     * @param outsideSqlPack The pack of outside-SQL files. (NotNull)
+     * @return The cache loaded from the file or on memory only. (NullAllowed: when no cache and sequential)
+     */
+    protected DfSql2EntityColumnMetaCache prepareColumnMetaCache(DfOutsideSqlPack outsideSqlPack) {
+        final DfOutsideSqlProperties outsideSqlProp = getOutsideSqlProperties();
+        if (outsideSqlProp.isSql2EntityMetaCacheValid()) {
+            final String cacheFilePath = getBasicProperties().getProjectSql2EntityMetaCacheFile();
+            final DfSql2EntityColumnMetaCache cache = new DfSql2EntityColumnMetaCache(cacheFilePath,
+                    buildSchemaVersion());
+            cache.load();
+            return cache;
+        }
+        if (isParallelPrefetch(outsideSqlPack)) { // to pass the prefetched meta to the analyzer
+            return new DfSql2EntityColumnMetaCache(null, "memory");
+        }
+        return null;
+    }
+
+    /**
+     * Build the version of schema that the cache depends on. <br />
+     * It contains the content of SchemaXML and the connection target.
+     * @return The hash string as schema version. (NotNull)
+     */
+    protected String buildSchemaVersion() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(getUrl()).append(":").append(getUser()).append(ln());
+        final String schemaXml = getBasicProperties().getProejctSchemaXMLFile();
+        final File schemaXmlFile = new File(schemaXml);
+        if (schemaXmlFile.exists()) {
+            try {
+                final String encoding = getBasicProperties().getProejctSchemaXMLEncoding();
+                sb.append(DfResourceUtil.readText(new InputStreamReader(new FileInputStream(schemaXmlFile), encoding)));
+            } catch (IOException e) {
+                String msg = "Failed to read the SchemaXML for Sql2Entity cache: " + schemaXml;
+                throw new IllegalStateException(msg, e);
+            }
+        }
+        return DfSql2EntityColumnMetaCache.toHash(sb.toString());
+    }
+
+    protected void saveColumnMetaCacheIfNeeds() {
+        if (_columnMetaCache == null) {
+            return;
+        }
+        // unused meta are removed only when all SQL files are analyzed
+        final boolean removeUnused = DfSpecifiedSqlFile.getInstance().getSpecifiedSqlFile() == null;
+        _columnMetaCache.save(removeUnused);
+    }
+
+    // -----------------------------------------------------
+    //                                    Parallel Prefetch
+    //                                    -----------------
+    protected boolean isParallelPrefetch(DfOutsideSqlPack outsideSqlPack) {
+        if (getOutsideSqlProperties().getSql2EntityThreadPoolSize() <= 1) {
+            return false;
+        }
+        if (outsideSqlPack.getPhysicalFileList().size() <= 1) {
+            return false;
+        }
+        if (!(getDataSource().getDataSource() instanceof DfFittingDataSource)) { // cannot get new connections
+            return false; // analyzed sequentially
+        }
+        return true;
+    }
+
+    /**
+     * Prefetch the column meta data of SQL files in parallel if the thread pool size is set. <br />
+     * Each thread uses its own connection, and the prefetched meta are registered to the cache
+     * so the normal analyzer (sequential) does not access the database for them. <br />
+     * Failures are ignored here because the normal analyzer executes the SQL again and reports it.
+     * @param runInfo The information of runner. (NotNull)
+     * @param outsideSqlPack The pack of outside-SQL files. (NotNull)
+     */
+    protected void prefetchColumnMetaIfNeeds(DfRunnerInformation runInfo, DfOutsideSqlPack outsideSqlPack) {
+        if (!isParallelPrefetch(outsideSqlPack)) {
+            return;
+        }
+        final List<File> sqlFileList = outsideSqlPack.getPhysicalFileList();
+        final int threadPoolSize = Math.min(getOutsideSqlProperties().getSql2EntityThreadPoolSize(),
+                sqlFileList.size());
+        _log.info("...Prefetching the meta data of " + sqlFileList.size() + " SQL files by " + threadPoolSize
+                + " threads");
+        getOutsideSqlProperties().isSql2EntityMetaDataFirst(); // prepare the lazy-loaded properties here
+        final BlockingQueue<DfOutsideSqlColumnMetaPrefetcher> prefetcherQueue;
+        prefetcherQueue = new LinkedBlockingQueue<DfOutsideSqlColumnMetaPrefetcher>();
+        final List<DfDedicatedDataSource> dedicatedList = new ArrayList<DfDedicatedDataSource>();
+        final ExecutorService service = Executors.newFixedThreadPool(threadPoolSize);
+        try {
+            for (int i = 0; i < threadPoolSize; i++) {
+                final DfDedicatedDataSource dedicated = new DfDedicatedDataSource(newPrefetchConnection());
+                dedicatedList.add(dedicated);
+                prefetcherQueue.add(new DfOutsideSqlColumnMetaPrefetcher(runInfo, dedicated, outsideSqlPack,
+                        _schemaData, _columnMetaCache));
+            }
+            final List<Future<Void>> futureList = new ArrayList<Future<Void>>();
+            for (final File sqlFile : sqlFileList) {
+                futureList.add(service.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        final DfOutsideSqlColumnMetaPrefetcher prefetcher = prefetcherQueue.take();
+                        try {
+                            prefetcher.prepare(sqlFile);
+                            prefetcher.runTransaction();
+                        } finally {
+                            prefetcherQueue.add(prefetcher);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futureList) {
+                try {
+                    future.get();
+                } catch (ExecutionException continued) { // analyzed again later
+                    _log.info("*Failed to prefetch the meta data: " + continued.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = "Interrupted while waiting for the prefetch of meta data.";
+            throw new IllegalStateException(msg, e);
+        } catch (SQLException e) { // not required so continue
+            _log.info("*Cannot get the connection for prefetch so analyze sequentially: " + e.getMessage());
+        } finally {
+            service.shutdownNow();
+            for (DfDedicatedDataSource dedicated : dedicatedList) {
+                try {
+                    dedicated.closeReally();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    protected Connection newPrefetchConnection() throws SQLException {
+        final DfSchemaSource schemaSource = getDataSource();
+        final DataSource dataSource = schemaSource.getDataSource();
+        if (!(dataSource instanceof DfFittingDataSource)) { // may return the shared connection
+            String msg = "The data source for parallel prefetch should be fitting data source: " + dataSource;
+            throw new IllegalStateException(msg); // not to close the shared connection really
+        }
+        return ((DfFittingDataSource) dataSource).newConnection(); // because it shares one connection
+    }
+
     // ===================================================================================
     //                                                                           Procedure
     //                                                                           =========
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.friends.velocity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Properties;
+
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.context.Context;
+import org.seasar.dbflute.exception.DfTemplateParsingException;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfFlutistGeneratorTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                  Parallel Rendering
+    //                                                                  ==================
+    public void test_parse_parallel_writeOrder() throws Exception {
+        // ## Arrange ##
+        final File outputDir = prepareOutputDir("order");
+        final MockGenerator generator = createGenerator(outputDir, 4, null);
+        generator.setControl(new MockControl() {
+            public void control(DfFlutistGenerator gen) throws Exception {
+                gen.parse("slow.vm", "Foo.java");
+                gen.parse("fast.vm", "Foo.java");
+                gen.parse("fast.vm", "Bar.java");
+                gen.parse("slow.vm", "Bar.java");
+            }
+        });
+
+        // ## Act ##
+        generateAndShutdown(generator);
+
+        // ## Assert ##
+        assertEquals("slow;fast;", readContents(new File(outputDir, "Foo.java")));
+        assertEquals("fast;slow;", readContents(new File(outputDir, "Bar.java")));
+        assertEquals(4, generator.getParseFileNameList().size());
+    }
+
+    public void test_parse_parallel_failedRendering() throws Exception {
+        // ## Arrange ##
+        final File outputDir = prepareOutputDir("failed");
+        final MockGenerator generator = createGenerator(outputDir, 4, null);
+        generator.setControl(new MockControl() {
+            public void control(DfFlutistGenerator gen) throws Exception {
+                gen.parse("fast.vm", "Foo.java");
+                gen.parse("fail.vm", "Bar.java");
+                gen.parse("slow.vm", "Qux.java");
+            }
+        });
+
+        // ## Act ##
+        DfTemplateParsingException thrown = null;
+        try {
+            generateAndShutdown(generator);
+        } catch (DfTemplateParsingException e) {
+            thrown = e;
+        }
+
+        // ## Assert ##
+        assertNotNull(thrown);
+        log(thrown.getMessage());
+        assertTrue(thrown.getMessage().contains("fail.vm"));
+        assertEquals("rendering failure", thrown.getCause().getMessage());
+        assertEquals("fast;", readContents(new File(outputDir, "Foo.java")));
+        assertEquals("", readContents(new File(outputDir, "Bar.java"))); // created at submission
+        final File quxFile = new File(outputDir, "Qux.java"); // not submitted if the failure is found before it
+        assertTrue(!quxFile.exists() || readContents(quxFile).equals("")); // not written after the failure
+    }
+
+    public void test_parse_parallel_newFile() throws Exception {
+        // ## Arrange ##
+        final File outputDir = prepareOutputDir("newfile");
+        final File manifestFile = new File(outputDir, "generate.manifest");
+        final MockGenerator generator = createGenerator(outputDir, 4, manifestFile);
+        final File fooFile = new File(outputDir, "Foo.java");
+        final File barFile = new File(outputDir, "Bar.java");
+        generator.setControl(new MockControl() {
+            public void control(DfFlutistGenerator gen) throws Exception {
+                gen.parse("slow.vm", "Foo.java");
+                assertTrue(fooFile.exists()); // the control template may check it
+                gen.parse("slow.vm", "Bar.java");
+                gen.parse("fast.vm", "Bar.java");
+            }
+        });
+
+        // ## Act ##
+        generateAndShutdown(generator);
+
+        // ## Assert ##
+        assertEquals("slow;", readContents(fooFile));
+        assertEquals("slow;fast;", readContents(barFile));
+        assertTrue(generator.getSkipFileNameList().isEmpty());
+        final DfGenerateManifest manifest = new DfGenerateManifest(manifestFile.getPath());
+        manifest.load();
+        assertTrue(manifest.isUnchanged(fooFile.getPath(), DfGenerateManifest.toHash("slow;", "UTF-8", null)));
+        assertFalse(manifest.isUnchanged(barFile.getPath(), DfGenerateManifest.toHash("slow;", "UTF-8", null)));
+    }
+
+    public void test_parse_parallel_existingFileAppended() throws Exception {
+        // ## Arrange ##
+        final File outputDir = prepareOutputDir("appended");
+        final File manifestFile = new File(outputDir, "generate.manifest");
+        final File fooFile = new File(outputDir, "Foo.java");
+        writeContents(fooFile, "old;");
+        final MockGenerator generator = createGenerator(outputDir, 4, manifestFile);
+        generator.setControl(new MockControl() {
+            public void control(DfFlutistGenerator gen) throws Exception {
+                gen.parse("slow.vm", "Foo.java");
+                gen.parse("fast.vm", "Foo.java"); // submitted before the first is written
+            }
+        });
+
+        // ## Act ##
+        generateAndShutdown(generator);
+
+        // ## Assert ##
+        assertEquals("slow;fast;", readContents(fooFile));
+        final DfGenerateManifest manifest = new DfGenerateManifest(manifestFile.getPath());
+        manifest.load();
+        assertFalse(manifest.isUnchanged(fooFile.getPath(), DfGenerateManifest.toHash("slow;", "UTF-8", null)));
+        assertFalse(manifest.isUnchanged(fooFile.getPath(), DfGenerateManifest.toHash("fast;", "UTF-8", null)));
+    }
+
+    public void test_parse_parallel_manifestSkip() throws Exception {
+        // ## Arrange ##
+        final File outputDir = prepareOutputDir("manifest");
+        final File manifestFile = new File(outputDir, "generate.manifest");
+        final File fooFile = new File(outputDir, "Foo.java");
+        final MockControl control = new MockControl() {
+            public void control(DfFlutistGenerator gen) throws Exception {
+                gen.parse("slow.vm", "Foo.java");
+                gen.parse("fast.vm", "Bar.java");
+            }
+        };
+        final MockGenerator first = createGenerator(outputDir, 4, manifestFile);
+        first.setControl(control);
+        generateAndShutdown(first);
+        final long lastModified = fooFile.lastModified();
+        final MockGenerator second = createGenerator(outputDir, 4, manifestFile);
+        second.setControl(control);
+
+        // ## Act ##
+        generateAndShutdown(second);
+
+        // ## Assert ##
+        assertTrue(first.getSkipFileNameList().isEmpty());
+        assertEquals(2, second.getSkipFileNameList().size());
+        assertTrue(second.getSkipFileNameList().contains("Foo.java"));
+        assertTrue(second.getSkipFileNameList().contains("Bar.java"));
+        assertEquals(lastModified, fooFile.lastModified());
+        assertEquals("slow;", readContents(fooFile));
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected MockGenerator createGenerator(File outputDir, int threadPoolSize, File manifestFile) {
+        final MockGenerator generator = new MockGenerator(threadPoolSize, manifestFile);
+        generator.setOutputPath(outputDir.getPath());
+        generator.setInputEncoding("UTF-8");
+        generator.setOutputEncoding("UTF-8");
+        return generator;
+    }
+
+    protected void generateAndShutdown(MockGenerator generator) throws Exception {
+        try {
+            generator.parse("control.vm", new VelocityContext());
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    protected static interface MockControl {
+        void control(DfFlutistGenerator gen) throws Exception;
+    }
+
+    protected static class MockGenerator extends DfFlutistGenerator {
+
+        protected final int _threadPoolSize;
+        protected final File _manifestFile;
+        protected MockControl _control;
+
+        public MockGenerator(int threadPoolSize, File manifestFile) {
+            super(new Properties());
+            _threadPoolSize = threadPoolSize;
+            _manifestFile = manifestFile;
+        }
+
+        @Override
+        public Template getTemplate(String templateName, String encoding) throws Exception {
+            return new MockTemplate(this, templateName);
+        }
+
+        @Override
+        protected boolean isConvertSourceCodeLineSeparator() {
+            return false;
+        }
+
+        @Override
+        protected int getGenerateThreadPoolSize() {
+            return _threadPoolSize;
+        }
+
+        @Override
+        protected boolean isGenerateManifestValid() {
+            return _manifestFile != null;
+        }
+
+        @Override
+        protected String getGenerateManifestFile() {
+            return _manifestFile.getPath();
+        }
+
+        public void setControl(MockControl control) {
+            _control = control;
+        }
+    }
+
+    protected static class MockTemplate extends Template {
+
+        protected final MockGenerator _generator;
+        protected final String _templateName;
+
+        public MockTemplate(MockGenerator generator, String templateName) {
+            _generator = generator;
+            _templateName = templateName;
+        }
+
+        @Override
+        public void merge(Context context, Writer writer) {
+            try {
+                if (_templateName.equals("control.vm")) {
+                    _generator._control.control(_generator);
+                } else if (_templateName.equals("slow.vm")) {
+                    Thread.sleep(300L); // finished after the next rendering
+                    writer.write("slow;");
+                } else if (_templateName.equals("fast.vm")) {
+                    writer.write("fast;");
+                } else {
+                    throw new IllegalStateException("rendering failure");
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected File prepareOutputDir(String name) throws IOException {
+        final File outputDir = new File(getTestCaseBuildDir().getCanonicalPath() + "/flutist-generator-test-" + name);
+        if (outputDir.exists()) {
+            for (File file : outputDir.listFiles()) {
+                file.delete();
+            }
+        } else {
+            outputDir.mkdirs();
+        }
+        return outputDir;
+    }
+
+    protected void writeContents(File file, String contents) throws IOException {
+        final FileOutputStream ous = new FileOutputStream(file);
+        try {
+            ous.write(contents.getBytes("UTF-8"));
+        } finally {
+            ous.close();
+        }
+    }
+
+    protected String readContents(File file) throws IOException {
+        final FileInputStream ins = new FileInputStream(file);
+        try {
+            final byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += ins.read(bytes, offset, bytes.length - offset);
+            }
+            return new String(bytes, "UTF-8");
+        } finally {
+            ins.close();
+        }
+    }
+}
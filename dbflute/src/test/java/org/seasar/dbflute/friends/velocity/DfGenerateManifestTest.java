@@ -0,0 +1,113 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.friends.velocity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfGenerateManifestTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                           Determine
+    //                                                                           =========
+    public void test_isUnchanged_basic() throws IOException {
+        // ## Arrange ##
+        final String buildDir = getTestCaseBuildDir().getCanonicalPath();
+        final String manifestPath = buildDir + "/generate-manifest-test.manifest";
+        final String outputPath = buildDir + "/generate-manifest-test-output.txt";
+        final String contents = "public class Foo {}";
+        writeContents(outputPath, contents);
+        final String contentHash = DfGenerateManifest.toHash(contents, "UTF-8", "\n");
+        final DfGenerateManifest saved = new DfGenerateManifest(manifestPath);
+        saved.register(outputPath, "om/java/Foo.vm", "FOO", contentHash);
+        saved.save();
+
+        // ## Act ##
+        final DfGenerateManifest manifest = new DfGenerateManifest(manifestPath);
+        manifest.load();
+
+        // ## Assert ##
+        assertTrue(manifest.isUnchanged(outputPath, contentHash));
+        assertFalse(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents + " ", "UTF-8", "\n")));
+        assertFalse(manifest.isUnchanged(buildDir + "/generate-manifest-test-none.txt", contentHash));
+        writeContents(outputPath, "public class Bar {} // touched"); // by others
+        assertFalse(manifest.isUnchanged(outputPath, contentHash));
+    }
+
+    public void test_isUnchanged_encodingOrLineSeparatorChanged() throws IOException {
+        // ## Arrange ##
+        final String buildDir = getTestCaseBuildDir().getCanonicalPath();
+        final String manifestPath = buildDir + "/generate-manifest-test-encoding.manifest";
+        final String outputPath = buildDir + "/generate-manifest-test-encoding.txt";
+        final String contents = "public class Foo {}";
+        writeContents(outputPath, contents);
+        final String contentHash = DfGenerateManifest.toHash(contents, "UTF-8", "\n");
+        final DfGenerateManifest saved = new DfGenerateManifest(manifestPath);
+        saved.register(outputPath, "om/java/Foo.vm", "FOO", contentHash);
+        saved.save();
+
+        // ## Act ##
+        final DfGenerateManifest manifest = new DfGenerateManifest(manifestPath);
+        manifest.load();
+
+        // ## Assert ##
+        assertTrue(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents, "UTF-8", "\n")));
+        assertFalse(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents, "Windows-31J", "\n")));
+        assertFalse(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents, null, "\n")));
+        assertFalse(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents, "UTF-8", "\r\n")));
+        assertFalse(manifest.isUnchanged(outputPath, DfGenerateManifest.toHash(contents, "UTF-8", null)));
+    }
+
+    public void test_save_excluded() throws IOException {
+        // ## Arrange ##
+        final String buildDir = getTestCaseBuildDir().getCanonicalPath();
+        final String manifestPath = buildDir + "/generate-manifest-test-excluded.manifest";
+        final String outputPath = buildDir + "/generate-manifest-test-excluded.txt";
+        final String contents = "public class Foo {}";
+        writeContents(outputPath, contents);
+        final String contentHash = DfGenerateManifest.toHash(contents, "UTF-8", "\n");
+        final DfGenerateManifest saved = new DfGenerateManifest(manifestPath);
+        saved.register(outputPath, "om/java/Foo.vm", null, contentHash);
+        saved.exclude(outputPath); // e.g. appended
+
+        // ## Act ##
+        saved.save();
+
+        // ## Assert ##
+        final DfGenerateManifest manifest = new DfGenerateManifest(manifestPath);
+        manifest.load();
+        assertFalse(manifest.isUnchanged(outputPath, contentHash));
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected void writeContents(String path, String contents) throws IOException {
+        final FileOutputStream ous = new FileOutputStream(new File(path));
+        try {
+            ous.write(contents.getBytes("UTF-8"));
+        } finally {
+            ous.close();
+        }
+    }
+}
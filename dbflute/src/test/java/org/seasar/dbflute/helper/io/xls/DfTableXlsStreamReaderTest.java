@@ -0,0 +1,165 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.io.xls;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.dataset.DfDataRow;
+import org.seasar.dbflute.helper.dataset.DfDataSet;
+import org.seasar.dbflute.helper.dataset.DfDataTable;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfResourceUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/20 Sunday)
+ */
+public class DfTableXlsStreamReaderTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                                Read
+    //                                                                                ====
+    public void test_read_sameAsPlainReader() throws IOException {
+        for (File xlsFile : Arrays.asList(prepareTestBasicXlsFile(), prepareTestLargeDataXlsFile())) {
+            for (boolean rtrimCellValue : Arrays.asList(false, true)) {
+                // ## Arrange ##
+                final DfTableXlsReader plainReader = createTableXlsReader(xlsFile, null, rtrimCellValue);
+                final DfTableXlsStreamReader streamReader = createTableXlsStreamReader(xlsFile, null, rtrimCellValue);
+
+                // ## Act ##
+                final DfDataSet expected = plainReader.read();
+                final DfDataSet actual = streamReader.read();
+
+                // ## Assert ##
+                log("[DataSet]:" + ln() + actual);
+                assertEquals(expected.getTableSize(), actual.getTableSize());
+                for (int tableIndex = 0; tableIndex < expected.getTableSize(); tableIndex++) {
+                    final DfDataTable expectedTable = expected.getTable(tableIndex);
+                    final DfDataTable actualTable = actual.getTable(tableIndex);
+                    assertEquals(expectedTable.getTableDbName(), actualTable.getTableDbName());
+                    assertEquals(expectedTable.getColumnSize(), actualTable.getColumnSize());
+                    for (int columnIndex = 0; columnIndex < expectedTable.getColumnSize(); columnIndex++) {
+                        assertEquals(expectedTable.getColumnName(columnIndex), actualTable.getColumnName(columnIndex));
+                        assertEquals(expectedTable.getColumnType(columnIndex), actualTable.getColumnType(columnIndex));
+                    }
+                    assertEquals(expectedTable.getRowSize(), actualTable.getRowSize());
+                    for (int rowIndex = 0; rowIndex < expectedTable.getRowSize(); rowIndex++) {
+                        final DfDataRow expectedRow = expectedTable.getRow(rowIndex);
+                        final DfDataRow actualRow = actualTable.getRow(rowIndex);
+                        assertEquals(expectedRow.getRowNumber(), actualRow.getRowNumber());
+                        assertEquals(expectedRow.toString(), actualRow.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    public void test_read_handler_rowsNotKept() throws IOException {
+        // ## Arrange ##
+        final File xlsFile = prepareTestLargeDataXlsFile();
+        final DfTableXlsStreamReader reader = createTableXlsStreamReader(xlsFile, null, false);
+        final DfDataSet expected = createTableXlsReader(xlsFile, null, false).read();
+        final StringBuilder sb = new StringBuilder();
+
+        // ## Act ##
+        reader.read(new DfTableXlsStreamHandler() {
+            public void handleTable(DfDataTable table) {
+                sb.append("table:").append(table.getTableDbName()).append(ln());
+            }
+
+            public void handleRow(DfDataTable table, DfDataRow row) {
+                assertEquals(0, table.getRowSize());
+                sb.append(row.getRowNumber()).append(":").append(row).append(ln());
+            }
+
+            public void handleTableEnd(DfDataTable table) {
+                sb.append("end:").append(table.getTableDbName()).append(ln());
+            }
+        });
+
+        // ## Assert ##
+        final String actual = sb.toString();
+        log(ln() + actual);
+        final StringBuilder expectedSb = new StringBuilder();
+        for (int tableIndex = 0; tableIndex < expected.getTableSize(); tableIndex++) {
+            final DfDataTable table = expected.getTable(tableIndex);
+            expectedSb.append("table:").append(table.getTableDbName()).append(ln());
+            for (int rowIndex = 0; rowIndex < table.getRowSize(); rowIndex++) {
+                final DfDataRow row = table.getRow(rowIndex);
+                expectedSb.append(row.getRowNumber()).append(":").append(row).append(ln());
+            }
+            expectedSb.append("end:").append(table.getTableDbName()).append(ln());
+        }
+        assertEquals(expectedSb.toString(), actual);
+        assertFalse(actual.contains(DfTableXlsReader.LDATA_SHEET_NAME));
+        assertFalse(actual.contains(DfTableXlsReader.LDATA_REF_PREFIX));
+    }
+
+    public void test_read_skipSheet() throws IOException {
+        // ## Arrange ##
+        final File xlsFile = prepareTestLargeDataXlsFile();
+        final DfTableXlsStreamReader reader = createTableXlsStreamReader(xlsFile, Pattern.compile("FIRST.+"), false);
+
+        // ## Act ##
+        final DfDataSet dataSet = reader.read();
+
+        // ## Assert ##
+        assertFalse(dataSet.hasTable("FIRST_TABLE"));
+        assertTrue(dataSet.hasTable("SECOND_TABLE"));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected File prepareTestBasicXlsFile() throws IOException {
+        final File buildDir = DfResourceUtil.getBuildDir(getClass());
+        return new File(buildDir.getCanonicalPath() + "/xls/table-xls-basic.xls");
+    }
+
+    protected File prepareTestLargeDataXlsFile() throws IOException {
+        final File buildDir = DfResourceUtil.getBuildDir(getClass());
+        return new File(buildDir.getCanonicalPath() + "/xls/table-xls-large-data.xls");
+    }
+
+    protected DfTableXlsReader createTableXlsReader(File xlsFile, Pattern skipSheetPattern, boolean rtrimCellValue) {
+        return new DfTableXlsReader(xlsFile, StringKeyMap.<String> createAsCaseInsensitive(),
+                prepareNotTrimTableColumnMap(), prepareStringEmptyTableColumnMap(), skipSheetPattern, rtrimCellValue);
+    }
+
+    protected DfTableXlsStreamReader createTableXlsStreamReader(File xlsFile, Pattern skipSheetPattern,
+            boolean rtrimCellValue) {
+        return new DfTableXlsStreamReader(xlsFile, StringKeyMap.<String> createAsCaseInsensitive(),
+                prepareNotTrimTableColumnMap(), prepareStringEmptyTableColumnMap(), skipSheetPattern, rtrimCellValue);
+    }
+
+    protected Map<String, List<String>> prepareNotTrimTableColumnMap() {
+        final Map<String, List<String>> notTrimTableColumnMap = StringKeyMap.createAsCaseInsensitive();
+        notTrimTableColumnMap.put("TEST_TABLE", Arrays.asList("EEE"));
+        return notTrimTableColumnMap;
+    }
+
+    protected Map<String, List<String>> prepareStringEmptyTableColumnMap() {
+        final Map<String, List<String>> stringEmptyTableColumnMap = StringKeyMap.createAsCaseInsensitive();
+        stringEmptyTableColumnMap.put("TEST_TABLE", Arrays.asList("CCC"));
+        return stringEmptyTableColumnMap;
+    }
+}
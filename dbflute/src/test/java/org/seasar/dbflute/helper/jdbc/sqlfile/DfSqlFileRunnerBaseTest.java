@@ -0,0 +1,113 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.helper.jdbc.sqlfile;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.seasar.dbflute.helper.jdbc.DfRunnerInformation;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/15 Tuesday)
+ */
+public class DfSqlFileRunnerBaseTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Extract SQL
+    //                                                                         ===========
+    public void test_readSql_basic() {
+        // ## Arrange ##
+        StringBuilder sb = new StringBuilder();
+        sb.append("-- first comment").append(ln());
+        sb.append("insert into MEMBER values (1, 'foo');").append(ln());
+        sb.append(ln());
+        sb.append("update MEMBER").append(ln());
+        sb.append("   set MEMBER_NAME = 'bar' -- with comment").append(ln());
+        sb.append(" where MEMBER_ID = 1").append(ln());
+        sb.append(";").append(ln());
+        sb.append("-- comment only;").append(ln());
+        sb.append("delete from MEMBER").append(ln());
+        DfSqlFileRunnerBase runner = createRunner();
+
+        // ## Act ##
+        List<String> sqlList = runner.extractSqlList(toReader(sb.toString()));
+
+        // ## Assert ##
+        log(sqlList);
+        assertEquals(3, sqlList.size());
+        assertEquals("-- first comment\ninsert into MEMBER values (1, 'foo')", sqlList.get(0));
+        assertEquals("update MEMBER\n   set MEMBER_NAME = 'bar' -- with comment\n where MEMBER_ID = 1", sqlList.get(1));
+        assertEquals("delete from MEMBER", sqlList.get(2)); // comment only statement is skipped
+    }
+
+    public void test_readSql_group() {
+        // ## Arrange ##
+        StringBuilder sb = new StringBuilder();
+        sb.append("create table FOO (ID integer);").append(ln());
+        sb.append("-- #df:begin#").append(ln());
+        sb.append("create procedure BAR begin").append(ln());
+        sb.append("  select 1;").append(ln());
+        sb.append("end;").append(ln());
+        sb.append("-- #df:end#").append(ln());
+        sb.append(";").append(ln());
+        sb.append("drop table FOO;").append(ln());
+        DfSqlFileRunnerBase runner = createRunner();
+
+        // ## Act ##
+        DfSqlFileRunnerBase.SqlStatementReader reader = runner.createSqlStatementReader(toReader(sb.toString()));
+
+        // ## Assert ##
+        assertEquals("create table FOO (ID integer)", reader.readSql());
+        assertEquals("create procedure BAR begin\n  select 1;\nend;\n", reader.readSql());
+        assertEquals("drop table FOO", reader.readSql());
+        assertNull(reader.readSql());
+        assertNull(reader.readSql());
+    }
+
+    public void test_endsWithDelimiter() {
+        DfSqlFileRunnerBase runner = createRunner();
+        assertTrue(runner.endsWithDelimiter("select 1;", ";"));
+        assertTrue(runner.endsWithDelimiter("select 1; \n\t", ";"));
+        assertTrue(runner.endsWithDelimiter("  ;  ", ";"));
+        assertTrue(runner.endsWithDelimiter("end /", "/"));
+        assertFalse(runner.endsWithDelimiter("select 1", ";"));
+        assertFalse(runner.endsWithDelimiter("  ", ";"));
+        assertFalse(runner.endsWithDelimiter("select '/'", "//"));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected DfSqlFileRunnerBase createRunner() {
+        return new DfSqlFileRunnerBase(new DfRunnerInformation(), null) {
+            @Override
+            protected void execSQL(String sql) {
+            }
+
+            @Override
+            protected SqlStatementReader createSqlStatementReader(BufferedReader br) {
+                return new SqlStatementReader(br, new DelimiterChanger_null()); // no properties here
+            }
+        };
+    }
+
+    protected BufferedReader toReader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+}
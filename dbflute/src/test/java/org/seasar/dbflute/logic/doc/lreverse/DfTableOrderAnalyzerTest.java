@@ -0,0 +1,68 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.doc.lreverse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+import org.seasar.dbflute.util.DfCollectionUtil;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/16 Wednesday)
+ */
+public class DfTableOrderAnalyzerTest extends PlainTestCase {
+
+    public void test_analyzeWave_basic() {
+        // ## Arrange ##
+        Map<String, Set<String>> parentNameMap = new LinkedHashMap<String, Set<String>>();
+        parentNameMap.put("PURCHASE", DfCollectionUtil.newHashSet("member", "PRODUCT"));
+        parentNameMap.put("MEMBER", DfCollectionUtil.newHashSet("MEMBER_STATUS", "MEMBER"));
+        parentNameMap.put("PRODUCT", DfCollectionUtil.newHashSet("NOT_LOADED_TABLE"));
+        parentNameMap.put("MEMBER_STATUS", DfCollectionUtil.<String> newHashSet());
+
+        // ## Act ##
+        List<List<String>> waveList = new DfTableOrderAnalyzer().analyzeWave(parentNameMap);
+
+        // ## Assert ##
+        log(waveList);
+        assertEquals(3, waveList.size());
+        assertEquals(DfCollectionUtil.newArrayList("MEMBER_STATUS", "PRODUCT"), waveList.get(0));
+        assertEquals(DfCollectionUtil.newArrayList("MEMBER"), waveList.get(1));
+        assertEquals(DfCollectionUtil.newArrayList("PURCHASE"), waveList.get(2));
+    }
+
+    public void test_analyzeWave_cyclic() {
+        // ## Arrange ##
+        Map<String, Set<String>> parentNameMap = new LinkedHashMap<String, Set<String>>();
+        parentNameMap.put("FOO", DfCollectionUtil.newHashSet("BAR"));
+        parentNameMap.put("BAR", DfCollectionUtil.newHashSet("FOO"));
+        parentNameMap.put("QUX", DfCollectionUtil.<String> newHashSet());
+
+        // ## Act ##
+        List<List<String>> waveList = new DfTableOrderAnalyzer().analyzeWave(parentNameMap);
+
+        // ## Assert ##
+        log(waveList);
+        assertEquals(3, waveList.size());
+        assertEquals(DfCollectionUtil.newArrayList("QUX"), waveList.get(0));
+        assertEquals(DfCollectionUtil.newArrayList("FOO"), waveList.get(1)); // one by one in map order
+        assertEquals(DfCollectionUtil.newArrayList("BAR"), waveList.get(2));
+    }
+}
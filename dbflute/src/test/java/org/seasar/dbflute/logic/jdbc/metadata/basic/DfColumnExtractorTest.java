@@ -0,0 +1,120 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.basic;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfColumnExtractorTest extends PlainTestCase {
+
+    public void test_prepareBulkColumnList_fallback() throws Exception {
+        // ## Arrange ##
+        initializeOracleProperty(); // the extractor needs basic properties
+        DfColumnExtractor extractor = new DfColumnExtractor();
+        extractor.suppressExceptTarget(); // not to read except settings of database properties
+        UnifiedSchema unifiedSchema = UnifiedSchema.createAsMainSchema(null, "MAIHAMADB");
+        List<String[]> rowList = newArrayList();
+        rowList.add(new String[] { "MEMBER", "MEMBER_ID" });
+        rowList.add(new String[] { "MEMBER", "MEMBER_NAME" });
+        rowList.add(new String[] { "SYNONYM_MEMBER", "MEMBER_ID" });
+        rowList.add(new String[] { "SYNONYM_MEMBER", "MEMBER_ID" }); // duplicate e.g. Oracle synonym
+
+        // ## Act ##
+        Set<String> tableNameSet = extractor.prepareBulkColumnList(createColumnMetaData(rowList), unifiedSchema);
+
+        // ## Assert ##
+        log(tableNameSet);
+        assertEquals(newHashSet("MEMBER"), tableNameSet); // duplicate table is extracted per table
+        List<DfColumnMeta> columnList = extractor.getColumnList(null, unifiedSchema, "MEMBER"); // no JDBC call
+        assertEquals(2, columnList.size());
+        assertEquals("MEMBER_ID", columnList.get(0).getColumnName());
+        assertEquals("MEMBER_NAME", columnList.get(1).getColumnName());
+        assertEquals(Types.VARCHAR, columnList.get(0).getJdbcDefValue());
+        assertNull(extractor.findBulkColumnList(unifiedSchema, "MEMBER")); // used only once
+        assertNull(extractor.findBulkColumnList(unifiedSchema, "SYNONYM_MEMBER"));
+        UnifiedSchema otherSchema = UnifiedSchema.createAsAdditionalSchema(null, "OTHERDB", false);
+        assertNull(extractor.findBulkColumnList(otherSchema, "MEMBER"));
+    }
+
+    protected DatabaseMetaData createColumnMetaData(final List<String[]> rowList) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("getColumns")) {
+                            assertNull(args[2]); // all tables
+                            return createColumnResultSet(rowList.iterator());
+                        }
+                        throw new IllegalStateException("Unexpected call: " + method);
+                    }
+                });
+    }
+
+    protected ResultSet createColumnResultSet(final Iterator<String[]> rowIterator) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+                new InvocationHandler() {
+                    protected String[] _row;
+
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        final String name = method.getName();
+                        if (name.equals("next")) {
+                            _row = rowIterator.hasNext() ? rowIterator.next() : null;
+                            return _row != null;
+                        } else if (name.equals("getString")) {
+                            final int index = (Integer) args[0];
+                            if (index == 3) {
+                                return _row[0];
+                            } else if (index == 4) {
+                                return _row[1];
+                            } else if (index == 5) {
+                                return String.valueOf(Types.VARCHAR);
+                            } else if (index == 6) {
+                                return "VARCHAR2";
+                            }
+                            return null;
+                        } else if (name.equals("getInt")) {
+                            return 0;
+                        } else if (name.equals("close")) {
+                            return null;
+                        }
+                        throw new IllegalStateException("Unexpected call: " + method);
+                    }
+                });
+    }
+
+    protected void initializeOracleProperty() {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = oracle}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+    }
+}
@@ -16,10 +16,15 @@
 package org.seasar.dbflute.logic.jdbc.metadata.basic;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
 import java.util.Set;
 
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.logic.jdbc.metadata.bulk.DfBulkMetaExtractor.UserForeignKeyColumn;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfForeignKeyMeta;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
@@ -96,4 +101,38 @@ public class DfForeignKeyExtractorTest extends PlainTestCase {
             assertEquals("2", entry.getValue().getColumnNameMap().get("b"));
         }
     }
+
+    public void test_acceptBulkForeignKey_fallback() throws Exception {
+        // ## Arrange ##
+        initializeOracleProperty(); // the extractor needs basic properties
+        DfForeignKeyExtractor extractor = new DfForeignKeyExtractor();
+        UnifiedSchema unifiedSchema = UnifiedSchema.createAsMainSchema(null, "MAIHAMADB");
+        assertNull(extractor.findBulkForeignKeyColumnList(unifiedSchema, "PURCHASE")); // not accepted yet
+        Map<String, List<UserForeignKeyColumn>> fkMap = newHashMap();
+        UserForeignKeyColumn fkColumn = new UserForeignKeyColumn();
+        fkColumn.setForeignKeyName("FK_PURCHASE_MEMBER");
+        fkColumn.setLocalTableName("PURCHASE");
+        fkColumn.setLocalColumnName("MEMBER_ID");
+        fkColumn.setForeignTableName("MEMBER");
+        fkColumn.setForeignColumnName("MEMBER_ID");
+        List<UserForeignKeyColumn> purchaseList = newArrayList(fkColumn);
+        fkMap.put("PURCHASE", purchaseList);
+
+        // ## Act ##
+        extractor.acceptBulkForeignKey(unifiedSchema, newHashSet("PURCHASE", "MEMBER_STATUS"), fkMap);
+
+        // ## Assert ##
+        assertEquals(purchaseList, extractor.findBulkForeignKeyColumnList(unifiedSchema, "PURCHASE"));
+        assertTrue(extractor.findBulkForeignKeyColumnList(unifiedSchema, "MEMBER_STATUS").isEmpty()); // no FK
+        assertNull(extractor.findBulkForeignKeyColumnList(unifiedSchema, "MEMBER")); // per table
+        UnifiedSchema otherSchema = UnifiedSchema.createAsAdditionalSchema(null, "OTHERDB", false);
+        assertNull(extractor.findBulkForeignKeyColumnList(otherSchema, "PURCHASE"));
+    }
+
+    protected void initializeOracleProperty() {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = oracle}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+    }
 }
@@ -17,7 +17,11 @@ package org.seasar.dbflute.logic.jdbc.metadata.basic;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
+import org.apache.torque.engine.database.model.UnifiedSchema;
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfPrimaryKeyMeta;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -78,4 +82,34 @@ public class DfUniqueKeyExtractorTest extends PlainTestCase {
         assertTrue(uniqueKeyMap.containsKey("FIRST"));
         assertFalse(uniqueKeyMap.containsKey("SECOND"));
     }
+
+    public void test_acceptBulkPrimaryKey_fallback() throws Exception {
+        // ## Arrange ##
+        initializeOracleProperty(); // the extractor needs basic properties
+        DfUniqueKeyExtractor extractor = new DfUniqueKeyExtractor();
+        UnifiedSchema unifiedSchema = UnifiedSchema.createAsMainSchema(null, "MAIHAMADB");
+        Map<String, DfPrimaryKeyMeta> pkMap = newHashMap();
+        DfPrimaryKeyMeta memberPk = new DfPrimaryKeyMeta();
+        memberPk.addPrimaryKey("MEMBER_ID", "PK_MEMBER");
+        pkMap.put("MEMBER", memberPk);
+        pkMap.put("NOT_COVERED", new DfPrimaryKeyMeta()); // ignored
+
+        // ## Act ##
+        extractor.acceptBulkPrimaryKey(unifiedSchema, newHashSet("MEMBER", "MEMBER_LOGIN"), pkMap);
+
+        // ## Assert ##
+        assertSame(memberPk, extractor.getPrimaryKey(null, unifiedSchema, "MEMBER")); // no JDBC meta data
+        assertFalse(extractor.getPrimaryKey(null, unifiedSchema, "MEMBER_LOGIN").hasPrimaryKey()); // no PK
+        assertNull(extractor.findBulkPrimaryKey(unifiedSchema, "NOT_COVERED")); // per table
+        assertNull(extractor.findBulkPrimaryKey(unifiedSchema, "member")); // case sensitive
+        UnifiedSchema otherSchema = UnifiedSchema.createAsAdditionalSchema(null, "OTHERDB", false);
+        assertNull(extractor.findBulkPrimaryKey(otherSchema, "MEMBER"));
+    }
+
+    protected void initializeOracleProperty() {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = oracle}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfBulkMetaExtractorOracleTest extends PlainTestCase {
+
+    public void test_buildPrimaryKeySql() {
+        // ## Arrange ##
+        DfBulkMetaExtractorOracle extractor = new DfBulkMetaExtractorOracle();
+
+        // ## Act ##
+        String sql = extractor.buildPrimaryKeySql("MAIHAMADB");
+
+        // ## Assert ##
+        log(sql);
+        assertTrue(sql.startsWith("select cons.TABLE_NAME, cons.CONSTRAINT_NAME as PRIMARY_KEY_NAME"));
+        assertTrue(sql.contains("cols.COLUMN_NAME from ALL_CONSTRAINTS cons"));
+        assertTrue(sql.contains(" where cons.OWNER = 'MAIHAMADB'"));
+        assertTrue(sql.contains(" and cons.CONSTRAINT_TYPE = 'P'"));
+        assertTrue(sql.endsWith(" order by cons.TABLE_NAME, cols.POSITION"));
+    }
+
+    public void test_buildForeignKeySql() {
+        // ## Arrange ##
+        DfBulkMetaExtractorOracle extractor = new DfBulkMetaExtractorOracle();
+
+        // ## Act ##
+        String sql = extractor.buildForeignKeySql("MAIHAMADB");
+
+        // ## Assert ##
+        log(sql);
+        assertTrue(sql.contains("cons.CONSTRAINT_NAME as FOREIGN_KEY_NAME"));
+        assertTrue(sql.contains("cons.OWNER as LOCAL_SCHEMA_NAME"));
+        assertTrue(sql.contains("cons.TABLE_NAME as LOCAL_TABLE_NAME, cols.COLUMN_NAME as LOCAL_COLUMN_NAME"));
+        assertTrue(sql.contains("yourCons.OWNER as FOREIGN_SCHEMA_NAME"));
+        assertTrue(sql.contains("yourCons.TABLE_NAME as FOREIGN_TABLE_NAME"));
+        assertTrue(sql.contains("yourCols.COLUMN_NAME as FOREIGN_COLUMN_NAME"));
+        assertTrue(sql.contains(" and cols.POSITION = yourCols.POSITION")); // compound FK
+        assertTrue(sql.contains(" where cons.OWNER = 'MAIHAMADB'"));
+        assertTrue(sql.contains(" and cons.CONSTRAINT_TYPE = 'R'"));
+        assertTrue(sql.contains(" and yourCons.CONSTRAINT_TYPE in ('P', 'U')")); // also unique-key FK
+        assertTrue(sql.endsWith(" order by cons.TABLE_NAME, cons.CONSTRAINT_NAME, cols.POSITION"));
+    }
+}
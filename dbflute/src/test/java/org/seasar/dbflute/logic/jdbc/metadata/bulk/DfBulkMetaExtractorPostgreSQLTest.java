@@ -0,0 +1,64 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.jdbc.metadata.bulk;
+
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfBulkMetaExtractorPostgreSQLTest extends PlainTestCase {
+
+    public void test_buildPrimaryKeySql() {
+        // ## Arrange ##
+        DfBulkMetaExtractorPostgreSQL extractor = new DfBulkMetaExtractorPostgreSQL();
+
+        // ## Act ##
+        String sql = extractor.buildPrimaryKeySql("public");
+
+        // ## Assert ##
+        log(sql);
+        assertTrue(sql.contains("cl.relname as TABLE_NAME"));
+        assertTrue(sql.contains("con.conname as PRIMARY_KEY_NAME"));
+        assertTrue(sql.contains("att.attname as COLUMN_NAME"));
+        assertTrue(sql.contains("generate_subscripts(conkey, 1) as pos"));
+        assertTrue(sql.contains("where contype = 'p'"));
+        assertTrue(sql.contains(" where ns.nspname = 'public'"));
+        assertTrue(sql.endsWith(" order by cl.relname, con.pos"));
+    }
+
+    public void test_buildForeignKeySql() {
+        // ## Arrange ##
+        DfBulkMetaExtractorPostgreSQL extractor = new DfBulkMetaExtractorPostgreSQL();
+
+        // ## Act ##
+        String sql = extractor.buildForeignKeySql("public");
+
+        // ## Assert ##
+        log(sql);
+        assertTrue(sql.contains("con.conname as FOREIGN_KEY_NAME"));
+        assertTrue(sql.contains("lns.nspname as LOCAL_SCHEMA_NAME"));
+        assertTrue(sql.contains("lcl.relname as LOCAL_TABLE_NAME, latt.attname as LOCAL_COLUMN_NAME"));
+        assertTrue(sql.contains("fns.nspname as FOREIGN_SCHEMA_NAME"));
+        assertTrue(sql.contains("fcl.relname as FOREIGN_TABLE_NAME, fatt.attname as FOREIGN_COLUMN_NAME"));
+        assertTrue(sql.contains("where contype = 'f'")); // to primary key or unique key
+        assertTrue(sql.contains("latt.attnum = con.conkey[con.pos]"));
+        assertTrue(sql.contains("fatt.attnum = con.confkey[con.pos]")); // same position for compound FK
+        assertTrue(sql.contains(" where lns.nspname = 'public'"));
+        assertTrue(sql.endsWith(" order by lcl.relname, con.conname, con.pos"));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.replaceschema.loaddata.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.replaceschema.loaddata.impl.DfDelimiterDataWriterImpl.DfDelimiterDataRecord;
+import org.seasar.dbflute.logic.replaceschema.loaddata.impl.DfDelimiterDataWriterImpl.DfDelimiterDataRecordReader;
+import org.seasar.dbflute.logic.replaceschema.loaddata.impl.DfDelimiterDataWriterImpl.FirstLineInfo;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfDelimiterDataWriterImplTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                       Record Reader
+    //                                                                       =============
+    public void test_RecordReader_basic() throws Exception {
+        // ## Arrange ##
+        DfDelimiterDataWriterImpl writer = createWriter();
+        String data = "1\tfoo\n2\tbar\n";
+
+        // ## Act ##
+        DfDelimiterDataRecordReader reader = writer.startRecordReader(toReader(data), createFirstLineInfo());
+        try {
+            // ## Assert ##
+            assertEquals(Arrays.asList("1", "foo"), reader.takeRecord().getValueList());
+            assertEquals(Arrays.asList("2", "bar"), reader.takeRecord().getValueList());
+            assertNull(reader.takeRecord()); // end of file
+        } finally {
+            reader.stop();
+        }
+    }
+
+    public void test_RecordReader_multiLineQuoted() throws Exception {
+        // ## Arrange ##
+        DfDelimiterDataWriterImpl writer = createWriter();
+        String data = "1\t\"foo\nbar\tqux\nquux\"\n2\t\"\"\"corge\"\"\"\n";
+
+        // ## Act ##
+        DfDelimiterDataRecordReader reader = writer.startRecordReader(toReader(data), createFirstLineInfo());
+        try {
+            // ## Assert ##
+            DfDelimiterDataRecord first = reader.takeRecord();
+            log(first.getValueList());
+            assertEquals(Arrays.asList("1", "foo\nbar\tqux\nquux"), first.getValueList());
+            DfDelimiterDataRecord second = reader.takeRecord();
+            log(second.getValueList());
+            assertEquals(Arrays.asList("2", "\"corge\""), second.getValueList());
+            assertNull(reader.takeRecord());
+        } finally {
+            reader.stop();
+        }
+    }
+
+    public void test_RecordReader_warning() throws Exception {
+        // ## Arrange ##
+        DfDelimiterDataWriterImpl writer = createWriter();
+        String data = "1\tfoo\n2\n3\tbar\n";
+
+        // ## Act ##
+        DfDelimiterDataRecordReader reader = writer.startRecordReader(toReader(data), createFirstLineInfo());
+        try {
+            // ## Assert ##
+            assertEquals(Arrays.asList("1", "foo"), reader.takeRecord().getValueList());
+            DfDelimiterDataRecord warning = reader.takeRecord();
+            log(warning.getWarningMessage());
+            assertNull(warning.getValueList());
+            assertTrue(warning.getWarningMessage().contains("column=2 value=1"));
+            assertEquals(Arrays.asList("3", "bar"), reader.takeRecord().getValueList()); // continues
+            assertNull(reader.takeRecord());
+        } finally {
+            reader.stop();
+        }
+    }
+
+    public void test_RecordReader_failure() throws Exception {
+        // ## Arrange ##
+        DfDelimiterDataWriterImpl writer = createWriter();
+        final IOException failure = new IOException("read failure");
+        BufferedReader br = new BufferedReader(new StringReader("1\tfoo\n2\tbar\n")) {
+            protected int _count;
+
+            @Override
+            public String readLine() throws IOException {
+                if (++_count > 1) {
+                    throw failure;
+                }
+                return super.readLine();
+            }
+        };
+
+        // ## Act ##
+        DfDelimiterDataRecordReader reader = writer.startRecordReader(br, createFirstLineInfo());
+        try {
+            assertEquals(Arrays.asList("1", "foo"), reader.takeRecord().getValueList());
+            reader.takeRecord();
+
+            // ## Assert ##
+            fail();
+        } catch (IOException e) {
+            log(e.getMessage());
+            assertSame(failure, e); // thrown on the writer thread as it is
+        } finally {
+            reader.stop();
+        }
+    }
+
+    public void test_RecordReader_stop() throws Exception {
+        // ## Arrange ##
+        DfDelimiterDataWriterImpl writer = createWriter();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < DfDelimiterDataWriterImpl.RECORD_QUEUE_SIZE * 2; i++) {
+            sb.append(i).append("\tfoo\n");
+        }
+
+        // ## Act ##
+        DfDelimiterDataRecordReader reader = writer.startRecordReader(toReader(sb.toString()), createFirstLineInfo());
+        assertEquals(Arrays.asList("0", "foo"), reader.takeRecord().getValueList());
+        reader.stop(); // the reader thread is waiting for the full queue
+
+        // ## Assert ##
+        assertFalse(reader._thread.isAlive());
+    }
+
+    // ===================================================================================
+    //                                                                         SQL Builder
+    //                                                                         ===========
+    public void test_SqlBuilder_reusedAcrossRows() {
+        // ## Arrange ##
+        DfDelimiterDataWriteSqlBuilder sqlBuilder = new DfDelimiterDataWriteSqlBuilder();
+        Map<String, DfColumnMeta> columnMetaMap = new LinkedHashMap<String, DfColumnMeta>();
+        columnMetaMap.put("MEMBER_ID", createColumnMeta("MEMBER_ID"));
+        columnMetaMap.put("MEMBER_NAME", createColumnMeta("MEMBER_NAME"));
+        Map<String, Set<String>> notFoundColumnMap = new LinkedHashMap<String, Set<String>>();
+        List<String> valueList = new ArrayList<String>();
+        sqlBuilder.setTableDbName("MEMBER");
+        sqlBuilder.setColumnMetaMap(columnMetaMap);
+        sqlBuilder.setColumnNameList(Arrays.asList("MEMBER_ID", "NOT_EXISTS", "MEMBER_NAME"));
+        sqlBuilder.setValueList(valueList);
+        sqlBuilder.setNotFoundColumnMap(notFoundColumnMap);
+        sqlBuilder.setDefaultValueMap(new HashMap<String, String>());
+
+        // ## Act ##
+        valueList.addAll(Arrays.asList("1", "x", "foo"));
+        Map<String, String> firstMap = sqlBuilder.createBasicColumnValueMap();
+        List<?> firstMappingList = sqlBuilder.getColumnMappingList();
+        valueList.clear(); // same as the writer, the list instance is shared
+        valueList.addAll(Arrays.asList("2", "y", "bar"));
+        Map<String, String> secondMap = sqlBuilder.createBasicColumnValueMap();
+
+        // ## Assert ##
+        log(firstMap, secondMap, notFoundColumnMap);
+        assertEquals("1", firstMap.get("MEMBER_ID"));
+        assertEquals("foo", firstMap.get("MEMBER_NAME"));
+        assertEquals(2, firstMap.size());
+        assertEquals("2", secondMap.get("MEMBER_ID"));
+        assertEquals("bar", secondMap.get("MEMBER_NAME"));
+        assertEquals(2, secondMap.size());
+        assertSame(firstMappingList, sqlBuilder.getColumnMappingList()); // analyzed only once
+        assertEquals(1, notFoundColumnMap.get("MEMBER").size());
+        assertTrue(notFoundColumnMap.get("MEMBER").contains("NOT_EXISTS"));
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected DfDelimiterDataWriterImpl createWriter() {
+        DfDelimiterDataWriterImpl writer = new DfDelimiterDataWriterImpl(null, null);
+        writer.setFileName("MEMBER.tsv");
+        writer.setDelimiter("\t");
+        return writer;
+    }
+
+    protected FirstLineInfo createFirstLineInfo() {
+        FirstLineInfo firstLineInfo = new FirstLineInfo();
+        firstLineInfo.setColumnNameList(Arrays.asList("MEMBER_ID", "MEMBER_NAME"));
+        return firstLineInfo;
+    }
+
+    protected BufferedReader toReader(String data) {
+        return new BufferedReader(new StringReader(data));
+    }
+
+    protected DfColumnMeta createColumnMeta(String columnName) {
+        DfColumnMeta columnMeta = new DfColumnMeta();
+        columnMeta.setColumnName(columnName);
+        return columnMeta;
+    }
+}
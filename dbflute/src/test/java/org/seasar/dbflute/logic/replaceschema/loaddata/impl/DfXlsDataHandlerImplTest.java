@@ -15,15 +15,35 @@
  */
 package org.seasar.dbflute.logic.replaceschema.loaddata.impl;
 
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.regex.PatternSyntaxException;
 
+import javax.sql.DataSource;
+
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.exception.DfXlsDataRegistrationFailureException;
 import org.seasar.dbflute.helper.StringKeyMap;
+import org.seasar.dbflute.helper.dataset.DfDataRow;
+import org.seasar.dbflute.helper.dataset.DfDataTable;
 import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.replaceschema.loaddata.DfXlsDataResource;
+import org.seasar.dbflute.logic.replaceschema.loaddata.impl.dataprop.DfLoadingControlProp.LoggingInsertType;
 import org.seasar.dbflute.unit.core.PlainTestCase;
 
 /**
@@ -94,6 +114,242 @@ public class DfXlsDataHandlerImplTest extends PlainTestCase {
         }
     }
 
+    // ===================================================================================
+    //                                                                       Stream Writer
+    //                                                                       =============
+    public void test_XlsStreamTableWriter_batchBoundary_loadedCount() {
+        // ## Arrange ##
+        initializeBasicProperty();
+        MockBatchJdbc jdbc = new MockBatchJdbc(0);
+        StringBuilder msgSb = new StringBuilder();
+        DfXlsDataHandlerImpl.XlsStreamTableWriter writer = createStreamTableWriter(jdbc, msgSb);
+        DfDataTable table = createDataTable();
+
+        // ## Act ##
+        writeRows(writer, table, DfXlsDataHandlerImpl.BATCH_ROW_SIZE + 1);
+
+        // ## Assert ##
+        log(msgSb.toString());
+        assertEquals(Arrays.asList(DfXlsDataHandlerImpl.BATCH_ROW_SIZE, 1), jdbc._executedBatchSizeList);
+        assertEquals(1, jdbc._commitCount);
+        assertEquals(0, jdbc._rollbackCount);
+        assertTrue(msgSb.toString().contains("MEMBER (" + (DfXlsDataHandlerImpl.BATCH_ROW_SIZE + 1) + ")"));
+    }
+
+    public void test_XlsStreamTableWriter_batchBoundary_justBatchSize() {
+        // ## Arrange ##
+        initializeBasicProperty();
+        MockBatchJdbc jdbc = new MockBatchJdbc(0);
+        StringBuilder msgSb = new StringBuilder();
+        DfXlsDataHandlerImpl.XlsStreamTableWriter writer = createStreamTableWriter(jdbc, msgSb);
+        DfDataTable table = createDataTable();
+
+        // ## Act ##
+        writeRows(writer, table, DfXlsDataHandlerImpl.BATCH_ROW_SIZE);
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(DfXlsDataHandlerImpl.BATCH_ROW_SIZE), jdbc._executedBatchSizeList);
+        assertEquals(1, jdbc._commitCount);
+        assertTrue(msgSb.toString().contains("MEMBER (" + DfXlsDataHandlerImpl.BATCH_ROW_SIZE + ")"));
+    }
+
+    public void test_XlsStreamTableWriter_batchRetry_currentBatchOnly() {
+        // ## Arrange ##
+        initializeBasicProperty();
+        int batchRowSize = DfXlsDataHandlerImpl.BATCH_ROW_SIZE;
+        int failureId = batchRowSize + 3;
+        MockBatchJdbc jdbc = new MockBatchJdbc(failureId);
+        StringBuilder msgSb = new StringBuilder();
+        DfXlsDataHandlerImpl.XlsStreamTableWriter writer = createStreamTableWriter(jdbc, msgSb);
+        DfDataTable table = createDataTable();
+
+        // ## Act ##
+        try {
+            writeRows(writer, table, batchRowSize + 5);
+            // ## Assert ##
+            fail();
+        } catch (DfXlsDataRegistrationFailureException e) {
+            log(e.getMessage());
+            assertTrue(e.getCause() instanceof BatchUpdateException);
+            assertTrue(e.getMessage().contains("Non-Batch Retry"));
+            assertTrue(e.getMessage().contains("failed row: " + failureId));
+        }
+        assertEquals(Arrays.asList(batchRowSize), jdbc._executedBatchSizeList); // first batch executed
+        assertEquals(0, jdbc._commitCount); // so the first batch is also rolled back
+        assertTrue(jdbc._rollbackCount > 0);
+        // rows of the first batch are not retried because they have been already rolled back
+        assertEquals(Arrays.<Object> asList(batchRowSize + 1, batchRowSize + 2, failureId), jdbc._retriedIdList);
+        assertEquals("", msgSb.toString()); // no loaded count
+    }
+
+    protected void writeRows(DfXlsDataHandlerImpl.XlsStreamTableWriter writer, DfDataTable table, int rowCount) {
+        writer.handleTable(table);
+        try {
+            for (int i = 1; i <= rowCount; i++) {
+                DfDataRow row = new DfDataRow(table, i);
+                row.addValue("ID", i);
+                row.addValue("NAME", "name" + i);
+                writer.handleRow(table, row);
+            }
+            writer.handleTableEnd(table);
+        } finally {
+            writer.closeUnfinishedTable();
+        }
+    }
+
+    protected DfXlsDataHandlerImpl.XlsStreamTableWriter createStreamTableWriter(MockBatchJdbc jdbc,
+            StringBuilder msgSb) {
+        final DfXlsDataHandlerImpl handler = new DfXlsDataHandlerImpl(jdbc.createDataSource(), null) {
+            @Override
+            protected Map<String, DfColumnMeta> getColumnMetaMap(String tableDbName) {
+                Map<String, DfColumnMeta> columnMetaMap = StringKeyMap.createAsFlexibleOrdered();
+                columnMetaMap.put("ID", new DfColumnMeta());
+                columnMetaMap.put("NAME", new DfColumnMeta());
+                return columnMetaMap;
+            }
+
+            @Override
+            protected void filterValidColumn(DfDataTable table) {
+            }
+
+            @Override
+            protected List<String> setupDefaultValueColumn(String dataDirectory, DfDataTable table) {
+                return new ArrayList<String>();
+            }
+
+            @Override
+            protected void checkHeaderColumnIfNeeds(DfXlsDataResource resource, File file, DfDataTable dataTable,
+                    Map<String, DfColumnMeta> columnMetaMap) {
+            }
+
+            @Override
+            protected LoggingInsertType getLoggingInsertType(String dataDirectory) {
+                return LoggingInsertType.NONE;
+            }
+
+            @Override
+            protected boolean isMergedSuppressBatchUpdate(String dataDirectory) {
+                return false;
+            }
+
+            @Override
+            protected boolean doWriteDataRow(DfXlsDataResource resource, File file, DfDataTable dataTable,
+                    DfDataRow dataRow, Map<String, DfColumnMeta> columnMetaMap, Connection conn,
+                    PreparedStatement ps, LoggingInsertType loggingInsertType, boolean suppressBatchUpdate)
+                    throws SQLException {
+                ps.setObject(1, dataRow.getValue("ID"));
+                if (suppressBatchUpdate) {
+                    ps.execute();
+                } else {
+                    ps.addBatch();
+                }
+                return true;
+            }
+        };
+        DfXlsDataResource resource = new DfXlsDataResource();
+        resource.setDataDirectory("./playsql/data/ut/xls");
+        return handler.createStreamTableWriter(resource, new File("./mock-data.xls"), msgSb);
+    }
+
+    protected DfDataTable createDataTable() {
+        DfDataTable table = new DfDataTable("MEMBER");
+        table.addColumn("ID");
+        table.addColumn("NAME");
+        return table;
+    }
+
+    protected void initializeBasicProperty() {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = h2}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+    }
+
+    protected static class MockBatchJdbc {
+
+        protected final int _failureId; // zero means no failure
+        protected final List<Integer> _executedBatchSizeList = new ArrayList<Integer>();
+        protected final List<Object> _retriedIdList = new ArrayList<Object>();
+        protected final List<Object> _currentBatchList = new ArrayList<Object>();
+        protected Object _boundId;
+        protected int _commitCount;
+        protected int _rollbackCount;
+
+        public MockBatchJdbc(int failureId) {
+            _failureId = failureId;
+        }
+
+        public DataSource createDataSource() {
+            return newProxy(DataSource.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getConnection")) {
+                        return createConnection();
+                    }
+                    throw new IllegalStateException("Unexpected call: " + method);
+                }
+            });
+        }
+
+        protected Connection createConnection() {
+            return newProxy(Connection.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if (name.equals("prepareStatement")) {
+                        return createPreparedStatement();
+                    } else if (name.equals("commit")) {
+                        ++_commitCount;
+                        return null;
+                    } else if (name.equals("rollback")) {
+                        ++_rollbackCount;
+                        _currentBatchList.clear();
+                        return null;
+                    } else if (name.equals("setAutoCommit") || name.equals("close")) {
+                        return null;
+                    }
+                    throw new IllegalStateException("Unexpected call: " + method);
+                }
+            });
+        }
+
+        protected PreparedStatement createPreparedStatement() {
+            return newProxy(PreparedStatement.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if (name.equals("setObject")) {
+                        _boundId = args[1];
+                        return null;
+                    } else if (name.equals("addBatch")) {
+                        _currentBatchList.add(_boundId);
+                        return null;
+                    } else if (name.equals("executeBatch")) {
+                        if (_currentBatchList.contains(_failureId)) {
+                            throw new BatchUpdateException("failed batch", new int[0]);
+                        }
+                        _executedBatchSizeList.add(_currentBatchList.size());
+                        return new int[_currentBatchList.size()];
+                    } else if (name.equals("clearBatch")) {
+                        _currentBatchList.clear();
+                        return null;
+                    } else if (name.equals("execute")) { // non-batch retry
+                        _retriedIdList.add(_boundId);
+                        if (_boundId.equals(_failureId)) {
+                            throw new SQLException("failed row: " + _boundId);
+                        }
+                        return false;
+                    } else if (name.equals("close")) {
+                        return null;
+                    }
+                    throw new IllegalStateException("Unexpected call: " + method);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        protected static <PROXY> PROXY newProxy(Class<PROXY> type, InvocationHandler handler) {
+            return (PROXY) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+    }
+
     protected DfXlsDataHandlerImpl createHandler() {
         return new DfXlsDataHandlerImpl(null, null);
     }
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.sql2entity.analyzer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfOutsideSqlAnalyzerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                      Zero-row Guard
+    //                                                                      ==============
+    public void test_buildZeroRowGuardSql_orderBy() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", false);
+        String sql = "select MEMBER_ID, MEMBER_NAME from MEMBER order by MEMBER_ID desc";
+
+        // ## Act ##
+        String guardSql = analyzer.buildZeroRowGuardSql(sql);
+
+        // ## Assert ##
+        log(guardSql);
+        assertEquals("select * from (\n" + sql + "\n) dfzero where 1 = 0", guardSql);
+    }
+
+    public void test_buildZeroRowGuardSql_union() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("postgresql", false);
+        String sql = "select MEMBER_ID from MEMBER\n union all\n select MEMBER_ID from WITHDRAWAL";
+
+        // ## Act ##
+        String guardSql = analyzer.buildZeroRowGuardSql(sql);
+
+        // ## Assert ##
+        log(guardSql);
+        assertEquals("select * from (\n" + sql + "\n) dfzero where 1 = 0", guardSql); // whole union
+    }
+
+    public void test_buildZeroRowGuardSql_trailingComment() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("mysql", false);
+        String sql = "/* leading */\nselect MEMBER_ID from MEMBER -- trailing";
+
+        // ## Act ##
+        String guardSql = analyzer.buildZeroRowGuardSql(sql);
+
+        // ## Assert ##
+        log(guardSql);
+        assertTrue(guardSql.contains("-- trailing\n) dfzero where 1 = 0")); // not commented out
+    }
+
+    public void test_buildZeroRowGuardSql_topZero() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("sqlserver", false);
+        String sql = "select MEMBER_ID from MEMBER";
+
+        // ## Act ##
+        String guardSql = analyzer.buildZeroRowGuardSql(sql);
+
+        // ## Assert ##
+        assertEquals("select top 0 * from (\n" + sql + "\n) dfzero", guardSql);
+    }
+
+    public void test_buildZeroRowGuardSql_notSelect() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", false);
+
+        // ## Act & Assert ##
+        assertNull(analyzer.buildZeroRowGuardSql("with dfwith as (select 1 from dual) select * from dfwith"));
+        assertNull(analyzer.buildZeroRowGuardSql("-- select\n{call SP_FOO()}"));
+    }
+
+    // ===================================================================================
+    //                                                                        Without Data
+    //                                                                        ============
+    public void test_extractColumnMetaMapWithoutData_prepared() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", true);
+        MockConnectionHandler handler = new MockConnectionHandler(true);
+        analyzer.mockConnection(handler.createConnection());
+        String sql = "select MEMBER_ID from MEMBER";
+
+        // ## Act ##
+        Map<String, DfColumnMeta> columnMetaMap = analyzer.extractColumnMetaMapWithoutData(sql, sql);
+
+        // ## Assert ##
+        assertNotNull(columnMetaMap);
+        assertEquals(Types.INTEGER, columnMetaMap.get("MEMBER_ID").getJdbcDefValue());
+        assertEquals(newArrayList(sql), handler._preparedSqlList);
+        assertEquals(1, handler._releaseCount);
+    }
+
+    public void test_extractColumnMetaMapWithoutData_guarded() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", true);
+        MockConnectionHandler handler = new MockConnectionHandler(false, true); // only guard SQL has meta data
+        analyzer.mockConnection(handler.createConnection());
+        String sql = "select MEMBER_ID from MEMBER";
+
+        // ## Act ##
+        Map<String, DfColumnMeta> columnMetaMap = analyzer.extractColumnMetaMapWithoutData(sql, sql);
+
+        // ## Assert ##
+        assertNotNull(columnMetaMap);
+        assertEquals(2, handler._preparedSqlList.size());
+        assertTrue(handler._preparedSqlList.get(1).endsWith(") dfzero where 1 = 0"));
+    }
+
+    public void test_extractColumnMetaMapWithoutData_fallbackToExecution() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", true);
+        MockConnectionHandler handler = new MockConnectionHandler(false, false); // the driver returns no meta data
+        analyzer.mockConnection(handler.createConnection());
+        String sql = "select MEMBER_ID from MEMBER";
+
+        // ## Act ##
+        Map<String, DfColumnMeta> columnMetaMap = analyzer.extractColumnMetaMapWithoutData(sql, sql);
+
+        // ## Assert ##
+        assertNull(columnMetaMap); // means the SQL is executed
+        assertEquals(2, handler._preparedSqlList.size()); // prepared and guarded
+    }
+
+    public void test_extractColumnMetaMapWithoutData_failure_rollbackSavepoint() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("postgresql", true);
+        MockConnectionHandler handler = new MockConnectionHandler(false, false);
+        handler._failure = true;
+        analyzer.mockConnection(handler.createConnection());
+        String sql = "select MEMBER_ID from MEMBER";
+
+        // ## Act ##
+        Map<String, DfColumnMeta> columnMetaMap = analyzer.extractColumnMetaMapWithoutData(sql, sql);
+
+        // ## Assert ##
+        assertNull(columnMetaMap);
+        assertEquals(2, handler._rollbackCount); // not to abort the transaction
+    }
+
+    public void test_extractColumnMetaMapWithoutData_notMetaDataFirst() {
+        // ## Arrange ##
+        MockOutsideSqlAnalyzer analyzer = createAnalyzer("oracle", false);
+        MockConnectionHandler handler = new MockConnectionHandler(true);
+        analyzer.mockConnection(handler.createConnection());
+
+        // ## Act ##
+        String sql = "select MEMBER_ID from MEMBER";
+        assertNull(analyzer.extractColumnMetaMapWithoutData(sql, sql));
+
+        // ## Assert ##
+        assertTrue(handler._preparedSqlList.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected MockOutsideSqlAnalyzer createAnalyzer(String database, boolean metaDataFirst) {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = " + database + "}");
+        prop.setProperty("torque.outsideSqlDefinitionMap", "map:{isSql2EntityMetaDataFirst = " + metaDataFirst + "}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+        return new MockOutsideSqlAnalyzer();
+    }
+
+    protected static class MockOutsideSqlAnalyzer extends DfOutsideSqlAnalyzer {
+
+        public MockOutsideSqlAnalyzer() {
+            super(null, null, null, null, null);
+        }
+
+        public void mockConnection(Connection connection) {
+            _currentConnection = connection;
+        }
+    }
+
+    protected static class MockConnectionHandler implements InvocationHandler {
+
+        protected final boolean[] _metaDataExistsArray; // per prepared SQL
+        protected final List<String> _preparedSqlList = new ArrayList<String>();
+        protected boolean _failure;
+        protected int _releaseCount;
+        protected int _rollbackCount;
+
+        public MockConnectionHandler(boolean... metaDataExistsArray) {
+            _metaDataExistsArray = metaDataExistsArray;
+        }
+
+        public Connection createConnection() {
+            return newProxy(Connection.class, this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.equals("getAutoCommit")) {
+                return false;
+            } else if (name.equals("setSavepoint")) {
+                return newProxy(Savepoint.class, null);
+            } else if (name.equals("releaseSavepoint")) {
+                ++_releaseCount;
+                return null;
+            } else if (name.equals("rollback")) {
+                ++_rollbackCount;
+                return null;
+            } else if (name.equals("prepareStatement")) {
+                final boolean exists = _metaDataExistsArray[_preparedSqlList.size()];
+                _preparedSqlList.add((String) args[0]);
+                return createPreparedStatement(exists);
+            }
+            throw new IllegalStateException("Unexpected call: " + method);
+        }
+
+        protected PreparedStatement createPreparedStatement(final boolean exists) {
+            return newProxy(PreparedStatement.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if (name.equals("getMetaData")) {
+                        if (_failure) {
+                            throw new SQLException("Cannot describe the SQL");
+                        }
+                        return exists ? createResultSetMetaData() : null;
+                    } else if (name.equals("close")) {
+                        return null;
+                    }
+                    throw new IllegalStateException("Unexpected call: " + method);
+                }
+            });
+        }
+
+        protected ResultSetMetaData createResultSetMetaData() {
+            return newProxy(ResultSetMetaData.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    final String name = method.getName();
+                    if (name.equals("getColumnCount")) {
+                        return 1;
+                    } else if (name.equals("getTableName")) {
+                        return "MEMBER";
+                    } else if (name.equals("getColumnLabel") || name.equals("getColumnName")) {
+                        return "MEMBER_ID";
+                    } else if (name.equals("getColumnType")) {
+                        return Types.INTEGER;
+                    } else if (name.equals("getColumnTypeName")) {
+                        return "INTEGER";
+                    } else if (name.equals("getPrecision") || name.equals("getColumnDisplaySize")) {
+                        return 10;
+                    } else if (name.equals("getScale")) {
+                        return 0;
+                    }
+                    throw new IllegalStateException("Unexpected call: " + method);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        protected static <PROXY> PROXY newProxy(Class<PROXY> type, InvocationHandler handler) {
+            final InvocationHandler actual = handler != null ? handler : new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    return null;
+                }
+            };
+            return (PROXY) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, actual);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2004-2014 the Seasar Foundation and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.seasar.dbflute.logic.sql2entity.analyzer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.seasar.dbflute.DfBuildProperties;
+import org.seasar.dbflute.helper.mapstring.MapListFile;
+import org.seasar.dbflute.logic.jdbc.metadata.info.DfColumnMeta;
+import org.seasar.dbflute.logic.sql2entity.analyzer.DfOutsideSqlAnalyzerTest.MockConnectionHandler;
+import org.seasar.dbflute.unit.core.PlainTestCase;
+
+/**
+ * @author jflute
+ * @since 1.0.5K (2014/07/21 Monday)
+ */
+public class DfSql2EntityColumnMetaCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Round Trip
+    //                                                                          ==========
+    public void test_save_load_roundTrip() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        String sql = "select MEMBER_ID, MEMBER_NAME from MEMBER";
+        DfSql2EntityColumnMetaCache savedCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        Map<String, DfColumnMeta> columnMetaMap = newLinkedHashMap();
+        columnMetaMap.put("MEMBER_ID", createColumnMeta("MEMBER_ID", "MEMBER", Types.INTEGER, "INTEGER", 10, 0));
+        columnMetaMap.put("MEMBER_NAME", createColumnMeta("MEMBER_NAME", null, Types.VARCHAR, "VARCHAR", 200, 0));
+        savedCache.register(sql, columnMetaMap);
+        savedCache.save(true);
+
+        // ## Act ##
+        DfSql2EntityColumnMetaCache loadedCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        loadedCache.load();
+        Map<String, DfColumnMeta> foundMap = loadedCache.find(sql);
+
+        // ## Assert ##
+        assertNotNull(foundMap);
+        assertEquals(Arrays.asList("MEMBER_ID", "MEMBER_NAME"), new ArrayList<String>(foundMap.keySet()));
+        DfColumnMeta memberId = foundMap.get("member_id"); // flexible
+        assertEquals("MEMBER", memberId.getSql2EntityRelatedTableName());
+        assertEquals("MEMBER_ID", memberId.getSql2EntityRelatedColumnName());
+        assertEquals(Types.INTEGER, memberId.getJdbcDefValue());
+        assertEquals("INTEGER", memberId.getDbTypeName());
+        assertEquals(10, memberId.getColumnSize());
+        assertEquals(0, memberId.getDecimalDigits());
+        DfColumnMeta memberName = foundMap.get("MEMBER_NAME");
+        assertNull(memberName.getSql2EntityRelatedTableName());
+        assertEquals(Types.VARCHAR, memberName.getJdbcDefValue());
+        assertEquals(200, memberName.getColumnSize());
+        assertEquals(1, loadedCache.getHitCount());
+        assertNull(loadedCache.find(sql + " where MEMBER_ID = 1")); // different SQL
+    }
+
+    public void test_save_removeUnused() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        DfSql2EntityColumnMetaCache firstCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        firstCache.register("select used", createSingleMap("USED"));
+        firstCache.register("select unused", createSingleMap("UNUSED"));
+        firstCache.save(true);
+
+        // ## Act ##
+        DfSql2EntityColumnMetaCache partialCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        partialCache.load();
+        partialCache.find("select used");
+        partialCache.save(false); // e.g. partial analysis
+        DfSql2EntityColumnMetaCache fullCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        fullCache.load();
+        fullCache.find("select used");
+        fullCache.save(true);
+
+        // ## Assert ##
+        DfSql2EntityColumnMetaCache resultCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        resultCache.load();
+        assertTrue(resultCache.contains("select used"));
+        assertFalse(resultCache.contains("select unused")); // removed by full analysis
+    }
+
+    // ===================================================================================
+    //                                                                        Invalidation
+    //                                                                        ============
+    public void test_load_schemaVersionChanged() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        DfSql2EntityColumnMetaCache savedCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        savedCache.register("select foo", createSingleMap("FOO"));
+        savedCache.save(true);
+
+        // ## Act ##
+        DfSql2EntityColumnMetaCache loadedCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v2");
+        loadedCache.load();
+
+        // ## Assert ##
+        assertFalse(loadedCache.contains("select foo"));
+        assertNull(loadedCache.find("select foo"));
+        loadedCache.save(false); // saved as new version without old meta
+        DfSql2EntityColumnMetaCache oldVersionCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        oldVersionCache.load();
+        assertFalse(oldVersionCache.contains("select foo"));
+    }
+
+    public void test_load_brokenFile() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        FileOutputStream out = new FileOutputStream(cacheFilePath);
+        try {
+            out.write("map:{ schemaVersion = v1 ; columnMetaMap = map:{ broken".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        DfSql2EntityColumnMetaCache cache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+
+        // ## Act ##
+        cache.load(); // no exception
+
+        // ## Assert ##
+        assertNull(cache.find("select foo"));
+    }
+
+    public void test_find_brokenEntry() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        Map<String, String> meta = new LinkedHashMap<String, String>();
+        meta.put("columnName", "FOO");
+        meta.put("jdbcType", "broken"); // e.g. edited by hand
+        meta.put("columnSize", "10");
+        meta.put("decimalDigits", "0");
+        Map<String, Object> columnMetaMap = new LinkedHashMap<String, Object>();
+        columnMetaMap.put(DfSql2EntityColumnMetaCache.toHash("select foo"), Arrays.asList(meta));
+        Map<String, Object> cacheMap = new LinkedHashMap<String, Object>();
+        cacheMap.put("schemaVersion", "v1");
+        cacheMap.put("columnMetaMap", columnMetaMap);
+        new MapListFile().writeMap(new FileOutputStream(cacheFilePath), cacheMap);
+        DfSql2EntityColumnMetaCache cache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        cache.load();
+        assertTrue(cache.contains("select foo"));
+
+        // ## Act ##
+        Map<String, DfColumnMeta> foundMap = cache.find("select foo"); // no exception
+
+        // ## Assert ##
+        assertNull(foundMap); // treated as not cached
+        assertFalse(cache.contains("select foo"));
+        assertEquals(0, cache.getHitCount());
+        cache.register("select foo", createSingleMap("FOO")); // analyzed again
+        assertNotNull(cache.find("select foo"));
+    }
+
+    public void test_getHitCount_registeredNotHit() throws Exception {
+        // ## Arrange ##
+        String cacheFilePath = prepareCacheFilePath();
+        DfSql2EntityColumnMetaCache savedCache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        savedCache.register("select loaded", createSingleMap("LOADED"));
+        savedCache.save(true);
+        DfSql2EntityColumnMetaCache cache = new DfSql2EntityColumnMetaCache(cacheFilePath, "v1");
+        cache.load();
+        cache.register("select registered", createSingleMap("REGISTERED")); // e.g. prefetched
+
+        // ## Act ##
+        assertNotNull(cache.find("select registered"));
+        assertNotNull(cache.find("select loaded"));
+        assertNotNull(cache.find("select loaded"));
+
+        // ## Assert ##
+        assertEquals(2, cache.getHitCount()); // only loaded from the file
+    }
+
+    public void test_toHash_schemaVersion() {
+        // ## Arrange & Act ##
+        String first = DfSql2EntityColumnMetaCache.toHash("MEMBER(MEMBER_ID INTEGER)");
+        String second = DfSql2EntityColumnMetaCache.toHash("MEMBER(MEMBER_ID BIGINT)");
+
+        // ## Assert ##
+        assertEquals(40, first.length()); // SHA-1
+        assertEquals(first, DfSql2EntityColumnMetaCache.toHash("MEMBER(MEMBER_ID INTEGER)"));
+        assertFalse(first.equals(second));
+    }
+
+    // ===================================================================================
+    //                                                                   Parallel Prefetch
+    //                                                                   =================
+    public void test_prefetch_parallel_usedByAnalyzer() throws Exception {
+        // ## Arrange ##
+        initializeMetaDataFirstProperty();
+        final DfSql2EntityColumnMetaCache cache = new DfSql2EntityColumnMetaCache(null, "v1");
+        final List<String> sqlList = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            sqlList.add("-- #SimpleMember" + i + "#\nselect MEMBER_ID from MEMBER where MEMBER_ID = " + i);
+        }
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futureList = new ArrayList<Future<Integer>>();
+
+        // ## Act ##
+        try {
+            for (int i = 0; i < 4; i++) {
+                final List<String> partList = sqlList.subList(i * 5, i * 5 + 5);
+                futureList.add(service.submit(new Callable<Integer>() {
+                    public Integer call() throws Exception {
+                        MockPrefetcher prefetcher = new MockPrefetcher(cache, partList.size());
+                        for (String sql : partList) {
+                            prefetcher.execSQL(sql);
+                        }
+                        return prefetcher.getGoodSqlCount();
+                    }
+                }));
+            }
+            int goodSqlCount = 0;
+            for (Future<Integer> future : futureList) {
+                goodSqlCount = goodSqlCount + future.get();
+            }
+
+            // ## Assert ##
+            assertEquals(20, goodSqlCount);
+        } finally {
+            service.shutdown();
+        }
+        MockConnectionHandler handler = new MockConnectionHandler(); // no prepared statement expected
+        MockCachedAnalyzer analyzer = new MockCachedAnalyzer(cache, handler.createConnection());
+        for (String sql : sqlList) {
+            Map<String, DfColumnMeta> columnMetaMap = analyzer.findCachedColumnMetaMap(sql, sql);
+            assertNotNull(columnMetaMap);
+            assertEquals(Types.INTEGER, columnMetaMap.get("MEMBER_ID").getJdbcDefValue());
+        }
+        assertTrue(handler._preparedSqlList.isEmpty());
+        assertEquals(0, cache.getHitCount()); // prefetched at this time is not hit
+    }
+
+    protected static class MockPrefetcher extends DfOutsideSqlColumnMetaPrefetcher {
+
+        public MockPrefetcher(DfSql2EntityColumnMetaCache cache, int sqlCount) {
+            super(null, null, null, null, cache);
+            final boolean[] existsArray = new boolean[sqlCount];
+            Arrays.fill(existsArray, true);
+            _currentConnection = new MockConnectionHandler(existsArray).createConnection();
+            _currentStatement = MockConnectionHandler.newProxy(Statement.class, null);
+        }
+
+        public int getGoodSqlCount() {
+            return _goodSqlCount;
+        }
+    }
+
+    protected static class MockCachedAnalyzer extends DfOutsideSqlAnalyzer {
+
+        public MockCachedAnalyzer(DfSql2EntityColumnMetaCache cache, Connection connection) {
+            super(null, null, new DfSql2EntityMeta(), null, null);
+            setColumnMetaCache(cache);
+            _currentConnection = connection;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Assist Helper
+    //                                                                       =============
+    protected String prepareCacheFilePath() throws IOException {
+        File cacheFile = File.createTempFile("sql2entity-cache", ".dfmap");
+        cacheFile.deleteOnExit();
+        return cacheFile.getPath();
+    }
+
+    protected DfColumnMeta createColumnMeta(String columnName, String tableName, int jdbcType, String dbTypeName,
+            int columnSize, int decimalDigits) {
+        DfColumnMeta columnMeta = new DfColumnMeta();
+        columnMeta.setColumnName(columnName);
+        columnMeta.setSql2EntityRelatedTableName(tableName);
+        columnMeta.setSql2EntityRelatedColumnName(columnName);
+        columnMeta.setJdbcDefValue(jdbcType);
+        columnMeta.setDbTypeName(dbTypeName);
+        columnMeta.setColumnSize(columnSize);
+        columnMeta.setDecimalDigits(decimalDigits);
+        return columnMeta;
+    }
+
+    protected Map<String, DfColumnMeta> createSingleMap(String columnName) {
+        Map<String, DfColumnMeta> columnMetaMap = newLinkedHashMap();
+        columnMetaMap.put(columnName, createColumnMeta(columnName, "FOO", Types.VARCHAR, "VARCHAR", 10, 0));
+        return columnMetaMap;
+    }
+
+    protected void initializeMetaDataFirstProperty() {
+        Properties prop = new Properties();
+        prop.setProperty("torque.basicInfoMap", "map:{database = h2}");
+        prop.setProperty("torque.outsideSqlDefinitionMap", "map:{isSql2EntityMetaDataFirst = true}");
+        DfBuildProperties.getInstance().setProperties(prop);
+        DfBuildProperties.getInstance().getHandler().reload();
+    }
+}